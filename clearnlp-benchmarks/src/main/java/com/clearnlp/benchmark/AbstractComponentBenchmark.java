@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.clearnlp.component.AbstractComponent;
+import com.clearnlp.dependency.DEPNode;
+import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.nlp.NLPGetter;
+import com.clearnlp.reader.AbstractReader;
+import com.clearnlp.tokenization.AbstractTokenizer;
+
+/**
+ * Abstract benchmark for statistical components.
+ * Input trees are preprocessed by the components a benchmarked component depends on,
+ * and copied before each call to {@link AbstractComponent#process(DEPTree)} so that every operation starts from the same input.
+ * Each operation is one sentence.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+abstract public class AbstractComponentBenchmark
+{
+	/** The model type on the classpath (e.g., {@code general-en}). */
+	@Param({"general-en"})
+	public String modelType;
+	
+	/** The preprocessed input trees. */
+	protected List<DEPTree> l_trees;
+	/** The total number of tokens in {@link #l_trees}. */
+	protected int n_tokens;
+	
+	/** @return the component loaded from {@link #modelType}. */
+	protected AbstractComponent getComponent(String mode) throws IOException
+	{
+		return NLPGetter.getComponent(modelType, AbstractReader.LANG_EN, mode);
+	}
+	
+	/** Initializes {@link #l_trees} by processing synthetic sentences with the specific components. */
+	protected void initTrees(AbstractComponent... components)
+	{
+		AbstractTokenizer tokenizer = NLPGetter.getTokenizer(AbstractReader.LANG_EN);
+		DEPTree tree;
+		
+		l_trees  = new ArrayList<DEPTree>(SyntheticCorpus.SENTENCES);
+		n_tokens = 0;
+		
+		for (String sentence : SyntheticCorpus.getSentences(SyntheticCorpus.SENTENCES, SyntheticCorpus.SEED))
+		{
+			tree = NLPGetter.toDEPTree(tokenizer.getTokens(sentence));
+			
+			for (AbstractComponent component : components)
+				component.process(tree);
+			
+			l_trees.add(tree);
+			n_tokens += tree.size() - 1;
+		}
+	}
+	
+	/** Processes a copy of every tree in {@link #l_trees} with the specific component. */
+	protected void process(AbstractComponent component, TokenCounter counter)
+	{
+		for (DEPTree tree : l_trees)
+			component.process(copy(tree));
+		
+		counter.tokens += n_tokens;
+	}
+	
+	/** @return a copy of the specific tree including heads and extra features. */
+	static protected DEPTree copy(DEPTree tree)
+	{
+		DEPTree copy = new DEPTree();
+		int i, size = tree.size();
+		
+		for (i=1; i<size; i++)
+			copy.add(new DEPNode(tree.get(i)));
+		
+		copy.resetHeads(tree.getHeads());
+		return copy;
+	}
+}
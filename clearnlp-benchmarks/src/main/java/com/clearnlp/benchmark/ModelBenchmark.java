@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.clearnlp.classification.model.MappedStringModel;
+import com.clearnlp.classification.model.StringModel;
+import com.clearnlp.classification.vector.SparseFeatureVector;
+
+/**
+ * Benchmarks {@link StringModel#getScores(SparseFeatureVector, double[])} and model loading.
+ * Loading a component from the classpath is benchmarked by {@link POSTaggerBenchmark#load()}.
+ * Scoring and loading use a synthetic model with random weights.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ModelBenchmark
+{
+	/** The number of feature vectors scored by each invocation. */
+	static public final int VECTORS = 256;
+	
+	/** The number of labels in the synthetic model. */
+	@Param({"2", "50"})
+	public int labels;
+	
+	/** The number of features in the synthetic model. */
+	@Param({"100000"})
+	public int features;
+	
+	/** The number of features in each feature vector. */
+	@Param({"40"})
+	public int density;
+	
+	private StringModel           s_model;
+	private SparseFeatureVector[] s_vectors;
+	private double[]              d_scores;
+	private byte[]                b_model;
+	private File                  f_mapped;
+	
+	@Setup
+	public void setup() throws IOException
+	{
+		Random rand = new Random(SyntheticCorpus.SEED);
+		s_model   = getModel(rand);
+		s_vectors = new SparseFeatureVector[VECTORS];
+		d_scores  = new double[labels];
+		int i, j;
+		
+		for (i=0; i<VECTORS; i++)
+		{
+			s_vectors[i] = new SparseFeatureVector();
+			
+			for (j=0; j<density; j++)
+				s_vectors[i].addFeature(1 + rand.nextInt(features));
+		}
+		
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bout);
+		out.writeObject(s_model);
+		out.close();
+		b_model = bout.toByteArray();
+		
+		f_mapped = File.createTempFile("clearnlp-benchmark", "."+MappedStringModel.EXT);
+		MappedStringModel.write(s_model, f_mapped);
+	}
+	
+	@TearDown
+	public void tearDown()
+	{
+		f_mapped.delete();
+	}
+	
+	/** @return a model with the specific numbers of labels and features, whose weights are random. */
+	private StringModel getModel(Random rand)
+	{
+		StringModel model = new StringModel();
+		float[] weights;
+		int i;
+		
+		for (i=0; i<labels; i++)
+			model.addLabel("L"+i);
+		
+		model.initLabelArray();
+		
+		for (i=1; i<features; i++)
+			model.addFeature("t"+(i%10), Integer.toString(i));
+		
+		model.initWeightVector();
+		weights = model.getWeights();
+		
+		for (i=0; i<weights.length; i++)
+			weights[i] = (float)rand.nextGaussian();
+		
+		return model;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(VECTORS)
+	public double[] getScores()
+	{
+		for (SparseFeatureVector x : s_vectors)
+			s_model.getScores(x, d_scores);
+		
+		return d_scores;
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object loadSerializedModel() throws Exception
+	{
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(b_model));
+		Object model = in.readObject();
+		in.close();
+		return model;
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public StringModel loadMappedModel() throws IOException
+	{
+		return MappedStringModel.map(f_mapped);
+	}
+}
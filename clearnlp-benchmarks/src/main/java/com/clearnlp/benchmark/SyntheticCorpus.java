@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic English text for benchmarks.
+ * The same seed always generates the same text so that results are comparable across runs.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class SyntheticCorpus
+{
+	/** The number of sentences processed by each benchmark invocation. */
+	static public final int  SENTENCES = 256;
+	/** The default random seed. */
+	static public final long SEED = 7;
+	
+	static private final String[] SUBJECTS   = {"The company", "A young researcher", "Dr. Smith", "The committee", "Our team", "She", "They", "The U.S. government", "Mr. Brown's lawyer", "Every student"};
+	static private final String[] VERBS      = {"announced", "didn't expect", "has reviewed", "will present", "bought", "couldn't find", "is testing", "sent", "reported", "wants to meet"};
+	static private final String[] OBJECTS    = {"a new plan", "the final results", "three old cars", "an e-mail", "the quarterly report", "its first product", "a 12-page proposal", "the data set", "$3.5 million", "her advisor"};
+	static private final String[] ADJUNCTS   = {"on Monday", "in New York", "after the meeting", "for the first time", "at 10:30 a.m.", "without any delay", "during the 2013 season", "with great care", "(as expected)", "via http://clearnlp.com"};
+	static private final String[] CLAUSES    = {"because the market was slow", "although nobody asked", "when the deadline passed", "so that everyone could read it", "which surprised many people"};
+	static private final String[] PUNCTUATIONS = {".", ".", ".", "!", "?"};
+	
+	private SyntheticCorpus() {}
+	
+	/** @return the list of synthetic sentences generated by the specific seed. */
+	static public List<String> getSentences(int size, long seed)
+	{
+		List<String> sentences = new ArrayList<String>(size);
+		Random rand = new Random(seed);
+		StringBuilder build;
+		int i;
+		
+		for (i=0; i<size; i++)
+		{
+			build = new StringBuilder();
+			
+			build.append(get(rand, SUBJECTS));
+			build.append(" ");
+			build.append(get(rand, VERBS));
+			build.append(" ");
+			build.append(get(rand, OBJECTS));
+			
+			if (rand.nextBoolean())
+			{
+				build.append(" ");
+				build.append(get(rand, ADJUNCTS));
+			}
+			
+			if (rand.nextInt(3) == 0)
+			{
+				build.append(", ");
+				build.append(get(rand, CLAUSES));
+			}
+			
+			build.append(get(rand, PUNCTUATIONS));
+			sentences.add(build.toString());
+		}
+		
+		return sentences;
+	}
+	
+	/** @return a document containing the specific sentences, where every few sentences are put on the same line. */
+	static public String getDocument(List<String> sentences)
+	{
+		StringBuilder build = new StringBuilder();
+		int i, size = sentences.size();
+		
+		for (i=0; i<size; i++)
+		{
+			build.append(sentences.get(i));
+			build.append((i % 4 == 3) ? "\n" : " ");
+		}
+		
+		return build.toString();
+	}
+	
+	static private String get(Random rand, String[] array)
+	{
+		return array[rand.nextInt(array.length)];
+	}
+}
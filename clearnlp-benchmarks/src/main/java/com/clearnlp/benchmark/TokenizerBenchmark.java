@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.benchmark;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.clearnlp.nlp.NLPGetter;
+import com.clearnlp.reader.AbstractReader;
+import com.clearnlp.segmentation.AbstractSegmenter;
+import com.clearnlp.tokenization.AbstractTokenizer;
+import com.clearnlp.tokenization.EnglishTokenizer;
+
+/**
+ * Benchmarks {@link AbstractTokenizer#getTokenList(String)} and {@link AbstractSegmenter#getSentences(BufferedReader)}.
+ * Each operation is one sentence; {@code reference=true} runs {@link EnglishTokenizer#setReferenceMode(boolean)}.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenizerBenchmark
+{
+	@Param({"false", "true"})
+	public boolean reference;
+	
+	private AbstractTokenizer t_tokenizer;
+	private AbstractSegmenter s_segmenter;
+	private List<String>      l_sentences;
+	private String            s_document;
+	private int               n_tokens;
+	
+	@Setup
+	public void setup()
+	{
+		t_tokenizer = NLPGetter.getTokenizer(AbstractReader.LANG_EN);
+		((EnglishTokenizer)t_tokenizer).setReferenceMode(reference);
+		s_segmenter = NLPGetter.getSegmenter(AbstractReader.LANG_EN, t_tokenizer);
+		l_sentences = SyntheticCorpus.getSentences(SyntheticCorpus.SENTENCES, SyntheticCorpus.SEED);
+		s_document  = SyntheticCorpus.getDocument(l_sentences);
+		n_tokens    = 0;
+		
+		for (String sentence : l_sentences)
+			n_tokens += t_tokenizer.getTokenList(sentence).size();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(SyntheticCorpus.SENTENCES)
+	public void getTokenList(TokenCounter counter, Blackhole bh)
+	{
+		for (String sentence : l_sentences)
+			bh.consume(t_tokenizer.getTokenList(sentence));
+		
+		counter.tokens += n_tokens;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(SyntheticCorpus.SENTENCES)
+	public List<List<String>> getSentences(TokenCounter counter)
+	{
+		counter.tokens += n_tokens;
+		return s_segmenter.getSentences(new BufferedReader(new StringReader(s_document)));
+	}
+}
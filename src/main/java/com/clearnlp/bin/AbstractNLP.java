@@ -49,6 +49,7 @@ import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 import com.carrotsearch.hppc.ObjectIntOpenHashMap;
+import com.clearnlp.classification.algorithm.AbstractAdaGrad;
 import com.clearnlp.classification.algorithm.AbstractAlgorithm;
 import com.clearnlp.classification.algorithm.AdaGradOnlineHingeLoss;
 import com.clearnlp.classification.algorithm.AdaGradOnlineLogisticRegression;
@@ -101,6 +102,7 @@ abstract public class AbstractNLP implements IFlag
 	// algorithm
 	final public String TAG_ALGORITHM	= "algorithm";
 	final public String TAG_NAME		= "name";
+	final public String TAG_THREADS		= "threads";
 	
 	final public String TAG_LANGUAGE	= "language";
 	final public String TAG_TWIT		= "twit";
@@ -237,14 +239,21 @@ abstract public class AbstractNLP implements IFlag
 			double  rho     = Double.parseDouble(UTXml.getTrimmedAttribute(eAlgorithm, "rho"));
 			boolean average = UTXml.getTrimmedAttribute(eAlgorithm, "average").equalsIgnoreCase("true");
 			
-			LOG.info(String.format("AdaGrad: type=%s, alpha=%5.2f, rho=%5.2f, average=%b\n", type, alpha, rho, average));
+			String  threads = UTXml.getTrimmedAttribute(eAlgorithm, TAG_THREADS);
+			int     nThreads = threads.isEmpty() ? 1 : Integer.parseInt(threads);
+			AbstractAdaGrad algorithm;
+			
+			LOG.info(String.format("AdaGrad: type=%s, alpha=%5.2f, rho=%5.2f, average=%b, threads=%d\n", type, alpha, rho, average, nThreads));
 			
 			switch (type)
 			{
-			case "hinge"     : return new AdaGradOnlineHingeLoss(alpha, rho, average);
-			case "regression": return new AdaGradOnlineLogisticRegression(alpha, rho, average);
+			case "hinge"     : algorithm = new AdaGradOnlineHingeLoss(alpha, rho, average); break;
+			case "regression": algorithm = new AdaGradOnlineLogisticRegression(alpha, rho, average); break;
 			default          : throw new IllegalArgumentException("Unknown solver type: "+type);
 			}
+			
+			algorithm.setThreads(nThreads);
+			return algorithm;
 		}
 		else if (name.equals("liblinear"))
 		{
@@ -40,7 +40,14 @@
  */
 package com.clearnlp.classification.algorithm;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.clearnlp.classification.instance.IntInstance;
 import com.clearnlp.classification.model.StringModelAD;
@@ -57,6 +64,8 @@ abstract public class AbstractAdaGrad extends AbstractAlgorithm
 	protected boolean  b_average;
 	protected double   d_alpha;
 	protected double   d_rho;
+	/** The number of threads used for training (default: 1). */
+	protected int      n_threads = 1;
 	
 	abstract protected boolean update(StringModelAD model, IntInstance instance, int averageCount);
 	
@@ -73,6 +82,23 @@ abstract public class AbstractAdaGrad extends AbstractAlgorithm
 		b_average = average;
 	}
 	
+	/**
+	 * Sets the number of threads used for training.
+	 * If the number is greater than 1, instances are distributed to threads that update the shared weights and gradients
+	 * without locking (Hogwild); otherwise, instances are trained serially in the shuffled order, which is deterministic.
+	 * @param threads the number of threads.
+	 */
+	public void setThreads(int threads)
+	{
+		n_threads = Math.max(1, threads);
+	}
+	
+	/** @return the number of threads used for training. */
+	public int getThreads()
+	{
+		return n_threads;
+	}
+	
 	@Override
 	public void train(StringModelAD model)
 	{	
@@ -92,13 +118,74 @@ abstract public class AbstractAdaGrad extends AbstractAlgorithm
 			if (b_average) Arrays.fill(d_average, 0d);
 		}
 		
-		int i; for (i=0; i<N; i++)
-			update(model, model.getInstance(model.getShuffledIndex(i)), i+1);
+		if (n_threads > 1 && N > n_threads)
+			trainParallel(model, N);
+		else
+		{
+			int i; for (i=0; i<N; i++)
+				update(model, model.getInstance(model.getShuffledIndex(i)), i+1);
+		}
 		
 		if (b_average) 
 			model.setAverageWeights(d_average, N+1);
 	}
 	
+	/**
+	 * Trains the shuffled instances using {@link #n_threads} threads.
+	 * The {@code t}'th thread takes the {@code t}'th, {@code (t+n)}'th, {@code (t+2n)}'th, ... instances so that
+	 * the average counts stay close to the ones from serial training.
+	 * Updates to {@link #d_gradients}, {@link #d_average}, and the model weights are not synchronized.
+	 */
+	private void trainParallel(StringModelAD model, int N)
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(n_threads);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(n_threads);
+		int t;
+		
+		for (t=0; t<n_threads; t++)
+			tasks.add(new TrainTask(model, t, N));
+		
+		try
+		{
+			for (Future<Void> future : executor.invokeAll(tasks))
+				future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		catch (ExecutionException e) {throw new IllegalStateException(e.getCause());}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+	/** Called by {@link AbstractAdaGrad#trainParallel(StringModelAD, int)}. */
+	private class TrainTask implements Callable<Void>
+	{
+		private StringModelAD m_model;
+		private int i_begin;
+		private int n_instances;
+		
+		public TrainTask(StringModelAD model, int begin, int instanceSize)
+		{
+			m_model     = model;
+			i_begin     = begin;
+			n_instances = instanceSize;
+		}
+		
+		@Override
+		public Void call()
+		{
+			int i; for (i=i_begin; i<n_instances; i+=n_threads)
+				update(m_model, m_model.getInstance(m_model.getShuffledIndex(i)), i+1);
+			
+			return null;
+		}
+	}
+	
 	protected void updateWeight(StringModelAD model, int y, int x, double v, int averageCount)
 	{
 		double cost = getCost(model, y, x) * v;
@@ -40,11 +40,9 @@
  */
 package com.clearnlp.classification.algorithm.old;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Random;
 
-import com.carrotsearch.hppc.IntArrayList;
 import com.clearnlp.classification.model.AbstractModel;
 import com.clearnlp.classification.train.AbstractTrainSpace;
 import com.clearnlp.util.UTArray;
@@ -81,10 +79,6 @@ abstract public class AbstractAdaGrad extends AbstractMulticlass
 		final int N  = space.getInstanceSize();
 		final int WS = D * L;
 		
-		IntArrayList        ys = space.getYs();
-		ArrayList<int[]>    xs = space.getXs();
-		ArrayList<double[]> vs = space.getVs();
-		
 		AbstractModel model = space.getModel();
 		double[] cWeights = new double[WS];
 		double[] aWeights = average ? new double[WS] : null;
@@ -107,9 +101,9 @@ abstract public class AbstractAdaGrad extends AbstractMulticlass
 			
 			for (j=0; j<N; j++)
 			{
-				yi = ys.get(indices[j]);
-				xi = xs.get(indices[j]);
-				if (space.hasWeight())	vi = vs.get(indices[j]);
+				yi = space.getY(indices[j]);
+				xi = space.getX(indices[j]);
+				vi = space.getV(indices[j]);
 				
 				if (average)
 				{
@@ -45,6 +45,7 @@ import java.util.List;
 import org.apache.log4j.Logger;
 
 import com.clearnlp.classification.prediction.StringPrediction;
+import com.clearnlp.classification.train.AbstractTrainSpace;
 import com.clearnlp.util.UTMath;
 
 /**
@@ -67,15 +68,15 @@ abstract public class AbstractAlgorithm
 	/** The flag to indicate adaptive gradient method using logistic regression. */
 	static public final byte SOLVER_ADAGRAD_LR = 4;
 
-	protected double[] getQD(List<int[]> xs, List<double[]> vs, double init, double bias)
+	protected double[] getQD(AbstractTrainSpace space, double init, double bias)
 	{
-		int i, size = xs.size();
+		int i, size = space.getInstanceSize();
 		double[] qd = new double[size];
 		
 		for (i=0; i<size; i++)
 		{
 			qd[i]  = init + UTMath.sq(bias);
-			qd[i] += (vs != null) ? UTMath.squareSum(vs.get(i)) : xs.get(i).length;
+			qd[i] += space.hasWeight() ? UTMath.squareSum(space.getV(i)) : space.getX(i).length;
 		}
 		
 		return qd;
@@ -40,7 +40,7 @@
  */
 package com.clearnlp.classification.algorithm.old;
 
-import com.carrotsearch.hppc.IntArrayList;
+import com.clearnlp.classification.model.AbstractModel;
 import com.clearnlp.classification.train.AbstractTrainSpace;
 
 /**
@@ -49,52 +49,93 @@ import com.clearnlp.classification.train.AbstractTrainSpace;
  */
 abstract public class AbstractOneVsAll extends AbstractAlgorithm
 {
+	/**
+	 * Trains the weight vector for the specific label and puts each update directly into the weight array.
+	 * The weight of the feature {@code i} is stored at {@code weights[offset + i*stride]}.
+	 * @param space the training space.
+	 * @param currLabel the label to train the weight vector for.
+	 * @param QD the diagonal values returned by {@link #getQD(AbstractTrainSpace)}, shared across labels.
+	 * @param weights the weight array to train.
+	 * @param offset the index of the first weight of the label.
+	 * @param stride the distance between two consecutive weights of the label.
+	 */
+	abstract protected void trainWeight(AbstractTrainSpace space, int currLabel, double[] QD, float[] weights, int offset, int stride);
+	
+	/**
+	 * @param space the training space.
+	 * @return the diagonal values of the training instances, which do not depend on labels.
+	 */
+	abstract public double[] getQD(AbstractTrainSpace space);
+	
 	/**
 	 * @param space the training space.
 	 * @param currLabel the label to get the weight vector for.
 	 * @return the weight vector for the specific label given the training space.
 	 */
-	abstract public float[] getWeight(AbstractTrainSpace space, int currLabel);
+	public float[] getWeight(AbstractTrainSpace space, int currLabel)
+	{
+		float[] weights = new float[space.getFeatureSize()];
+		trainWeight(space, currLabel, getQD(space), weights, 0, 1);
+		return weights;
+	}
+	
+	/**
+	 * Trains the weight vector for the specific label within the weight vector of the model.
+	 * Different labels can be trained concurrently as they do not share weight indices.
+	 * @param space the training space.
+	 * @param currLabel the label to train the weight vector for.
+	 * @param QD the diagonal values returned by {@link #getQD(AbstractTrainSpace)}, shared across labels.
+	 * @param model the model whose weight vector is initialized by {@link AbstractModel#initWeightVector()}.
+	 */
+	public void trainWeight(AbstractTrainSpace space, int currLabel, double[] QD, AbstractModel model)
+	{
+		if (model.isBinaryLabel())
+			trainWeight(space, currLabel, QD, model.getWeights(), 0, 1);
+		else
+			trainWeight(space, currLabel, QD, model.getWeights(), currLabel, model.getLabelSize());
+	}
 	
 	/** @return an array of 1 or -1. */
-	protected byte[] getBinaryLabels(IntArrayList ys, int currLabel)
+	protected byte[] getBinaryLabels(AbstractTrainSpace space, int currLabel)
 	{
-		int i, size = ys.size();
+		int i, size = space.getInstanceSize();
 		byte[] aY = new byte[size];
 		
 		for (i=0; i<size; i++)
-			aY[i] = (ys.get(i) == currLabel) ? (byte)1 : (byte)-1;
+			aY[i] = (space.getY(i) == currLabel) ? (byte)1 : (byte)-1;
 			
 		return aY;
 	}
 	
-	protected double getScore(double[] weight, int[] x, double[] v, double bias)
+	protected double getScore(float[] weights, int offset, int stride, int[] x, double[] v, double bias)
 	{
-		double score = weight[0] * bias;
+		double score = weights[offset] * bias;
 		int i, size = x.length;
 		
 		for (i=0; i<size; i++)
 		{
 			if (v != null)
-				score += weight[x[i]] * v[i];
+				score += weights[offset + x[i]*stride] * v[i];
 			else
-				score += weight[x[i]];
+				score += weights[offset + x[i]*stride];
 		}
 		
 		return score;
 	}
 	
-	protected void updateWeight(double[] weight, double cost, int[] x, double[] v, double bias)
+	protected void updateWeight(float[] weights, int offset, int stride, double cost, int[] x, double[] v, double bias)
 	{
-		int i, size = x.length;
-		weight[0] += cost * bias;
+		int i, j, size = x.length;
+		weights[offset] += cost * bias;
 		
 		for (i=0; i<size; i++)
 		{
+			j = offset + x[i]*stride;
+			
 			if (v != null)
-				weight[x[i]] += cost * v[i];
+				weights[j] += cost * v[i];
 			else
-				weight[x[i]] += cost;
+				weights[j] += cost;
 		}
 	}
 }
@@ -40,10 +40,8 @@
  */
 package com.clearnlp.classification.algorithm.old;
 
-import java.util.ArrayList;
 import java.util.Random;
 
-import com.carrotsearch.hppc.IntArrayList;
 import com.clearnlp.classification.train.AbstractTrainSpace;
 import com.clearnlp.util.UTArray;
 
@@ -69,20 +67,20 @@ public class LiblinearL2LR extends AbstractLiblinear
 	}
 	
 	@Override
-	public float[] getWeight(AbstractTrainSpace space, int currLabel)
+	public double[] getQD(AbstractTrainSpace space)
+	{
+		return getQD(space, 0, d_bias);
+	}
+	
+	@Override
+	protected void trainWeight(AbstractTrainSpace space, int currLabel, double[] QD, float[] weights, int offset, int stride)
 	{
 		Random rand = new Random(5);
 		
 		final int N = space.getInstanceSize();
-		final int D = space.getFeatureSize();
 		final double INNER_MIN = Math.min(1e-8, d_eps);
 		
-		IntArrayList        ys = space.getYs();
-		ArrayList<int[]>    xs = space.getXs();
-		ArrayList<double[]> vs = space.getVs();
-		
-		double[] alpha  = new double[2*N];
-		double[] weight = new double[D];
+		double[] alpha = new double[2*N];
 		double G, alpha_old, qd, d, z, gp, gpp, tmpz;
 
 		double alpha_pre = Math.min(0.001 * d_cost, 1e-8);
@@ -95,8 +93,7 @@ public class LiblinearL2LR extends AbstractLiblinear
 		double[] vi = null;
 		
 		int []   index = UTArray.range(N);
-		byte[]   aY    = getBinaryLabels(ys, currLabel);
-		double[] QD    = getQD(xs, vs, 0, d_bias);
+		byte[]   aY    = getBinaryLabels(space, currLabel);
 		
 		for (i=0; i<N; i++)
 		{
@@ -104,9 +101,9 @@ public class LiblinearL2LR extends AbstractLiblinear
 			alpha[2*i+1] = d_cost - alpha_pre;
 
 			d  = aY[i] * alpha[2*i];
-			xi = xs.get(i);
-			if (space.hasWeight())	vi = vs.get(i);
-			if (d != 0) updateWeight(weight, d, xi, vi, d_bias);
+			xi = space.getX(i);
+			vi = space.getV(i);
+			if (d != 0) updateWeight(weights, offset, stride, d, xi, vi, d_bias);
 		}
 		
 		for (iter=0; iter<MAX_ITER; iter++)
@@ -118,9 +115,9 @@ public class LiblinearL2LR extends AbstractLiblinear
 			{
 				i  = index[s];
 				yi = aY[i];
-				xi = xs.get(i);
-				if (space.hasWeight()) vi = vs.get(i);
-				G  = getScore(weight, xi, vi, d_bias) * yi;
+				xi = space.getX(i);
+				vi = space.getV(i);
+				G  = getScore(weights, offset, stride, xi, vi, d_bias) * yi;
  				qd = QD[i];
  				
  				ind1 = 2*i;
@@ -164,7 +161,7 @@ public class LiblinearL2LR extends AbstractLiblinear
  					alpha[ind1] = z;
  					alpha[ind2] = d_cost-z;
  					d = sign * (z-alpha_old) * yi;
- 					if (d != 0) updateWeight(weight, d, xi, vi, d_bias);
+ 					if (d != 0) updateWeight(weights, offset, stride, d, xi, vi, d_bias);
  				}
 			}
 			
@@ -175,7 +172,7 @@ public class LiblinearL2LR extends AbstractLiblinear
 				innereps = Math.max(INNER_MIN, 0.1*innereps);
 		}
 		
-		weight[0] *= d_bias;
+		weights[offset] *= d_bias;
 		
 		StringBuilder build = new StringBuilder();
 		
@@ -184,7 +181,6 @@ public class LiblinearL2LR extends AbstractLiblinear
 		build.append("\n");
 
 		LOG.info(build.toString());
-		return UTArray.toFloatArray(weight);
 	}
 }
 	
\ No newline at end of file
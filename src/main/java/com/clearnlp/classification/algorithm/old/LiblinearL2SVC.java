@@ -40,10 +40,8 @@
  */
 package com.clearnlp.classification.algorithm.old;
 
-import java.util.ArrayList;
 import java.util.Random;
 
-import com.carrotsearch.hppc.IntArrayList;
 import com.clearnlp.classification.train.AbstractTrainSpace;
 import com.clearnlp.util.UTArray;
 
@@ -70,19 +68,19 @@ public class LiblinearL2SVC extends AbstractLiblinear
 	}
 	
 	@Override
-	public float[] getWeight(AbstractTrainSpace space, int currLabel)
+	public double[] getQD(AbstractTrainSpace space)
+	{
+		return getQD(space, (i_lossType == 2) ? 0.5 / d_cost : 0, d_bias);
+	}
+	
+	@Override
+	protected void trainWeight(AbstractTrainSpace space, int currLabel, double[] QD, float[] weights, int offset, int stride)
 	{
 		Random rand = new Random(5);
 		
 		final int N = space.getInstanceSize();
-		final int D = space.getFeatureSize();
-		
-		IntArrayList        ys = space.getYs();
-		ArrayList<int[]>    xs = space.getXs();
-		ArrayList<double[]> vs = space.getVs();
 		
-		double[] alpha  = new double[N];
-		double[] weight = new double[D];
+		double[] alpha = new double[N];
 		double G, d, alpha_old;
 		
 		// Projected gradient, for shrinking and stopping
@@ -106,8 +104,7 @@ public class LiblinearL2SVC extends AbstractLiblinear
 		double[] vi = null;
 		
 		int []   index = UTArray.range(N);
-		byte[]   aY    = getBinaryLabels(ys, currLabel);
-		double[] QD    = getQD(xs, vs, diag, d_bias);
+		byte[]   aY    = getBinaryLabels(space, currLabel);
 		
 		for (iter=0; iter<MAX_ITER; iter++)
 		{
@@ -119,9 +116,9 @@ public class LiblinearL2SVC extends AbstractLiblinear
 			{
 				i  = index[s];
 				yi = aY[i];
-				xi = xs.get(i);
-				if (space.hasWeight()) vi = vs.get(i);
-				G  = getScore(weight, xi, vi, d_bias) * yi - 1;
+				xi = space.getX(i);
+				vi = space.getV(i);
+				G  = getScore(weights, offset, stride, xi, vi, d_bias) * yi - 1;
  				G += alpha[i] * diag;
 				
 				if (alpha[i] == 0)
@@ -161,7 +158,7 @@ public class LiblinearL2SVC extends AbstractLiblinear
 					alpha_old = alpha[i];
 					alpha[i]  = Math.min(Math.max(alpha[i] - G / QD[i], 0d), upper_bound);
 					d = (alpha[i] - alpha_old) * yi;
-					if (d != 0) updateWeight(weight, d, xi, vi, d_bias);
+					if (d != 0) updateWeight(weights, offset, stride, d, xi, vi, d_bias);
 				}
 			}
 			
@@ -184,7 +181,7 @@ public class LiblinearL2SVC extends AbstractLiblinear
 			if (Gmin_old >= 0) Gmin_old = Double.NEGATIVE_INFINITY;
 		}
 		
-		weight[0] *= d_bias;
+		weights[offset] *= d_bias;
 		int nSV = 0;
 		
 		for (i=0; i<N; i++)
@@ -198,7 +195,6 @@ public class LiblinearL2SVC extends AbstractLiblinear
 		build.append("\n");
 
 		LOG.info(build.toString());
-		return UTArray.toFloatArray(weight);
 	}
 }
 	
\ No newline at end of file
@@ -40,7 +40,9 @@
  */
 package com.clearnlp.classification.feature;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -232,7 +234,19 @@ abstract public class AbstractFtrXml implements Serializable
 		String field = aField[1];
 		if (!validField(field))	xmlError(ftr);
 
-		return new FtrToken(source, offset, relation, field);
+		FtrToken token = new FtrToken(source, offset, relation, field);
+		compileFtrToken(token);
+		return token;
+	}
+	
+	/** Compiles the relations and fields of all feature tokens; called after deserialization since the codes are transient. */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		
+		for (FtrTemplate template : f_templates)
+			for (FtrToken token : template.tokens)
+				compileFtrToken(token);
 	}
 	
 	/** Prints system error and exits. */
@@ -320,4 +334,9 @@ abstract public class AbstractFtrXml implements Serializable
 	 * @return {@code true} if the specific field is valid.
 	 */
 	abstract protected boolean validField(String filed);
+	/**
+	 * Compiles the relation and the field of the specific token into codes (see {@link FtrToken#setCodes(int, int, int, int, String)}).
+	 * @param token the feature token whose relation and field are already validated.
+	 */
+	abstract protected void compileFtrToken(FtrToken token);
 }
\ No newline at end of file
@@ -40,6 +40,8 @@
  */
 package com.clearnlp.classification.feature;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -58,12 +60,29 @@ public class FtrTemplate implements Serializable
 	public boolean    visible;
 	public String     note;
 	
+	transient private boolean b_set;
+	transient private boolean b_boolean;
+	
 	public FtrTemplate(String type, int n, boolean visible, String note)
 	{
 		this.type    = type;
 		this.visible = visible;
 		this.note    = note;
 		this.tokens  = new FtrToken[n];
+		initType();
+	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		initType();
+	}
+	
+	/** Resolves the type of this template once so it is not compared at decode time. */
+	private void initType()
+	{
+		b_set     = type.startsWith(TYPE_SET);
+		b_boolean = type.startsWith(TYPE_BOOLEAN);
 	}
 	
 	public void setFtrToken(int index, FtrToken token)
@@ -73,11 +92,11 @@ public class FtrTemplate implements Serializable
 	
 	public boolean isSetFeature()
 	{
-		return type.startsWith(TYPE_SET); 
+		return b_set;
 	}
 	
 	public boolean isBooleanFeature()
 	{
-		return type.startsWith(TYPE_BOOLEAN);
+		return b_boolean;
 	}
 }
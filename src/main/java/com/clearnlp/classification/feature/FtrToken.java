@@ -59,6 +59,17 @@ public class FtrToken implements Serializable
 	/** The feature field. */
 	public String field;
 	
+	/** The compiled code of {@link #relation} (0 if there is no relation). */
+	transient public int    relationCode;
+	/** The compiled code of {@link #field}. */
+	transient public int    fieldCode;
+	/** The compiled code of the field embedded in {@link #field} (e.g., the POS code of "ptp2"). */
+	transient public int    subFieldCode;
+	/** The numeric argument of {@link #field} (e.g., 2 for "pf2"). */
+	transient public int    argument;
+	/** The feature key of {@link #field} (e.g., "pb" for "ft=pb"). */
+	transient public String featKey;
+	
 	/**
 	 * Constructs a feature token.
 	 * @param source the source of this token.
@@ -74,6 +85,23 @@ public class FtrToken implements Serializable
 		this.field    = field;
 	}
 	
+	/**
+	 * Sets the compiled codes of this token so features can be dispatched without string comparisons.
+	 * @param relationCode the compiled code of the relation.
+	 * @param fieldCode the compiled code of the field.
+	 * @param subFieldCode the compiled code of the field embedded in the field.
+	 * @param argument the numeric argument of the field.
+	 * @param featKey the feature key of the field.
+	 */
+	public void setCodes(int relationCode, int fieldCode, int subFieldCode, int argument, String featKey)
+	{
+		this.relationCode = relationCode;
+		this.fieldCode    = fieldCode;
+		this.subFieldCode = subFieldCode;
+		this.argument     = argument;
+		this.featKey      = featKey;
+	}
+	
 	public boolean isField(String str)
 	{
 		return field.equals(str);
@@ -41,12 +41,14 @@
 package com.clearnlp.classification.feature;
 
 import java.io.InputStream;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
+import com.carrotsearch.hppc.ObjectIntOpenHashMap;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.util.UTRegex;
 import com.clearnlp.util.UTXml;
@@ -106,6 +108,52 @@ public class JointFtrXml extends AbstractFtrXml
 	static public final Pattern P_PATH	 	= Pattern.compile("^pt(["+F_POS+F_DEPREL+F_DISTANCE+"])(\\d+)$");
 	static public final Pattern P_ARGN 	 	= Pattern.compile("^argn(\\d+)$");
 
+	/** Compiled relation codes (see {@link FtrToken#relationCode}). */
+	static public final int RC_NONE	= 0;
+	static public final int RC_H	= 1;
+	static public final int RC_H2	= 2;
+	static public final int RC_LMD	= 3;
+	static public final int RC_RMD	= 4;
+	static public final int RC_LMD2	= 5;
+	static public final int RC_RMD2	= 6;
+	static public final int RC_LND	= 7;
+	static public final int RC_RND	= 8;
+	static public final int RC_LNS	= 9;
+	static public final int RC_RNS	= 10;
+	
+	/** Compiled field codes (see {@link FtrToken#fieldCode}). */
+	static public final int FC_NONE						= 0;
+	static public final int FC_FORM						= 1;
+	static public final int FC_SIMPLIFIED_FORM			= 2;
+	static public final int FC_LOWER_SIMPLIFIED_FORM	= 3;
+	static public final int FC_POS						= 4;
+	static public final int FC_POS2						= 5;
+	static public final int FC_POS_SET					= 6;
+	static public final int FC_AMBIGUITY_CLASS			= 7;
+	static public final int FC_LEMMA					= 8;
+	static public final int FC_NAMENT					= 9;
+	static public final int FC_DEPREL					= 10;
+	static public final int FC_LEFT_DEP_POS				= 11;
+	static public final int FC_RIGHT_DEP_POS			= 12;
+	static public final int FC_LEFT_DEP_DEPREL			= 13;
+	static public final int FC_RIGHT_DEP_DEPREL			= 14;
+	static public final int FC_DIRECTION				= 15;
+	static public final int FC_DISTANCE					= 16;
+	static public final int FC_DEPREL_SET				= 17;
+	static public final int FC_GRAND_DEPREL_SET			= 18;
+	static public final int FC_LEFT_VALENCY				= 19;
+	static public final int FC_RIGHT_VALENCY			= 20;
+	static public final int FC_BOOLEAN					= 21;
+	static public final int FC_PREFIX					= 22;
+	static public final int FC_SUFFIX					= 23;
+	static public final int FC_FEAT						= 24;
+	static public final int FC_SUBCAT					= 25;
+	static public final int FC_PATH						= 26;
+	static public final int FC_ARGN						= 27;
+	
+	static private final ObjectIntOpenHashMap<String> M_RELATIONS = initRelationCodes();
+	static private final ObjectIntOpenHashMap<String> M_FIELDS    = initFieldCodes();
+	
 	static protected final Pattern P_REL	= UTRegex.getORPattern(R_H, R_H2, R_LMD, R_RMD, R_LMD2, R_RMD2, R_LND, R_RND, R_LNS, R_RNS); 
 	static protected final Pattern P_FIELD	= UTRegex.getORPattern(F_FORM, F_SIMPLIFIED_FORM, F_LOWER_SIMPLIFIED_FORM, F_LEMMA, F_POS, F_POS2, F_POS_SET, F_AMBIGUITY_CLASS, F_NAMENT, F_DEPREL, F_DIRECTION, F_DISTANCE, F_DEPREL_SET, F_LEFT_VALENCY, F_RIGHT_VALENCY, F_LEFT_DEP_POS, F_RIGHT_DEP_POS, F_LEFT_DEP_DEPREL, F_RIGHT_DEP_DEPREL);
 	
@@ -128,6 +176,52 @@ public class JointFtrXml extends AbstractFtrXml
 		super(in);
 	}
 	
+	static private ObjectIntOpenHashMap<String> initRelationCodes()
+	{
+		ObjectIntOpenHashMap<String> map = new ObjectIntOpenHashMap<String>();
+		
+		map.put(R_H   , RC_H);
+		map.put(R_H2  , RC_H2);
+		map.put(R_LMD , RC_LMD);
+		map.put(R_RMD , RC_RMD);
+		map.put(R_LMD2, RC_LMD2);
+		map.put(R_RMD2, RC_RMD2);
+		map.put(R_LND , RC_LND);
+		map.put(R_RND , RC_RND);
+		map.put(R_LNS , RC_LNS);
+		map.put(R_RNS , RC_RNS);
+		
+		return map;
+	}
+	
+	static private ObjectIntOpenHashMap<String> initFieldCodes()
+	{
+		ObjectIntOpenHashMap<String> map = new ObjectIntOpenHashMap<String>();
+		
+		map.put(F_FORM					, FC_FORM);
+		map.put(F_SIMPLIFIED_FORM		, FC_SIMPLIFIED_FORM);
+		map.put(F_LOWER_SIMPLIFIED_FORM	, FC_LOWER_SIMPLIFIED_FORM);
+		map.put(F_POS					, FC_POS);
+		map.put(F_POS2					, FC_POS2);
+		map.put(F_POS_SET				, FC_POS_SET);
+		map.put(F_AMBIGUITY_CLASS		, FC_AMBIGUITY_CLASS);
+		map.put(F_LEMMA					, FC_LEMMA);
+		map.put(F_NAMENT				, FC_NAMENT);
+		map.put(F_DEPREL				, FC_DEPREL);
+		map.put(F_LEFT_DEP_POS			, FC_LEFT_DEP_POS);
+		map.put(F_RIGHT_DEP_POS			, FC_RIGHT_DEP_POS);
+		map.put(F_LEFT_DEP_DEPREL		, FC_LEFT_DEP_DEPREL);
+		map.put(F_RIGHT_DEP_DEPREL		, FC_RIGHT_DEP_DEPREL);
+		map.put(F_DIRECTION				, FC_DIRECTION);
+		map.put(F_DISTANCE				, FC_DISTANCE);
+		map.put(F_DEPREL_SET			, FC_DEPREL_SET);
+		map.put(F_GRAND_DEPREL_SET		, FC_GRAND_DEPREL_SET);
+		map.put(F_LEFT_VALENCY			, FC_LEFT_VALENCY);
+		map.put(F_RIGHT_VALENCY			, FC_RIGHT_VALENCY);
+		
+		return map;
+	}
+	
 	/** For part-of-speech tagging. */
 	public double getAmbiguityClassThreshold()
 	{
@@ -206,6 +300,61 @@ public class JointFtrXml extends AbstractFtrXml
 		return P_REL.matcher(relation).matches();
 	}
 	
+	@Override
+	protected void compileFtrToken(FtrToken token)
+	{
+		int relationCode = (token.relation != null) ? M_RELATIONS.get(token.relation) : RC_NONE;
+		int fieldCode = M_FIELDS.get(token.field), subFieldCode = FC_NONE, argument = 0;
+		String featKey = null;
+		Matcher m;
+		
+		if (fieldCode != FC_NONE)
+		{
+			token.setCodes(relationCode, fieldCode, subFieldCode, argument, featKey);
+			return;
+		}
+		
+		if ((m = P_BOOLEAN.matcher(token.field)).find())
+		{
+			fieldCode = FC_BOOLEAN;
+			argument  = Integer.parseInt(m.group(1));
+		}
+		else if ((m = P_PREFIX.matcher(token.field)).find())
+		{
+			fieldCode = FC_PREFIX;
+			argument  = Integer.parseInt(m.group(1));
+		}
+		else if ((m = P_SUFFIX.matcher(token.field)).find())
+		{
+			fieldCode = FC_SUFFIX;
+			argument  = Integer.parseInt(m.group(1));
+		}
+		else if ((m = P_FEAT.matcher(token.field)).find())
+		{
+			fieldCode = FC_FEAT;
+			featKey   = m.group(1);
+		}
+		else if ((m = P_SUBCAT.matcher(token.field)).find())
+		{
+			fieldCode    = FC_SUBCAT;
+			subFieldCode = M_FIELDS.get(m.group(1));
+			argument     = Integer.parseInt(m.group(2));
+		}
+		else if ((m = P_PATH.matcher(token.field)).find())
+		{
+			fieldCode    = FC_PATH;
+			subFieldCode = M_FIELDS.get(m.group(1));
+			argument     = Integer.parseInt(m.group(2));
+		}
+		else if ((m = P_ARGN.matcher(token.field)).find())
+		{
+			fieldCode = FC_ARGN;
+			argument  = Integer.parseInt(m.group(1));
+		}
+		
+		token.setCodes(relationCode, fieldCode, subFieldCode, argument, featKey);
+	}
+	
 	protected boolean validField(String field)
 	{
 		return P_FIELD  .matcher(field).matches() ||
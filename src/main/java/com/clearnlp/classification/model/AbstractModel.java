@@ -52,7 +52,6 @@ import com.carrotsearch.hppc.cursors.ObjectCursor;
 import com.clearnlp.classification.prediction.StringPrediction;
 import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.collection.map.ObjectIntHashMap;
-import com.clearnlp.util.UTArray;
 import com.clearnlp.util.UTCollection;
 import com.clearnlp.util.pair.Pair;
 
@@ -141,6 +140,12 @@ abstract public class AbstractModel implements Serializable
 		return index * n_labels + label;
 	}
 	
+	/** @return the weight at the specific index of the weight vector. */
+	protected float getWeight(int weightIndex)
+	{
+		return d_weights[weightIndex];
+	}
+	
 	public String getLabel(int index)
 	{
 		return a_labels[index];
@@ -252,70 +257,63 @@ abstract public class AbstractModel implements Serializable
 	// ========================= SCORES =========================
 	
 	/**
-	 * For binary classification, this method calls {@link #getScoresBinary(SparseFeatureVector)}.
-	 * For multi-classification, this method calls {@link #getScoresMulti(SparseFeatureVector)}.
+	 * Returns the scores of all labels given the feature vector.
+	 * For binary classification, the scores are {@code {score, -score}}.
 	 * @param x the feature vector.
 	 * @return the scores of all labels given the feature vector.
 	 */
 	public double[] getScores(SparseFeatureVector x)
 	{
-		return isBinaryLabel() ? getScoresBinary(x) : getScoresMulti(x);
+		double[] scores = new double[n_labels];
+		getScores(x, scores);
+		return scores;
 	}
-
+	
 	/**
+	 * Puts the scores of all labels given the feature vector into the specific buffer.
+	 * @see LinearScorer
 	 * @param x the feature vector.
-	 * @return the scores of all labels given the feature vector.
+	 * @param scores the buffer to put the scores in (its length must be at least the number of labels).
 	 */
-	private double[] getScoresBinary(SparseFeatureVector x)
+	public void getScores(SparseFeatureVector x, double[] scores)
 	{
-		double score = d_weights[0];
-		int    i, index, size = x.size();
-		
-		for (i=0; i<size; i++)
+		if (isBinaryLabel())
 		{
-			index = x.getIndex(i);
-			
-			if (isRange(index))
-			{
-				if (x.hasWeight())
-					score += d_weights[index] * x.getWeight(i);
-				else
-					score += d_weights[index];
-			}
+			LinearScorer.getScores(d_weights, 1, 1, n_features, x, scores);
+			scores[1] = -scores[0];
 		}
-		
-		double[] scores = {score, -score};
-		return scores;
+		else
+			LinearScorer.getScores(d_weights, n_labels, n_labels, n_features, x, scores);
 	}
 	
 	/**
+	 * Puts the scores of the specific labels given the feature vector into the specific buffer,
+	 * where {@code scores[i]} is the score of the label whose index is {@code labels[i]}.
+	 * Only the weights of the specific labels are read; the scores are the same as the ones from {@link #getScores(SparseFeatureVector, double[])}.
 	 * @param x the feature vector.
-	 * @return the scores of all labels given the feature vector.
+	 * @param labels the indices of the labels to score (see {@link #getLabelIndex(String)}).
+	 * @param scores the buffer to put the scores in (its length must be at least {@code labels.length}).
 	 */
-	private double[] getScoresMulti(SparseFeatureVector x)
+	public void getScores(SparseFeatureVector x, int[] labels, double[] scores)
 	{
-		double[] scores = UTArray.copyOf(d_weights, n_labels);
-		int      i, index, label, weightIndex, size = x.size();
-		double   weight = 1;
+		int i;
 		
-		for (i=0; i<size; i++)
+		if (isBinaryLabel())
 		{
-			index = x.getIndex(i);
-			if (x.hasWeight())	weight = x.getWeight(i);
+			double[] both = new double[2];
+			getScores(x, both);
 			
-			if (isRange(index))
-			{
-				for (label=0; label<n_labels; label++)
-				{
-					weightIndex = getWeightIndex(label, index);
-					
-					if (x.hasWeight())	scores[label] += d_weights[weightIndex] * weight;
-					else				scores[label] += d_weights[weightIndex];
-				}
-			}
+			for (i=0; i<labels.length; i++)
+				scores[i] = both[labels[i]];
 		}
-		
-		return scores;
+		else
+			getScoresAux(x, labels, scores);
+	}
+	
+	/** Called by {@link #getScores(SparseFeatureVector, int[], double[])} for multi-classification. */
+	protected void getScoresAux(SparseFeatureVector x, int[] labels, double[] scores)
+	{
+		LinearScorer.getScores(d_weights, n_labels, labels, n_features, x, scores);
 	}
 	
 	/**
@@ -365,6 +363,34 @@ abstract public class AbstractModel implements Serializable
 		return new Pair<StringPrediction,StringPrediction>(fst, snd);
 	}
 	
+	/**
+	 * Returns the best prediction among the specific labels and the best prediction among all the other labels given the feature vector.
+	 * If the best label of all is one of the specific labels, the predictions are the same as the ones from {@link #predictTwo(SparseFeatureVector)}.
+	 * @param x the feature vector.
+	 * @param labels the indices of the labels the first prediction is restricted to (see {@link #getLabelIndex(String)}).
+	 * @return the best prediction among the specific labels and the best prediction among all the other labels given the feature vector.
+	 */
+	public Pair<StringPrediction,StringPrediction> predictTwo(SparseFeatureVector x, int[] labels)
+	{
+		List<StringPrediction> list = getPredictions(x);
+		StringPrediction fst = list.get(labels[0]), snd = null, p;
+		int i, size = list.size();
+		
+		for (i=1; i<labels.length; i++)
+		{
+			p = list.get(labels[i]);
+			if (fst.score < p.score) fst = p;
+		}
+		
+		for (i=0; i<size; i++)
+		{
+			p = list.get(i);
+			if (p != fst && (snd == null || snd.score < p.score)) snd = p;
+		}
+		
+		return new Pair<StringPrediction,StringPrediction>(fst, snd);
+	}
+	
 	/**
 	 * Returns a sorted list of predictions given the specific feature vector.
 	 * @param x the feature vector.
@@ -394,6 +420,26 @@ abstract public class AbstractModel implements Serializable
 		
 		return list;		
 	}
+	
+	/**
+	 * Returns an unsorted list of predictions of the specific labels given the feature vector.
+	 * @param x the feature vector.
+	 * @param labels the indices of the labels to score (see {@link #getLabelIndex(String)}).
+	 * @return an unsorted list of predictions of the specific labels given the feature vector.
+	 */
+	public List<StringPrediction> getPredictions(SparseFeatureVector x, int[] labels)
+	{
+		List<StringPrediction> list = new ArrayList<StringPrediction>(labels.length);
+		double[] scores = new double[labels.length];
+		int i;
+		
+		getScores(x, labels, scores);
+		
+		for (i=0; i<labels.length; i++)
+			list.add(new StringPrediction(a_labels[labels[i]], scores[i]));
+		
+		return list;
+	}
 
 	
 	
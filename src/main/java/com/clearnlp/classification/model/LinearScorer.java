@@ -0,0 +1,447 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.model;
+
+import java.nio.FloatBuffer;
+
+import com.clearnlp.classification.vector.SparseFeatureVector;
+import com.clearnlp.util.UTMath;
+
+/**
+ * Scores sparse feature vectors against feature-major weight vectors.
+ * The weights of each feature are stored as a contiguous stripe of {@code stride} entries
+ * starting at {@code featureIndex * stride}, where the bias is the stripe of feature {@code 0}.
+ * Each stripe is accumulated into the score buffer by an unrolled loop over contiguous memory.
+ * Scores are accumulated in the same order as the per-label loops so that results are identical.
+ * Quantized weights (see {@link QuantizedStringModel}) are dequantized on the fly.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class LinearScorer
+{
+	private LinearScorer() {}
+	
+	/**
+	 * Puts the scores of the first {@code labelSize} labels given the feature vector into {@code scores}.
+	 * Features whose indices are not within {@code (0, featureSize)} are ignored.
+	 * @param weights the feature-major weight vector.
+	 * @param stride the number of weights per feature.
+	 * @param labelSize the number of labels to score ({@code <= stride}).
+	 * @param featureSize the total number of features.
+	 * @param x the feature vector.
+	 * @param scores the buffer to put the scores in (its length must be at least {@code labelSize}).
+	 */
+	static public void getScores(float[] weights, int stride, int labelSize, int featureSize, SparseFeatureVector x, double[] scores)
+	{
+		int i, index, size = x.size();
+		
+		for (i=0; i<labelSize; i++)
+			scores[i] = weights[i];
+		
+		if (x.hasWeight())
+		{
+			for (i=0; i<size; i++)
+			{
+				index = x.getIndex(i);
+				
+				if (0 < index && index < featureSize)
+					addScores(weights, index*stride, labelSize, x.getWeight(i), scores);
+			}
+		}
+		else
+		{
+			for (i=0; i<size; i++)
+			{
+				index = x.getIndex(i);
+				
+				if (0 < index && index < featureSize)
+					addScores(weights, index*stride, labelSize, scores);
+			}
+		}
+	}
+	
+	/**
+	 * Same as {@link #getScores(float[], int, int, int, SparseFeatureVector, double[])} but reads weights from a buffer.
+	 * The buffer is read through absolute gets so that its position is never changed.
+	 */
+	static public void getScores(FloatBuffer weights, int stride, int labelSize, int featureSize, SparseFeatureVector x, double[] scores)
+	{
+		int i, index, size = x.size();
+		
+		for (i=0; i<labelSize; i++)
+			scores[i] = weights.get(i);
+		
+		if (x.hasWeight())
+		{
+			for (i=0; i<size; i++)
+			{
+				index = x.getIndex(i);
+				
+				if (0 < index && index < featureSize)
+					addScores(weights, index*stride, labelSize, x.getWeight(i), scores);
+			}
+		}
+		else
+		{
+			for (i=0; i<size; i++)
+			{
+				index = x.getIndex(i);
+				
+				if (0 < index && index < featureSize)
+					addScores(weights, index*stride, labelSize, scores);
+			}
+		}
+	}
+	
+	/**
+	 * Same as {@link #getScores(float[], int, int, int, SparseFeatureVector, double[])} but reads 8-bit quantized weights,
+	 * where the weight at {@code i} is {@code weights[i] * scales[i >> blockShift]}.
+	 */
+	static public void getScores(byte[] weights, float[] scales, int blockShift, int stride, int labelSize, int featureSize, SparseFeatureVector x, double[] scores)
+	{
+		int i, index, size = x.size();
+		
+		for (i=0; i<labelSize; i++)
+			scores[i] = weights[i] * scales[i >> blockShift];
+		
+		if (x.hasWeight())
+		{
+			for (i=0; i<size; i++)
+			{
+				index = x.getIndex(i);
+				
+				if (0 < index && index < featureSize)
+					addScores(weights, scales, blockShift, index*stride, labelSize, x.getWeight(i), scores);
+			}
+		}
+		else
+		{
+			for (i=0; i<size; i++)
+			{
+				index = x.getIndex(i);
+				
+				if (0 < index && index < featureSize)
+					addScores(weights, scales, blockShift, index*stride, labelSize, scores);
+			}
+		}
+	}
+	
+	/**
+	 * Same as {@link #getScores(float[], int, int, int, SparseFeatureVector, double[])} but reads half-precision weights
+	 * (see {@link UTMath#toFloat(short)}).
+	 */
+	static public void getScores(short[] weights, int stride, int labelSize, int featureSize, SparseFeatureVector x, double[] scores)
+	{
+		int i, index, size = x.size();
+		
+		for (i=0; i<labelSize; i++)
+			scores[i] = UTMath.toFloat(weights[i]);
+		
+		if (x.hasWeight())
+		{
+			for (i=0; i<size; i++)
+			{
+				index = x.getIndex(i);
+				
+				if (0 < index && index < featureSize)
+					addScores(weights, index*stride, labelSize, x.getWeight(i), scores);
+			}
+		}
+		else
+		{
+			for (i=0; i<size; i++)
+			{
+				index = x.getIndex(i);
+				
+				if (0 < index && index < featureSize)
+					addScores(weights, index*stride, labelSize, scores);
+			}
+		}
+	}
+	
+	// ========================= LABEL SUBSETS =========================
+	
+	/**
+	 * Puts the scores of the specific labels given the feature vector into {@code scores},
+	 * where {@code scores[i]} is the score of the label whose index is {@code labels[i]}.
+	 * Only the weights of the specific labels are read from each stripe.
+	 * The scores are identical to the ones computed by {@link #getScores(float[], int, int, int, SparseFeatureVector, double[])}.
+	 * @param labels the indices of the labels to score.
+	 */
+	static public void getScores(float[] weights, int stride, int[] labels, int featureSize, SparseFeatureVector x, double[] scores)
+	{
+		int i, j, index, offset, size = x.size(), labelSize = labels.length;
+		double weight;
+		
+		for (j=0; j<labelSize; j++)
+			scores[j] = weights[labels[j]];
+		
+		for (i=0; i<size; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (0 < index && index < featureSize)
+			{
+				offset = index * stride;
+				weight = x.hasWeight() ? x.getWeight(i) : 1;
+				
+				for (j=0; j<labelSize; j++)
+					scores[j] += weights[offset+labels[j]] * weight;
+			}
+		}
+	}
+	
+	/** Same as {@link #getScores(float[], int, int[], int, SparseFeatureVector, double[])} but reads weights from a buffer. */
+	static public void getScores(FloatBuffer weights, int stride, int[] labels, int featureSize, SparseFeatureVector x, double[] scores)
+	{
+		int i, j, index, offset, size = x.size(), labelSize = labels.length;
+		double weight;
+		
+		for (j=0; j<labelSize; j++)
+			scores[j] = weights.get(labels[j]);
+		
+		for (i=0; i<size; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (0 < index && index < featureSize)
+			{
+				offset = index * stride;
+				weight = x.hasWeight() ? x.getWeight(i) : 1;
+				
+				for (j=0; j<labelSize; j++)
+					scores[j] += weights.get(offset+labels[j]) * weight;
+			}
+		}
+	}
+	
+	/** Same as {@link #getScores(float[], int, int[], int, SparseFeatureVector, double[])} but reads 8-bit quantized weights. */
+	static public void getScores(byte[] weights, float[] scales, int blockShift, int stride, int[] labels, int featureSize, SparseFeatureVector x, double[] scores)
+	{
+		int i, j, k, index, offset, size = x.size(), labelSize = labels.length;
+		double weight;
+		
+		for (j=0; j<labelSize; j++)
+		{
+			k = labels[j];
+			scores[j] = weights[k] * scales[k >> blockShift];
+		}
+		
+		for (i=0; i<size; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (0 < index && index < featureSize)
+			{
+				offset = index * stride;
+				weight = x.hasWeight() ? x.getWeight(i) : 1;
+				
+				for (j=0; j<labelSize; j++)
+				{
+					k = offset + labels[j];
+					scores[j] += weights[k] * scales[k >> blockShift] * weight;
+				}
+			}
+		}
+	}
+	
+	/** Same as {@link #getScores(float[], int, int[], int, SparseFeatureVector, double[])} but reads half-precision weights. */
+	static public void getScores(short[] weights, int stride, int[] labels, int featureSize, SparseFeatureVector x, double[] scores)
+	{
+		int i, j, index, offset, size = x.size(), labelSize = labels.length;
+		double weight;
+		
+		for (j=0; j<labelSize; j++)
+			scores[j] = UTMath.toFloat(weights[labels[j]]);
+		
+		for (i=0; i<size; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (0 < index && index < featureSize)
+			{
+				offset = index * stride;
+				weight = x.hasWeight() ? x.getWeight(i) : 1;
+				
+				for (j=0; j<labelSize; j++)
+					scores[j] += UTMath.toFloat(weights[offset+labels[j]]) * weight;
+			}
+		}
+	}
+	
+	// ========================= STRIPES =========================
+	
+	/** Adds {@code weights[offset, offset+size)} to {@code scores[0, size)}. */
+	static private void addScores(float[] weights, int offset, int size, double[] scores)
+	{
+		int i, unroll = size & ~3;
+		
+		for (i=0; i<unroll; i+=4, offset+=4)
+		{
+			scores[i]   += weights[offset];
+			scores[i+1] += weights[offset+1];
+			scores[i+2] += weights[offset+2];
+			scores[i+3] += weights[offset+3];
+		}
+		
+		for (; i<size; i++, offset++)
+			scores[i] += weights[offset];
+	}
+	
+	/** Adds {@code weights[offset, offset+size) * weight} to {@code scores[0, size)}. */
+	static private void addScores(float[] weights, int offset, int size, double weight, double[] scores)
+	{
+		int i, unroll = size & ~3;
+		
+		for (i=0; i<unroll; i+=4, offset+=4)
+		{
+			scores[i]   += weights[offset]   * weight;
+			scores[i+1] += weights[offset+1] * weight;
+			scores[i+2] += weights[offset+2] * weight;
+			scores[i+3] += weights[offset+3] * weight;
+		}
+		
+		for (; i<size; i++, offset++)
+			scores[i] += weights[offset] * weight;
+	}
+	
+	/** Adds {@code weights[offset, offset+size)} to {@code scores[0, size)}. */
+	static private void addScores(FloatBuffer weights, int offset, int size, double[] scores)
+	{
+		int i, unroll = size & ~3;
+		
+		for (i=0; i<unroll; i+=4, offset+=4)
+		{
+			scores[i]   += weights.get(offset);
+			scores[i+1] += weights.get(offset+1);
+			scores[i+2] += weights.get(offset+2);
+			scores[i+3] += weights.get(offset+3);
+		}
+		
+		for (; i<size; i++, offset++)
+			scores[i] += weights.get(offset);
+	}
+	
+	/** Adds {@code weights[offset, offset+size) * weight} to {@code scores[0, size)}. */
+	static private void addScores(FloatBuffer weights, int offset, int size, double weight, double[] scores)
+	{
+		int i, unroll = size & ~3;
+		
+		for (i=0; i<unroll; i+=4, offset+=4)
+		{
+			scores[i]   += weights.get(offset)   * weight;
+			scores[i+1] += weights.get(offset+1) * weight;
+			scores[i+2] += weights.get(offset+2) * weight;
+			scores[i+3] += weights.get(offset+3) * weight;
+		}
+		
+		for (; i<size; i++, offset++)
+			scores[i] += weights.get(offset) * weight;
+	}
+	
+	/** Adds {@code weights[offset, offset+size)} to {@code scores[0, size)}. */
+	static private void addScores(byte[] weights, float[] scales, int shift, int offset, int size, double[] scores)
+	{
+		int i, unroll = size & ~3;
+		
+		for (i=0; i<unroll; i+=4, offset+=4)
+		{
+			scores[i]   += weights[offset]   * scales[ offset    >> shift];
+			scores[i+1] += weights[offset+1] * scales[(offset+1) >> shift];
+			scores[i+2] += weights[offset+2] * scales[(offset+2) >> shift];
+			scores[i+3] += weights[offset+3] * scales[(offset+3) >> shift];
+		}
+		
+		for (; i<size; i++, offset++)
+			scores[i] += weights[offset] * scales[offset >> shift];
+	}
+	
+	/** Adds {@code weights[offset, offset+size) * weight} to {@code scores[0, size)}. */
+	static private void addScores(byte[] weights, float[] scales, int shift, int offset, int size, double weight, double[] scores)
+	{
+		int i, unroll = size & ~3;
+		
+		for (i=0; i<unroll; i+=4, offset+=4)
+		{
+			scores[i]   += weights[offset]   * scales[ offset    >> shift] * weight;
+			scores[i+1] += weights[offset+1] * scales[(offset+1) >> shift] * weight;
+			scores[i+2] += weights[offset+2] * scales[(offset+2) >> shift] * weight;
+			scores[i+3] += weights[offset+3] * scales[(offset+3) >> shift] * weight;
+		}
+		
+		for (; i<size; i++, offset++)
+			scores[i] += weights[offset] * scales[offset >> shift] * weight;
+	}
+	
+	/** Adds {@code weights[offset, offset+size)} to {@code scores[0, size)}. */
+	static private void addScores(short[] weights, int offset, int size, double[] scores)
+	{
+		int i, unroll = size & ~3;
+		
+		for (i=0; i<unroll; i+=4, offset+=4)
+		{
+			scores[i]   += UTMath.toFloat(weights[offset]);
+			scores[i+1] += UTMath.toFloat(weights[offset+1]);
+			scores[i+2] += UTMath.toFloat(weights[offset+2]);
+			scores[i+3] += UTMath.toFloat(weights[offset+3]);
+		}
+		
+		for (; i<size; i++, offset++)
+			scores[i] += UTMath.toFloat(weights[offset]);
+	}
+	
+	/** Adds {@code weights[offset, offset+size) * weight} to {@code scores[0, size)}. */
+	static private void addScores(short[] weights, int offset, int size, double weight, double[] scores)
+	{
+		int i, unroll = size & ~3;
+		
+		for (i=0; i<unroll; i+=4, offset+=4)
+		{
+			scores[i]   += UTMath.toFloat(weights[offset])   * weight;
+			scores[i+1] += UTMath.toFloat(weights[offset+1]) * weight;
+			scores[i+2] += UTMath.toFloat(weights[offset+2]) * weight;
+			scores[i+3] += UTMath.toFloat(weights[offset+3]) * weight;
+		}
+		
+		for (; i<size; i++, offset++)
+			scores[i] += UTMath.toFloat(weights[offset]) * weight;
+	}
+}
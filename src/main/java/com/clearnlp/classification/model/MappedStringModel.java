@@ -0,0 +1,552 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.carrotsearch.hppc.LongIntOpenHashMap;
+import com.carrotsearch.hppc.ObjectIntOpenHashMap;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import com.clearnlp.classification.vector.SparseFeatureVector;
+import com.clearnlp.collection.map.ObjectIntHashMap;
+import com.clearnlp.util.UTHash;
+import com.google.common.collect.Maps;
+
+/**
+ * Read-only string model whose feature dictionaries and weights are memory-mapped from a binary file.
+ * Nothing but the label and feature type tables is allocated on the heap, so opening a model costs
+ * a single pass of page faults and the mapped pages are shared by every process reading the same file.
+ * 
+ * <p>Binary layout (version {@link #VERSION}, big-endian):
+ * <pre>
+ * header : magic, version, #labels, #features, #types, #strings, #slots, #weights (ints)
+ *          offsets of the string, label, type, slot, and weight sections (longs)
+ * strings: offsets (int[#strings+1]) into a char region holding all distinct strings in sorted order
+ * labels : string IDs (int[#labels]) in label-index order
+ * types  : string IDs (int[#types]) in sorted order
+ * slots  : open-addressing table of (type ID, value string ID, feature index) triples (int[#slots*3])
+ * weights: float[#weights], aligned to {@link #ALIGNMENT} bytes
+ * </pre>
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class MappedStringModel extends StringModel
+{
+	private static final long serialVersionUID = -1548233216453014322L;
+	
+	/** The magic number at the beginning of every binary model ({@code "CLMD"}). */
+	static public final int MAGIC     = 0x434C4D44;
+	/** The version of the binary layout. */
+	static public final int VERSION   = 1;
+	/** The extension of binary model files. */
+	static public final String EXT = "bin";
+	/** The byte alignment of the weight section. */
+	static public final int ALIGNMENT = 64;
+	
+	static private final int HEADER_SIZE = 8 * 4 + 5 * 8;
+	static private final int SLOT_SIZE   = 3;
+	
+	/** The mapped string offsets. */
+	transient private IntBuffer   b_offsets;
+	/** The mapped string characters. */
+	transient private CharBuffer  b_chars;
+	/** The mapped dictionary slots. */
+	transient private IntBuffer   b_slots;
+	/** The mapped weight vector. */
+	transient private FloatBuffer b_weights;
+	/** The feature types in the order of their IDs. */
+	transient private String[] a_types;
+	/** The map between feature types and their IDs. */
+	transient private Map<String,Integer> m_types;
+	/** The mask for hashing into {@link #b_slots}. */
+	transient private int n_mask;
+	
+	private MappedStringModel() {}
+	
+	// ========================= LOAD =========================
+	
+	/**
+	 * Memory-maps the specific binary model file.
+	 * @param file the binary model file created by {@link #write(StringModel, File)}.
+	 * @return the memory-mapped model.
+	 * @throws IOException if the file is not a binary model of the supported version.
+	 */
+	static public MappedStringModel map(File file) throws IOException
+	{
+		RandomAccessFile fin = new RandomAccessFile(file, "r");
+		FileChannel channel = fin.getChannel();
+		
+		try
+		{
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException("The model is too large to be mapped: "+file);
+			
+			MappedStringModel model = new MappedStringModel();
+			model.init(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file);
+			return model;
+		}
+		finally
+		{
+			fin.close();
+		}
+	}
+	
+	/** Called by {@link #map(File)}. */
+	private void init(MappedByteBuffer buffer, File file) throws IOException
+	{
+		if (buffer.getInt(0) != MAGIC)
+			throw new IOException("Not a binary model: "+file);
+		
+		if (buffer.getInt(4) != VERSION)
+			throw new IOException("Unsupported binary model version "+buffer.getInt(4)+": "+file);
+		
+		n_labels   = buffer.getInt(8);
+		n_features = buffer.getInt(12);
+		
+		int nTypes   = buffer.getInt(16);
+		int nStrings = buffer.getInt(20);
+		int nSlots   = buffer.getInt(24);
+		int nWeights = buffer.getInt(28);
+		
+		int oStrings = (int)buffer.getLong(32);
+		int oLabels  = (int)buffer.getLong(40);
+		int oTypes   = (int)buffer.getLong(48);
+		int oSlots   = (int)buffer.getLong(56);
+		int oWeights = (int)buffer.getLong(64);
+		
+		b_offsets = slice(buffer, oStrings, (nStrings+1) * 4).asIntBuffer();
+		b_chars   = slice(buffer, oStrings + (nStrings+1) * 4, b_offsets.get(nStrings) * 2).asCharBuffer();
+		b_slots   = slice(buffer, oSlots, nSlots * SLOT_SIZE * 4).asIntBuffer();
+		b_weights = slice(buffer, oWeights, nWeights * 4).asFloatBuffer();
+		n_mask    = nSlots - 1;
+		
+		IntBuffer ids = slice(buffer, oLabels, n_labels * 4).asIntBuffer();
+		a_labels = new String[n_labels];
+		m_labels = new ObjectIntHashMap<String>();
+		int i;
+		
+		for (i=0; i<n_labels; i++)
+		{
+			a_labels[i] = getString(ids.get(i));
+			m_labels.put(a_labels[i], i+1);
+		}
+		
+		ids = slice(buffer, oTypes, nTypes * 4).asIntBuffer();
+		a_types = new String[nTypes];
+		m_types = Maps.newHashMapWithExpectedSize(nTypes);
+		
+		for (i=0; i<nTypes; i++)
+		{
+			a_types[i] = getString(ids.get(i));
+			m_types.put(a_types[i], i);
+		}
+	}
+	
+	static private ByteBuffer slice(ByteBuffer buffer, int offset, int length)
+	{
+		ByteBuffer dup = buffer.duplicate();
+		dup.position(offset);
+		dup.limit(offset + length);
+		return dup.slice();
+	}
+	
+	private String getString(int id)
+	{
+		int beginIndex = b_offsets.get(id), endIndex = b_offsets.get(id+1);
+		char[] cs = new char[endIndex - beginIndex];
+		int i;
+		
+		for (i=0; beginIndex < endIndex; beginIndex++,i++)
+			cs[i] = b_chars.get(beginIndex);
+		
+		return new String(cs);
+	}
+	
+	private boolean equalsString(int id, String s)
+	{
+		int beginIndex = b_offsets.get(id), endIndex = b_offsets.get(id+1);
+		if (endIndex - beginIndex != s.length()) return false;
+		int i;
+		
+		for (i=0; beginIndex < endIndex; beginIndex++,i++)
+		{
+			if (b_chars.get(beginIndex) != s.charAt(i))
+				return false;
+		}
+		
+		return true;
+	}
+	
+	// ========================= WRITE =========================
+	
+	/**
+	 * Writes the specific string model to a binary file that can be memory-mapped by {@link #map(File)}.
+	 * @param model the string model to write.
+	 * @param file the output file.
+	 * @throws IOException
+	 */
+	static public void write(StringModel model, File file) throws IOException
+	{
+		String[] labels = model.getLabels();
+		Map<String,ObjectIntHashMap<String>> features = model.m_features;
+		String[] types = features.keySet().toArray(new String[features.size()]);
+		Arrays.sort(types);
+		
+		// string table
+		ObjectIntOpenHashMap<String> strings = new ObjectIntOpenHashMap<String>();
+		int i, j, nEntries = 0;
+		
+		for (String label : labels)	strings.put(label, 0);
+		for (String type  : types)	strings.put(type , 0);
+		
+		for (String type : types)
+		{
+			for (ObjectCursor<String> cur : features.get(type).keys())
+			{
+				strings.put(cur.value, 0);
+				nEntries++;
+			}
+		}
+		
+		String[] table = strings.keys().toArray(String.class);
+		Arrays.sort(table);
+		int nChars = 0;
+		
+		for (i=0; i<table.length; i++)
+		{
+			strings.put(table[i], i);
+			nChars += table[i].length();
+		}
+		
+		// dictionary
+		int nSlots = getSlotSize(nEntries), mask = nSlots - 1;
+		int[] slots = new int[nSlots * SLOT_SIZE];
+		ObjectIntHashMap<String> map;
+		
+		for (i=0; i<types.length; i++)
+		{
+			map = features.get(types[i]);
+			
+			for (ObjectCursor<String> cur : map.keys())
+			{
+				for (j=hash(i, cur.value) & mask; slots[j*SLOT_SIZE+2] > 0; j=(j+1) & mask);
+				
+				slots[j*SLOT_SIZE  ] = i;
+				slots[j*SLOT_SIZE+1] = strings.get(cur.value);
+				slots[j*SLOT_SIZE+2] = map.get(cur.value);
+			}
+		}
+		
+		// offsets
+		float[] weights = model.getWeights();
+		long oStrings = HEADER_SIZE;
+		long oLabels  = oStrings + (table.length+1) * 4L + nChars * 2L;
+		long oTypes   = oLabels  + labels.length * 4L;
+		long oSlots   = oTypes   + types.length  * 4L;
+		long oWeights = align(oSlots + slots.length * 4L);
+		
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(model.getLabelSize());
+		out.writeInt(model.getFeatureSize());
+		out.writeInt(types.length);
+		out.writeInt(table.length);
+		out.writeInt(nSlots);
+		out.writeInt(weights.length);
+		out.writeLong(oStrings);
+		out.writeLong(oLabels);
+		out.writeLong(oTypes);
+		out.writeLong(oSlots);
+		out.writeLong(oWeights);
+		
+		for (i=0,j=0; i<table.length; i++)
+		{
+			out.writeInt(j);
+			j += table[i].length();
+		}
+		
+		out.writeInt(j);
+		for (String s : table)		out.writeChars(s);
+		for (String label : labels)	out.writeInt(strings.get(label));
+		for (String type  : types)	out.writeInt(strings.get(type));
+		for (int slot : slots)		out.writeInt(slot);
+		for (i=out.size(); i<oWeights; i++)	out.writeByte(0);
+		for (float weight : weights)		out.writeFloat(weight);
+		
+		out.close();
+	}
+	
+	/** @return the smallest power of 2 that keeps the dictionary at most half full. */
+	static private int getSlotSize(int nEntries)
+	{
+		int size = 2;
+		while (size < nEntries * 2) size <<= 1;
+		return size;
+	}
+	
+	static private long align(long offset)
+	{
+		return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+	
+	static private int hash(int typeId, String value)
+	{
+		int h = value.hashCode() * 31 + typeId;
+		return h ^ (h >>> 16);
+	}
+	
+	// ========================= FEATURE =========================
+	
+	@Override
+	public int getFeatureIndex(String type, String value)
+	{
+		Integer typeId = m_types.get(type);
+		if (typeId == null) return 0;
+		
+		int i, index, t = typeId;
+		
+		for (i=hash(t, value) & n_mask; (index = b_slots.get(i*SLOT_SIZE+2)) > 0; i=(i+1) & n_mask)
+		{
+			if (b_slots.get(i*SLOT_SIZE) == t && equalsString(b_slots.get(i*SLOT_SIZE+1), value))
+				return index;
+		}
+		
+		return 0;
+	}
+	
+	@Override
+	protected boolean putFeatureHashes(LongIntOpenHashMap map)
+	{
+		long[] typeHashes = new long[a_types.length];
+		int i, beginIndex, endIndex, id;
+		long hash;
+		
+		for (i=0; i<a_types.length; i++)
+			typeHashes[i] = getFeatureHash(a_types[i]);
+		
+		for (i=0; i<b_slots.capacity(); i+=SLOT_SIZE)
+		{
+			if (b_slots.get(i+2) == 0) continue;
+			
+			hash = typeHashes[b_slots.get(i)];
+			id   = b_slots.get(i+1);
+			
+			for (beginIndex=b_offsets.get(id),endIndex=b_offsets.get(id+1); beginIndex<endIndex; beginIndex++)
+				hash = UTHash.hash(hash, b_chars.get(beginIndex));
+			
+			if (map.containsKey(hash))
+				return false;
+			
+			map.put(hash, b_slots.get(i+2));
+		}
+		
+		return true;
+	}
+	
+	@Override
+	public void addLabel(String label)
+	{
+		throw new UnsupportedOperationException("A memory-mapped model is read-only.");
+	}
+	
+	@Override
+	public void addFeature(String type, String value)
+	{
+		throw new UnsupportedOperationException("A memory-mapped model is read-only.");
+	}
+	
+	// ========================= WEIGHTS =========================
+	
+	@Override
+	protected float getWeight(int weightIndex)
+	{
+		return b_weights.get(weightIndex);
+	}
+	
+	/** @return a copy of the mapped weight vector. */
+	@Override
+	public float[] getWeights()
+	{
+		float[] weights = new float[b_weights.capacity()];
+		b_weights.duplicate().get(weights);
+		return weights;
+	}
+	
+	@Override
+	public float[] getWeights(int label)
+	{
+		float[] weights = new float[n_features];
+		int i;
+		
+		for (i=0; i<n_features; i++)
+			weights[i] = b_weights.get(getWeightIndex(label, i));
+		
+		return weights;
+	}
+	
+	@Override
+	public void trimFeatures(Logger log, float threshold)
+	{
+		throw new UnsupportedOperationException("A memory-mapped model is read-only.");
+	}
+	
+	@Override
+	public void initWeightVector()
+	{
+		throw new UnsupportedOperationException("A memory-mapped model is read-only.");
+	}
+	
+	@Override
+	public void setWeights(float[] weights)
+	{
+		throw new UnsupportedOperationException("A memory-mapped model is read-only.");
+	}
+	
+	@Override
+	public void copyWeights(float[] weights)
+	{
+		throw new UnsupportedOperationException("A memory-mapped model is read-only.");
+	}
+	
+	@Override
+	public void copyWeights(float[] weights, int label)
+	{
+		throw new UnsupportedOperationException("A memory-mapped model is read-only.");
+	}
+	
+	// ========================= SCORES =========================
+	
+	@Override
+	public void getScores(SparseFeatureVector x, double[] scores)
+	{
+		if (isBinaryLabel())
+		{
+			LinearScorer.getScores(b_weights, 1, 1, n_features, x, scores);
+			scores[1] = -scores[0];
+		}
+		else
+			LinearScorer.getScores(b_weights, n_labels, n_labels, n_features, x, scores);
+	}
+	
+	@Override
+	protected void getScoresAux(SparseFeatureVector x, int[] labels, double[] scores)
+	{
+		LinearScorer.getScores(b_weights, n_labels, labels, n_features, x, scores);
+	}
+	
+	// ========================= SERIALIZATION =========================
+	
+	/** @return a heap copy of this model so that it can be serialized as a regular {@link StringModel}. */
+	public StringModel toStringModel()
+	{
+		StringModel model = new StringModel();
+		int i;
+		
+		for (i=0; i<n_labels; i++)
+			model.addLabel(a_labels[i]);
+		
+		model.initLabelArray();
+		model.m_features = Maps.newHashMap();
+		model.n_features = n_features;
+		
+		for (i=0; i<b_slots.capacity(); i+=SLOT_SIZE)
+		{
+			if (b_slots.get(i+2) > 0)
+				addFeature(model, b_slots.get(i), b_slots.get(i+1), b_slots.get(i+2));
+		}
+		
+		model.setWeights(getWeights());
+		return model;
+	}
+	
+	/** Called by {@link #toStringModel()}. */
+	private void addFeature(StringModel model, int typeId, int valueId, int index)
+	{
+		String type = a_types[typeId];
+		ObjectIntHashMap<String> map = model.m_features.get(type);
+		
+		if (map == null)
+		{
+			map = new ObjectIntHashMap<String>();
+			model.m_features.put(type, map);
+		}
+		
+		map.put(getString(valueId), index);
+	}
+	
+	private Object writeReplace() throws ObjectStreamException
+	{
+		return toStringModel();
+	}
+	
+	/** A placeholder of a memory-mapped model written in an object stream. */
+	static class Reference implements Serializable
+	{
+		private static final long serialVersionUID = 3624466880413470212L;
+		
+		/** The name of the binary model file, relative to the model directory. */
+		final String filename;
+		
+		Reference(String filename)
+		{
+			this.filename = filename;
+		}
+	}
+}
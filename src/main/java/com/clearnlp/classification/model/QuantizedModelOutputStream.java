@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.model;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Object output stream that writes every {@link StringModel} as a {@link QuantizedStringModel}.
+ * Components saved through this stream can be loaded by a regular {@link java.io.ObjectInputStream}.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class QuantizedModelOutputStream extends ObjectOutputStream
+{
+	private int  i_precision;
+	private long n_bytes;
+	private long n_quantizedBytes;
+	
+	/**
+	 * @param out the output stream of the component.
+	 * @param precision {@link QuantizedStringModel#PRECISION_INT8} or {@link QuantizedStringModel#PRECISION_FLOAT16}.
+	 */
+	public QuantizedModelOutputStream(OutputStream out, int precision) throws IOException
+	{
+		super(out);
+		i_precision = precision;
+		enableReplaceObject(true);
+	}
+	
+	@Override
+	protected Object replaceObject(Object obj) throws IOException
+	{
+		if (obj instanceof StringModel && !(obj instanceof QuantizedStringModel))
+		{
+			StringModel model = (StringModel)obj;
+			QuantizedStringModel qModel = QuantizedStringModel.quantize(model, i_precision);
+			
+			n_bytes          += 4L * model.getWeights().length;
+			n_quantizedBytes += qModel.getWeightBytes();
+			return qModel;
+		}
+		
+		return obj;
+	}
+	
+	/** @return the number of bytes taken by the weights of all models before quantization. */
+	public long getWeightBytes()
+	{
+		return n_bytes;
+	}
+	
+	/** @return the number of bytes taken by the weights of all models after quantization. */
+	public long getQuantizedWeightBytes()
+	{
+		return n_quantizedBytes;
+	}
+}
@@ -0,0 +1,329 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.log4j.Logger;
+
+import com.clearnlp.classification.vector.SparseFeatureVector;
+import com.clearnlp.collection.map.ObjectIntHashMap;
+import com.clearnlp.util.UTMath;
+
+/**
+ * Read-only string model whose weights are stored in reduced precision and dequantized while scoring.
+ * <ul>
+ * <li>{@link #PRECISION_INT8}: each weight is a signed byte multiplied by the scale of its block of {@link #BLOCK_SIZE} weights;
+ * the scale maps the largest absolute weight in the block to {@code 127}.</li>
+ * <li>{@link #PRECISION_FLOAT16}: each weight is an IEEE 754 half-precision value.</li>
+ * </ul>
+ * Zero weights remain exactly zero in both representations.
+ * Feature dictionaries are shared with the model it is quantized from.
+ * The quantized weights are written by {@link #saveDefault(ObjectOutputStream)} so that
+ * components holding quantized models are saved and loaded the same way as regular models.
+ * @see com.clearnlp.run.QuantizedModelConvert
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class QuantizedStringModel extends StringModel
+{
+	private static final long serialVersionUID = -2718459620344951703L;
+	
+	/** 8-bit integers with a scale per block (about 1/4 of the single-precision size). */
+	static public final int PRECISION_INT8    = 8;
+	/** 16-bit floating points (1/2 of the single-precision size). */
+	static public final int PRECISION_FLOAT16 = 16;
+	
+	/** {@code log2} of {@link #BLOCK_SIZE}. */
+	static private final int BLOCK_SHIFT = 6;
+	/** The number of consecutive weights sharing the same scale for {@link #PRECISION_INT8}. */
+	static public final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+	
+	/** {@link #PRECISION_INT8} or {@link #PRECISION_FLOAT16}. */
+	transient private int     i_precision;
+	/** The quantized weights for {@link #PRECISION_INT8}. */
+	transient private byte[]  q_bytes;
+	/** The scales of weight blocks for {@link #PRECISION_INT8}. */
+	transient private float[] q_scales;
+	/** The quantized weights for {@link #PRECISION_FLOAT16}. */
+	transient private short[] q_halves;
+	
+	private QuantizedStringModel() {}
+	
+	/**
+	 * Quantizes the weights of the specific model.
+	 * @param model the model to quantize; its weights are not modified.
+	 * @param precision {@link #PRECISION_INT8} or {@link #PRECISION_FLOAT16}.
+	 * @return the quantized model.
+	 */
+	static public QuantizedStringModel quantize(StringModel model, int precision)
+	{
+		if (model instanceof QuantizedStringModel)
+			model = ((QuantizedStringModel)model).toStringModel();
+		else if (model instanceof MappedStringModel)
+			model = ((MappedStringModel)model).toStringModel();
+		
+		QuantizedStringModel qModel = new QuantizedStringModel();
+		float[] weights = model.getWeights();
+		
+		qModel.n_labels    = model.n_labels;
+		qModel.n_features  = model.n_features;
+		qModel.a_labels    = model.a_labels;
+		qModel.m_labels    = model.m_labels;
+		qModel.m_features  = model.m_features;
+		qModel.i_precision = precision;
+		
+		switch (precision)
+		{
+		case PRECISION_INT8   : qModel.quantizeInt8(weights);    break;
+		case PRECISION_FLOAT16: qModel.quantizeFloat16(weights); break;
+		default: throw new IllegalArgumentException("Unsupported precision: "+precision);
+		}
+		
+		return qModel;
+	}
+	
+	/** Called by {@link #quantize(StringModel, int)}. */
+	private void quantizeInt8(float[] weights)
+	{
+		int i, j, bIdx, eIdx, size = weights.length;
+		float max;
+		
+		q_bytes  = new byte[size];
+		q_scales = new float[(size + BLOCK_SIZE - 1) >> BLOCK_SHIFT];
+		
+		for (i=0; i<q_scales.length; i++)
+		{
+			bIdx = i << BLOCK_SHIFT;
+			eIdx = Math.min(bIdx + BLOCK_SIZE, size);
+			max  = 0;
+			
+			for (j=bIdx; j<eIdx; j++)
+				max = Math.max(max, Math.abs(weights[j]));
+			
+			if (max == 0) continue;
+			q_scales[i] = max / Byte.MAX_VALUE;
+			
+			for (j=bIdx; j<eIdx; j++)
+				q_bytes[j] = (byte)Math.max(-Byte.MAX_VALUE, Math.min(Byte.MAX_VALUE, Math.round(weights[j] / q_scales[i])));
+		}
+	}
+	
+	/** Called by {@link #quantize(StringModel, int)}. */
+	private void quantizeFloat16(float[] weights)
+	{
+		int i, size = weights.length;
+		q_halves = new short[size];
+		
+		for (i=0; i<size; i++)
+			q_halves[i] = UTMath.toHalf(weights[i]);
+	}
+	
+	/** @return {@link #PRECISION_INT8} or {@link #PRECISION_FLOAT16}. */
+	public int getPrecision()
+	{
+		return i_precision;
+	}
+	
+	/** @return the number of bytes taken by the quantized weights. */
+	public long getWeightBytes()
+	{
+		return (i_precision == PRECISION_INT8) ? q_bytes.length + 4L * q_scales.length : 2L * q_halves.length;
+	}
+	
+	/** @return a single-precision copy of this model. */
+	public StringModel toStringModel()
+	{
+		StringModel model = new StringModel();
+		
+		model.n_labels   = n_labels;
+		model.n_features = n_features;
+		model.a_labels   = a_labels;
+		model.m_labels   = m_labels;
+		model.m_features = m_features;
+		model.setWeights(getWeights());
+		
+		return model;
+	}
+	
+	// ========================= WEIGHTS =========================
+	
+	@Override
+	protected float getWeight(int weightIndex)
+	{
+		if (i_precision == PRECISION_INT8)
+			return q_bytes[weightIndex] * q_scales[weightIndex >> BLOCK_SHIFT];
+		else
+			return UTMath.toFloat(q_halves[weightIndex]);
+	}
+	
+	/** @return a dequantized copy of the weight vector. */
+	@Override
+	public float[] getWeights()
+	{
+		int i, size = (i_precision == PRECISION_INT8) ? q_bytes.length : q_halves.length;
+		float[] weights = new float[size];
+		
+		for (i=0; i<size; i++)
+			weights[i] = getWeight(i);
+		
+		return weights;
+	}
+	
+	@Override
+	public float[] getWeights(int label)
+	{
+		float[] weights = new float[n_features];
+		int i;
+		
+		for (i=0; i<n_features; i++)
+			weights[i] = getWeight(getWeightIndex(label, i));
+		
+		return weights;
+	}
+	
+	@Override
+	public void addLabel(String label)
+	{
+		throw new UnsupportedOperationException("A quantized model is read-only.");
+	}
+	
+	@Override
+	public void addFeature(String type, String value)
+	{
+		throw new UnsupportedOperationException("A quantized model is read-only.");
+	}
+	
+	@Override
+	public void trimFeatures(Logger log, float threshold)
+	{
+		throw new UnsupportedOperationException("A quantized model is read-only.");
+	}
+	
+	@Override
+	public void initWeightVector()
+	{
+		throw new UnsupportedOperationException("A quantized model is read-only.");
+	}
+	
+	@Override
+	public void setWeights(float[] weights)
+	{
+		throw new UnsupportedOperationException("A quantized model is read-only.");
+	}
+	
+	@Override
+	public void copyWeights(float[] weights)
+	{
+		throw new UnsupportedOperationException("A quantized model is read-only.");
+	}
+	
+	@Override
+	public void copyWeights(float[] weights, int label)
+	{
+		throw new UnsupportedOperationException("A quantized model is read-only.");
+	}
+	
+	// ========================= SCORES =========================
+	
+	@Override
+	public void getScores(SparseFeatureVector x, double[] scores)
+	{
+		int stride = isBinaryLabel() ? 1 : n_labels;
+		
+		if (i_precision == PRECISION_INT8)
+			LinearScorer.getScores(q_bytes, q_scales, BLOCK_SHIFT, stride, stride, n_features, x, scores);
+		else
+			LinearScorer.getScores(q_halves, stride, stride, n_features, x, scores);
+		
+		if (isBinaryLabel())
+			scores[1] = -scores[0];
+	}
+	
+	@Override
+	protected void getScoresAux(SparseFeatureVector x, int[] labels, double[] scores)
+	{
+		if (i_precision == PRECISION_INT8)
+			LinearScorer.getScores(q_bytes, q_scales, BLOCK_SHIFT, n_labels, labels, n_features, x, scores);
+		else
+			LinearScorer.getScores(q_halves, n_labels, labels, n_features, x, scores);
+	}
+	
+	// ========================= LOAD/SAVE =========================
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void loadDefault(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		a_labels    = (String[])in.readObject();
+		m_labels    = (ObjectIntHashMap<String>)in.readObject();
+		i_precision = in.readInt();
+		n_features  = in.readInt();
+		n_labels    = a_labels.length;
+		
+		if (i_precision == PRECISION_INT8)
+		{
+			q_bytes  = (byte[]) in.readObject();
+			q_scales = (float[])in.readObject();
+		}
+		else
+			q_halves = (short[])in.readObject();
+	}
+	
+	@Override
+	protected void saveDefault(ObjectOutputStream out) throws IOException
+	{
+		out.writeObject(a_labels);
+		out.writeObject(m_labels);
+		out.writeInt(i_precision);
+		out.writeInt(n_features);
+		
+		if (i_precision == PRECISION_INT8)
+		{
+			out.writeObject(q_bytes);
+			out.writeObject(q_scales);
+		}
+		else
+			out.writeObject(q_halves);
+	}
+}
@@ -47,11 +47,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.log4j.Logger;
+
+import com.carrotsearch.hppc.LongIntOpenHashMap;
 import com.carrotsearch.hppc.ObjectIntOpenHashMap;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
 import com.clearnlp.classification.prediction.StringPrediction;
 import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.classification.vector.StringFeatureVector;
 import com.clearnlp.collection.map.ObjectIntHashMap;
+import com.clearnlp.util.UTHash;
 import com.clearnlp.util.pair.Pair;
 
 
@@ -63,9 +68,15 @@ import com.clearnlp.util.pair.Pair;
 public class StringModel extends AbstractModel
 {
 	private static final long serialVersionUID = 5238076252059236959L;
+	/** The character separating a feature type from its value when hashing. */
+	static private final char FEATURE_DELIM = '\uffff';
 
 	/** The map between features and their indices. */
 	protected Map<String,ObjectIntHashMap<String>> m_features;
+	/** The map between feature hashes and their indices (see {@link #getFeatureHash(String)}), built lazily for decoding. */
+	transient private volatile LongIntOpenHashMap m_hashes;
+	/** {@code true} if two features in this model share the same hash. */
+	transient private boolean b_collision;
 	
 	/** Constructs a string model for training. */
 	public StringModel()
@@ -95,6 +106,7 @@ public class StringModel extends AbstractModel
 	public void addFeature(String type, String value)
 	{
 		ObjectIntHashMap<String> map;
+		m_hashes = null;
 		
 		if (m_features.containsKey(type))
 		{
@@ -110,6 +122,94 @@ public class StringModel extends AbstractModel
 		}
 	}
 
+	/**
+	 * Returns the index of the specific feature.
+	 * Returns {@code 0} if the feature is not found in this model.
+	 * @param type the feature type.
+	 * @param value the feature value.
+	 * @return the index of the specific feature.
+	 */
+	public int getFeatureIndex(String type, String value)
+	{
+		ObjectIntOpenHashMap<String> map = m_features.get(type);
+		return (map != null) ? map.get(value) : 0;
+	}
+	
+	/**
+	 * Returns the hash of the specific feature type, to which the characters of a feature value
+	 * can be appended by {@link UTHash#hash(long, String)} to get the feature hash.
+	 * @param type the feature type.
+	 * @return the hash of the specific feature type.
+	 */
+	static public long getFeatureHash(String type)
+	{
+		return UTHash.hash(UTHash.hash(UTHash.OFFSET, type), FEATURE_DELIM);
+	}
+	
+	/** @return the hash of the specific feature. */
+	static public long getFeatureHash(String type, String value)
+	{
+		return UTHash.hash(getFeatureHash(type), value);
+	}
+	
+	/**
+	 * Returns {@code true} if features in this model can be looked up by {@link #getFeatureIndex(long)}.
+	 * Returns {@code false} if any two features collide, in which case {@link #getFeatureIndex(String, String)} must be used.
+	 */
+	public boolean hasFeatureHashes()
+	{
+		if (m_hashes == null) initFeatureHashes();
+		return !b_collision;
+	}
+	
+	/** Called by {@link #hasFeatureHashes()}. */
+	synchronized private void initFeatureHashes()
+	{
+		if (m_hashes != null) return;
+		LongIntOpenHashMap map = new LongIntOpenHashMap(n_features);
+		
+		b_collision = !putFeatureHashes(map);
+		m_hashes = map;
+	}
+	
+	/**
+	 * Puts the hashes of all features in this model to the specific map.
+	 * @return {@code false} if any two features share the same hash.
+	 */
+	protected boolean putFeatureHashes(LongIntOpenHashMap map)
+	{
+		ObjectIntHashMap<String> values;
+		long hash;
+		
+		for (String type : m_features.keySet())
+		{
+			values = m_features.get(type);
+			
+			for (ObjectCursor<String> cur : values.keys())
+			{
+				hash = getFeatureHash(type, cur.value);
+				
+				if (map.containsKey(hash))
+					return false;
+				
+				map.put(hash, values.get(cur.value));
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Returns the index of the feature with the specific hash.
+	 * Returns {@code 0} if the feature is not found in this model.
+	 * {@link #hasFeatureHashes()} must be {@code true} before calling this method.
+	 * @param hash the feature hash (see {@link #getFeatureHash(String, String)}).
+	 */
+	public int getFeatureIndex(long hash)
+	{
+		return m_hashes.get(hash);
+	}
+	
 	/**
 	 * Returns the sparse feature vector converted from the string feature vector.
 	 * During the conversion, discards features not found in this model.
@@ -120,15 +220,10 @@ public class StringModel extends AbstractModel
 	{
 		SparseFeatureVector sparse = new SparseFeatureVector(vector.hasWeight());
 		int i, index, size = vector.size();
-		ObjectIntOpenHashMap<String> map;
-		String type, value;
 		
 		for (i=0; i<size; i++)
 		{
-			type  = vector.getType(i);
-			value = vector.getValue(i);
-			
-			if ((map = m_features.get(type)) != null && (index = map.get(value)) > 0)
+			if ((index = getFeatureIndex(vector.getType(i), vector.getValue(i))) > 0)
 			{
 				if (sparse.hasWeight())
 					sparse.addFeature(index, vector.getWeight(i));
@@ -141,11 +236,72 @@ public class StringModel extends AbstractModel
 		return sparse;
 	}
 	
+	/**
+	 * Removes features whose absolute weights are less than or equal to the specific threshold for all labels,
+	 * and reassigns dense indices to the remaining features in their original order.
+	 * The bias is always kept.
+	 * @param log the logger to report the number of features before and after.
+	 * @param threshold the threshold (e.g., {@code 0} to remove features whose weights are all zero).
+	 */
+	public void trimFeatures(Logger log, float threshold)
+	{
+		int stride = isBinaryLabel() ? 1 : n_labels;
+		int[] map = new int[n_features];
+		int i, j, tFeatures = 1;
+		
+		for (i=1; i<n_features; i++)
+		{
+			for (j=0; j<stride; j++)
+			{
+				if (Math.abs(d_weights[i*stride+j]) > threshold)
+				{
+					map[i] = tFeatures++;
+					break;
+				}
+			}
+		}
+		
+		log.info(String.format("Trimming: %d -> %d\n", n_features, tFeatures));
+		
+		// weights
+		float[] tWeights = new float[tFeatures * stride];
+		System.arraycopy(d_weights, 0, tWeights, 0, stride);
+		
+		for (i=1; i<n_features; i++)
+		{
+			if (map[i] > 0)
+				System.arraycopy(d_weights, i*stride, tWeights, map[i]*stride, stride);
+		}
+		
+		// features
+		Map<String,ObjectIntHashMap<String>> tMap = new HashMap<String,ObjectIntHashMap<String>>();
+		ObjectIntHashMap<String> oValues, tValues;
+		
+		for (String type : m_features.keySet())
+		{
+			oValues = m_features.get(type);
+			tValues = new ObjectIntHashMap<String>();
+			
+			for (ObjectCursor<String> cur : oValues.keys())
+			{
+				if ((i = map[oValues.get(cur.value)]) > 0)
+					tValues.put(cur.value, i);
+			}
+			
+			if (!tValues.isEmpty())
+				tMap.put(type, tValues);
+		}
+		
+		m_features = tMap;
+		d_weights  = tWeights;
+		n_features = tFeatures;
+		m_hashes   = null;
+	}
+	
 	public StringFeatureVector trimFeatures(StringFeatureVector oVector, String label, double threshold)
 	{
 		StringFeatureVector nVector = new StringFeatureVector(oVector.hasWeight());
 		int i, size = oVector.size(), fIndex, lIndex = getLabelIndex(label);
-		ObjectIntOpenHashMap<String> map;
 		String type, value;
 		boolean add;
 		
@@ -155,9 +311,9 @@ public class StringModel extends AbstractModel
 			value = oVector.getValue(i);
 			add   = false;
 			
-			if ((map = m_features.get(type)) != null && (fIndex = map.get(value)) > 0)
+			if ((fIndex = getFeatureIndex(type, value)) > 0)
 			{
-				if (d_weights[getWeightIndex(lIndex, fIndex)] == threshold)
+				if (getWeight(getWeightIndex(lIndex, fIndex)) == threshold)
 					add = true;
 			}
 			else
@@ -584,73 +584,40 @@ public class StringModelAD implements Serializable
 	// ========================= SCORE =========================
 	
 	/**
-	 * For binary classification, this method calls {@link #getScoresBinary(SparseFeatureVector)}.
-	 * For multi-classification, this method calls {@link #getScoresMulti(SparseFeatureVector)}.
+	 * Returns the scores of all labels given the feature vector.
+	 * For binary classification, the scores are {@code {score, -score}}.
 	 * @param x the feature vector.
 	 * @return the scores of all labels given the feature vector.
 	 */
 	public double[] getScores(SparseFeatureVector x)
 	{
-		return isBinaryLabel() ? getScoresBinary(x) : getScoresMulti(x);
-	}
-	
-	public double[] getScores(SparseFeatureVector x, boolean normalize)
-	{
-		double[] scores = getScores(x);
-		
-		if (normalize) normalize(scores);
+		double[] scores = new double[n_labels];
+		getScores(x, scores);
 		return scores;
 	}
-
+	
 	/**
+	 * Puts the scores of all labels given the feature vector into the specific buffer.
+	 * @see LinearScorer
 	 * @param x the feature vector.
-	 * @return the scores of all labels given the feature vector.
+	 * @param scores the buffer to put the scores in (its length must be at least the number of labels).
 	 */
-	private double[] getScoresBinary(SparseFeatureVector x)
+	public void getScores(SparseFeatureVector x, double[] scores)
 	{
-		int i, featureIndex, weightIndex, size = x.size();
-		double score = f_weights.get(0);
-		
-		for (i=0; i<size; i++)
+		if (isBinaryLabel())
 		{
-			featureIndex = x.getIndex(i);
-			
-			if (isValidFeature(featureIndex))
-			{		
-				weightIndex = getWeightIndex(0, featureIndex);
-				score += f_weights.get(weightIndex) * x.getWeight(i);
-			}
+			LinearScorer.getScores(f_weights.buffer, n_labels, 1, n_features, x, scores);
+			scores[1] = -scores[0];
 		}
-		
-		double[] scores = {score, -score};
-		return scores;
+		else
+			LinearScorer.getScores(f_weights.buffer, n_labels, n_labels, n_features, x, scores);
 	}
 	
-	/**
-	 * @param x the feature vector.
-	 * @return the scores of all labels given the feature vector.
-	 */
-	private double[] getScoresMulti(SparseFeatureVector x)
+	public double[] getScores(SparseFeatureVector x, boolean normalize)
 	{
-		int i, featureIndex, weightIndex, labelIndex, size = x.size();
-		double[] scores = f_weights.toDoubleArray(0, n_labels);
-		double weight;
-		
-		for (i=0; i<size; i++)
-		{
-			featureIndex = x.getIndex(i);
-			weight = x.getWeight(i);
-			
-			if (isValidFeature(featureIndex))
-			{
-				for (labelIndex=0; labelIndex<n_labels; labelIndex++)
-				{
-					weightIndex = getWeightIndex(labelIndex, featureIndex);
-					scores[labelIndex] += f_weights.get(weightIndex) * weight;
-				}
-			}
-		}
+		double[] scores = getScores(x);
 		
+		if (normalize) normalize(scores);
 		return scores;
 	}
 	
@@ -161,6 +161,36 @@ abstract public class AbstractTrainSpace
 		return a_vs;
 	}
 	
+	/**
+	 * Returns the label of the specific training instance.
+	 * @param index the index of the training instance.
+	 * @return the label of the specific training instance.
+	 */
+	public int getY(int index)
+	{
+		return a_ys.get(index);
+	}
+	
+	/**
+	 * Returns the feature indices of the specific training instance.
+	 * @param index the index of the training instance.
+	 * @return the feature indices of the specific training instance.
+	 */
+	public int[] getX(int index)
+	{
+		return a_xs.get(index);
+	}
+	
+	/**
+	 * Returns the feature weights of the specific training instance if {@link #hasWeight()}; otherwise, {@code null}.
+	 * @param index the index of the training instance.
+	 * @return the feature weights of the specific training instance.
+	 */
+	public double[] getV(int index)
+	{
+		return b_weight ? a_vs.get(index) : null;
+	}
+	
 	/**
 	 * Returns {@code true} if features are assigned with different weights. 
 	 * @return {@code true} if features are assigned with different weights.
@@ -251,17 +281,17 @@ abstract public class AbstractTrainSpace
 	
 	public void printInstances(PrintStream fout)
 	{
-		int i, j, len, size = a_ys.size();
+		int i, j, len, size = getInstanceSize();
 		int[] xs; double[] vs;
 		StringBuilder build;
 		
 		for (i=0; i<size; i++)
 		{
 			build = new StringBuilder();
-			build.append(a_ys.get(i));
+			build.append(getY(i));
 			
-			xs  = a_xs.get(i);
-			vs  = (b_weight) ? a_vs.get(i) : null;
+			xs  = getX(i);
+			vs  = getV(i);
 			len = xs.length;
 			
 			for (j=0; j<len; j++)
@@ -0,0 +1,398 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.train;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.ObjectIntOpenHashMap;
+import com.carrotsearch.hppc.cursors.ObjectIntCursor;
+import com.clearnlp.classification.instance.StringInstance;
+import com.clearnlp.classification.model.StringModel;
+import com.clearnlp.classification.vector.StringFeatureVector;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+
+/**
+ * Train space containing string vectors whose instances are kept on disk.
+ * Each instance is encoded as integers using provisional label and feature indices and spilled to a temporary file
+ * as soon as it is added so that only the label and feature lexica are kept in memory.
+ * {@link #build()} maps the provisional indices to the ones in the model and writes the instances to another temporary file,
+ * which is accessed through a memory-mapped {@link MappedInstanceList}.
+ * Instances must be accessed by {@link #getY(int)}, {@link #getX(int)}, and {@link #getV(int)}.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class DiskStringTrainSpace extends StringTrainSpace
+{
+	/** The directory to create temporary files in ({@code null} for the default temporary directory). */
+	private File d_temp;
+	/** The map between labels and their provisional indices (starting at 1). */
+	private ObjectIntOpenHashMap<String> m_labelIndices;
+	/** The list of labels, where the index of each label is its provisional index. */
+	private List<String> a_labelList;
+	/** The counts of labels indexed by provisional indices. */
+	private IntArrayList a_labelCounts;
+	/** The map between features and their provisional indices (starting at 1). */
+	private Map<String,ObjectIntOpenHashMap<String>> m_featureIndices;
+	/** The counts of features indexed by provisional indices. */
+	private IntArrayList a_featureCounts;
+	/** The instances using provisional indices. */
+	private MappedInstanceList l_raw;
+	/** The instances using model indices (available after {@link #build()}). */
+	private MappedInstanceList l_instances;
+	
+	/**
+	 * Constructs a train space containing string vectors whose instances are kept on disk.
+	 * @param hasWeight {@code true} if features are assigned with different weights.
+	 * @param labelCutoff the label count cutoff (exclusive).
+	 * @param featureCutoff the feature count cutoff (exclusive).
+	 * @param tempDir the directory to create temporary files in ({@code null} for the default temporary directory).
+	 */
+	public DiskStringTrainSpace(boolean hasWeight, int labelCutoff, int featureCutoff, File tempDir)
+	{
+		super(hasWeight, labelCutoff, featureCutoff);
+		d_temp = tempDir;
+		init();
+	}
+	
+	private void init()
+	{
+		m_labelIndices   = new ObjectIntOpenHashMap<String>();
+		a_labelList      = Lists.newArrayList((String)null);
+		a_labelCounts    = new IntArrayList();
+		m_featureIndices = Maps.newHashMap();
+		a_featureCounts  = new IntArrayList();
+		l_raw            = createInstanceList();
+		l_instances      = null;
+		
+		a_labelCounts  .add(0);
+		a_featureCounts.add(0);
+	}
+	
+	private MappedInstanceList createInstanceList()
+	{
+		try
+		{
+			return new MappedInstanceList(d_temp, b_weight);
+		}
+		catch (IOException e) {throw new IllegalStateException(e);}
+	}
+	
+//	====================================== LEXICA ======================================
+	
+	/** @return the provisional index of the specific label after adding the count. */
+	private int addLabel(String label, int count)
+	{
+		int index = m_labelIndices.get(label);
+		
+		if (index == 0)
+		{
+			index = a_labelList.size();
+			m_labelIndices.put(label, index);
+			a_labelList.add(label);
+			a_labelCounts.add(0);
+		}
+		
+		a_labelCounts.set(index, a_labelCounts.get(index) + count);
+		return index;
+	}
+	
+	/** @return the provisional index of the specific feature after adding the count. */
+	private int addFeature(String type, String value, int count)
+	{
+		ObjectIntOpenHashMap<String> map = m_featureIndices.get(type);
+		int index;
+		
+		if (map == null)
+		{
+			map = new ObjectIntOpenHashMap<String>();
+			m_featureIndices.put(type, map);
+		}
+		
+		if ((index = map.get(value)) == 0)
+		{
+			index = a_featureCounts.size();
+			map.put(value, index);
+			a_featureCounts.add(0);
+		}
+		
+		a_featureCounts.set(index, a_featureCounts.get(index) + count);
+		return index;
+	}
+	
+//	====================================== INSTANCES ======================================
+	
+	@Override
+	public void addInstance(StringInstance instance)
+	{
+		StringFeatureVector vector = instance.getFeatureVector();
+		int i, size = vector.size();
+		int[] xs = new int[size];
+		
+		for (i=0; i<size; i++)
+			xs[i] = addFeature(vector.getType(i), vector.getValue(i), 1);
+		
+		addInstance(addLabel(instance.getLabel(), 1), xs, b_weight ? vector.getWeights() : null, l_raw);
+	}
+	
+	private void addInstance(int y, int[] xs, double[] vs, MappedInstanceList list)
+	{
+		try
+		{
+			list.add(y, xs, vs);
+		}
+		catch (IOException e) {throw new IllegalStateException(e);}
+	}
+	
+	/**
+	 * Appends the lexica and instances of the specific space to this space.
+	 * @param space a train space created by the same constructor.
+	 */
+	@Override
+	public void appendSpace(StringTrainSpace space)
+	{
+		if (!(space instanceof DiskStringTrainSpace))
+			throw new IllegalArgumentException("Only spaces kept on disk can be appended.");
+		
+		DiskStringTrainSpace sp = (DiskStringTrainSpace)space;
+		int[] labels   = new int[sp.a_labelList.size()];
+		int[] features = new int[sp.a_featureCounts.size()];
+		int i, j, size;
+		int[] xs;
+		
+		for (i=1; i<labels.length; i++)
+			labels[i] = addLabel(sp.a_labelList.get(i), sp.a_labelCounts.get(i));
+		
+		for (Map.Entry<String,ObjectIntOpenHashMap<String>> entry : sp.m_featureIndices.entrySet())
+		{
+			for (ObjectIntCursor<String> cur : entry.getValue())
+				features[cur.value] = addFeature(entry.getKey(), cur.key, sp.a_featureCounts.get(cur.value));
+		}
+		
+		map(sp.l_raw);
+		size = sp.l_raw.size();
+		
+		for (i=0; i<size; i++)
+		{
+			xs = sp.l_raw.getIndices(i);
+			for (j=0; j<xs.length; j++) xs[j] = features[xs[j]];
+			addInstance(labels[sp.l_raw.getLabel(i)], xs, sp.l_raw.getWeights(i), l_raw);
+		}
+	}
+	
+	@Override
+	public void clear()
+	{
+		if (l_raw       != null)	l_raw.delete();
+		if (l_instances != null)	l_instances.delete();
+		
+		m_labelIndices  .clear();
+		a_labelList     .clear();
+		a_labelCounts   .clear();
+		m_featureIndices.clear();
+		a_featureCounts .clear();
+		l_raw       = null;
+		l_instances = null;
+	}
+	
+	private void map(MappedInstanceList list)
+	{
+		try
+		{
+			list.map();
+		}
+		catch (IOException e) {throw new IllegalStateException(e);}
+	}
+	
+//	====================================== BUILD ======================================
+	
+	@Override
+	public void build(boolean clearInstances)
+	{
+		LOG.info("Building:\n");
+		
+		StringModel model = (StringModel)m_model;
+		int[] labels   = initLabels(model);
+		int[] features = initFeatures(model);
+		int i, j, k, y, size;
+		double[] vs, ws;
+		int[] xs, ys;
+		
+		map(l_raw);
+		if (l_instances != null) l_instances.delete();
+		l_instances = createInstanceList();
+		size = l_raw.size();
+		
+		for (i=0; i<size; i++)
+		{
+			if ((y = labels[l_raw.getLabel(i)]) < 0)
+				continue;
+			
+			xs = l_raw.getIndices(i);
+			vs = l_raw.getWeights(i);
+			
+			for (j=0,k=0; j<xs.length; j++)
+			{
+				if (features[xs[j]] > 0) k++;
+			}
+			
+			ys = new int[k];
+			ws = b_weight ? new double[k] : null;
+			
+			for (j=0,k=0; j<xs.length; j++)
+			{
+				if (features[xs[j]] > 0)
+				{
+					ys[k] = features[xs[j]];
+					if (b_weight) ws[k] = vs[j];
+					k++;
+				}
+			}
+			
+			addInstance(y, ys, ws, l_instances);
+		}
+		
+		map(l_instances);
+		
+		LOG.info("- # of labels   : "+model.getLabelSize()+"\n");
+		LOG.info("- # of features : "+model.getFeatureSize()+"\n");
+		LOG.info("- # of instances: "+l_instances.size()+"\n");
+		
+		if (clearInstances)
+		{
+			l_raw.delete();
+			l_raw = createInstanceList();
+		}
+	}
+	
+	/** @return the map from provisional label indices to label indices in the model ({@code -1} if not added). */
+	private int[] initLabels(StringModel model)
+	{
+		int[] labels = new int[a_labelList.size()];
+		int i;
+		
+		for (i=1; i<labels.length; i++)
+		{
+			if (a_labelCounts.get(i) > l_cutoff)
+				model.addLabel(a_labelList.get(i));
+		}
+		
+		model.initLabelArray();
+		
+		for (i=1; i<labels.length; i++)
+			labels[i] = model.getLabelIndex(a_labelList.get(i));
+		
+		return labels;
+	}
+	
+	/** @return the map from provisional feature indices to feature indices in the model ({@code 0} if not added). */
+	private int[] initFeatures(StringModel model)
+	{
+		int[] features = new int[a_featureCounts.size()];
+		
+		for (Map.Entry<String,ObjectIntOpenHashMap<String>> entry : m_featureIndices.entrySet())
+		{
+			for (ObjectIntCursor<String> cur : entry.getValue())
+			{
+				if (a_featureCounts.get(cur.value) > f_cutoff)
+					model.addFeature(entry.getKey(), cur.key);
+			}
+		}
+		
+		for (Map.Entry<String,ObjectIntOpenHashMap<String>> entry : m_featureIndices.entrySet())
+		{
+			for (ObjectIntCursor<String> cur : entry.getValue())
+				features[cur.value] = model.getFeatureIndex(entry.getKey(), cur.key);
+		}
+		
+		return features;
+	}
+	
+//	====================================== GETTERS ======================================
+	
+	@Override
+	public int getInstanceSize()
+	{
+		return (l_instances != null) ? l_instances.size() : 0;
+	}
+	
+	@Override
+	public int getY(int index)
+	{
+		return l_instances.getLabel(index);
+	}
+	
+	@Override
+	public int[] getX(int index)
+	{
+		return l_instances.getIndices(index);
+	}
+	
+	@Override
+	public double[] getV(int index)
+	{
+		return l_instances.getWeights(index);
+	}
+	
+	@Override
+	public IntArrayList getYs()
+	{
+		throw new UnsupportedOperationException("Instances are kept on disk; use getY(int) instead.");
+	}
+	
+	@Override
+	public ArrayList<int[]> getXs()
+	{
+		throw new UnsupportedOperationException("Instances are kept on disk; use getX(int) instead.");
+	}
+	
+	@Override
+	public ArrayList<double[]> getVs()
+	{
+		throw new UnsupportedOperationException("Instances are kept on disk; use getV(int) instead.");
+	}
+}
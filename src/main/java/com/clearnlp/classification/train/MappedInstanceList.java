@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.train;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * List of training instances encoded as integers in a temporary file and read back through memory-mapped regions.
+ * Each instance is stored as {@code <label> <# of features> <feature indices> [<feature weights>]},
+ * where each weight takes two integers (the bits of a double).
+ * Instances are appended by {@link #add(int, int[], double[])} and can be accessed randomly after {@link #map()}.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class MappedInstanceList
+{
+	/** The number of integers per mapped region of the instance file (an instance never spans two regions). */
+	static private final int  REGION_INTS  = 1 << 28;
+	/** The number of longs per mapped region of the offset file. */
+	static private final int  REGION_LONGS = 1 << 27;
+	
+	private boolean          b_weight;
+	private int              n_instances;
+	private long             n_ints;
+	private File             f_instances;
+	private File             f_offsets;
+	private DataOutputStream o_instances;
+	private DataOutputStream o_offsets;
+	private IntBuffer[]      b_instances;
+	private LongBuffer[]     b_offsets;
+	
+	/**
+	 * Creates an empty list backed by temporary files in the specific directory.
+	 * The temporary files are deleted by {@link #delete()} or when the virtual machine terminates.
+	 * @param dir the directory to create temporary files in ({@code null} for the default temporary directory).
+	 * @param hasWeight {@code true} if features are assigned with different weights.
+	 */
+	public MappedInstanceList(File dir, boolean hasWeight) throws IOException
+	{
+		b_weight    = hasWeight;
+		n_instances = 0;
+		n_ints      = 0;
+		f_instances = File.createTempFile("clearnlp-", ".ins", dir);
+		f_offsets   = File.createTempFile("clearnlp-", ".off", dir);
+		
+		f_instances.deleteOnExit();
+		f_offsets  .deleteOnExit();
+		
+		o_instances = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f_instances), 1 << 16));
+		o_offsets   = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f_offsets)  , 1 << 16));
+	}
+	
+	/**
+	 * Adds a training instance to the end of this list.
+	 * @param y the label index.
+	 * @param xs the feature indices.
+	 * @param vs the feature weights if {@link #hasWeight()}; otherwise, ignored.
+	 */
+	public void add(int y, int[] xs, double[] vs) throws IOException
+	{
+		int i, size = xs.length, len = 2 + (b_weight ? 3*size : size);
+		long region = REGION_INTS - n_ints % REGION_INTS;
+		
+		if (len > REGION_INTS)
+			throw new IllegalArgumentException("The instance is too large: "+size);
+		
+		if (len > region)
+		{
+			for (; region>0; region--) o_instances.writeInt(0);
+			n_ints = (n_ints / REGION_INTS + 1) * REGION_INTS;
+		}
+		
+		o_offsets.writeLong(n_ints);
+		o_instances.writeInt(y);
+		o_instances.writeInt(size);
+		
+		for (i=0; i<size; i++)
+			o_instances.writeInt(xs[i]);
+		
+		if (b_weight)
+		{
+			for (i=0; i<size; i++)
+				o_instances.writeLong(Double.doubleToLongBits(vs[i]));
+		}
+		
+		n_ints += len;
+		n_instances++;
+	}
+	
+	/** Finishes adding instances and maps the temporary files into memory for reading. */
+	public void map() throws IOException
+	{
+		o_instances.close();
+		o_offsets  .close();
+		
+		b_instances = new IntBuffer [getRegionSize(n_ints     , REGION_INTS)];
+		b_offsets   = new LongBuffer[getRegionSize(n_instances, REGION_LONGS)];
+		
+		RandomAccessFile fin = new RandomAccessFile(f_instances, "r");
+		FileChannel channel = fin.getChannel();
+		long size = channel.size();
+		int i;
+		
+		for (i=0; i<b_instances.length; i++)
+			b_instances[i] = channel.map(FileChannel.MapMode.READ_ONLY, 4L*i*REGION_INTS, Math.min(4L*REGION_INTS, size - 4L*i*REGION_INTS)).asIntBuffer();
+		
+		fin.close();
+		fin = new RandomAccessFile(f_offsets, "r");
+		channel = fin.getChannel();
+		size = channel.size();
+		
+		for (i=0; i<b_offsets.length; i++)
+			b_offsets[i] = channel.map(FileChannel.MapMode.READ_ONLY, 8L*i*REGION_LONGS, Math.min(8L*REGION_LONGS, size - 8L*i*REGION_LONGS)).asLongBuffer();
+		
+		fin.close();
+	}
+	
+	/** Called by {@link #map()}. */
+	private int getRegionSize(long size, int regionSize)
+	{
+		return (int)((size + regionSize - 1) / regionSize);
+	}
+	
+	/** Deletes the temporary files; this list cannot be used afterwards. */
+	public void delete()
+	{
+		try
+		{
+			o_instances.close();
+			o_offsets  .close();
+		}
+		catch (IOException e) {e.printStackTrace();}
+		
+		b_instances = null;
+		b_offsets   = null;
+		f_instances.delete();
+		f_offsets  .delete();
+	}
+	
+	/** @return {@code true} if features are assigned with different weights. */
+	public boolean hasWeight()
+	{
+		return b_weight;
+	}
+	
+	/** @return the total number of instances in this list. */
+	public int size()
+	{
+		return n_instances;
+	}
+	
+	/** Called by the getters. */
+	private long getOffset(int index)
+	{
+		return b_offsets[index / REGION_LONGS].get(index % REGION_LONGS);
+	}
+	
+	/** @return the label index of the specific instance. */
+	public int getLabel(int index)
+	{
+		long offset = getOffset(index);
+		return b_instances[(int)(offset / REGION_INTS)].get((int)(offset % REGION_INTS));
+	}
+	
+	/** @return the feature indices of the specific instance. */
+	public int[] getIndices(int index)
+	{
+		long offset = getOffset(index);
+		IntBuffer buffer = b_instances[(int)(offset / REGION_INTS)];
+		int i, begin = (int)(offset % REGION_INTS) + 1;
+		int[] xs = new int[buffer.get(begin++)];
+		
+		for (i=0; i<xs.length; i++)
+			xs[i] = buffer.get(begin+i);
+		
+		return xs;
+	}
+	
+	/** @return the feature weights of the specific instance if {@link #hasWeight()}; otherwise, {@code null}. */
+	public double[] getWeights(int index)
+	{
+		if (!b_weight) return null;
+		
+		long offset = getOffset(index);
+		IntBuffer buffer = b_instances[(int)(offset / REGION_INTS)];
+		int i, begin = (int)(offset % REGION_INTS) + 1, size = buffer.get(begin);
+		double[] vs = new double[size];
+		
+		for (i=0,begin+=size+1; i<size; i++,begin+=2)
+			vs[i] = Double.longBitsToDouble(((long)buffer.get(begin) << 32) | (buffer.get(begin+1) & 0xffffffffL));
+		
+		return vs;
+	}
+}
@@ -40,9 +40,13 @@
  */
 package com.clearnlp.classification.train;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Future;
 
 import com.clearnlp.classification.algorithm.old.AbstractOneVsAll;
 import com.clearnlp.classification.model.AbstractModel;
@@ -50,6 +54,7 @@ import com.clearnlp.classification.model.AbstractModel;
 
 /**
  * Trainer.
+ * For multi-classification, labels are trained in parallel, each of which updates its own stripe of the weight vector in the model.
  * @since 1.0.0
  * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
  */
@@ -75,46 +80,60 @@ public class OneVsAllTrainer
 	
 	private void trainBinary()
 	{
-		float[] weights = a_algorithm.getWeight(t_space, 0);
-		m_model.copyWeights(weights);
+		a_algorithm.trainWeight(t_space, 0, a_algorithm.getQD(t_space), m_model);
 	}
 	
 	private void trainMulti(int numThreads)
 	{
-		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		double[] QD = a_algorithm.getQD(t_space);
 		
 		int currLabel, size = t_space.getLabelSize();
 		
 		for (currLabel=0; currLabel<size; currLabel++)
-			executor.execute(new TrainTask(currLabel));
-		
-		executor.shutdown();
+			tasks.add(new TrainTask(currLabel, QD));
 		
 		try
 		{
-			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			for (Future<Void> future : executor.invokeAll(tasks))
+				future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		catch (ExecutionException e) {throw new IllegalStateException(e.getCause());}
+		finally
+		{
+			executor.shutdown();
 		}
-		catch (InterruptedException e) {e.printStackTrace();}
 	}
 	
-	class TrainTask implements Runnable
+	class TrainTask implements Callable<Void>
 	{
 		/** The current label to train */
 		int curr_label;
+		/** The diagonal values shared across labels. */
+		double[] d_qd;
 		
 		/**
 		 * Trains one-vs-all model.
 		 * @param currLabel the current label to train.
+		 * @param QD the diagonal values shared across labels.
 		 */
-		public TrainTask(int currLabel)
+		public TrainTask(int currLabel, double[] QD)
 		{
 			curr_label = currLabel;
+			d_qd       = QD;
 		}
 		
-		public void run()
+		@Override
+		public Void call()
 		{
-			float[] weights = a_algorithm.getWeight(t_space, curr_label);
-			m_model.copyWeights(weights, curr_label);
+			a_algorithm.trainWeight(t_space, curr_label, d_qd, m_model);
+			return null;
 		}
     }
-}
+}
\ No newline at end of file
@@ -66,9 +66,9 @@ public class StringTrainSpace extends AbstractTrainSpace
 	/** Casted from {@likn AbstractTrainSpace#m_model}. */
 	private StringModel s_model;
 	/** The label count cutoff (exclusive). */
-	private int l_cutoff;
+	protected int l_cutoff;
 	/** The feature count cutoff (exclusive). */
-	private int f_cutoff;
+	protected int f_cutoff;
 	/** The list of all training instances. */
 	private List<StringInstance> s_instances;
 	/** The map between labels and their counts. */
@@ -160,6 +160,13 @@ public class SparseFeatureVector extends AbstractFeatureVector
 		if (b_weight)	d_weights.trimToSize();
 	}
 	
+	/** Removes all features from this vector while keeping the internal buffers for reuse. */
+	public void clear()
+	{
+		i_indices.clear();
+		if (b_weight)	d_weights.clear();
+	}
+	
 	public boolean isEmpty()
 	{
 		return i_indices.isEmpty();
@@ -45,19 +45,20 @@ import java.io.ObjectOutputStream;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
 
 import com.clearnlp.classification.feature.FtrTemplate;
 import com.clearnlp.classification.feature.FtrToken;
 import com.clearnlp.classification.feature.JointFtrXml;
 import com.clearnlp.classification.model.StringModel;
 import com.clearnlp.classification.train.StringTrainSpace;
+import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.classification.vector.StringFeatureVector;
 import com.clearnlp.component.evaluation.AbstractEval;
 import com.clearnlp.component.state.DefaultState;
 import com.clearnlp.dependency.DEPArc;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.reader.AbstractColumnReader;
+import com.clearnlp.util.UTHash;
 import com.google.common.collect.Sets;
 
 /**
@@ -260,31 +261,14 @@ abstract public class AbstractStatisticalComponent<T extends DefaultState> exten
 	/** @param the dependency node that is not {@code null}. */
 	protected String getDefaultField(FtrToken token, DEPNode node)
 	{
-		Matcher m;
-		
-		if (token.isField(JointFtrXml.F_FORM))
-		{
-			return node.form;
-		}
-		else if (token.isField(JointFtrXml.F_SIMPLIFIED_FORM))
-		{
-			return node.simplifiedForm;
-		}
-		else if (token.isField(JointFtrXml.F_LEMMA))
-		{
-			return node.lemma;
-		}
-		else if (token.isField(JointFtrXml.F_POS))
-		{
-			return node.pos;
-		}
-		else if (token.isField(JointFtrXml.F_DEPREL))
+		switch (token.fieldCode)
 		{
-			return node.getLabel();
-		}
-		else if ((m = JointFtrXml.P_FEAT.matcher(token.field)).find())
-		{
-			return node.getFeat(m.group(1));
+		case JointFtrXml.FC_FORM           : return node.form;
+		case JointFtrXml.FC_SIMPLIFIED_FORM: return node.simplifiedForm;
+		case JointFtrXml.FC_LEMMA          : return node.lemma;
+		case JointFtrXml.FC_POS            : return node.pos;
+		case JointFtrXml.FC_DEPREL         : return node.getLabel();
+		case JointFtrXml.FC_FEAT           : return node.getFeat(token.featKey);
 		}
 		
 		return null;
@@ -292,7 +276,7 @@ abstract public class AbstractStatisticalComponent<T extends DefaultState> exten
 	
 	protected String[] getDefaultFields(FtrToken token, DEPNode node)
 	{
-		if (token.isField(JointFtrXml.F_DEPREL_SET))
+		if (token.fieldCode == JointFtrXml.FC_DEPREL_SET)
 		{
 			return getDeprelSet(node.getDependents());
 		}
@@ -380,4 +364,85 @@ abstract public class AbstractStatisticalComponent<T extends DefaultState> exten
 		else
 			vector.addFeature(type, prev);
 	}
+	
+	/**
+	 * Returns the sparse feature vector of the specific model without creating string features;
+	 * feature values are hashed incrementally (see {@link StringModel#getFeatureHash(String)}) and looked up in the model.
+	 * The returned vector is reused by the state so it must not be kept after making the prediction.
+	 * Falls back to {@link #getFeatureVector(JointFtrXml, DefaultState)} if the model does not support hashed lookups.
+	 * @return the same sparse feature vector as {@code model.toSparseFeatureVector(getFeatureVector(xml, state))}.
+	 */
+	protected SparseFeatureVector getSparseFeatureVector(JointFtrXml xml, StringModel model, T state)
+	{
+		if (!model.hasFeatureHashes())
+			return model.toSparseFeatureVector(getFeatureVector(xml, state));
+		
+		SparseFeatureVector vector = state.getFeatureBuffer();
+		
+		for (FtrTemplate template : xml.getFtrTemplates())
+			addFeatureIndices(vector, model, template, state);
+		
+		return vector;
+	}
+	
+	/** Called by {@link #getSparseFeatureVector(JointFtrXml, StringModel, DefaultState)}. */
+	private void addFeatureIndices(SparseFeatureVector vector, StringModel model, FtrTemplate template, T state)
+	{
+		long hash = StringModel.getFeatureHash(template.type);
+		FtrToken[] tokens = template.tokens;
+		int i, size = tokens.length;
+		
+		if (template.isSetFeature())
+		{
+			String[][] fields = new String[size][];
+			String[]   tmp;
+			
+			for (i=0; i<size; i++)
+			{
+				tmp = getFields(tokens[i], state);
+				if (tmp == null)	return;
+				fields[i] = tmp;
+			}
+			
+			addFeatureIndices(vector, model, hash, fields, 0, true);
+		}
+		else
+		{
+			String field;
+			
+			for (i=0; i<size; i++)
+			{
+				field = getField(tokens[i], state);
+				if (field == null)	return;
+				
+				if (i > 0)	hash = UTHash.hash(hash, AbstractColumnReader.BLANK_COLUMN);
+				hash = UTHash.hash(hash, field);
+			}
+			
+			addFeatureIndex(vector, model, hash);
+		}
+	}
+	
+	/** Called by {@link #addFeatureIndices(SparseFeatureVector, StringModel, FtrTemplate, DefaultState)}. */
+	private void addFeatureIndices(SparseFeatureVector vector, StringModel model, long hash, String[][] fields, int index, boolean empty)
+	{
+		if (index < fields.length)
+		{
+			for (String field : fields[index])
+			{
+				if (empty)
+					addFeatureIndices(vector, model, UTHash.hash(hash, field), fields, index+1, field.isEmpty());
+				else
+					addFeatureIndices(vector, model, UTHash.hash(UTHash.hash(hash, AbstractColumnReader.BLANK_COLUMN), field), fields, index+1, false);
+			}
+		}
+		else
+			addFeatureIndex(vector, model, hash);
+	}
+	
+	private void addFeatureIndex(SparseFeatureVector vector, StringModel model, long hash)
+	{
+		int index = model.getFeatureIndex(hash);
+		if (index > 0) vector.addFeature(index);
+	}
 }
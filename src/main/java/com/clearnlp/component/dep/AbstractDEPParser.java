@@ -45,7 +45,10 @@ import java.io.ObjectOutputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import com.clearnlp.classification.algorithm.old.AbstractAlgorithm;
 import com.clearnlp.classification.feature.FtrToken;
@@ -54,6 +57,7 @@ import com.clearnlp.classification.instance.StringInstance;
 import com.clearnlp.classification.model.StringModel;
 import com.clearnlp.classification.prediction.StringPrediction;
 import com.clearnlp.classification.train.StringTrainSpace;
+import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.classification.vector.StringFeatureVector;
 import com.clearnlp.component.AbstractStatisticalComponentSB;
 import com.clearnlp.component.evaluation.DEPEval;
@@ -80,6 +84,11 @@ import com.google.common.collect.Sets;
  */
 abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<DEPState> implements IDEPLabel
 {
+	/** The pool shared by all parsers for parsing branches in parallel. */
+	static private ForkJoinPool BRANCH_POOL;
+	/** If {@code true}, branches are parsed in parallel during decoding. */
+	private boolean b_parallel;
+	
 //	====================================== CONSTRUCTORS ======================================
 	
 	/** Constructs a dependency parsing for training. */
@@ -144,6 +153,21 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 	@Override
 	public Object[] getLexica() {return null;}
 	
+	/**
+	 * Sets whether or not branches are parsed in parallel on copies of the state during developing and decoding.
+	 * The parsed trees are the same regardless of how the branches are scheduled.
+	 * @param parallel if {@code true}, parse branches in parallel.
+	 */
+	public void setParallelBranching(boolean parallel)
+	{
+		b_parallel = parallel;
+	}
+	
+	public boolean isParallelBranching()
+	{
+		return b_parallel;
+	}
+	
 	@Override
 	public Set<String> getLabels()
 	{
@@ -218,6 +242,7 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 	protected DEPState init(DEPTree tree)
 	{
 		DEPState state = new DEPState(tree);
+		state.setBeamSize(n_beams);
 		
 		if (!isDecode())
 	 	{
@@ -251,6 +276,7 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 		if (state.hasMoreState())
 			insts.addAll(parseBranches(state));
 
+		state.clearHistory();
 		return insts;
 	}
 	
@@ -279,7 +305,7 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 			resetPost(lambda, beta, label, state);
 		}
 		
-		state.trimStates(n_beams);
+		state.trimStates();
 		state.addBranch(insts);
 //		System.out.println(state.getScore());
 //		System.out.println(state.getTree().toStringDEP()+"\n");
@@ -334,21 +360,23 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 	/** Called by {@link #parse()}. */
 	protected DEPLabel getLabel(List<StringInstance> insts, DEPState state)
 	{
-		StringFeatureVector vector = getFeatureVector(f_xmls[0], state);
+		StringFeatureVector vector;
 		DEPLabel label = null;
 		
 		if (isTrain())
 		{
-			label = state.getGoldLabel();
+			vector = getFeatureVector(f_xmls[0], state);
+			label  = state.getGoldLabel();
 			insts.add(new StringInstance(label.toString(), vector));
 		}
 		else if (isDevelopOrDecode())
 		{
-			label = getAutoLabel(vector, state);
+			label = getAutoLabel(getSparseFeatureVector(f_xmls[0], s_models[0], state), state);
 		}
 		else if (isBootstrap())
 		{
-			label = getAutoLabel(vector, state);
+			vector = getFeatureVector(f_xmls[0], state);
+			label  = getAutoLabel(s_models[0].toSparseFeatureVector(vector), state);
 			insts.add(new StringInstance(state.getGoldLabel().toString(), vector));
 		}
 		
@@ -356,7 +384,7 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 	}
 	
 	/** Called by {@link #getLabel()}. */
-	private DEPLabel getAutoLabel(StringFeatureVector vector, DEPState state)
+	private DEPLabel getAutoLabel(SparseFeatureVector vector, DEPState state)
 	{
 		List<StringPrediction> ps = getPredictions(vector, state);
 
@@ -374,7 +402,7 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 		return fst;
 	}
 	
-	private List<StringPrediction> getPredictions(StringFeatureVector vector, DEPState state)
+	private List<StringPrediction> getPredictions(SparseFeatureVector vector, DEPState state)
 	{
 		List<StringPrediction> ps = s_models[0].predictAll(vector);
 		AbstractAlgorithm.normalize(ps);
@@ -454,7 +482,7 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 			if (dir < 0)	state.setLambda(i);
 			else			state.setBeta(i);
 			
-			ps = getPredictions(getFeatureVector(f_xmls[0], state), state);
+			ps = getPredictions(getSparseFeatureVector(f_xmls[0], s_models[0], state), state);
 			
 			for (StringPrediction p : ps)
 			{
@@ -477,15 +505,17 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 	public List<StringInstance> parseBranches(DEPState state)
 	{
 		ObjectsDoubleTriple<List<StringInstance>,StringIntPair[]> tm;
-		branch(state);
 		
 		if (isDevelopOrDecode())
 		{
-			tm = state.getBestBranch();
-			state.resetHeads(tm.o2);
+			if (b_parallel)	branchParallel(state);
+			else			branch(state);
+			
+			tm = state.resetToBestBranch();
 		}
 		else
 		{
+			branch(state);
 			state.setGoldScoresToBranches();
 			tm = state.getBestBranch();
 		}
@@ -505,6 +535,51 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 		}
 	}
 	
+	/** Parses each branch on its own copy of the state using {@link #getBranchPool()}. */
+	private void branchParallel(DEPState state)
+	{
+		List<DEPState> forks = state.forkStates();
+		List<Callable<Void>> tasks = Lists.newArrayList();
+		
+		for (final DEPState fork : forks)
+		{
+			tasks.add(new Callable<Void>()
+			{
+				@Override
+				public Void call()
+				{
+					branch(fork);
+					return null;
+				}
+			});
+		}
+		
+		try
+		{
+			for (Future<Void> future : getBranchPool().invokeAll(tasks))
+				future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		catch (ExecutionException e)
+		{
+			throw new IllegalStateException(e.getCause());
+		}
+		
+		state.mergeStates(forks);
+	}
+	
+	static synchronized private ForkJoinPool getBranchPool()
+	{
+		if (BRANCH_POOL == null)
+			BRANCH_POOL = new ForkJoinPool();
+		
+		return BRANCH_POOL;
+	}
+	
 //	================================ FEATURE EXTRACTION ================================
 
 	@Override
@@ -512,56 +587,36 @@ abstract public class AbstractDEPParser extends AbstractStatisticalComponentSB<D
 	{
 		DEPNode node = state.getNode(token);
 		if (node == null)	return null;
-		Matcher m;
 		
-		if (token.isField(JointFtrXml.F_FORM))
+		switch (token.fieldCode)
 		{
+		case JointFtrXml.FC_FORM:
 			return node.form;
-		}
-		else if (token.isField(JointFtrXml.F_SIMPLIFIED_FORM))
-		{
+		case JointFtrXml.FC_SIMPLIFIED_FORM:
 			return node.simplifiedForm;
-		}
-		else if (token.isField(JointFtrXml.F_LEMMA))
-		{
+		case JointFtrXml.FC_LEMMA:
 			return node.lemma;
-		}
-		else if (token.isField(JointFtrXml.F_POS))
-		{
+		case JointFtrXml.FC_POS:
 			return node.pos;
-		}
-		else if (token.isField(JointFtrXml.F_DEPREL))
-		{
+		case JointFtrXml.FC_DEPREL:
 			return node.getLabel();
-		}
-		else if (token.isField(JointFtrXml.F_DISTANCE))
-		{
+		case JointFtrXml.FC_DISTANCE:
 			int dist = state.getDistance();
 			return (dist > 6) ? "6" : Integer.toString(dist);
-		}
-		else if (token.isField(JointFtrXml.F_LEFT_VALENCY))
-		{
+		case JointFtrXml.FC_LEFT_VALENCY:
 			return state.getLeftValency(node.id);
-		}
-		else if (token.isField(JointFtrXml.F_RIGHT_VALENCY))
-		{
+		case JointFtrXml.FC_RIGHT_VALENCY:
 			return state.getRightValency(node.id);
-		}
-		else if ((m = JointFtrXml.P_BOOLEAN.matcher(token.field)).find())
-		{
-			int field = Integer.parseInt(m.group(1));
-			
-			switch (field)
+		case JointFtrXml.FC_BOOLEAN:
+			switch (token.argument)
 			{
 			case  0: return state.isLambdaFirst() ? token.field : null;
 			case  1: return state.isBetaLast() ? token.field : null;
 			case  2: return state.isLambdaBetaAdjacent() ? token.field : null;
-			default: throw new IllegalArgumentException("Unsupported feature: "+field);
+			default: throw new IllegalArgumentException("Unsupported feature: "+token.argument);
 			}
-		}
-		else if ((m = JointFtrXml.P_FEAT.matcher(token.field)).find())
-		{
-			return node.getFeat(m.group(1));
+		case JointFtrXml.FC_FEAT:
+			return node.getFeat(token.featKey);
 		}
 		
 		return null;
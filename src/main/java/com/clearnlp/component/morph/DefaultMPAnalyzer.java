@@ -41,7 +41,7 @@
 package com.clearnlp.component.morph;
 
 import com.clearnlp.dependency.DEPNode;
-import com.clearnlp.morphology.MPLib;
+import com.clearnlp.morphology.MPFormCache;
 
 
 /**
@@ -54,6 +54,6 @@ public class DefaultMPAnalyzer extends AbstractMPAnalyzer
 	@Override
 	public void analyze(DEPNode node)
 	{
-		node.lemma = MPLib.getSimplifiedLowercaseWordForm(node.form);
+		node.lemma = MPFormCache.get(node.form).getLowerSimplifiedForm();
 	}
 }
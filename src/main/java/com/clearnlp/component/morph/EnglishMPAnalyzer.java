@@ -60,7 +60,8 @@ import org.w3c.dom.Element;
 import com.clearnlp.constituent.CTLibEn;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.morphology.AbstractAffixMatcher;
-import com.clearnlp.morphology.MPLib;
+import com.clearnlp.morphology.MPForm;
+import com.clearnlp.morphology.MPFormCache;
 import com.clearnlp.morphology.MPLibEn;
 import com.clearnlp.morphology.MPTag;
 import com.clearnlp.morphology.english.EnglishAffixMatcherFactory;
@@ -268,9 +269,31 @@ public class EnglishMPAnalyzer extends AbstractMPAnalyzer
 	 */
 	public void analyze(DEPNode node)
 	{
+		MPForm form = MPFormCache.get(node.form);
+		
 		if (node.lowerSimplifiedForm == null)
-			node.lowerSimplifiedForm = MPLib.getSimplifiedLowercaseWordForm(node.form);
+			node.lowerSimplifiedForm = form.getLowerSimplifiedForm();
+		
+		if (!node.lowerSimplifiedForm.equals(form.getLowerSimplifiedForm()))
+		{
+			analyzeAux(node);
+			return;
+		}
+		
+		String lemma = form.getLemma(node.pos);
 		
+		if (lemma != null)
+			node.lemma = lemma;
+		else
+		{
+			analyzeAux(node);
+			form.addLemma(node.pos, node.lemma);
+		}
+	}
+	
+	/** Called by {@link #analyze(DEPNode)} when the lemma of the word-form and the POS tag has not been memoized. */
+	private void analyzeAux(DEPNode node)
+	{
 		if (node.pos.equals(CTLibEn.POS_NNP))
 		{
 			node.lemma = node.form.toLowerCase();
@@ -46,7 +46,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
 
 import com.clearnlp.classification.feature.FtrToken;
 import com.clearnlp.classification.feature.JointFtrXml;
@@ -59,11 +58,10 @@ import com.clearnlp.component.state.TagState;
 import com.clearnlp.dependency.DEPLib;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.morphology.MPForm;
 import com.clearnlp.nlp.NLPProcess;
-import com.clearnlp.pattern.PTPunct;
 import com.clearnlp.reader.AbstractColumnReader;
 import com.clearnlp.util.UTArray;
-import com.clearnlp.util.UTString;
 import com.clearnlp.util.map.Prob2DMap;
 import com.clearnlp.util.pair.Pair;
 import com.clearnlp.util.pair.StringDoublePair;
@@ -240,7 +238,7 @@ public class OnlinePOSTagger extends AbstractOnlineStatisticalComponent<TagState
 	private TagState initialize(DEPTree tree, byte flag)
 	{
 		TagState state = new TagState(tree);
-		simplifyForms(tree, flag);
+		state.setForms(simplifyForms(tree, flag));
 		
 		if (flag != FLAG_DECODE)
 		{
@@ -253,9 +251,9 @@ public class OnlinePOSTagger extends AbstractOnlineStatisticalComponent<TagState
 		return state;
 	}
 	
-	private void simplifyForms(DEPTree tree, byte flag)
+	private MPForm[] simplifyForms(DEPTree tree, byte flag)
 	{
-		NLPProcess.simplifyForms(tree);
+		return NLPProcess.simplifyForms(tree);
 	}
 	
 	private void finalize(TagState state, List<StringInstance> insts, byte flag)
@@ -411,57 +409,52 @@ public class OnlinePOSTagger extends AbstractOnlineStatisticalComponent<TagState
 		DEPNode node = state.getNode(token);
 		if (node == null) return null;
 		
-		switch (token.field)
+		switch (token.fieldCode)
 		{
-		case JointFtrXml.F_SIMPLIFIED_FORM:
+		case JointFtrXml.FC_SIMPLIFIED_FORM:
 			return containsLowerSimplifiedForm(node) ? node.simplifiedForm : null;
-		case JointFtrXml.F_LOWER_SIMPLIFIED_FORM:
+		case JointFtrXml.FC_LOWER_SIMPLIFIED_FORM:
 			return containsLowerSimplifiedForm(node) ? node.lowerSimplifiedForm : null;
-		case JointFtrXml.F_POS:
+		case JointFtrXml.FC_POS:
 			return node.pos;
-		case JointFtrXml.F_POS2:
+		case JointFtrXml.FC_POS2:
 			return node.getFeat(DEPLib.FEAT_POS2);
-		case JointFtrXml.F_AMBIGUITY_CLASS:
+		case JointFtrXml.FC_AMBIGUITY_CLASS:
 			return m_ambi.get(node.simplifiedForm);
+		case JointFtrXml.FC_BOOLEAN:
+			return getBooleanField(token, state, node);
+		case JointFtrXml.FC_FEAT:
+			return node.getFeat(token.featKey);
+		case JointFtrXml.FC_PREFIX:
+			return state.getForm(node.id).getPrefix(token.argument);
+		case JointFtrXml.FC_SUFFIX:
+			return state.getForm(node.id).getSuffix(token.argument);
+		default:
+			throw new IllegalArgumentException("Unsupported feature: "+token.field);
 		}
+	}
+	
+	/** Called by {@link #getField(FtrToken, TagState)}. */
+	private String getBooleanField(FtrToken token, TagState state, DEPNode node)
+	{
+		MPForm form = state.getForm(node.id);
+		String value = token.field+token.offset;
 		
-		Matcher m;
-		
-		if ((m = JointFtrXml.P_BOOLEAN.matcher(token.field)).find())
+		switch (token.argument)
 		{
-			int field = Integer.parseInt(m.group(1));
-			String value = token.field+token.offset;
-			
-			switch (field)
-			{
-			case  0: return UTString.isAllUpperCase(node.simplifiedForm) ? value : null;
-			case  1: return UTString.isAllLowerCase(node.simplifiedForm) ? value : null;
-			case  2: return UTString.beginsWithUpperCase(node.simplifiedForm) & !state.isInputFirstNode() ? value : null;
-			case  3: return UTString.getNumOfCapitalsNotAtBeginning(node.simplifiedForm) == 1 ? value : null;
-			case  4: return UTString.getNumOfCapitalsNotAtBeginning(node.simplifiedForm)  > 1 ? value : null;
-			case  5: return node.simplifiedForm.contains(".") ? value : null;
-			case  6: return UTString.containsDigit(node.simplifiedForm) ? value : null;
-			case  7: return node.simplifiedForm.contains("-") ? value : null;
-			case  8: return state.isInputLastNode() ? value : null;
-			case  9: return state.isInputFirstNode() ? value : null;
-			case 10: return PTPunct.containsOnlyPunctuation(node.lowerSimplifiedForm) ? value : null;
-			default: throw new IllegalArgumentException("Unsupported feature: "+token.field);
-			}
+		case  0: return form.isShape(MPForm.SHAPE_ALL_UPPER) ? value : null;
+		case  1: return form.isShape(MPForm.SHAPE_ALL_LOWER) ? value : null;
+		case  2: return form.isShape(MPForm.SHAPE_BEGIN_UPPER) & !state.isInputFirstNode() ? value : null;
+		case  3: return form.isShape(MPForm.SHAPE_INNER_UPPER) ? value : null;
+		case  4: return form.isShape(MPForm.SHAPE_INNER_UPPERS) ? value : null;
+		case  5: return form.isShape(MPForm.SHAPE_PERIOD) ? value : null;
+		case  6: return form.isShape(MPForm.SHAPE_DIGIT) ? value : null;
+		case  7: return form.isShape(MPForm.SHAPE_HYPHEN) ? value : null;
+		case  8: return state.isInputLastNode() ? value : null;
+		case  9: return state.isInputFirstNode() ? value : null;
+		case 10: return form.isShape(MPForm.SHAPE_PUNCTUATION) ? value : null;
+		default: throw new IllegalArgumentException("Unsupported feature: "+token.field);
 		}
-		else if ((m = JointFtrXml.P_FEAT.matcher(token.field)).find())
-			return node.getFeat(m.group(1));
-		else if ((m = JointFtrXml.P_PREFIX.matcher(token.field)).find())
-		{
-			int n = Integer.parseInt(m.group(1)), len = node.lowerSimplifiedForm.length();
-			return (n <= len) ? node.lowerSimplifiedForm.substring(0, n) : null;
-		}
-		else if ((m = JointFtrXml.P_SUFFIX.matcher(token.field)).find())
-		{
-			int n = Integer.parseInt(m.group(1)), len = node.lowerSimplifiedForm.length();
-			return (n <= len) ? node.lowerSimplifiedForm.substring(len-n, len) : null;
-		}
-		else
-			throw new IllegalArgumentException("Unsupported feature: "+token.field);
 	}
 	
 	@Override
@@ -470,15 +463,13 @@ public class OnlinePOSTagger extends AbstractOnlineStatisticalComponent<TagState
 		DEPNode node = state.getNode(token);
 		if (node == null) return null;
 		String[] fields = null;
-		Matcher m;
 		
-		if ((m = JointFtrXml.P_PREFIX.matcher(token.field)).find())
-		{
-			fields = UTString.getPrefixes(node.lowerSimplifiedForm, Integer.parseInt(m.group(1)));
-		}
-		else if ((m = JointFtrXml.P_SUFFIX.matcher(token.field)).find())
+		switch (token.fieldCode)
 		{
-			fields = UTString.getSuffixes(node.lowerSimplifiedForm, Integer.parseInt(m.group(1)));
+		case JointFtrXml.FC_PREFIX:
+			fields = state.getForm(node.id).getPrefixes(token.argument);	break;
+		case JointFtrXml.FC_SUFFIX:
+			fields = state.getForm(node.id).getSuffixes(token.argument);	break;
 		}
 		
 		return (fields == null) || (fields.length == 0) ? null : fields;
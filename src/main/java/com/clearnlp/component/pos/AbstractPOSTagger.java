@@ -40,13 +40,13 @@
  */
 package com.clearnlp.component.pos;
 
+import java.io.EOFException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
 
 import com.clearnlp.classification.feature.FtrToken;
 import com.clearnlp.classification.feature.JointFtrXml;
@@ -54,6 +54,7 @@ import com.clearnlp.classification.instance.StringInstance;
 import com.clearnlp.classification.model.StringModel;
 import com.clearnlp.classification.prediction.StringPrediction;
 import com.clearnlp.classification.train.StringTrainSpace;
+import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.classification.vector.StringFeatureVector;
 import com.clearnlp.component.AbstractStatisticalComponent;
 import com.clearnlp.component.evaluation.POSEval;
@@ -61,10 +62,10 @@ import com.clearnlp.component.morph.AbstractMPAnalyzer;
 import com.clearnlp.component.state.POSState;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.morphology.MPForm;
 import com.clearnlp.nlp.NLPProcess;
 import com.clearnlp.reader.AbstractColumnReader;
 import com.clearnlp.util.UTArray;
-import com.clearnlp.util.UTString;
 import com.clearnlp.util.map.Prob2DMap;
 import com.clearnlp.util.pair.Pair;
 import com.clearnlp.util.pair.StringDoublePair;
@@ -79,10 +80,14 @@ abstract public class AbstractPOSTagger extends AbstractStatisticalComponent<POS
 {
 	protected final int LEXICA_LOWER_SIMPLIFIED_FORMS = 0;
 	protected final int LEXICA_AMBIGUITY_CLASSES      = 1;
+	protected final int LEXICA_TAG_SETS               = 2;
 	
 	protected Set<String>		 s_lsfs;	// lower simplified forms
 	protected Prob2DMap			 p_ambi;	// ambiguity classes (for collection)
 	protected Map<String,String> m_ambi;	// ambiguity classes
+	protected Map<String,String> m_tags;	// all tags seen in training ({@code null} for models saved without them)
+	/** The indices of the tags seen in training with each simplified form ({@code null} if labels are not restricted). */
+	private   Map<String,int[]>	 m_candidates;
 	
 	protected AbstractMPAnalyzer mp_analyzer;
 	
@@ -153,13 +158,22 @@ abstract public class AbstractPOSTagger extends AbstractStatisticalComponent<POS
 	{
 		s_lsfs = (Set<String>)lexica[LEXICA_LOWER_SIMPLIFIED_FORMS];
 		m_ambi = (Map<String,String>)lexica[LEXICA_AMBIGUITY_CLASSES];
+		m_tags = (lexica.length > LEXICA_TAG_SETS) ? (Map<String,String>)lexica[LEXICA_TAG_SETS] : null;
 	}
 	
 	protected void loadLexica(ObjectInputStream in) throws Exception
 	{
 		LOG.info("Loading lexica.\n");
 		
-		Object[] lexica = {in.readObject(), in.readObject()};
+		Object[] lexica = {in.readObject(), in.readObject(), null};
+		
+		// models saved before tag sets were added end here
+		try
+		{
+			lexica[LEXICA_TAG_SETS] = in.readObject();
+		}
+		catch (EOFException e) {}
+		
 		initLexia(lexica);
 	}
 	
@@ -169,6 +183,7 @@ abstract public class AbstractPOSTagger extends AbstractStatisticalComponent<POS
 		
 		out.writeObject(s_lsfs);
 		out.writeObject(m_ambi);
+		out.writeObject(m_tags);
 	}
 	
 //	====================================== GETTERS/SETTERS ======================================
@@ -176,14 +191,66 @@ abstract public class AbstractPOSTagger extends AbstractStatisticalComponent<POS
 	@Override
 	public Object[] getLexica()
 	{
-		Object[] lexica = new Object[2];
+		Object[] lexica = new Object[3];
 		
 		lexica[LEXICA_LOWER_SIMPLIFIED_FORMS] = s_lsfs;
-		lexica[LEXICA_AMBIGUITY_CLASSES] = isLexica() ? getAmbiguityClasses() : m_ambi;
+		lexica[LEXICA_AMBIGUITY_CLASSES] = isLexica() ? getAmbiguityClasses(f_xmls[0].getAmbiguityClassThreshold()) : m_ambi;
+		lexica[LEXICA_TAG_SETS] = isLexica() ? getAmbiguityClasses(0) : m_tags;
 		
 		return lexica;
 	}
 	
+	/**
+	 * Restricts the label predicted for each known form to the tags seen with the form in training during decoding;
+	 * labels of forms without tag sets are not restricted. The second best label (see {@link POSState#add2ndLabel(String)})
+	 * is still the best of all the other labels so that the features of later components are the same as in training.
+	 * Models saved without tag sets are not restricted.
+	 * @param restrict if {@code true}, restrict labels to the tags seen in training.
+	 */
+	public void setAmbiguityClassRestriction(boolean restrict)
+	{
+		if (restrict && m_tags == null)
+			LOG.warn("The model has no tag sets; labels are not restricted.\n");
+		
+		m_candidates = (restrict && m_tags != null) ? getCandidates() : null;
+	}
+	
+	public boolean isAmbiguityClassRestriction()
+	{
+		return m_candidates != null;
+	}
+	
+	/** Called by {@link #setAmbiguityClassRestriction(boolean)}. */
+	private Map<String,int[]> getCandidates()
+	{
+		Map<String,int[]> map = new HashMap<String,int[]>(m_tags.size());
+		int[] labels;
+		
+		for (Map.Entry<String,String> entry : m_tags.entrySet())
+		{
+			if ((labels = getLabelIndices(entry.getValue())) != null)
+				map.put(entry.getKey(), labels);
+		}
+		
+		return map;
+	}
+	
+	/** @return the label indices of the specific tag set if all labels are in the model; otherwise, {@code null}. */
+	private int[] getLabelIndices(String tagSet)
+	{
+		String[] tags = tagSet.split(AbstractColumnReader.BLANK_COLUMN);
+		int i, size = tags.length;
+		int[] labels = new int[size];
+		
+		for (i=0; i<size; i++)
+		{
+			if ((labels[i] = s_models[0].getLabelIndex(tags[i])) < 0)
+				return null;
+		}
+		
+		return labels;
+	}
+	
 	/** {@link AbstractStatisticalComponent#FLAG_LEXICA}. */
 	public Set<String> getLowerSimplifiedForms()
 	{
@@ -196,10 +263,12 @@ abstract public class AbstractPOSTagger extends AbstractStatisticalComponent<POS
 		s_lsfs.clear();
 	}
 	
-	/** Called by {@link AbstractPOSTagger#getLexica()}. */
-	private Map<String,String> getAmbiguityClasses()
+	/**
+	 * Called by {@link AbstractPOSTagger#getLexica()}.
+	 * @param threshold tags whose probabilities given a form are less than or equal to this are excluded ({@code 0} keeps all tags seen with the form).
+	 */
+	private Map<String,String> getAmbiguityClasses(double threshold)
 	{
-		double threshold = f_xmls[0].getAmbiguityClassThreshold();
 		Map<String,String> mAmbi = new HashMap<String,String>();
 		StringDoublePair[] ps;
 		StringBuilder build;
@@ -247,7 +316,7 @@ abstract public class AbstractPOSTagger extends AbstractStatisticalComponent<POS
 	protected POSState init(DEPTree tree)
 	{
 		POSState state = new POSState(tree);
-		NLPProcess.simplifyForms(tree);
+		state.setForms(NLPProcess.simplifyForms(tree));
 		
 		if (!isDecode())
 	 	{
@@ -304,21 +373,23 @@ abstract public class AbstractPOSTagger extends AbstractStatisticalComponent<POS
 	/** Called by {@link AbstractPOSTagger#tag()}. */
 	private String getLabel(List<StringInstance> insts, POSState state)
 	{
-		StringFeatureVector vector = getFeatureVector(f_xmls[0], state);
+		StringFeatureVector vector;
 		String label = null;
 		
 		if (isTrain())
 		{
-			label = state.getGoldLabel();
+			vector = getFeatureVector(f_xmls[0], state);
+			label  = state.getGoldLabel();
 			if (vector.size() > 0) insts.add(new StringInstance(label, vector));
 		}
 		else if (isDevelopOrDecode())
 		{
-			label = getAutoLabel(vector, state);
+			label = getAutoLabel(getSparseFeatureVector(f_xmls[0], s_models[0], state), state);
 		}
 		else if (isBootstrap())
 		{
-			label = getAutoLabel(vector, state);
+			vector = getFeatureVector(f_xmls[0], state);
+			label  = getAutoLabel(s_models[0].toSparseFeatureVector(vector), state);
 			if (vector.size() > 0) insts.add(new StringInstance(state.getGoldLabel(), vector));
 		}
 		
@@ -326,13 +397,15 @@ abstract public class AbstractPOSTagger extends AbstractStatisticalComponent<POS
 	}
 	
 	/** Called by {@link AbstractPOSTagger#getLabel()}. */
-	private String getAutoLabel(StringFeatureVector vector, POSState state)
+	private String getAutoLabel(SparseFeatureVector vector, POSState state)
 	{
-		Pair<StringPrediction,StringPrediction> ps = s_models[0].predictTwo(vector);
+		int[] labels = (m_candidates != null) ? m_candidates.get(state.getInput().simplifiedForm) : null;
+		// the second best label is the best of all the other labels so that "p2" features match training
+		Pair<StringPrediction,StringPrediction> ps = (labels != null) ? s_models[0].predictTwo(vector, labels) : s_models[0].predictTwo(vector);
 		StringPrediction fst = ps.o1;
 		StringPrediction snd = ps.o2;
 		
-		if (fst.score - snd.score < 1)
+		if (snd != null && fst.score - snd.score < 1)
 			state.add2ndLabel(snd.label);
 		
 		return fst.label;
@@ -361,80 +434,66 @@ abstract public class AbstractPOSTagger extends AbstractStatisticalComponent<POS
 	{
 		DEPNode node = state.getNode(token);
 		if (node == null) return null;
-		Matcher m;
 		
-		if (token.isField(JointFtrXml.F_SIMPLIFIED_FORM))
+		switch (token.fieldCode)
 		{
+		case JointFtrXml.FC_SIMPLIFIED_FORM:
 			return containsLowerSimplifiedForm(node) ? node.simplifiedForm : null;
-		}
-		else if (token.isField(JointFtrXml.F_LOWER_SIMPLIFIED_FORM))
-		{
+		case JointFtrXml.FC_LOWER_SIMPLIFIED_FORM:
 			return containsLowerSimplifiedForm(node) ? node.lowerSimplifiedForm : null;
-		}
-		else if (token.isField(JointFtrXml.F_LEMMA))
-		{
+		case JointFtrXml.FC_LEMMA:
 			return containsLowerSimplifiedForm(node) ? node.lemma : null;
-		}
-		else if (token.isField(JointFtrXml.F_POS))
-		{
+		case JointFtrXml.FC_POS:
 			return node.pos;
-		}
-		else if (token.isField(JointFtrXml.F_AMBIGUITY_CLASS))
-		{
+		case JointFtrXml.FC_AMBIGUITY_CLASS:
 			return m_ambi.get(node.simplifiedForm);
-		}
-		else if ((m = JointFtrXml.P_BOOLEAN.matcher(token.field)).find())
-		{
-			int field = Integer.parseInt(m.group(1));
-			
-			switch (field)
-			{
-			case  0: return UTString.isAllUpperCase(node.simplifiedForm) ? token.field : null;
-			case  1: return UTString.isAllLowerCase(node.simplifiedForm) ? token.field : null;
-			case  2: return UTString.beginsWithUpperCase(node.simplifiedForm) & !state.isInputFirstNode() ? token.field : null;
-			case  3: return UTString.getNumOfCapitalsNotAtBeginning(node.simplifiedForm) == 1 ? token.field : null;
-			case  4: return UTString.getNumOfCapitalsNotAtBeginning(node.simplifiedForm)  > 1 ? token.field : null;
-			case  5: return node.simplifiedForm.contains(".") ? token.field : null;
-			case  6: return UTString.containsDigit(node.simplifiedForm) ? token.field : null;
-			case  7: return node.simplifiedForm.contains("-") ? token.field : null;
-			case  8: return state.isInputLastNode() ? token.field : null;
-			case  9: return state.isInputFirstNode() ? token.field : null;
-			default: throw new IllegalArgumentException("Unsupported feature: "+field);
-			}
-		}
-		else if ((m = JointFtrXml.P_FEAT.matcher(token.field)).find())
-		{
-			return node.getFeat(m.group(1));
-		}
-		else if ((m = JointFtrXml.P_PREFIX.matcher(token.field)).find())
-		{
-			int n = Integer.parseInt(m.group(1)), len = node.lowerSimplifiedForm.length();
-			return (n <= len) ? node.lowerSimplifiedForm.substring(0, n) : null;
-		}
-		else if ((m = JointFtrXml.P_SUFFIX.matcher(token.field)).find())
-		{
-			int n = Integer.parseInt(m.group(1)), len = node.lowerSimplifiedForm.length();
-			return (n <= len) ? node.lowerSimplifiedForm.substring(len-n, len) : null;
+		case JointFtrXml.FC_BOOLEAN:
+			return getBooleanField(token, state, node);
+		case JointFtrXml.FC_FEAT:
+			return node.getFeat(token.featKey);
+		case JointFtrXml.FC_PREFIX:
+			return state.getForm(node.id).getPrefix(token.argument);
+		case JointFtrXml.FC_SUFFIX:
+			return state.getForm(node.id).getSuffix(token.argument);
 		}
 		
 		return null;
 	}
 	
+	/** Called by {@link #getField(FtrToken, POSState)}. */
+	private String getBooleanField(FtrToken token, POSState state, DEPNode node)
+	{
+		MPForm form = state.getForm(node.id);
+		
+		switch (token.argument)
+		{
+		case  0: return form.isShape(MPForm.SHAPE_ALL_UPPER) ? token.field : null;
+		case  1: return form.isShape(MPForm.SHAPE_ALL_LOWER) ? token.field : null;
+		case  2: return form.isShape(MPForm.SHAPE_BEGIN_UPPER) & !state.isInputFirstNode() ? token.field : null;
+		case  3: return form.isShape(MPForm.SHAPE_INNER_UPPER) ? token.field : null;
+		case  4: return form.isShape(MPForm.SHAPE_INNER_UPPERS) ? token.field : null;
+		case  5: return form.isShape(MPForm.SHAPE_PERIOD) ? token.field : null;
+		case  6: return form.isShape(MPForm.SHAPE_DIGIT) ? token.field : null;
+		case  7: return form.isShape(MPForm.SHAPE_HYPHEN) ? token.field : null;
+		case  8: return state.isInputLastNode() ? token.field : null;
+		case  9: return state.isInputFirstNode() ? token.field : null;
+		default: throw new IllegalArgumentException("Unsupported feature: "+token.argument);
+		}
+	}
+	
 	@Override
 	protected String[] getFields(FtrToken token, POSState state)
 	{
 		DEPNode node = state.getNode(token);
 		if (node == null) return null;
 		String[] fields = null;
-		Matcher m;
 		
-		if ((m = JointFtrXml.P_PREFIX.matcher(token.field)).find())
-		{
-			fields = UTString.getPrefixes(node.lowerSimplifiedForm, Integer.parseInt(m.group(1)));
-		}
-		else if ((m = JointFtrXml.P_SUFFIX.matcher(token.field)).find())
+		switch (token.fieldCode)
 		{
-			fields = UTString.getSuffixes(node.lowerSimplifiedForm, Integer.parseInt(m.group(1)));
+		case JointFtrXml.FC_PREFIX:
+			fields = state.getForm(node.id).getPrefixes(token.argument);	break;
+		case JointFtrXml.FC_SUFFIX:
+			fields = state.getForm(node.id).getSuffixes(token.argument);	break;
 		}
 		
 		return (fields == null) || (fields.length == 0) ? null : fields;
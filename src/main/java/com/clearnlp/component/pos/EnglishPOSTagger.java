@@ -46,11 +46,12 @@ import java.util.Set;
 import com.clearnlp.classification.feature.JointFtrXml;
 import com.clearnlp.classification.model.StringModel;
 import com.clearnlp.classification.train.StringTrainSpace;
-import com.clearnlp.component.morph.EnglishMPAnalyzer;
 import com.clearnlp.component.state.POSState;
 import com.clearnlp.constant.english.ENAux;
 import com.clearnlp.constituent.CTLibEn;
 import com.clearnlp.dependency.DEPNode;
+import com.clearnlp.nlp.NLPResources;
+import com.clearnlp.reader.AbstractReader;
 
 /**
  * Part-of-speech tagger using document frequency cutoffs.
@@ -96,7 +97,7 @@ public class EnglishPOSTagger extends AbstractPOSTagger
 	@Override
 	protected void initMorphologicalAnalyzer()
 	{
-		mp_analyzer = new EnglishMPAnalyzer();
+		mp_analyzer = NLPResources.getMPAnalyzer(AbstractReader.LANG_EN);
 	}
 	
 	@Override
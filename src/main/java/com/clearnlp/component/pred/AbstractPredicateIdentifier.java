@@ -44,7 +44,6 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
 
 import com.clearnlp.classification.feature.FtrToken;
 import com.clearnlp.classification.feature.JointFtrXml;
@@ -53,7 +52,7 @@ import com.clearnlp.classification.model.AbstractModel;
 import com.clearnlp.classification.model.StringModel;
 import com.clearnlp.classification.prediction.StringPrediction;
 import com.clearnlp.classification.train.StringTrainSpace;
-import com.clearnlp.classification.vector.StringFeatureVector;
+import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.component.AbstractStatisticalComponent;
 import com.clearnlp.component.evaluation.PredEval;
 import com.clearnlp.component.state.POSState;
@@ -199,24 +198,23 @@ abstract public class AbstractPredicateIdentifier extends AbstractStatisticalCom
 	/** Called by {@link AbstractPredicateIdentifier#identify()}. */
 	protected String getLabel(List<StringInstance> insts, POSState state)
  	 {
-		StringFeatureVector vector = getFeatureVector(f_xmls[0], state);
 		String label = null;
 		
 		if (isTrain())
 		{
 			label = AbstractModel.getBooleanLabel(state.getGoldLabel() != null);
-			insts.add(new StringInstance(label, vector));
+			insts.add(new StringInstance(label, getFeatureVector(f_xmls[0], state)));
 		}
 		else if (isDevelopOrDecode())
 		{
-			label = getAutoLabel(vector);
+			label = getAutoLabel(getSparseFeatureVector(f_xmls[0], s_models[0], state));
 		}
 		
 		return label;
 	}
 	
 	/** Called by {@link AbstractPredicateIdentifier#getLabel()}. */
-	private String getAutoLabel(StringFeatureVector vector)
+	private String getAutoLabel(SparseFeatureVector vector)
 	{
 		StringPrediction p = s_models[0].predictBest(vector);
 		return p.label;
@@ -229,27 +227,14 @@ abstract public class AbstractPredicateIdentifier extends AbstractStatisticalCom
 	{
 		DEPNode node = state.getNode(token);
 		if (node == null)	return null;
-		Matcher m;
 		
-		if (token.isField(JointFtrXml.F_FORM))
+		switch (token.fieldCode)
 		{
-			return node.form;
-		}
-		else if (token.isField(JointFtrXml.F_LEMMA))
-		{
-			return node.lemma;
-		}
-		else if (token.isField(JointFtrXml.F_POS))
-		{
-			return node.pos;
-		}
-		else if (token.isField(JointFtrXml.F_DEPREL))
-		{
-			return node.getLabel();
-		}
-		else if ((m = JointFtrXml.P_FEAT.matcher(token.field)).find())
-		{
-			return node.getFeat(m.group(1));
+		case JointFtrXml.FC_FORM  : return node.form;
+		case JointFtrXml.FC_LEMMA : return node.lemma;
+		case JointFtrXml.FC_POS   : return node.pos;
+		case JointFtrXml.FC_DEPREL: return node.getLabel();
+		case JointFtrXml.FC_FEAT  : return node.getFeat(token.featKey);
 		}
 		
 		return null;
@@ -261,7 +246,7 @@ abstract public class AbstractPredicateIdentifier extends AbstractStatisticalCom
 		DEPNode node = state.getNode(token);
 		if (node == null)	return null;
 		
-		if (token.isField(JointFtrXml.F_DEPREL_SET))
+		if (token.fieldCode == JointFtrXml.FC_DEPREL_SET)
 		{
 			return getDeprelSet(node.getDependents());
 		}
@@ -47,7 +47,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
 
 import com.clearnlp.classification.feature.FtrToken;
 import com.clearnlp.classification.feature.JointFtrXml;
@@ -55,7 +54,7 @@ import com.clearnlp.classification.instance.StringInstance;
 import com.clearnlp.classification.model.StringModel;
 import com.clearnlp.classification.prediction.StringPrediction;
 import com.clearnlp.classification.train.StringTrainSpace;
-import com.clearnlp.classification.vector.StringFeatureVector;
+import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.collection.map.ObjectIntHashMap;
 import com.clearnlp.component.AbstractStatisticalComponent;
 import com.clearnlp.component.evaluation.RoleEval;
@@ -292,24 +291,23 @@ abstract public class AbstractRolesetClassifier extends AbstractStatisticalCompo
 	/** Called by {@link AbstractRolesetClassifier#classify()}. */
 	protected String getLabel(int modelId, POSState state)
  	 {
-		StringFeatureVector vector = getFeatureVector(f_xmls[0], state);
 		String label = null;
 		
 		if (isTrain())
 		{
 			label = state.getGoldLabel();
-			s_spaces[modelId].addInstance(new StringInstance(label, vector));
+			s_spaces[modelId].addInstance(new StringInstance(label, getFeatureVector(f_xmls[0], state)));
 		}
 		else if (isDevelopOrDecode())
 		{
-			label = getAutoLabel(vector, modelId);
+			label = getAutoLabel(getSparseFeatureVector(f_xmls[0], s_models[modelId], state), modelId);
 		}
 		
 		return label;
 	}
 	
 	/** Called by {@link AbstractRolesetClassifier#getLabel()}. */
-	private String getAutoLabel(StringFeatureVector vector, int modelId)
+	private String getAutoLabel(SparseFeatureVector vector, int modelId)
 	{
 		StringPrediction p = s_models[modelId].predictBest(vector);
 		return p.label;
@@ -322,27 +320,14 @@ abstract public class AbstractRolesetClassifier extends AbstractStatisticalCompo
 	{
 		DEPNode node = state.getNode(token);
 		if (node == null)	return null;
-		Matcher m;
 		
-		if (token.isField(JointFtrXml.F_FORM))
+		switch (token.fieldCode)
 		{
-			return node.form;
-		}
-		else if (token.isField(JointFtrXml.F_LEMMA))
-		{
-			return node.lemma;
-		}
-		else if (token.isField(JointFtrXml.F_POS))
-		{
-			return node.pos;
-		}
-		else if (token.isField(JointFtrXml.F_DEPREL))
-		{
-			return node.getLabel();
-		}
-		else if ((m = JointFtrXml.P_FEAT.matcher(token.field)).find())
-		{
-			return node.getFeat(m.group(1));
+		case JointFtrXml.FC_FORM  : return node.form;
+		case JointFtrXml.FC_LEMMA : return node.lemma;
+		case JointFtrXml.FC_POS   : return node.pos;
+		case JointFtrXml.FC_DEPREL: return node.getLabel();
+		case JointFtrXml.FC_FEAT  : return node.getFeat(token.featKey);
 		}
 		
 		return null;
@@ -354,7 +339,7 @@ abstract public class AbstractRolesetClassifier extends AbstractStatisticalCompo
 		DEPNode node = state.getNode(token);
 		if (node == null)	return null;
 		
-		if (token.isField(JointFtrXml.F_DEPREL_SET))
+		if (token.fieldCode == JointFtrXml.FC_DEPREL_SET)
 		{
 			return getDeprelSet(node.getDependents());
 		}
@@ -45,7 +45,6 @@ import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
 
 import com.carrotsearch.hppc.IntOpenHashSet;
 import com.clearnlp.classification.feature.FtrToken;
@@ -54,6 +53,7 @@ import com.clearnlp.classification.instance.StringInstance;
 import com.clearnlp.classification.model.StringModel;
 import com.clearnlp.classification.prediction.StringPrediction;
 import com.clearnlp.classification.train.StringTrainSpace;
+import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.classification.vector.StringFeatureVector;
 import com.clearnlp.component.AbstractStatisticalComponent;
 import com.clearnlp.component.evaluation.SRLEval;
@@ -93,6 +93,11 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 	
 	protected final String LB_NO_ARG = "N";
 	
+	/** Kinds of features cached in {@link SRLState#putField(long, String)}. */
+	private final int CACHE_PATH   = 0;
+	private final int CACHE_CHAIN  = 1;
+	private final int CACHE_SUBCAT = 2;
+	
 	protected Prob1DMap		 m_down, m_up;	// only for collecting
 	protected Set<String>	 s_down, s_up;
 	protected AbstractFrames m_frames;
@@ -262,26 +267,26 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 		while ((pred = state.moveToNextPredicate()) != null)
 		{
 			for (DEPArc arc : pred.getGrandDependents())
-				collectDown(pred, arc.getNode());
+				collectDown(state, pred, arc.getNode());
 		
 			head = pred.getHead();
-			if (head != null) collectUp(pred, head.getHead());
+			if (head != null) collectUp(state, pred, head.getHead());
 		}
 	}
 	
-	private void collectDown(DEPNode pred, DEPNode arg)
+	private void collectDown(SRLState state, DEPNode pred, DEPNode arg)
 	{
 		if (arg.isArgumentOf(pred))
 		{
-			for (String path : getDUPathList(pred, arg.getHead()))
+			for (String path : getDUPathList(state, pred, arg.getHead()))
 				m_down.add(path);
 		}
 		
 		for (DEPArc arc : arg.getDependents())
-			collectDown(pred, arc.getNode());
+			collectDown(state, pred, arc.getNode());
 	}
 	
-	private void collectUp(DEPNode pred, DEPNode head)
+	private void collectUp(SRLState state, DEPNode pred, DEPNode head)
 	{
 		if (head == null)	return;
 		
@@ -289,28 +294,28 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 		{
 			if (arc.getNode().isArgumentOf(pred))
 			{
-				for (String path : getDUPathList(head, pred))
+				for (String path : getDUPathList(state, head, pred))
 					m_up.add(path);
 				
 				break;
 			}
 		}	
 		
-		collectUp(pred, head.getHead());
+		collectUp(state, pred, head.getHead());
 	}
 	
-	private String getDUPath(DEPNode top, DEPNode bottom)
+	private String getDUPath(SRLState state, DEPNode top, DEPNode bottom)
 	{
-		return getPathAux(top, bottom, JointFtrXml.F_DEPREL, SRLLib.DELIM_PATH_DOWN, true);
+		return getPathAux(state, top, bottom, JointFtrXml.FC_DEPREL, PATH_DOWN, true);
 	}
 	
-	private List<String> getDUPathList(DEPNode top, DEPNode bottom)
+	private List<String> getDUPathList(SRLState state, DEPNode top, DEPNode bottom)
 	{
 		List<String> paths = new ArrayList<String>();
 		
 		while (bottom != top)
 		{
-			paths.add(getDUPath(top, bottom));
+			paths.add(getDUPath(state, top, bottom));
 			bottom = bottom.getHead();
 		}
 		
@@ -377,7 +382,7 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 				
 				if (state.isLowestCommonAncestor(pred))
 				{
-					if (s_down.contains(getDUPath(pred, arg)))
+					if (s_down.contains(getDUPath(state, pred, arg)))
 						labelDown(arg.getDependents(), state);
 					else if ((arg = getPossibleDescendent(pred, arg)) != null)
 						labelDown(arg.getDependents(), state);
@@ -391,22 +396,23 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 	
 	private StringPrediction getLabel(SRLState state)
 	{
-		StringFeatureVector vector = getFeatureVector(f_xmls[0], state);
 		int idx = state.getDirection();
+		StringFeatureVector vector;
 		StringPrediction p = null;
 		
 		if (isTrain())
 		{
 			p = new StringPrediction(getGoldLabel(state), 1d);
-			s_spaces[idx].addInstance(new StringInstance(p.label, vector));
+			s_spaces[idx].addInstance(new StringInstance(p.label, getFeatureVector(f_xmls[0], state)));
 		}
 		else if (isDevelopOrDecode())
 		{
-			p = getAutoLabel(idx, vector, state);
+			p = getAutoLabel(idx, getSparseFeatureVector(f_xmls[0], s_models[idx], state), state);
 		}
 		else if (isBootstrap())
 		{
-			p = getAutoLabel(idx, vector, state);
+			vector = getFeatureVector(f_xmls[0], state);
+			p = getAutoLabel(idx, s_models[idx].toSparseFeatureVector(vector), state);
 			s_spaces[idx].addInstance(new StringInstance(getGoldLabel(state), vector));
 		}
 
@@ -426,7 +432,7 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 	}
 
 	/** Called by {@link AbstractSRLabeler#getLabel(byte)}. */
-	private StringPrediction getAutoLabel(int idx, StringFeatureVector vector, SRLState state)
+	private StringPrediction getAutoLabel(int idx, SparseFeatureVector vector, SRLState state)
 	{
 		StringPrediction p = getBestPrediction(s_models[idx], vector, state);
 		
@@ -485,56 +491,31 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 	{
 		DEPNode node = state.getNode(token);
 		if (node == null)	return null;
-		Matcher m;
 		
-		if (token.isField(JointFtrXml.F_FORM))
+		switch (token.fieldCode)
 		{
+		case JointFtrXml.FC_FORM:
 			return node.form;
-		}
-		else if (token.isField(JointFtrXml.F_LEMMA))
-		{
+		case JointFtrXml.FC_LEMMA:
 			return node.lemma;
-		}
-		else if (token.isField(JointFtrXml.F_POS))
-		{
+		case JointFtrXml.FC_POS:
 			return node.pos;
-		}
-		else if (token.isField(JointFtrXml.F_DEPREL))
-		{
+		case JointFtrXml.FC_DEPREL:
 			return node.getLabel();
-		}
-		else if (token.isField(JointFtrXml.F_DISTANCE))
-		{
+		case JointFtrXml.FC_DISTANCE:
 			return getDistance(node, state);
-		}
-		else if ((m = JointFtrXml.P_ARGN.matcher(token.field)).find())
-		{
-			return state.getNumberedArgument(Integer.parseInt(m.group(1)));
-		}
-		else if ((m = JointFtrXml.P_PATH.matcher(token.field)).find())
-		{
-			String type = m.group(1);
-			int    dir  = Integer.parseInt(m.group(2));
-			
-			return getPath(type, dir, state);
-		}
-		else if ((m = JointFtrXml.P_SUBCAT.matcher(token.field)).find())
-		{
-			String type = m.group(1);
-			int    dir  = Integer.parseInt(m.group(2));
-			
-			return getSubcat(node, type, dir);
-		}
-		else if ((m = JointFtrXml.P_FEAT.matcher(token.field)).find())
-		{
-			return node.getFeat(m.group(1));
-		}
-		else if ((m = JointFtrXml.P_BOOLEAN.matcher(token.field)).find())
-		{
+		case JointFtrXml.FC_ARGN:
+			return state.getNumberedArgument(token.argument);
+		case JointFtrXml.FC_PATH:
+			return getPath(token.subFieldCode, token.argument, state);
+		case JointFtrXml.FC_SUBCAT:
+			return getSubcat(state, node, token.subFieldCode, token.argument);
+		case JointFtrXml.FC_FEAT:
+			return node.getFeat(token.featKey);
+		case JointFtrXml.FC_BOOLEAN:
 			DEPNode pred = state.getCurrentPredicate();
-			int    field = Integer.parseInt(m.group(1));
 			
-			switch (field)
+			switch (token.argument)
 			{
 			case 0: return (node.isDependentOf(pred)) ? token.field : null;
 			case 1: return (pred.isDependentOf(node)) ? token.field : null;
@@ -553,12 +534,11 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 		DEPNode node = state.getNode(token);
 		if (node == null)	return null;
 		
-		if (token.isField(JointFtrXml.F_DEPREL_SET))
+		switch (token.fieldCode)
 		{
+		case JointFtrXml.FC_DEPREL_SET:
 			return getDeprelSet(node.getDependents());
-		}
-		else if (token.isField(JointFtrXml.F_GRAND_DEPREL_SET))
-		{
+		case JointFtrXml.FC_GRAND_DEPREL_SET:
 			return getDeprelSet(node.getGrandDependents());
 		}
 		
@@ -575,7 +555,7 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 		else					return "3";
 	}
 	
-	private String getPath(String type, int dir, SRLState state)
+	private String getPath(int type, int dir, SRLState state)
 	{
 		DEPNode pred = state.getCurrentPredicate();
 		DEPNode arg  = state.getCurrentArgument();
@@ -584,23 +564,23 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 		if (dir == PATH_UP)
 		{
 			if (lca != pred)
-				return getPathAux(lca, pred, type, SRLLib.DELIM_PATH_UP, true);
+				return getPathAux(state, lca, pred, type, PATH_UP, true);
 		}
 		else if (dir == PATH_DOWN)
 		{
 			if (lca != arg)
-				return getPathAux(lca, arg, type, SRLLib.DELIM_PATH_DOWN, true);
+				return getPathAux(state, lca, arg, type, PATH_DOWN, true);
 		}
 		else
 		{
 			if (pred == lca)
-				return getPathAux(pred, arg, type, SRLLib.DELIM_PATH_DOWN, true);
+				return getPathAux(state, pred, arg, type, PATH_DOWN, true);
 			else if (pred.isDescendentOf(arg))
-				return getPathAux(arg, pred, type, SRLLib.DELIM_PATH_UP, true);
+				return getPathAux(state, arg, pred, type, PATH_UP, true);
 			else
 			{
-				String path = getPathAux(lca, pred, type, SRLLib.DELIM_PATH_UP, true);
-				path += getPathAux(lca, arg, type, SRLLib.DELIM_PATH_DOWN, false);
+				String path = getPathAux(state, lca, pred, type, PATH_UP, true);
+				path += getPathAux(state, lca, arg, type, PATH_DOWN, false);
 				
 				return path;
 			}			
@@ -609,51 +589,91 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 		return null;
 	}
 	
-	private String getPathAux(DEPNode top, DEPNode bottom, String type, String delim, boolean includeTop)
+	/**
+	 * Paths are cached in the specific state; each path is composed of the cached chain from its bottom node
+	 * so that walks shared by different arguments of the same ancestor are done once.
+	 * @param dir {@link #PATH_UP} or {@link #PATH_DOWN}.
+	 */
+	private String getPathAux(SRLState state, DEPNode top, DEPNode bottom, int type, int dir, boolean includeTop)
+	{
+		int fType = getFieldType(type);
+		if (fType == 0)	return null;
+		
+		boolean up = (dir == PATH_UP);
+		long key = getCacheKey(CACHE_PATH, top.id, bottom.id, fType, (up ? 2 : 0) | (includeTop ? 1 : 0));
+		if (state.containsField(key))	return state.getField(key);
+		String delim = up ? SRLLib.DELIM_PATH_UP : SRLLib.DELIM_PATH_DOWN;
+		String path;
+		
+		if (fType == 3)
+			path = delim + getPathLength(top, bottom);
+		else
+		{
+			path = getPathChain(state, top, bottom, fType, delim, up);
+			if (fType == 1 && includeTop) path += delim + top.pos;
+		}
+		
+		state.putField(key, path);
+		return path;
+	}
+	
+	/** @return the concatenation of the delimiter and the field of each node from the bottom node up to the top node (exclusive). */
+	private String getPathChain(SRLState state, DEPNode top, DEPNode bottom, int fType, String delim, boolean up)
+	{
+		long key = getCacheKey(CACHE_CHAIN, top.id, bottom.id, fType, up ? 2 : 0);
+		if (state.containsField(key))	return state.getField(key);
+		
+		DEPNode head = bottom.getHead();
+		String chain = delim + ((fType == 1) ? bottom.pos : bottom.getLabel());
+		if (head != top && head != null) chain += getPathChain(state, top, head, fType, delim, up);
+		
+		state.putField(key, chain);
+		return chain;
+	}
+	
+	private int getPathLength(DEPNode top, DEPNode bottom)
 	{
-		StringBuilder build = new StringBuilder();
 		DEPNode head = bottom;
 		int dist = 0;
 		
 		do
 		{
-			if (type.equals(JointFtrXml.F_POS))
-			{
-				build.append(delim);
-				build.append(head.pos);
-			}
-			else if (type.equals(JointFtrXml.F_DEPREL))
-			{
-				build.append(delim);
-				build.append(head.getLabel());
-			}
-			else if (type.equals(JointFtrXml.F_DISTANCE))
-			{
-				dist++;
-			}
-		
+			dist++;
 			head = head.getHead();
 		}
 		while (head != top && head != null);
 		
-		if (type.equals(JointFtrXml.F_POS))
-		{
-			if (includeTop)
-			{
-				build.append(delim);
-				build.append(top.pos);	
-			}
-		}
-		else if (type.equals(JointFtrXml.F_DISTANCE))
+		return dist;
+	}
+	
+	/** @return 1 for {@link JointFtrXml#FC_POS}, 2 for {@link JointFtrXml#FC_DEPREL}, 3 for {@link JointFtrXml#FC_DISTANCE}, and 0 for others. */
+	private int getFieldType(int type)
+	{
+		switch (type)
 		{
-			build.append(delim);
-			build.append(dist);
+		case JointFtrXml.FC_POS     : return 1;
+		case JointFtrXml.FC_DEPREL  : return 2;
+		case JointFtrXml.FC_DISTANCE: return 3;
+		default                     : return 0;
 		}
+	}
+	
+	private long getCacheKey(int kind, int id1, int id2, int fType, int flags)
+	{
+		return ((long)id1 << 36) | ((long)id2 << 12) | (kind << 8) | (fType << 4) | flags;
+	}
+	
+	private String getSubcat(SRLState state, DEPNode node, int type, int dir)
+	{
+		long key = getCacheKey(CACHE_SUBCAT, node.id, 0, getFieldType(type), dir);
+		if (state.containsField(key))	return state.getField(key);
 		
-		return build.length() == 0 ? null : build.toString();
+		String subcat = getSubcatAux(node, type, dir);
+		state.putField(key, subcat);
+		return subcat;
 	}
 	
-	private String getSubcat(DEPNode node, String type, int dir)
+	private String getSubcatAux(DEPNode node, int type, int dir)
 	{
 		List<DEPArc>  deps  = node.getDependents();
 		StringBuilder build = new StringBuilder();
@@ -690,19 +710,20 @@ abstract public class AbstractSRLabeler extends AbstractStatisticalComponent<SRL
 		return build.length() == 0 ? null : build.substring(SRLLib.DELIM_SUBCAT.length());
 	}
 	
-	private void getSubcatAux(StringBuilder build, DEPNode node, String type)
+	private void getSubcatAux(StringBuilder build, DEPNode node, int type)
 	{
 		build.append(SRLLib.DELIM_SUBCAT);
 		
-		if (type.equals(JointFtrXml.F_POS))
-			build.append(node.pos);
-		else if (type.equals(JointFtrXml.F_DEPREL))
-			build.append(node.getLabel());
+		switch (type)
+		{
+		case JointFtrXml.FC_POS   : build.append(node.pos);	break;
+		case JointFtrXml.FC_DEPREL: build.append(node.getLabel());	break;
+		}
 	}
 	
 //	================================ RERANK ================================
 	
-	private StringPrediction getBestPrediction(StringModel model, StringFeatureVector vector, SRLState state)
+	private StringPrediction getBestPrediction(StringModel model, SparseFeatureVector vector, SRLState state)
 	{
 		List<StringPrediction> ps = model.predictAll(vector);
 		rerankPredictions(ps, state);
@@ -43,7 +43,9 @@ package com.clearnlp.component.state;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import com.carrotsearch.hppc.IntOpenHashSet;
 import com.clearnlp.classification.feature.FtrToken;
@@ -55,6 +57,7 @@ import com.clearnlp.dependency.DEPLabel;
 import com.clearnlp.dependency.DEPLib;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.dependency.IDEPHeadListener;
 import com.clearnlp.util.UTCollection;
 import com.clearnlp.util.pair.StringIntPair;
 import com.clearnlp.util.triple.ObjectsDoubleTriple;
@@ -67,7 +70,11 @@ import com.google.common.collect.Lists;
 public class DEPState extends DefaultState implements IDEPLabel
 {
 	List<ObjectsDoubleTriple<List<StringInstance>,StringIntPair[]>> l_branches;
+	List<DEPTree>        l_trees;
 	List<DEPStateBranch> l_states;
+	PriorityQueue<DEPStateBranch> q_states;
+	int                  n_beamStates;
+	int                  n_branchPoints;
 	List<List<DEPHead>>  l_2ndHeads;
 	double[]             n_2ndPos;
 	int                  i_state;
@@ -80,6 +87,16 @@ public class DEPState extends DefaultState implements IDEPLabel
 	double        d_score;
 	IntOpenHashSet       s_reduce;
 	
+	/** The changes made while parsing the first sequence of transitions; branches point to positions in this list. */
+	List<DEPStateChange> l_history;
+	/** The changes made while parsing the current branch, undone before moving to the next branch. */
+	List<DEPStateChange> l_branchHistory;
+	/** The number of changes in {@link #l_history} currently applied to the tree. */
+	int                  i_history;
+	/** If {@code true}, changes to the tree are not recorded. */
+	boolean              b_restore;
+	IDEPHeadListener     h_listener;
+	
 	public DEPState(DEPTree tree)
 	{
 		super(tree);
@@ -93,13 +110,42 @@ public class DEPState extends DefaultState implements IDEPLabel
 		initPrimitives();
 		
 		l_branches = Lists.newArrayList();
+		l_trees    = Lists.newArrayList();
 	 	l_states   = Lists.newArrayList();
+	 	q_states   = new PriorityQueue<DEPStateBranch>();
+	 	n_beamStates = Integer.MAX_VALUE;
 		l_2ndHeads = Lists.newArrayList();
 	 	n_2ndPos   = new double[t_size];
 	 	s_reduce   = new IntOpenHashSet();
+	 	l_history  = Lists.newArrayList();
+	 	l_branchHistory = Lists.newArrayList();
 	 	
 	 	int i; for (i=0; i<t_size; i++)
 	 		l_2ndHeads.add(new ArrayList<DEPHead>());
+	 	
+	 	initHeadListener();
+	}
+	
+	/** The listener is installed only when branch points can be kept (see {@link #setBeamSize(int)}). */
+	private void initHeadListener()
+	{
+		h_listener = new IDEPHeadListener()
+		{
+			@Override
+			public void headChanging(DEPNode node, DEPNode head, String label)
+			{
+				DEPNode oHead = node.getHead();
+				record(new DEPHeadChange(node.id, (oHead != null) ? oHead.id : DEPLib.NULL_ID, node.getLabel(), (head != null) ? head.id : DEPLib.NULL_ID, label));
+			}
+		};
+		
+		installHeadListener();
+	}
+	
+	/** Records changes to the tree only if branch points can be kept; greedy parsing never needs the history. */
+	private void installHeadListener()
+	{
+		d_tree.setHeadListener((n_beamStates > 0) ? h_listener : null);
 	}
 	
 	private void initPrimitives()
@@ -110,6 +156,9 @@ public class DEPState extends DefaultState implements IDEPLabel
 	 	d_score  = 0d;
 	 	i_state  = -1;
 	 	b_branch = true;
+	 	n_branchPoints = 0;
+	 	i_history = 0;
+	 	b_restore = false;
 	}
 	
 	public void reInit()
@@ -117,14 +166,42 @@ public class DEPState extends DefaultState implements IDEPLabel
 		initPrimitives();
 	 	
 		l_branches.clear();
+		l_trees.clear();
  		l_states.clear();
+ 		q_states.clear();
  		
 	 	for (List<DEPHead> list : l_2ndHeads)
 	 		list.clear();
 	 	
 	 	Arrays.fill(n_2ndPos, 0);
 	 	s_reduce.clear();
-	 	d_tree.clearHeads();	 		
+	 	d_tree.setHeadListener(null);
+	 	d_tree.clearHeads();
+	 	l_history = Lists.newArrayList();
+	 	l_branchHistory.clear();
+	 	installHeadListener();
+	}
+	
+	/**
+	 * Sets the beam size; at most {@code beamSize-1} branch points are kept by {@link #addState(DEPLabel)}.
+	 * @param beamSize the beam size.
+	 */
+	public void setBeamSize(int beamSize)
+	{
+		n_beamStates = Math.max(0, beamSize-1);
+		installHeadListener();
+	}
+	
+	/**
+	 * Stops recording changes to the tree and clears the recorded changes.
+	 * Called once this state is done with its branches; recording starts again on {@link #reInit()}.
+	 */
+	public void clearHistory()
+	{
+		d_tree.setHeadListener(null);
+		l_history = Lists.newArrayList();	// may be shared with forked states
+		l_branchHistory.clear();
+		i_history = 0;
 	}
 	
 //	====================================== GETTERS ======================================
@@ -293,7 +370,8 @@ public class DEPState extends DefaultState implements IDEPLabel
 	
 	public void pushBack(int id)
 	{
-		s_reduce.remove(id);
+		if (s_reduce.remove(id))
+			record(new DEPReduceChange(id, false));
 	}
 	
 	public void resetHeads(StringIntPair[] heads)
@@ -342,7 +420,9 @@ public class DEPState extends DefaultState implements IDEPLabel
 	
 	public void reduce()
 	{
-		s_reduce.add(i_lambda);
+		if (s_reduce.add(i_lambda))
+			record(new DEPReduceChange(i_lambda, true));
+		
 		passAux();
 	}
 	
@@ -382,16 +462,16 @@ public class DEPState extends DefaultState implements IDEPLabel
 		
 		if (node == null)	return null;
 		
-		if (token.relation != null)
+		switch (token.relationCode)
 		{
-			     if (token.isRelation(JointFtrXml.R_H))		node = node.getHead();
-			else if (token.isRelation(JointFtrXml.R_H2))	node = node.getGrandHead();
-			else if (token.isRelation(JointFtrXml.R_LMD))	node = d_tree.getLeftMostDependent  (node.id);
-			else if (token.isRelation(JointFtrXml.R_RMD))	node = d_tree.getRightMostDependent (node.id);
-			else if (token.isRelation(JointFtrXml.R_LMD2))	node = d_tree.getLeftMostDependent  (node.id, 1);
-			else if (token.isRelation(JointFtrXml.R_RMD2))	node = d_tree.getRightMostDependent (node.id, 1);
-			else if (token.isRelation(JointFtrXml.R_LNS))	node = d_tree.getLeftNearestSibling (node.id);
-			else if (token.isRelation(JointFtrXml.R_RNS))	node = d_tree.getRightNearestSibling(node.id);
+		case JointFtrXml.RC_H   : node = node.getHead();	break;
+		case JointFtrXml.RC_H2  : node = node.getGrandHead();	break;
+		case JointFtrXml.RC_LMD : node = d_tree.getLeftMostDependent  (node.id);	break;
+		case JointFtrXml.RC_RMD : node = d_tree.getRightMostDependent (node.id);	break;
+		case JointFtrXml.RC_LMD2: node = d_tree.getLeftMostDependent  (node.id, 1);	break;
+		case JointFtrXml.RC_RMD2: node = d_tree.getRightMostDependent (node.id, 1);	break;
+		case JointFtrXml.RC_LNS : node = d_tree.getLeftNearestSibling (node.id);	break;
+		case JointFtrXml.RC_RNS : node = d_tree.getRightNearestSibling(node.id);	break;
 		}
 		
 		return node;
@@ -438,21 +518,39 @@ public class DEPState extends DefaultState implements IDEPLabel
 	
 //	====================================== STATES ======================================
 	
+	/**
+	 * Adds a branch point with the specific label from the current state.
+	 * Only the {@code beamSize-1} branch points with the highest scores are kept (see {@link #setBeamSize(int)}),
+	 * and a branch point costs no copy of the tree; it points to the current position of the history instead.
+	 */
 	public void addState(DEPLabel label)
 	{
-		if (b_branch)
-			l_states.add(new DEPStateBranch(label));
+		if (!b_branch || n_beamStates == 0) return;
+		n_branchPoints++;
+		
+		if (q_states.size() < n_beamStates)
+			q_states.add(new DEPStateBranch(label));
+		else if (label.score > q_states.peek().label.score)
+		{
+			q_states.poll();
+			q_states.add(new DEPStateBranch(label));
+		}
 	}
 	
-	public void trimStates(int beamSize)
+	/**
+	 * Moves the kept branch points to the list of states in the order they are visited:
+	 * the order they were added if none was dropped; otherwise, the descending order of their scores.
+	 */
+	public void trimStates()
 	{
-		beamSize--;
+		if (q_states.isEmpty()) return;
+		l_states = Lists.newArrayList(q_states);
+		q_states.clear();
 		
-		if (l_states.size() > beamSize)
-		{
+		if (n_branchPoints > l_states.size())
 			UTCollection.sortReverseOrder(l_states);
-			l_states = l_states.subList(0, beamSize);
-		}
+		else
+			Collections.sort(l_states, BRANCH_ORDER);
 	}
 	
 	public void disableBranching()
@@ -462,6 +560,7 @@ public class DEPState extends DefaultState implements IDEPLabel
 	
 	public boolean hasMoreState()
 	{
+		trimStates();
 		return i_state+1 < l_states.size();
 	}
 	
@@ -474,15 +573,118 @@ public class DEPState extends DefaultState implements IDEPLabel
 		i_beta   = state.beta;
 		n_trans  = state.trans;
 		d_score  = state.score;
-		s_reduce = state.reduce;
-		d_tree.resetHeads(state.heads);
+		restore(state.history);
 		
 		return state.label;
 	}
 	
+//	====================================== HISTORY ======================================
+	
+	/** Records the specific change; changes made before the first branch is visited form the history that branches point to. */
+	private void record(DEPStateChange change)
+	{
+		if (b_restore || n_beamStates == 0) return;
+		
+		if (i_state < 0)
+		{
+			l_history.add(change);
+			i_history++;
+		}
+		else
+			l_branchHistory.add(change);
+	}
+	
+	/**
+	 * Restores the tree and the reduce set to the specific position of the history
+	 * by undoing the changes of the current branch, then undoing or redoing the changes in between.
+	 */
+	private void restore(int history)
+	{
+		int i;
+		b_restore = true;
+		
+		for (i=l_branchHistory.size()-1; i>=0; i--)
+			l_branchHistory.get(i).undo(this);
+		
+		l_branchHistory.clear();
+		
+		while (i_history > history)
+			l_history.get(--i_history).undo(this);
+		
+		while (i_history < history)
+			l_history.get(i_history++).redo(this);
+		
+		b_restore = false;
+	}
+	
+	/**
+	 * Returns a copy of this state for each remaining branch so that the branches can be parsed independently.
+	 * Each copy owns a deep copy of the current tree and moves to its branch on {@link #setToNextState()}.
+	 * Branching is disabled on this state and all copies; all remaining branches of this state are consumed.
+	 * @see #mergeStates(List)
+	 */
+	public List<DEPState> forkStates()
+	{
+		List<DEPState> forks = Lists.newArrayList();
+		DEPState fork;
+		
+		disableBranching();
+		
+		while (hasMoreState())
+		{
+			fork = new DEPState(copyTree());
+			fork.g_labels = g_labels;
+			fork.disableBranching();
+			fork.s_reduce = s_reduce.clone();
+			fork.l_history = l_history;
+			fork.i_history = i_history;
+			fork.l_branchHistory.addAll(l_branchHistory);
+			fork.l_states.add(l_states.get(++i_state));
+			forks.add(fork);
+		}
+		
+		return forks;
+	}
+	
+	/** Called by {@link #forkStates()}. */
+	private DEPTree copyTree()
+	{
+		DEPTree tree = new DEPTree();
+		int i;
+		
+		for (i=1; i<t_size; i++)
+			tree.add(new DEPNode(d_tree.get(i)));
+		
+		tree.resetHeads(d_tree.getHeads());
+		return tree;
+	}
+	
+	/**
+	 * Merges the branches, secondary heads, and part-of-speech scores of the forked states into this state.
+	 * The states are merged in the order given so that the result does not depend on the order in which they are parsed.
+	 * @see #forkStates()
+	 */
+	public void mergeStates(List<DEPState> forks)
+	{
+		int i;
+		
+		for (DEPState fork : forks)
+		{
+			l_branches.addAll(fork.l_branches);
+			l_trees   .addAll(fork.l_trees);
+			
+			for (i=0; i<t_size; i++)
+			{
+				l_2ndHeads.get(i).addAll(fork.l_2ndHeads.get(i));
+				n_2ndPos[i] += fork.n_2ndPos[i];
+			}
+		}
+	}
+	
 	public void addBranch(List<StringInstance> instances)
 	{
 		l_branches.add(new ObjectsDoubleTriple<List<StringInstance>,StringIntPair[]>(instances, d_tree.getHeads(), getScore()));
+		l_trees.add(d_tree);
 	}
 	
 	public List<ObjectsDoubleTriple<List<StringInstance>,StringIntPair[]>> getBranches()
@@ -495,6 +697,35 @@ public class DEPState extends DefaultState implements IDEPLabel
 		return Collections.max(l_branches);
 	}
 	
+	/**
+	 * Resets the heads of the current tree to the ones of the best branch.
+	 * If the best branch was parsed on a forked state, the part-of-speech tags and extra features
+	 * of the tree used for the branch are copied as well.
+	 * @return the best branch.
+	 */
+	public ObjectsDoubleTriple<List<StringInstance>,StringIntPair[]> resetToBestBranch()
+	{
+		ObjectsDoubleTriple<List<StringInstance>,StringIntPair[]> best = getBestBranch();
+		DEPTree tree = l_trees.get(l_branches.indexOf(best));
+		DEPNode oNode, nNode;
+		int i;
+		
+		if (tree != d_tree)
+		{
+			for (i=1; i<t_size; i++)
+			{
+				oNode = tree.get(i);
+				nNode = d_tree.get(i);
+				
+				nNode.pos = oNode.pos;
+				nNode.setFeats(oNode.getFeats());
+			}
+		}
+		
+		d_tree.resetHeads(best.o2);
+		return best;
+	}
+	
 	public void setGoldScoresToBranches()
 	{
 		StringIntPair   gHead, sHead;
@@ -518,27 +749,38 @@ public class DEPState extends DefaultState implements IDEPLabel
 		}
 	}
 	
+	/** Compares branches by the order they were added. */
+	static final Comparator<DEPStateBranch> BRANCH_ORDER = new Comparator<DEPStateBranch>()
+	{
+		@Override
+		public int compare(DEPStateBranch b1, DEPStateBranch b2)
+		{
+			return b1.order - b2.order;
+		}
+	};
+	
 	class DEPStateBranch implements Comparable<DEPStateBranch>
 	{
-		int             lambda;
-		int             beta;
-		int             trans;
-		double          score;
-		IntOpenHashSet  reduce;
-		StringIntPair[] heads;
-		DEPLabel        label;
+		int      lambda;
+		int      beta;
+		int      trans;
+		double   score;
+		int      history;
+		int      order;
+		DEPLabel label;
 		
 		public DEPStateBranch(DEPLabel label)
 		{
-			this.lambda = i_lambda;
-			this.beta   = i_beta;
-			this.trans  = n_trans;
-			this.score  = d_score;
-			this.reduce = s_reduce.clone();
-			this.heads  = d_tree.getHeads();
-			this.label  = label;
+			this.lambda  = i_lambda;
+			this.beta    = i_beta;
+			this.trans   = n_trans;
+			this.score   = d_score;
+			this.history = i_history;
+			this.order   = n_branchPoints;
+			this.label   = label;
 		}
 		
+		/** Branches with the same score are ordered so that the one added earlier is greater. */
 		@Override
 		public int compareTo(DEPStateBranch p)
 		{
@@ -546,7 +788,85 @@ public class DEPState extends DefaultState implements IDEPLabel
 			
 			if      (diff > 0)	return  1;
 			else if (diff < 0)	return -1;
-			else				return  0;
+			else				return  p.order - order;
+		}
+	}
+	
+	/** A change of this state that can be undone and redone. */
+	static abstract class DEPStateChange
+	{
+		abstract void undo(DEPState state);
+		abstract void redo(DEPState state);
+	}
+	
+	/** A change of the head and the dependency label of a node. */
+	static class DEPHeadChange extends DEPStateChange
+	{
+		final int    id;
+		final int    oHeadId;
+		final String oLabel;
+		final int    nHeadId;
+		final String nLabel;
+		
+		public DEPHeadChange(int id, int oHeadId, String oLabel, int nHeadId, String nLabel)
+		{
+			this.id      = id;
+			this.oHeadId = oHeadId;
+			this.oLabel  = oLabel;
+			this.nHeadId = nHeadId;
+			this.nLabel  = nLabel;
+		}
+		
+		@Override
+		void undo(DEPState state)
+		{
+			setHead(state.d_tree, oHeadId, oLabel);
+		}
+		
+		@Override
+		void redo(DEPState state)
+		{
+			setHead(state.d_tree, nHeadId, nLabel);
+		}
+		
+		private void setHead(DEPTree tree, int headId, String label)
+		{
+			DEPNode node = tree.get(id);
+			
+			if (headId == DEPLib.NULL_ID)
+			{
+				node.clearHead();
+				node.setLabel(label);
+			}
+			else
+				node.setHead(tree.get(headId), label);
+		}
+	}
+	
+	/** A change of the membership of a node in the reduce set. */
+	static class DEPReduceChange extends DEPStateChange
+	{
+		final int     id;
+		final boolean added;
+		
+		public DEPReduceChange(int id, boolean added)
+		{
+			this.id    = id;
+			this.added = added;
+		}
+		
+		@Override
+		void undo(DEPState state)
+		{
+			if (added)	state.s_reduce.remove(id);
+			else		state.s_reduce.add(id);
+		}
+		
+		@Override
+		void redo(DEPState state)
+		{
+			if (added)	state.s_reduce.add(id);
+			else		state.s_reduce.remove(id);
 		}
 	}
 }
@@ -41,6 +41,7 @@
 package com.clearnlp.component.state;
 
 import com.clearnlp.classification.feature.FtrToken;
+import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.dependency.DEPTree;
 
@@ -52,6 +53,8 @@ public class DefaultState
 {
 	protected DEPTree d_tree;
 	protected int     t_size;
+	/** The feature vector reused for every prediction made on this state. */
+	private SparseFeatureVector s_buffer;
 	
 	public DefaultState(DEPTree tree)
 	{
@@ -70,6 +73,17 @@ public class DefaultState
 		return t_size;
 	}
 
+	/** @return an empty feature vector whose internal buffer is reused across calls. */
+	public SparseFeatureVector getFeatureBuffer()
+	{
+		if (s_buffer == null)
+			s_buffer = new SparseFeatureVector();
+		else
+			s_buffer.clear();
+		
+		return s_buffer;
+	}
+
 //	====================================== SETTERS ======================================
 
 	public void setTree(DEPTree tree)
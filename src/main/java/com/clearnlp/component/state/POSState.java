@@ -44,6 +44,7 @@ import com.clearnlp.classification.feature.FtrToken;
 import com.clearnlp.dependency.DEPLib;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.morphology.MPForm;
 
 /**
  * @since 2.0.0
@@ -53,6 +54,7 @@ public class POSState extends DefaultState
 {
 	String[] g_labels;
 	int      i_input;
+	MPForm[] m_forms;
  	
  	public POSState(DEPTree tree)
 	{
@@ -101,6 +103,19 @@ public class POSState extends DefaultState
 		getInput().addFeat(DEPLib.FEAT_POS2, pos);
 	}
 	
+//	====================================== FORMS ======================================
+	
+	/** @return the cached form of the specific node (see {@link com.clearnlp.nlp.NLPProcess#simplifyForms(DEPTree)}). */
+	public MPForm getForm(int id)
+	{
+		return m_forms[id];
+	}
+	
+	public void setForms(MPForm[] forms)
+	{
+		m_forms = forms;
+	}
+	
 //	====================================== BOOLEANS ======================================
 	
 	/** @return {@code true} if the current node is the first node in the tree. */
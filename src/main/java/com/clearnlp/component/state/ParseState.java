@@ -382,16 +382,16 @@ public class ParseState extends AbstractState implements IDEPLabel
 		
 		if (node == null)	return null;
 		
-		if (token.relation != null)
+		switch (token.relationCode)
 		{
-			     if (token.isRelation(JointFtrXml.R_H))		node = node.getHead();
-			else if (token.isRelation(JointFtrXml.R_H2))	node = node.getGrandHead();
-			else if (token.isRelation(JointFtrXml.R_LMD))	node = d_tree.getLeftMostDependent  (node.id);
-			else if (token.isRelation(JointFtrXml.R_RMD))	node = d_tree.getRightMostDependent (node.id);
-			else if (token.isRelation(JointFtrXml.R_LMD2))	node = d_tree.getLeftMostDependent  (node.id, 1);
-			else if (token.isRelation(JointFtrXml.R_RMD2))	node = d_tree.getRightMostDependent (node.id, 1);
-			else if (token.isRelation(JointFtrXml.R_LNS))	node = d_tree.getLeftNearestSibling (node.id);
-			else if (token.isRelation(JointFtrXml.R_RNS))	node = d_tree.getRightNearestSibling(node.id);
+		case JointFtrXml.RC_H   : node = node.getHead();	break;
+		case JointFtrXml.RC_H2  : node = node.getGrandHead();	break;
+		case JointFtrXml.RC_LMD : node = d_tree.getLeftMostDependent  (node.id);	break;
+		case JointFtrXml.RC_RMD : node = d_tree.getRightMostDependent (node.id);	break;
+		case JointFtrXml.RC_LMD2: node = d_tree.getLeftMostDependent  (node.id, 1);	break;
+		case JointFtrXml.RC_RMD2: node = d_tree.getRightMostDependent (node.id, 1);	break;
+		case JointFtrXml.RC_LNS : node = d_tree.getLeftNearestSibling (node.id);	break;
+		case JointFtrXml.RC_RNS : node = d_tree.getRightNearestSibling(node.id);	break;
 		}
 		
 		return node;
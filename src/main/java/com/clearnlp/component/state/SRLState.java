@@ -44,6 +44,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.carrotsearch.hppc.IntOpenHashSet;
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
 import com.clearnlp.classification.feature.FtrToken;
 import com.clearnlp.classification.feature.JointFtrXml;
 import com.clearnlp.dependency.DEPArc;
@@ -74,6 +75,8 @@ public class SRLState extends DefaultState
 	DEPNode[] lm_deps, rm_deps;
 	DEPNode[] ln_sibs, rn_sibs;
 	StringIntPair[][] g_labels;
+	/** Path and subcategorization features of this tree, which do not change while labeling. */
+	LongObjectOpenHashMap<String> m_fields;
 	
 	public SRLState(DEPTree tree)
 	{
@@ -85,6 +88,7 @@ public class SRLState extends DefaultState
 		l_argns = Lists.newArrayList();
 		m_argns = Maps.newHashMap();
 		m_refs  = Maps.newHashMap();
+		m_fields = new LongObjectOpenHashMap<String>();
 		
 		initArcs(tree);
 	}
@@ -191,6 +195,23 @@ public class SRLState extends DefaultState
 		return i_arg;
 	}
 	
+	/** @return {@code true} if a feature with the specific key has been cached (the feature can be {@code null}). */
+	public boolean containsField(long key)
+	{
+		return m_fields.containsKey(key);
+	}
+	
+	/** @return the cached feature with the specific key if exists; otherwise, {@code null}. */
+	public String getField(long key)
+	{
+		return m_fields.get(key);
+	}
+	
+	public void putField(long key, String field)
+	{
+		m_fields.put(key, field);
+	}
+	
 	public ObjectDoublePair<DEPNode> getCoreNumberedArgument(String label)
 	{
 		return m_argns.get(label);
@@ -303,13 +324,13 @@ public class SRLState extends DefaultState
 		DEPNode node = (token.source == JointFtrXml.S_PRED) ? getNode(token, i_pred, 0, t_size) : getNode(token, i_arg, 0, t_size);
 		if (node == null)	return null;
 		
-		if (token.relation != null)
+		switch (token.relationCode)
 		{
-			     if (token.isRelation(JointFtrXml.R_H))		node = node.getHead();
-			else if (token.isRelation(JointFtrXml.R_LMD))	node = getLeftmostDependent  (node.id);
-			else if (token.isRelation(JointFtrXml.R_RMD))	node = getRightmostDependent (node.id);			
-			else if (token.isRelation(JointFtrXml.R_LNS))	node = getLeftnearestSibling (node.id);
-			else if (token.isRelation(JointFtrXml.R_RNS))	node = getRightnearestSibling(node.id);
+		case JointFtrXml.RC_H  : node = node.getHead();	break;
+		case JointFtrXml.RC_LMD: node = getLeftmostDependent  (node.id);	break;
+		case JointFtrXml.RC_RMD: node = getRightmostDependent (node.id);	break;
+		case JointFtrXml.RC_LNS: node = getLeftnearestSibling (node.id);	break;
+		case JointFtrXml.RC_RNS: node = getRightnearestSibling(node.id);	break;
 		}
 		
 		return node;
@@ -43,6 +43,7 @@ package com.clearnlp.component.state;
 import com.clearnlp.classification.feature.FtrToken;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.morphology.MPForm;
 
 /**
  * @since 2.0.0
@@ -52,6 +53,7 @@ public class TagState extends AbstractState
 {
 	private String[] g_labels;
 	private int      i_input;
+	private MPForm[] m_forms;
 
 	public TagState(DEPTree tree)
 	{
@@ -97,6 +99,19 @@ public class TagState extends AbstractState
 		g_labels = labels;
 	}
 	
+//	====================================== FORMS ======================================
+	
+	/** @return the cached form of the specific node (see {@link com.clearnlp.nlp.NLPProcess#simplifyForms(DEPTree)}). */
+	public MPForm getForm(int id)
+	{
+		return m_forms[id];
+	}
+	
+	public void setForms(MPForm[] forms)
+	{
+		m_forms = forms;
+	}
+	
 //	====================================== BOOLEANS ======================================
 	
 	/** @return {@code true} if the current node is the first node in the tree. */
@@ -40,9 +40,11 @@
  */
 package com.clearnlp.dependency;
 
+import java.io.IOException;
 import java.util.regex.Pattern;
 
 import com.clearnlp.reader.AbstractReader;
+import com.clearnlp.util.UTString;
 
 /**
  * Dependency arc.
@@ -176,6 +178,14 @@ public class DEPArc implements Comparable<DEPArc>
 		return build.toString();
 	}
 	
+	/** Appends the same string as {@link #toString()} to the specific output. */
+	public void appendTo(Appendable out) throws IOException
+	{
+		UTString.appendInt(out, node.id);
+		out.append(DEPLib.DELIM_HEADS_KEY);
+		out.append(label);
+	}
+	
 	/**
 	 * If both the specific node and label match, returns 1.
 	 * If only the specific node matches, returns 2.
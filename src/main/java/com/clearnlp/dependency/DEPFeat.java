@@ -40,10 +40,12 @@
  */
 package com.clearnlp.dependency;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import com.clearnlp.reader.DEPReader;
@@ -65,6 +67,8 @@ public class DEPFeat extends HashMap<String,String>
 	static public final String DELIM_KEY_VALUE = "=";
 	
 	static public final Pattern P_FEATS = Pattern.compile("\\"+DELIM_FEATS);
+	/** The shared empty feature map; {@link DEPNode} replaces it with its own map before adding a feature. */
+	static public final DEPFeat EMPTY_FEATS = new EmptyFeat();
 
 	/** Constructs an empty feature map. */
 	public DEPFeat() {}
@@ -106,6 +110,42 @@ public class DEPFeat extends HashMap<String,String>
 		}
 	}
 
+	/** Appends the same string as {@link #toString()} to the specific output. */
+	public void appendTo(Appendable out) throws IOException
+	{
+		if (isEmpty())
+		{
+			out.append(DEPReader.BLANK_COLUMN);
+			return;
+		}
+		
+		if (size() == 1)
+		{
+			for (Map.Entry<String,String> e : entrySet())
+			{
+				out.append(e.getKey());
+				out.append(DELIM_KEY_VALUE);
+				out.append(e.getValue());
+			}
+			
+			return;
+		}
+		
+		List<String> keys = new ArrayList<String>(keySet());
+		Collections.sort(keys);
+		boolean first = true;
+		
+		for (String key : keys)
+		{
+			if (first)	first = false;
+			else		out.append(DELIM_FEATS);
+			
+			out.append(key);
+			out.append(DELIM_KEY_VALUE);
+			out.append(get(key));
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.util.AbstractMap#toString()
 	 */
@@ -127,4 +167,35 @@ public class DEPFeat extends HashMap<String,String>
 		
 		return build.toString().substring(DELIM_FEATS.length());
 	}
+	
+	/** The read-only empty feature map shared by nodes without features. */
+	static private class EmptyFeat extends DEPFeat
+	{
+		@Override
+		public String put(String key, String value)
+		{
+			throw new UnsupportedOperationException("The shared empty feature map cannot be modified.");
+		}
+		
+		@Override
+		public void putAll(Map<? extends String,? extends String> m)
+		{
+			throw new UnsupportedOperationException("The shared empty feature map cannot be modified.");
+		}
+		
+		@Override
+		public String remove(Object key)
+		{
+			return null;
+		}
+		
+		@Override
+		public void clear() {}
+		
+		@Override
+		public Object clone()
+		{
+			return new DEPFeat();
+		}
+	}
 }
@@ -40,6 +40,7 @@
  */
 package com.clearnlp.dependency;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -139,6 +140,27 @@ public class DEPLib
 			return AbstractColumnReader.BLANK_COLUMN;
 	}
 	
+	/** Appends the same string as {@link #toString(List)} to the specific output. */
+	static public <T extends DEPArc>void append(Appendable out, List<T> arcs) throws IOException
+	{
+		if (arcs.isEmpty())
+		{
+			out.append(AbstractColumnReader.BLANK_COLUMN);
+			return;
+		}
+		
+		Collections.sort(arcs);
+		boolean first = true;
+		
+		for (DEPArc arc : arcs)
+		{
+			if (first)	first = false;
+			else		out.append(DELIM_HEADS);
+			
+			arc.appendTo(out);
+		}
+	}
+	
 	static public List<DEPArc> getDEPArcs(DEPTree tree, String arcsStr)
 	{
 		List<DEPArc> arcs = Lists.newArrayList();
@@ -40,6 +40,7 @@
  */
 package com.clearnlp.dependency;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -60,6 +61,7 @@ import com.clearnlp.ner.NERNode;
 import com.clearnlp.pos.POSNode;
 import com.clearnlp.reader.AbstractColumnReader;
 import com.clearnlp.reader.DEPReader;
+import com.clearnlp.util.UTString;
 import com.google.common.collect.Lists;
 
 
@@ -81,6 +83,12 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 	protected List<SRLArc> s_heads;
 	/** The sorted list of all dependents of this node (default: empty). */
 	protected List<DEPArc> l_dependents;
+	/** The dependents on the left of this node sorted by their IDs, updated whenever their heads change (default: {@code null}). */
+	protected List<DEPNode> l_leftIndex;
+	/** The dependents on the right of this node sorted by their IDs, updated whenever their heads change (default: {@code null}). */
+	protected List<DEPNode> l_rightIndex;
+	/** The listener notified before the head of this node changes (default: {@code null}). */
+	protected IDEPHeadListener h_listener;
 	
 	//	====================================== CONSTRUCTOR ======================================
 	
@@ -138,7 +146,7 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 		this.pos     = pos;
 		this.nament  = AbstractColumnReader.BLANK_COLUMN;
 		this.d_feats = feats;
-		this.d_head  = new DEPArc();
+		setHeadArc(new DEPArc());
 	}
 	
 	public void init(int id, String form, String lemma, String pos, String nament, DEPFeat feats)
@@ -149,7 +157,7 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 		this.pos     = pos;
 		this.nament  = nament;
 		this.d_feats = feats;
-		this.d_head  = new DEPArc();
+		setHeadArc(new DEPArc());
 	}
 
 	/** Initializes semantic heads of this node. */
@@ -182,6 +190,9 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 	 */
 	public void addFeat(String key, String value)
 	{
+		if (d_feats == DEPFeat.EMPTY_FEATS)
+			d_feats = new DEPFeat();
+		
 		d_feats.put(key, value);
 	}
 	
@@ -213,6 +224,7 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 	 */
 	public void setLabel(String label)
 	{
+		if (h_listener != null) h_listener.headChanging(this, d_head.node, label);
 		d_head.setLabel(label);
 	}
 	
@@ -257,12 +269,16 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 	
 	public void setHead(DEPArc arc)
 	{
-		d_head = arc;
+		if (h_listener != null) h_listener.headChanging(this, arc.node, arc.label);
+		setHeadArc(arc);
 	}
 	
 	public void setHead(DEPNode head)
 	{
+		if (h_listener != null) h_listener.headChanging(this, head, d_head.label);
+		unlinkHead();
 		d_head.setNode(head);
+		linkHead();
 	}
 	
 	/**
@@ -273,7 +289,31 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 	 */
 	public void setHead(DEPNode head, String label)
 	{
+		if (h_listener != null) h_listener.headChanging(this, head, label);
+		unlinkHead();
 		d_head.set(head, label);
+		linkHead();
+	}
+	
+	private void setHeadArc(DEPArc arc)
+	{
+		if (d_head != null) unlinkHead();
+		d_head = arc;
+		linkHead();
+	}
+	
+	/** Removes this node from the dependent index of its current head. */
+	private void unlinkHead()
+	{
+		if (d_head.node != null)
+			d_head.node.removeDependentIndex(this);
+	}
+	
+	/** Adds this node to the dependent index of its current head. */
+	private void linkHead()
+	{
+		if (d_head.node != null && d_head.node != this)
+			d_head.node.addDependentIndex(this);
 	}
 	
 	/**
@@ -287,6 +327,8 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 	
 	public void clearHead()
 	{
+		if (h_listener != null) h_listener.headChanging(this, null, null);
+		unlinkHead();
 		d_head.clear();
 	}
 	
@@ -583,6 +625,127 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 		l_dependents = new ArrayList<DEPArc>();
 	}
 	
+	//	====================================== DEPENDENT INDEX ======================================
+	
+	/** @return the number of dependents on the left of this node. */
+	public int getLeftValency()
+	{
+		return (l_leftIndex != null) ? l_leftIndex.size() : 0;
+	}
+	
+	/** @return the number of dependents on the right of this node. */
+	public int getRightValency()
+	{
+		return (l_rightIndex != null) ? l_rightIndex.size() : 0;
+	}
+	
+	/** @return the {@code order}'th leftmost dependent of this node (starting at 0) if exists; otherwise, {@code null}. */
+	public DEPNode getLeftMostDependent(int order)
+	{
+		return (0 <= order && order < getLeftValency()) ? l_leftIndex.get(order) : null;
+	}
+	
+	/** @return the {@code order}'th rightmost dependent of this node (starting at 0) if exists; otherwise, {@code null}. */
+	public DEPNode getRightMostDependent(int order)
+	{
+		int size = getRightValency();
+		return (0 <= order && order < size) ? l_rightIndex.get(size-order-1) : null;
+	}
+	
+	/** @return the closest sibling on the left of this node that is on the same side of their head if exists; otherwise, {@code null}. */
+	public DEPNode getLeftNearestSibling()
+	{
+		List<DEPNode> list = getSiblingIndex();
+		if (list == null) return null;
+		
+		int idx = list.indexOf(this);
+		return (idx > 0) ? list.get(idx-1) : null;
+	}
+	
+	/** @return the closest sibling on the right of this node that is on the same side of their head if exists; otherwise, {@code null}. */
+	public DEPNode getRightNearestSibling()
+	{
+		List<DEPNode> list = getSiblingIndex();
+		if (list == null) return null;
+		
+		int idx = list.indexOf(this);
+		return (0 <= idx && idx+1 < list.size()) ? list.get(idx+1) : null;
+	}
+	
+	/** @return the dependent index of the head containing this node. */
+	private List<DEPNode> getSiblingIndex()
+	{
+		DEPNode head = getHead();
+		if (head == null) return null;
+		
+		return (head.id < id) ? head.l_rightIndex : head.l_leftIndex;
+	}
+	
+	/** Sets the ID of this node, keeping the dependent indices of this node and its head sorted by IDs. */
+	public void setID(int id)
+	{
+		if (d_head != null) unlinkHead();
+		this.id = id;
+		if (d_head != null) linkHead();
+		
+		List<DEPNode> deps = new ArrayList<DEPNode>(getLeftValency() + getRightValency());
+		if (l_leftIndex  != null) deps.addAll(l_leftIndex);
+		if (l_rightIndex != null) deps.addAll(l_rightIndex);
+		clearDependentIndex();
+		
+		for (DEPNode dep : deps)
+			addDependentIndex(dep);
+	}
+	
+	/** Adds the specific dependent to the dependent index of this node, keeping it sorted by IDs. */
+	void addDependentIndex(DEPNode dep)
+	{
+		List<DEPNode> list;
+		
+		if (dep.id < id)
+		{
+			if (l_leftIndex == null) l_leftIndex = new ArrayList<DEPNode>();
+			list = l_leftIndex;
+		}
+		else
+		{
+			if (l_rightIndex == null) l_rightIndex = new ArrayList<DEPNode>();
+			list = l_rightIndex;
+		}
+		
+		int i; for (i=list.size(); i>0 && list.get(i-1).id > dep.id; i--);
+		list.add(i, dep);
+	}
+	
+	/** Removes the specific dependent from the dependent index of this node by identity. */
+	void removeDependentIndex(DEPNode dep)
+	{
+		if (!removeDependentIndex(l_leftIndex, dep))
+			removeDependentIndex(l_rightIndex, dep);
+	}
+	
+	private boolean removeDependentIndex(List<DEPNode> list, DEPNode dep)
+	{
+		if (list == null) return false;
+		
+		for (int i=list.size()-1; i>=0; i--)
+		{
+			if (list.get(i) == dep)
+			{
+				list.remove(i);
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	void clearDependentIndex()
+	{
+		if (l_leftIndex  != null) l_leftIndex .clear();
+		if (l_rightIndex != null) l_rightIndex.clear();
+	}
+	
 	public void addDependentFront(DEPArc arc)
 	{
 		l_dependents.add(0, arc);
@@ -1143,6 +1306,103 @@ public class DEPNode extends NERNode implements Comparable<DEPNode>
 		return build.toString();
 	}
 	
+	//	====================================== APPEND ======================================
+	
+	/** Appends the same string as {@link #toStringPOS()} to the specific output. */
+	public void appendPOS(Appendable out) throws IOException
+	{
+		out.append(form);	out.append(DEPReader.DELIM_COLUMN);
+		out.append(pos);
+		
+		if (d_feats != null)
+		{
+			out.append(DEPReader.DELIM_COLUMN);
+			d_feats.appendTo(out);
+		}
+	}
+	
+	/** Appends the same string as {@link #toStringMorph()} to the specific output. */
+	public void appendMorph(Appendable out) throws IOException
+	{
+		out.append(form);	out.append(DEPReader.DELIM_COLUMN);
+		out.append(lemma);	out.append(DEPReader.DELIM_COLUMN);
+		out.append(pos);
+		
+		if (d_feats != null)
+		{
+			out.append(DEPReader.DELIM_COLUMN);
+			d_feats.appendTo(out);
+		}
+	}
+	
+	/** Appends the same string as {@link #toStringDEP()} to the specific output. */
+	public void appendDEP(Appendable out) throws IOException
+	{
+		UTString.appendInt(out, id);	out.append(DEPReader.DELIM_COLUMN);
+		out.append(form);	out.append(DEPReader.DELIM_COLUMN);
+		out.append(lemma);	out.append(DEPReader.DELIM_COLUMN);
+		out.append(pos);	out.append(DEPReader.DELIM_COLUMN);
+		appendFeats(out);	out.append(DEPReader.DELIM_COLUMN);
+		appendHead(out);
+	}
+	
+	/** Appends the same string as {@link #toStringCoNLL()} to the specific output. */
+	public void appendCoNLL(Appendable out) throws IOException
+	{
+		UTString.appendInt(out, id);			out.append(DEPReader.DELIM_COLUMN);
+		out.append(form);						out.append(DEPReader.DELIM_COLUMN);
+		out.append(lemma);						out.append(DEPReader.DELIM_COLUMN);
+		out.append(pos);						out.append(DEPReader.DELIM_COLUMN);
+		out.append(pos);						out.append(DEPReader.DELIM_COLUMN);
+		out.append(DEPReader.BLANK_COLUMN);		out.append(DEPReader.DELIM_COLUMN);
+		appendHead(out);
+	}
+	
+	/** Appends the same string as {@link #toStringDAG()} to the specific output. */
+	public void appendDAG(Appendable out) throws IOException
+	{
+		appendDEP(out);		out.append(DEPReader.DELIM_COLUMN);
+		DEPLib.append(out, x_heads);
+	}
+	
+	/** Appends the same string as {@link #toStringSRL()} to the specific output. */
+	public void appendSRL(Appendable out) throws IOException
+	{
+		appendDEP(out);		out.append(DEPReader.DELIM_COLUMN);
+		DEPLib.append(out, s_heads);
+	}
+	
+	/** Appends the same string as {@link #toString()} to the specific output. */
+	public void append(Appendable out) throws IOException
+	{
+		appendDEP(out);					out.append(DEPReader.DELIM_COLUMN);
+		DEPLib.append(out, x_heads);	out.append(DEPReader.DELIM_COLUMN);
+		DEPLib.append(out, s_heads);	out.append(DEPReader.DELIM_COLUMN);
+		out.append(nament);
+	}
+	
+	private void appendFeats(Appendable out) throws IOException
+	{
+		if (d_feats != null)
+			d_feats.appendTo(out);
+		else
+			out.append(null);
+	}
+	
+	private void appendHead(Appendable out) throws IOException
+	{
+		if (hasHead())
+		{
+			UTString.appendInt(out, d_head.node.id);	out.append(DEPReader.DELIM_COLUMN);
+			out.append(d_head.label);
+		}
+		else
+		{
+			out.append(AbstractColumnReader.BLANK_COLUMN);	out.append(DEPReader.DELIM_COLUMN);
+			out.append(AbstractColumnReader.BLANK_COLUMN);
+		}
+	}
+	
 	public String getSubForms(String delim)
 	{
 		StringBuilder build = new StringBuilder();
@@ -40,6 +40,7 @@
  */
 package com.clearnlp.dependency;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -159,136 +160,46 @@ public class DEPTree extends ArrayList<DEPNode>
 		return roots;
 	}
 	
+	/** @return the number of dependents on the left of the specific node (see {@link DEPNode#getLeftValency()}). */
 	public int getLeftValency(int id)
 	{
-		DEPNode node = get(id);
-		int i, c = 0;
-		
-		for (i=node.id-1; i>0; i--)
-		{
-			if (get(i).getHead() == node)
-				c++;
-		}
-		
-		return c;
+		return get(id).getLeftValency();
 	}
 	
+	/** @return the number of dependents on the right of the specific node (see {@link DEPNode#getRightValency()}). */
 	public int getRightValency(int id)
 	{
-		int i, c = 0, size = size();
-		DEPNode node = get(id);
-		
-		for (i=node.id+1; i<size; i++)
-		{
-			if (get(i).getHead() == node)
-				c++;
-		}
-		
-		return c;
+		return get(id).getRightValency();
 	}
 	
 	public DEPNode getLeftMostDependent(int id)
 	{
-		DEPNode node, head = get(id);
-		int i;
-		
-		for (i=1; i<id; i++)
-		{
-			node = get(i);
-			
-			if (node.getHead() == head)
-				return node;
-		}
-		
-		return null;
+		return getLeftMostDependent(id, 0);
 	}
 	
 	public DEPNode getLeftMostDependent(int id, int order)
 	{
-		DEPNode node, head = get(id);
-		int i;
-		
-		for (i=1; i<id; i++)
-		{
-			node = get(i);
-			
-			if (node.getHead() == head)
-			{
-				if (order == 0)	return node;
-				order--;
-			}
-		}
-		
-		return null;
+		return get(id).getLeftMostDependent(order);
 	}
 	
 	public DEPNode getRightMostDependent(int id)
 	{
-		DEPNode node, head = get(id);
-		int i;
-		
-		for (i=size()-1; i>id; i--)
-		{
-			node = get(i);
-			
-			if (node.getHead() == head)
-				return node;
-		}
-		
-		return null;
+		return getRightMostDependent(id, 0);
 	}
 	
 	public DEPNode getRightMostDependent(int id, int order)
 	{
-		DEPNode node, head = get(id);
-		int i;
-		
-		for (i=size()-1; i>id; i--)
-		{
-			node = get(i);
-			
-			if (node.getHead() == head)
-			{
-				if (order == 0)	return node;
-				order--;
-			}
-		}
-		
-		return null;
+		return get(id).getRightMostDependent(order);
 	}
 	
 	public DEPNode getLeftNearestSibling(int id)
 	{
-		DEPNode node, head = get(id).getHead();
-		if (head == null)	return null;
-		int i, eIdx = (head.id < id) ? head.id : 0;
-		
-		for (i=id-1; i>eIdx; i--)
-		{
-			node = get(i);
-			
-			if (node.getHead() == head)
-				return node;
-		}
-		
-		return null;
+		return get(id).getLeftNearestSibling();
 	}
 	
 	public DEPNode getRightNearestSibling(int id)
 	{
-		DEPNode node, head = get(id).getHead();
-		if (head == null)	return null;
-		int i, eIdx = (id < head.id) ? head.id : size();
-		
-		for (i=id+1; i<eIdx; i++)
-		{
-			node = get(i);
-			
-			if (node.getHead() == head)
-				return node;
-		}
-		
-		return null;
+		return get(id).getRightNearestSibling();
 	}
 	
 	public DEPNode getNextPredicate(int prevId)
@@ -314,6 +225,7 @@ public class DEPTree extends ArrayList<DEPNode>
 		{
 			remove(index);
 			reassignIDs(index);
+			resetDependentIndex();
 			return true;
 		}
 		catch (IndexOutOfBoundsException e)
@@ -330,6 +242,7 @@ public class DEPTree extends ArrayList<DEPNode>
 		{
 			add(index, node);
 			reassignIDs(index);
+			resetDependentIndex();
 			return true;
 		}
 		catch (IndexOutOfBoundsException e)
@@ -398,6 +311,33 @@ public class DEPTree extends ArrayList<DEPNode>
 		
 		for (i=0; i<size; i++)
 			get(i).id = i;
+		
+		resetDependentIndex();
+	}
+	
+	/**
+	 * Rebuilds the dependent index of each node from the current heads.
+	 * The index is updated whenever a head changes; call this method only after nodes are reordered without {@link #resetIDs()}.
+	 */
+	public void resetDependentIndex()
+	{
+		int i, size = size();
+		DEPNode node, head;
+		
+		for (i=0; i<size; i++)
+			get(i).clearDependentIndex();
+		
+		for (i=1; i<size; i++)
+		{
+			node = get(i);
+			head = node.getHead();
+			
+			if (head != null && head != node)
+			{
+				head.removeDependentIndex(node);
+				head.addDependentIndex(node);
+			}
+		}
 	}
 	
 	public List<List<DEPArc>> getArgumentList()
@@ -626,7 +566,17 @@ public class DEPTree extends ArrayList<DEPNode>
 	public void clearHeads()
 	{
 		for (DEPNode node : this)
-			node.d_head.clear();
+			node.clearHead();
+	}
+
+	/**
+	 * Sets the listener notified before the head of any node in this tree changes.
+	 * @param listener the listener to be set; {@code null} to remove the current listener.
+	 */
+	public void setHeadListener(IDEPHeadListener listener)
+	{
+		for (DEPNode node : this)
+			node.h_listener = listener;
 	}
 	
 	public void clearXHeads()
@@ -968,6 +918,94 @@ public class DEPTree extends ArrayList<DEPNode>
 		return build.substring(DEPReader.DELIM_SENTENCE.length());
 	}
 	
+	// --------------------------------- append ---------------------------------
+	
+	static private final int APPEND_ALL   = 0;
+	static private final int APPEND_POS   = 1;
+	static private final int APPEND_MORPH = 2;
+	static private final int APPEND_DEP   = 3;
+	static private final int APPEND_DAG   = 4;
+	static private final int APPEND_CONLL = 5;
+	static private final int APPEND_SRL   = 6;
+	
+	/** Appends the same string as {@link #toString()} to the specific output. */
+	public void append(Appendable out) throws IOException
+	{
+		append(out, APPEND_ALL);
+	}
+	
+	/** Appends the same string as {@link #toStringRaw()} to the specific output. */
+	public void appendRaw(Appendable out) throws IOException
+	{
+		int i, size = size();
+		
+		for (i=1; i<size; i++)
+		{
+			if (i > 1)	out.append(' ');
+			out.append(get(i).form);
+		}
+	}
+	
+	/** Appends the same string as {@link #toStringPOS()} to the specific output. */
+	public void appendPOS(Appendable out) throws IOException
+	{
+		append(out, APPEND_POS);
+	}
+	
+	/** Appends the same string as {@link #toStringMorph()} to the specific output. */
+	public void appendMorph(Appendable out) throws IOException
+	{
+		append(out, APPEND_MORPH);
+	}
+	
+	/** Appends the same string as {@link #toStringDEP()} to the specific output. */
+	public void appendDEP(Appendable out) throws IOException
+	{
+		append(out, APPEND_DEP);
+	}
+	
+	/** Appends the same string as {@link #toStringDAG()} to the specific output. */
+	public void appendDAG(Appendable out) throws IOException
+	{
+		append(out, APPEND_DAG);
+	}
+	
+	/** Appends the same string as {@link #toStringCoNLL()} to the specific output. */
+	public void appendCoNLL(Appendable out) throws IOException
+	{
+		append(out, APPEND_CONLL);
+	}
+	
+	/** Appends the same string as {@link #toStringSRL()} to the specific output. */
+	public void appendSRL(Appendable out) throws IOException
+	{
+		append(out, APPEND_SRL);
+	}
+	
+	/** Appends each node in the specific format, separated by {@link DEPReader#DELIM_SENTENCE}. */
+	private void append(Appendable out, int format) throws IOException
+	{
+		int i, size = size();
+		DEPNode node;
+		
+		for (i=1; i<size; i++)
+		{
+			if (i > 1)	out.append(DEPReader.DELIM_SENTENCE);
+			node = get(i);
+			
+			switch (format)
+			{
+			case APPEND_POS  : node.appendPOS(out);   break;
+			case APPEND_MORPH: node.appendMorph(out); break;
+			case APPEND_DEP  : node.appendDEP(out);   break;
+			case APPEND_DAG  : node.appendDAG(out);   break;
+			case APPEND_CONLL: node.appendCoNLL(out); break;
+			case APPEND_SRL  : node.appendSRL(out);   break;
+			default          : node.append(out);
+			}
+		}
+	}
+	
 	public String getSentenceFromPA(int verbId, Pattern labels, String delim)
 	{
 		List<DEPNode> subs = new ArrayList<DEPNode>();
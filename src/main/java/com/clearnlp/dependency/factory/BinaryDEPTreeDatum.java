@@ -0,0 +1,517 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.dependency.factory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.clearnlp.constant.universal.UNConstant;
+import com.clearnlp.constant.universal.UNPunct;
+import com.clearnlp.coreference.Mention;
+import com.clearnlp.dependency.DEPArc;
+import com.clearnlp.dependency.DEPFeat;
+import com.clearnlp.dependency.DEPLib;
+import com.clearnlp.dependency.DEPNode;
+import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.dependency.srl.SRLArc;
+import com.clearnlp.reader.AbstractColumnReader;
+
+/**
+ * Columnar dependency tree datum whose strings are kept as indices into the table of {@link BinaryDEPTreeDatumFactory}.
+ * Index {@code 0} in any column indicates {@code null}.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class BinaryDEPTreeDatum implements IDEPTreeDatum
+{
+	private BinaryDEPTreeDatumFactory f_table;
+	
+	/** The number of nodes excluding the root. */
+	private int   n_nodes;
+	private int[] a_forms;
+	private int[] a_lemmas;
+	private int[] a_poses;
+	private int[] a_feats;
+	private int[] a_naments;
+	/** Head IDs plus 1 ({@code 0} if no head). */
+	private int[] a_heads;
+	private int[] a_deprels;
+	
+	/** The number of secondary heads plus 1 for each node including the root ({@code 0} if {@code null}). */
+	private IntArrayList x_counts;
+	private IntArrayList x_heads;
+	private IntArrayList x_labels;
+	/** The number of semantic heads plus 1 for each node including the root ({@code 0} if {@code null}). */
+	private IntArrayList s_counts;
+	private IntArrayList s_heads;
+	private IntArrayList s_labels;
+	private IntArrayList s_ftags;
+	
+	/** The number of mentions plus 1 ({@code 0} if {@code null}). */
+	private int n_mentions;
+	/** Each mention is encoded as ID, type, begin index and end index. */
+	private IntArrayList m_mentions;
+	
+	public BinaryDEPTreeDatum(BinaryDEPTreeDatumFactory table)
+	{
+		f_table = table;
+		
+		x_counts   = new IntArrayList();
+		x_heads    = new IntArrayList();
+		x_labels   = new IntArrayList();
+		s_counts   = new IntArrayList();
+		s_heads    = new IntArrayList();
+		s_labels   = new IntArrayList();
+		s_ftags    = new IntArrayList();
+		m_mentions = new IntArrayList();
+		
+		init(0);
+	}
+	
+	private void init(int size)
+	{
+		n_nodes   = size;
+		a_forms   = new int[size];
+		a_lemmas  = new int[size];
+		a_poses   = new int[size];
+		a_feats   = new int[size];
+		a_naments = new int[size];
+		a_heads   = new int[size];
+		a_deprels = new int[size];
+		
+		x_counts.clear();
+		x_heads .clear();
+		x_labels.clear();
+		s_counts.clear();
+		s_heads .clear();
+		s_labels.clear();
+		s_ftags .clear();
+		
+		n_mentions = 0;
+		m_mentions.clear();
+	}
+	
+	/** @return the number of nodes excluding the root. */
+	public int size()
+	{
+		return n_nodes;
+	}
+	
+//	====================================== DEPTree ======================================
+	
+	/** Sets the values of this datum to the specific tree. */
+	public void set(DEPTree tree)
+	{
+		int i, size = tree.size();
+		DEPNode node, head;
+		init(size-1);
+		
+		for (i=1; i<size; i++)
+		{
+			node = tree.get(i);
+			head = node.getHead();
+			
+			a_forms  [i-1] = f_table.getIndex(node.form);
+			a_lemmas [i-1] = f_table.getIndex(node.lemma);
+			a_poses  [i-1] = f_table.getIndex(node.pos);
+			a_feats  [i-1] = f_table.getIndex(node.getFeats().toString());
+			a_naments[i-1] = f_table.getIndex(node.nament);
+			a_heads  [i-1] = (head == null) ? 0 : head.id + 1;
+			a_deprels[i-1] = f_table.getIndex(node.getLabel());
+		}
+		
+		for (i=0; i<size; i++)
+		{
+			node = tree.get(i);
+			addXHeads(node.getXHeads());
+			addSHeads(node.getSHeads());
+		}
+		
+		addMentions(tree.getMentions());
+	}
+	
+	private void addXHeads(List<DEPArc> arcs)
+	{
+		if (arcs == null)
+		{
+			x_counts.add(0);
+			return;
+		}
+		
+		x_counts.add(arcs.size()+1);
+		
+		for (DEPArc arc : arcs)
+		{
+			x_heads .add(arc.getNode().id);
+			x_labels.add(f_table.getIndex(arc.getLabel()));
+		}
+	}
+	
+	private void addSHeads(List<SRLArc> arcs)
+	{
+		if (arcs == null)
+		{
+			s_counts.add(0);
+			return;
+		}
+		
+		s_counts.add(arcs.size()+1);
+		
+		for (SRLArc arc : arcs)
+		{
+			s_heads .add(arc.getNode().id);
+			s_labels.add(f_table.getIndex(arc.getLabel()));
+			s_ftags .add(f_table.getIndex(arc.getFunctionTag()));
+		}
+	}
+	
+	private void addMentions(List<Mention> mentions)
+	{
+		if (mentions == null)
+		{
+			n_mentions = 0;
+			return;
+		}
+		
+		n_mentions = mentions.size() + 1;
+		
+		for (Mention mention : mentions)
+		{
+			m_mentions.add(f_table.getIndex(mention.id));
+			m_mentions.add(f_table.getIndex(mention.type));
+			m_mentions.add(mention.beginIndex);
+			m_mentions.add(mention.endIndex);
+		}
+	}
+	
+	/** @return the dependency tree decoded from this datum; nodes without features share {@link DEPFeat#EMPTY_FEATS}. */
+	public DEPTree toDEPTree()
+	{
+		DEPTree tree = new DEPTree();
+		int i, size = n_nodes;
+		String feats;
+		DEPNode node;
+		
+		for (i=0; i<size; i++)
+			tree.add(new DEPNode());
+		
+		for (i=0; i<size; i++)
+		{
+			feats = f_table.getString(a_feats[i]);
+			node  = tree.get(i+1);
+			node.init(i+1, f_table.getString(a_forms[i]), f_table.getString(a_lemmas[i]), f_table.getString(a_poses[i]), feats.equals(AbstractColumnReader.BLANK_COLUMN) ? DEPFeat.EMPTY_FEATS : new DEPFeat(feats));
+			node.nament = f_table.getString(a_naments[i]);
+		}
+		
+		for (i=0; i<size; i++)
+		{
+			if (a_heads[i] > 0)
+				tree.get(i+1).setHead(tree.get(a_heads[i]-1), f_table.getString(a_deprels[i]));
+		}
+		
+		setXHeads(tree);
+		setSHeads(tree);
+		tree.setMentions(getMentions());
+		
+		return tree;
+	}
+	
+	private void setXHeads(DEPTree tree)
+	{
+		int i, j, count, k = 0, size = x_counts.size();
+		List<DEPArc> arcs;
+		
+		for (i=0; i<size; i++)
+		{
+			if ((count = x_counts.get(i) - 1) < 0)
+				continue;
+			
+			arcs = new ArrayList<DEPArc>(count);
+			
+			for (j=0; j<count; j++,k++)
+				arcs.add(new DEPArc(tree.get(x_heads.get(k)), f_table.getString(x_labels.get(k))));
+			
+			tree.get(i).setXHeads(arcs);
+		}
+	}
+	
+	private void setSHeads(DEPTree tree)
+	{
+		int i, j, count, k = 0, size = s_counts.size();
+		List<SRLArc> arcs;
+		
+		for (i=0; i<size; i++)
+		{
+			if ((count = s_counts.get(i) - 1) < 0)
+				continue;
+			
+			arcs = new ArrayList<SRLArc>(count);
+			
+			for (j=0; j<count; j++,k++)
+				arcs.add(new SRLArc(tree.get(s_heads.get(k)), f_table.getString(s_labels.get(k)), f_table.getString(s_ftags.get(k))));
+			
+			tree.get(i).setSHeads(arcs);
+		}
+	}
+	
+	private List<Mention> getMentions()
+	{
+		if (n_mentions == 0)	return null;
+		List<Mention> mentions = new ArrayList<Mention>(n_mentions-1);
+		int i, size = m_mentions.size();
+		
+		for (i=0; i<size; i+=4)
+			mentions.add(new Mention(f_table.getString(m_mentions.get(i)), f_table.getString(m_mentions.get(i+1)), m_mentions.get(i+2), m_mentions.get(i+3)));
+		
+		return mentions;
+	}
+	
+//	====================================== IDEPTreeDatum ======================================
+
+	@Override
+	public List<IDEPNodeDatum> getDEPNodeData()
+	{
+		List<IDEPNodeDatum> nodeData = new ArrayList<IDEPNodeDatum>(n_nodes);
+		int i, j, count, k = 0;
+		StringBuilder build;
+		DefaultDEPNodeDatum datum;
+		String ftag;
+		
+		// skip the semantic heads of the root
+		if (s_counts.size() > 0 && s_counts.get(0) > 1)
+			k = s_counts.get(0) - 1;
+		
+		for (i=0; i<n_nodes; i++)
+		{
+			datum = new DefaultDEPNodeDatum();
+			datum.setID(i+1);
+			datum.setForm(f_table.getString(a_forms[i]));
+			datum.setLemma(f_table.getString(a_lemmas[i]));
+			datum.setPOS(f_table.getString(a_poses[i]));
+			datum.setNamedEntity(f_table.getString(a_naments[i]));
+			datum.setFeats(f_table.getString(a_feats[i]));
+			datum.setSyntacticHead((a_heads[i] > 0) ? (a_heads[i]-1)+DEPLib.DELIM_HEADS_KEY+f_table.getString(a_deprels[i]) : null);
+			
+			count = (i+1 < s_counts.size()) ? s_counts.get(i+1) - 1 : -1;
+			build = new StringBuilder();
+			
+			for (j=0; j<count; j++,k++)
+			{
+				build.append(DEPLib.DELIM_HEADS);
+				build.append(s_heads.get(k));
+				build.append(DEPLib.DELIM_HEADS_KEY);
+				build.append(f_table.getString(s_labels.get(k)));
+				
+				if (!(ftag = f_table.getString(s_ftags.get(k))).isEmpty())
+				{
+					build.append(UNPunct.EQUAL);
+					build.append(ftag);
+				}
+			}
+			
+			datum.setSemanticHeads(build.length() > 0 ? build.substring(DEPLib.DELIM_HEADS.length()) : AbstractColumnReader.BLANK_COLUMN);
+			nodeData.add(datum);
+		}
+		
+		return nodeData;
+	}
+
+	@Override
+	public void setDEPNodeData(List<IDEPNodeDatum> nodeData)
+	{
+		int i, idx, size = nodeData.size();
+		IDEPNodeDatum datum;
+		String head, label;
+		init(size);
+		
+		for (i=0; i<size; i++)
+		{
+			datum = nodeData.get(i);
+			head  = datum.getSyntacticHead();
+			
+			a_forms  [i] = f_table.getIndex(datum.getForm());
+			a_lemmas [i] = f_table.getIndex(datum.getLemma());
+			a_poses  [i] = f_table.getIndex(datum.getPOS());
+			a_feats  [i] = f_table.getIndex(datum.getFeats());
+			a_naments[i] = f_table.getIndex(datum.getNamedEntity());
+			
+			if (head != null)
+			{
+				idx = head.indexOf(DEPLib.DELIM_HEADS_KEY);
+				a_heads  [i] = Integer.parseInt(head.substring(0, idx)) + 1;
+				a_deprels[i] = f_table.getIndex(head.substring(idx+1));
+			}
+		}
+		
+		x_counts.add(0);
+		s_counts.add(0);
+		
+		for (i=0; i<size; i++)
+		{
+			x_counts.add(0);
+			head = nodeData.get(i).getSemanticHeads();
+			
+			if (head.equals(AbstractColumnReader.BLANK_COLUMN))
+			{
+				s_counts.add(1);
+				continue;
+			}
+			
+			String[] arcs = head.split(DEPLib.DELIM_HEADS);
+			s_counts.add(arcs.length+1);
+			
+			for (String arc : arcs)
+			{
+				idx   = arc.indexOf(DEPLib.DELIM_HEADS_KEY);
+				label = arc.substring(idx+1);
+				s_heads.add(Integer.parseInt(arc.substring(0, idx)));
+				
+				if ((idx = label.lastIndexOf(UNPunct.EQUAL)) >= 0)
+				{
+					s_labels.add(f_table.getIndex(label.substring(0, idx)));
+					s_ftags .add(f_table.getIndex(label.substring(idx+1)));
+				}
+				else
+				{
+					s_labels.add(f_table.getIndex(label));
+					s_ftags .add(f_table.getIndex(UNConstant.EMPTY));
+				}
+			}
+		}
+	}
+	
+//	====================================== Binary ======================================
+	
+	/** Writes this datum; the strings it refers to must be written first by {@link BinaryDEPTreeDatumFactory#writeStrings(DataOutput)}. */
+	public void write(DataOutput out) throws IOException
+	{
+		int i;
+		
+		BinaryDEPTreeDatumFactory.writeInt(out, n_nodes);
+		writeColumn(out, a_forms);
+		writeColumn(out, a_lemmas);
+		writeColumn(out, a_poses);
+		writeColumn(out, a_feats);
+		writeColumn(out, a_naments);
+		writeColumn(out, a_heads);
+		writeColumn(out, a_deprels);
+		
+		for (i=0; i<=n_nodes; i++)
+		{
+			BinaryDEPTreeDatumFactory.writeInt(out, x_counts.get(i));
+			BinaryDEPTreeDatumFactory.writeInt(out, s_counts.get(i));
+		}
+		
+		writeColumn(out, x_heads);
+		writeColumn(out, x_labels);
+		writeColumn(out, s_heads);
+		writeColumn(out, s_labels);
+		writeColumn(out, s_ftags);
+		
+		BinaryDEPTreeDatumFactory.writeInt(out, n_mentions);
+		writeColumn(out, m_mentions);
+	}
+	
+	/** Reads a datum written by {@link #write(DataOutput)}. */
+	public void read(DataInput in) throws IOException
+	{
+		int i, xSize = 0, sSize = 0, count;
+		
+		init(BinaryDEPTreeDatumFactory.readInt(in));
+		readColumn(in, a_forms);
+		readColumn(in, a_lemmas);
+		readColumn(in, a_poses);
+		readColumn(in, a_feats);
+		readColumn(in, a_naments);
+		readColumn(in, a_heads);
+		readColumn(in, a_deprels);
+		
+		for (i=0; i<=n_nodes; i++)
+		{
+			x_counts.add(count = BinaryDEPTreeDatumFactory.readInt(in));
+			if (count > 0)	xSize += count - 1;
+			
+			s_counts.add(count = BinaryDEPTreeDatumFactory.readInt(in));
+			if (count > 0)	sSize += count - 1;
+		}
+		
+		readColumn(in, x_heads , xSize);
+		readColumn(in, x_labels, xSize);
+		readColumn(in, s_heads , sSize);
+		readColumn(in, s_labels, sSize);
+		readColumn(in, s_ftags , sSize);
+		
+		n_mentions = BinaryDEPTreeDatumFactory.readInt(in);
+		readColumn(in, m_mentions, (n_mentions > 0) ? 4 * (n_mentions-1) : 0);
+	}
+	
+	private void writeColumn(DataOutput out, int[] column) throws IOException
+	{
+		for (int value : column)
+			BinaryDEPTreeDatumFactory.writeInt(out, value);
+	}
+	
+	private void writeColumn(DataOutput out, IntArrayList column) throws IOException
+	{
+		int i, size = column.size();
+		
+		for (i=0; i<size; i++)
+			BinaryDEPTreeDatumFactory.writeInt(out, column.get(i));
+	}
+	
+	private void readColumn(DataInput in, int[] column) throws IOException
+	{
+		int i, size = column.length;
+		
+		for (i=0; i<size; i++)
+			column[i] = BinaryDEPTreeDatumFactory.readInt(in);
+	}
+	
+	private void readColumn(DataInput in, IntArrayList column, int size) throws IOException
+	{
+		for (; size>0; size--)
+			column.add(BinaryDEPTreeDatumFactory.readInt(in));
+	}
+}
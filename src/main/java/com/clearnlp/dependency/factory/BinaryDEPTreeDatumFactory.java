@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.dependency.factory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.carrotsearch.hppc.ObjectIntOpenHashMap;
+
+/**
+ * Creates {@link BinaryDEPTreeDatum}s sharing one string table.
+ * Forms, lemmas, tags, labels and feats are interned in the table and referred to by indices;
+ * strings added since the last call to {@link #writeStrings(DataOutput)} are written before each tree
+ * so a corpus can be written and read in one pass.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class BinaryDEPTreeDatumFactory implements IDEPTreeDatumFactory
+{
+	private ObjectIntOpenHashMap<String> m_indices;
+	private List<String> l_strings;
+	/** The number of strings already written. */
+	private int n_written;
+	
+	public BinaryDEPTreeDatumFactory()
+	{
+		m_indices = new ObjectIntOpenHashMap<String>();
+		l_strings = new ArrayList<String>();
+		n_written = 0;
+	}
+	
+	@Override
+	public BinaryDEPTreeDatum createDEPTreeDatum()
+	{
+		return new BinaryDEPTreeDatum(this);
+	}
+	
+	/** @return the index of the specific string plus 1 ({@code 0} for {@code null}). */
+	public int getIndex(String s)
+	{
+		if (s == null)	return 0;
+		int index = m_indices.get(s);
+		
+		if (index == 0)
+		{
+			l_strings.add(s);
+			index = l_strings.size();
+			m_indices.put(s, index);
+		}
+		
+		return index;
+	}
+	
+	/** @return the string with the specific index returned by {@link #getIndex(String)}. */
+	public String getString(int index)
+	{
+		return (index == 0) ? null : l_strings.get(index-1);
+	}
+	
+	/** @return the number of strings in this table. */
+	public int size()
+	{
+		return l_strings.size();
+	}
+	
+	/** Writes the strings added since the last call. */
+	public void writeStrings(DataOutput out) throws IOException
+	{
+		int i, size = l_strings.size();
+		writeInt(out, size - n_written);
+		
+		for (i=n_written; i<size; i++)
+			out.writeUTF(l_strings.get(i));
+		
+		n_written = size;
+	}
+	
+	/** Reads the strings written by {@link #writeStrings(DataOutput)}. */
+	public void readStrings(DataInput in) throws IOException
+	{
+		int i, size = readInt(in);
+		
+		for (i=0; i<size; i++)
+			l_strings.add(in.readUTF());
+		
+		n_written = l_strings.size();
+	}
+	
+	/** Writes the specific non-negative integer in 1 to 5 bytes. */
+	static void writeInt(DataOutput out, int value) throws IOException
+	{
+		while ((value & ~0x7f) != 0)
+		{
+			out.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		
+		out.writeByte(value);
+	}
+	
+	/** Reads an integer written by {@link #writeInt(DataOutput, int)}. */
+	static int readInt(DataInput in) throws IOException
+	{
+		int b, shift = 0, value = 0;
+		
+		do
+		{
+			b = in.readByte();
+			value |= (b & 0x7f) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		
+		return value;
+	}
+}
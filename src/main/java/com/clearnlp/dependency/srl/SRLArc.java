@@ -40,6 +40,8 @@
  */
 package com.clearnlp.dependency.srl;
 
+import java.io.IOException;
+
 import com.clearnlp.constant.universal.UNConstant;
 import com.clearnlp.constant.universal.UNPunct;
 import com.clearnlp.dependency.DEPArc;
@@ -112,6 +114,18 @@ public class SRLArc extends DEPArc
 		return build.toString();
 	}
 	
+	@Override
+	public void appendTo(Appendable out) throws IOException
+	{
+		super.appendTo(out);
+		
+		if (!functionTag.isEmpty())
+		{
+			out.append(DELIM_FTAG);
+			out.append(functionTag);
+		}
+	}
+	
 	@Override
 	public int compareTo(DEPArc arc)
 	{
@@ -152,7 +152,7 @@ public class SRLLib
 						{
 							DEPNode tmp = whose.getNode();
 							arg.setHead(tmp.getHead(), tmp.getLabel());
-							arg.id = tmp.id;
+							arg.setID(tmp.id);
 							whose.setNode(arg);
 							rHead.setLabel(sArc.getLabel());
 							arg.removeSHead(pred);
@@ -165,7 +165,7 @@ public class SRLLib
 							DEPArc tmp = new DEPArc(arg, DEPLibEn.DEP_POBJ);
 							
 							arg.setHead(rDep, tmp.getLabel());
-							arg.id = rDep.id + 1;
+							arg.setID(rDep.id + 1);
 							rDep.clearDependents();
 							rDep.addDependent(tmp);
 							rHead.setLabel(sArc.getLabel());
@@ -174,7 +174,7 @@ public class SRLLib
 						else if (ref.isLabel(DEPLibEn.P_SBJ))
 						{
 							arg.setHead(pred, ref.getLabel());
-							arg.id = rDep.id;
+							arg.setID(rDep.id);
 							ref.setNode(arg);
 							rHead.setLabel(sArc.getLabel());
 						}
@@ -182,7 +182,7 @@ public class SRLLib
 						{
 							DEPArc tmp = new DEPArc(arg, ref.getLabel());
 							arg.setHead(pred, tmp.getLabel());
-							arg.id = pred.id + 1;
+							arg.setID(pred.id + 1);
 							
 							if (ref.isLabel(DEPLibEn.P_OBJ) || ref.isLabel(DEPLibEn.DEP_ATTR))
 								pred.addDependentRightNextToSelf(tmp);
@@ -196,7 +196,7 @@ public class SRLLib
 					{
 						DEPArc tmp = new DEPArc(arg, DEPLibEn.DEP_DEP);
 						arg.setHead(pred, tmp.getLabel());
-						arg.id = pred.id + 1;
+						arg.setID(pred.id + 1);
 						
 						if (sArc.isLabel(PBLib.P_ARGN))
 							pred.addDependentRightNextToSelf(tmp);
@@ -239,7 +239,7 @@ public class SRLLib
 				else if (dep.containsSHead(pred))
 				{
 					dep.setHead(pred);
-					dep.id = pred.id+1;
+					dep.setID(pred.id+1);
 					pred.addDependent(new DEPArc(dep, dep.getLabel()));
 				}
 			}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.morphology;
+
+import java.util.Arrays;
+
+import com.clearnlp.pattern.PTPunct;
+import com.clearnlp.util.UTString;
+
+/**
+ * Information derived from a word-form that does not depend on its context.
+ * Instances are shared by {@link MPFormCache} across components and threads; all fields are read-only except for the lemmas.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class MPForm
+{
+	/** The simplified word-form contains only upper-case letters. */
+	static public final int SHAPE_ALL_UPPER    = 1;
+	/** The simplified word-form contains only lower-case letters. */
+	static public final int SHAPE_ALL_LOWER    = 1 << 1;
+	/** The simplified word-form begins with an upper-case letter. */
+	static public final int SHAPE_BEGIN_UPPER  = 1 << 2;
+	/** The simplified word-form contains exactly one upper-case letter not at the beginning. */
+	static public final int SHAPE_INNER_UPPER  = 1 << 3;
+	/** The simplified word-form contains more than one upper-case letter not at the beginning. */
+	static public final int SHAPE_INNER_UPPERS = 1 << 4;
+	/** The simplified word-form contains a period. */
+	static public final int SHAPE_PERIOD       = 1 << 5;
+	/** The simplified word-form contains a digit. */
+	static public final int SHAPE_DIGIT        = 1 << 6;
+	/** The simplified word-form contains a hyphen. */
+	static public final int SHAPE_HYPHEN       = 1 << 7;
+	/** The lower simplified word-form contains only punctuation. */
+	static public final int SHAPE_PUNCTUATION  = 1 << 8;
+	
+	/** The maximum length of affixes kept by this form. */
+	static public final int AFFIX_LENGTH = 5;
+	
+	private final String   s_simplifiedForm;
+	private final String   s_lowerSimplifiedForm;
+	private final int      i_shape;
+	/** The proper prefixes of the lower simplified word-form up to {@link #AFFIX_LENGTH} characters. */
+	private final String[] a_prefixes;
+	/** The proper suffixes of the lower simplified word-form up to {@link #AFFIX_LENGTH} characters. */
+	private final String[] a_suffixes;
+	/** Pairs of POS tags and lemmas; replaced as a whole whenever a lemma is added. */
+	private volatile String[] a_lemmas;
+	
+	/** @param form the original word-form. */
+	public MPForm(String form)
+	{
+		s_simplifiedForm      = MPLib.simplifyBasic(form);
+		s_lowerSimplifiedForm = s_simplifiedForm.toLowerCase();
+		i_shape    = initShape(s_simplifiedForm, s_lowerSimplifiedForm);
+		a_prefixes = initAffixes(s_lowerSimplifiedForm, true);
+		a_suffixes = initAffixes(s_lowerSimplifiedForm, false);
+		a_lemmas   = new String[0];
+	}
+	
+	private int initShape(String sf, String lsf)
+	{
+		int shape = 0, capitals;
+		
+		if (UTString.isAllUpperCase(sf))	shape |= SHAPE_ALL_UPPER;
+		if (UTString.isAllLowerCase(sf))	shape |= SHAPE_ALL_LOWER;
+		if (!sf.isEmpty() && UTString.beginsWithUpperCase(sf))	shape |= SHAPE_BEGIN_UPPER;
+		
+		capitals = UTString.getNumOfCapitalsNotAtBeginning(sf);
+		if      (capitals == 1)	shape |= SHAPE_INNER_UPPER;
+		else if (capitals  > 1)	shape |= SHAPE_INNER_UPPERS;
+		
+		if (sf.contains("."))				shape |= SHAPE_PERIOD;
+		if (UTString.containsDigit(sf))		shape |= SHAPE_DIGIT;
+		if (sf.contains("-"))				shape |= SHAPE_HYPHEN;
+		if (PTPunct.containsOnlyPunctuation(lsf))	shape |= SHAPE_PUNCTUATION;
+		
+		return shape;
+	}
+	
+	/** @return the same affixes as {@link UTString#getPrefixes(String, int)} or {@link UTString#getSuffixes(String, int)} with {@link #AFFIX_LENGTH}. */
+	private String[] initAffixes(String lsf, boolean prefix)
+	{
+		int i, len = lsf.length(), n = Math.max(0, Math.min(AFFIX_LENGTH, len-1));
+		String[] affixes = new String[n];
+		
+		for (i=0; i<n; i++)
+			affixes[i] = prefix ? lsf.substring(0, i+1) : lsf.substring(len-i-1);
+		
+		return affixes;
+	}
+	
+//	====================================== GETTERS ======================================
+	
+	/** @see MPLib#simplifyBasic(String) */
+	public String getSimplifiedForm()
+	{
+		return s_simplifiedForm;
+	}
+	
+	public String getLowerSimplifiedForm()
+	{
+		return s_lowerSimplifiedForm;
+	}
+	
+	/** @return {@code true} if this form has the specific shape (e.g., {@link #SHAPE_ALL_UPPER}). */
+	public boolean isShape(int shape)
+	{
+		return (i_shape & shape) != 0;
+	}
+	
+	/** @return the prefix of the lower simplified word-form with the specific length if exists; otherwise, {@code null}. */
+	public String getPrefix(int n)
+	{
+		if (0 < n && n <= a_prefixes.length)
+			return a_prefixes[n-1];
+		
+		return (n <= s_lowerSimplifiedForm.length()) ? s_lowerSimplifiedForm.substring(0, n) : null;
+	}
+	
+	/** @return the suffix of the lower simplified word-form with the specific length if exists; otherwise, {@code null}. */
+	public String getSuffix(int n)
+	{
+		if (0 < n && n <= a_suffixes.length)
+			return a_suffixes[n-1];
+		
+		int len = s_lowerSimplifiedForm.length();
+		return (n <= len) ? s_lowerSimplifiedForm.substring(len-n, len) : null;
+	}
+	
+	/**
+	 * The returned array is shared and must not be modified.
+	 * @return the same prefixes as {@link UTString#getPrefixes(String, int)} with the lower simplified word-form.
+	 */
+	public String[] getPrefixes(int n)
+	{
+		return getAffixes(a_prefixes, n, true);
+	}
+	
+	/**
+	 * The returned array is shared and must not be modified.
+	 * @return the same suffixes as {@link UTString#getSuffixes(String, int)} with the lower simplified word-form.
+	 */
+	public String[] getSuffixes(int n)
+	{
+		return getAffixes(a_suffixes, n, false);
+	}
+	
+	private String[] getAffixes(String[] affixes, int n, boolean prefix)
+	{
+		if (n == affixes.length || (n > affixes.length && affixes.length < AFFIX_LENGTH))
+			return affixes;
+		
+		if (0 <= n && n < affixes.length)
+			return Arrays.copyOf(affixes, n);
+		
+		return prefix ? UTString.getPrefixes(s_lowerSimplifiedForm, n) : UTString.getSuffixes(s_lowerSimplifiedForm, n);
+	}
+	
+//	====================================== LEMMAS ======================================
+	
+	/** @return the lemma of this form with the specific POS tag if added; otherwise, {@code null}. */
+	public String getLemma(String pos)
+	{
+		String[] lemmas = a_lemmas;
+		int i, size = lemmas.length;
+		
+		for (i=0; i<size; i+=2)
+		{
+			if (lemmas[i].equals(pos))
+				return lemmas[i+1];
+		}
+		
+		return null;
+	}
+	
+	/** Adds the lemma of this form with the specific POS tag; the lemma must be the same for all callers. */
+	public synchronized void addLemma(String pos, String lemma)
+	{
+		if (getLemma(pos) != null) return;
+		
+		String[] lemmas = Arrays.copyOf(a_lemmas, a_lemmas.length + 2);
+		lemmas[lemmas.length-2] = pos;
+		lemmas[lemmas.length-1] = lemma;
+		a_lemmas = lemmas;
+	}
+}
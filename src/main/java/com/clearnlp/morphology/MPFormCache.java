@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.morphology;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * A bounded cache of {@link MPForm}s shared by all components and threads.
+ * Natural text reuses a small number of word-forms, so most tokens are normalized and analyzed only once per type.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class MPFormCache
+{
+	/** The default maximum number of word-forms kept in the cache. */
+	static public final long DEFAULT_MAXIMUM_SIZE = 200000;
+	
+	static private volatile LoadingCache<String,MPForm> g_cache = createCache(DEFAULT_MAXIMUM_SIZE);
+	
+	static private LoadingCache<String,MPForm> createCache(long maximumSize)
+	{
+		return CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build(new CacheLoader<String,MPForm>()
+		{
+			@Override
+			public MPForm load(String form)
+			{
+				return new MPForm(form);
+			}
+		});
+	}
+	
+	/** @return the cached information of the specific word-form. */
+	static public MPForm get(String form)
+	{
+		return g_cache.getUnchecked(form);
+	}
+	
+	/**
+	 * Replaces the cache with an empty cache that keeps at most the specific number of word-forms.
+	 * @param maximumSize the maximum number of word-forms; if {@code 0}, nothing is cached.
+	 */
+	static public void setMaximumSize(long maximumSize)
+	{
+		g_cache = createCache(maximumSize);
+	}
+	
+	/** @return the number of word-forms currently in the cache. */
+	static public long size()
+	{
+		return g_cache.size();
+	}
+	
+	/** @return the hit, miss, and eviction counts of the cache since it was created. */
+	static public CacheStats getStats()
+	{
+		return g_cache.stats();
+	}
+	
+	static public void clear()
+	{
+		g_cache.invalidateAll();
+	}
+}
@@ -41,6 +41,8 @@
 package com.clearnlp.nlp;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
 
 import org.apache.log4j.Logger;
 import org.w3c.dom.Element;
@@ -50,9 +52,11 @@ import com.carrotsearch.hppc.ObjectIntOpenHashMap;
 import com.clearnlp.dependency.DEPTree;
 import com.clearnlp.reader.AbstractColumnReader;
 import com.clearnlp.reader.AbstractReader;
+import com.clearnlp.reader.DEPReader;
 import com.clearnlp.reader.JointReader;
 import com.clearnlp.reader.LineReader;
 import com.clearnlp.reader.RawReader;
+import com.clearnlp.util.UTF8Sink;
 import com.clearnlp.util.UTFile;
 import com.clearnlp.util.UTXml;
 
@@ -63,6 +67,9 @@ import com.clearnlp.util.UTXml;
 abstract public class AbstractNLP
 {
 	protected final Logger LOG = Logger.getLogger(this.getClass());
+	/** The initial capacity of sinks used to print trees. */
+	static protected final int SINK_CAPACITY = 1 << 14;
+	static private final String LINE_SEPARATOR = System.getProperty("line.separator");
 	
 	final public String TAG_READER	= "reader";
 	final public String TAG_TYPE	= "type";
@@ -79,9 +86,13 @@ abstract public class AbstractNLP
 	final public String TAG_MARGIN		= "margin";
 	final public String TAG_DFC			= "documentFrequencyCutoff";
 	final public String TAG_DTC			= "documentTokenCount";
+	final public String TAG_TEMP_DIR	= "tempDirectory";
+	final public String TAG_CACHE_DIR	= "cacheDirectory";
 	
 	final public String TAG_LANGUAGE	= "language";
 	final public String TAG_TWIT		= "twit";
+	final public String TAG_PARALLEL_BRANCHING = "parallelBranching";
+	final public String TAG_AMBIGUITY_CLASS_RESTRICTION = "ambiguityClassRestriction";
 	final public String TAG_DICTIONARY 	= "dictionary";
 	final public String TAG_MODEL		= "model";
 	final public String TAG_FRAMES		= "frames";
@@ -115,6 +126,45 @@ abstract public class AbstractNLP
 		throw new IllegalArgumentException("The requested mode '"+mode+"' is not supported.");
 	}
 	
+	/** Appends the same string as {@link #toString(DEPTree, String)} to the specific output. */
+	protected void append(Appendable out, DEPTree tree, String mode) throws IOException
+	{
+		switch (mode)
+		{
+		case NLPMode.MODE_POS  : tree.appendMorph(out); return;
+		case NLPMode.MODE_MORPH: tree.appendMorph(out); return;
+		case NLPMode.MODE_DEP  : tree.appendDEP(out);   return;
+		case NLPMode.MODE_PRED : tree.appendDEP(out);   return;
+		case NLPMode.MODE_ROLE : tree.appendDEP(out);   return;
+		case NLPMode.MODE_SRL  : tree.appendSRL(out);   return;
+		}
+		
+		throw new IllegalArgumentException("The requested mode '"+mode+"' is not supported.");
+	}
+	
+	/**
+	 * Encodes the specific tree followed by a blank line into the specific sink, which is cleared first.
+	 * The encoded bytes are the same as {@code println(toString(tree, mode)+"\n")} on a UTF-8 stream.
+	 */
+	protected void encode(UTF8Sink sink, DEPTree tree, String mode) throws IOException
+	{
+		sink.clear();
+		append(sink, tree, mode);
+		sink.append(DEPReader.DELIM_SENTENCE);
+		sink.append(LINE_SEPARATOR);
+	}
+	
+	/** Prints the specific tree followed by a blank line using the specific sink; see {@link #encode(UTF8Sink, DEPTree, String)}. */
+	protected void print(PrintStream fout, UTF8Sink sink, DEPTree tree, String mode)
+	{
+		try
+		{
+			encode(sink, tree, mode);
+			sink.writeTo(fout);
+		}
+		catch (IOException e) {e.printStackTrace();}
+	}
+	
 	// ============================= getter: readers =============================
 	
 	protected AbstractReader<?> getReader(Element eReader)
@@ -145,12 +195,18 @@ abstract public class AbstractNLP
 		int iNament = map.get(AbstractColumnReader.FIELD_NAMENT) - 1;
 		int iCoref  = map.get(AbstractColumnReader.FIELD_COREF)  - 1;
 		
-		JointReader reader = new JointReader(iId, iForm, iLemma, iPos, iFeats, iHeadId, iDeprel, iXHeads, iSHeads, iNament, iCoref);
+		JointReader reader = createJointReader(iId, iForm, iLemma, iPos, iFeats, iHeadId, iDeprel, iXHeads, iSHeads, iNament, iCoref);
 		reader.initGoldPOSTag(map.get(AbstractColumnReader.FIELD_GPOS) - 1);
 		
 		return reader;
 	}
 	
+	/** Called by {@link #getJointReader(Element)}; see {@link JointReader#JointReader(int, int, int, int, int, int, int, int, int, int, int)}. */
+	protected JointReader createJointReader(int iId, int iForm, int iLemma, int iPos, int iFeats, int iHeadId, int iDeprel, int iXHeads, int iSHeads, int iNament, int iCoref)
+	{
+		return new JointReader(iId, iForm, iLemma, iPos, iFeats, iHeadId, iDeprel, iXHeads, iSHeads, iNament, iCoref);
+	}
+	
 	/** Called by {@link AbstractNLP#getCDEPReader(Element, String)}. */
 	private ObjectIntOpenHashMap<String> getFieldMap(Element eReader)
 	{
@@ -217,6 +273,30 @@ abstract public class AbstractNLP
 		return Boolean.parseBoolean(getTextContent(eConfig, TAG_TWIT));
 	}
 	
+	protected boolean isParallelBranching(Element eConfig)
+	{
+		return Boolean.parseBoolean(getTextContent(eConfig, TAG_PARALLEL_BRANCHING));
+	}
+	
+	protected boolean isAmbiguityClassRestriction(Element eConfig)
+	{
+		return Boolean.parseBoolean(getTextContent(eConfig, TAG_AMBIGUITY_CLASS_RESTRICTION));
+	}
+	
+	/** @return the directory to keep training instances in if specified; otherwise, {@code null}. */
+	protected File getTempDirectory(Element eTrain)
+	{
+		String path = getTextContent(eTrain, TAG_TEMP_DIR);
+		return (path != null && !path.isEmpty()) ? new File(path) : null;
+	}
+	
+	/** @return the directory to keep binary copies of training and development files in if specified; otherwise, {@code null}. */
+	protected File getCacheDirectory(Element eTrain)
+	{
+		String path = getTextContent(eTrain, TAG_CACHE_DIR);
+		return (path != null && !path.isEmpty()) ? new File(path) : null;
+	}
+	
 	protected int getDocumentFrequencyCutoff(Element eMode)
 	{
 		return Integer.parseInt(getTextContent(eMode, TAG_DFC));
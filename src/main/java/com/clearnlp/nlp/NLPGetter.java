@@ -41,21 +41,31 @@
 package com.clearnlp.nlp;
 
 import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.ObjectInputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
+import org.apache.log4j.Logger;
+
+import com.clearnlp.classification.model.MappedModelInputStream;
 import com.clearnlp.component.AbstractComponent;
 import com.clearnlp.component.dep.AbstractDEPParser;
 import com.clearnlp.component.dep.DefaultDEPParser;
 import com.clearnlp.component.dep.EnglishDEPParser;
 import com.clearnlp.component.morph.AbstractMPAnalyzer;
-import com.clearnlp.component.morph.DefaultMPAnalyzer;
-import com.clearnlp.component.morph.EnglishMPAnalyzer;
 import com.clearnlp.component.pos.AbstractPOSTagger;
 import com.clearnlp.component.pos.DefaultPOSTagger;
 import com.clearnlp.component.pos.EnglishPOSTagger;
@@ -76,7 +86,6 @@ import com.clearnlp.reader.AbstractReader;
 import com.clearnlp.segmentation.AbstractSegmenter;
 import com.clearnlp.segmentation.EnglishSegmenter;
 import com.clearnlp.tokenization.AbstractTokenizer;
-import com.clearnlp.tokenization.EnglishTokenizer;
 import com.clearnlp.util.UTInput;
 
 /**
@@ -85,6 +94,8 @@ import com.clearnlp.util.UTInput;
  */
 public class NLPGetter
 {
+	static private final Logger LOG = Logger.getLogger(NLPGetter.class);
+	
 	// ============================= getter: constituent-to-dependency converter =============================
 	
 	static public AbstractC2DConverter getC2DConverter(String language, String headruleFile, String mergeLabels)
@@ -99,13 +110,13 @@ public class NLPGetter
 	
 	// ============================= getter: word tokenizer =============================
 	
-	/** Initializes a tokenizer from from the dictionary file in classpath. */
+	/**
+	 * Initializes a tokenizer from from the dictionary file in classpath.
+	 * The dictionary is loaded once and shared by all tokenizers (see {@link NLPResources#getTokenizer(String)}).
+	 */
 	static public AbstractTokenizer getTokenizer(String language)
 	{
-		if (language.equals(AbstractReader.LANG_EN))
-			return new EnglishTokenizer();
-		
-		throw new IllegalArgumentException("The requested language '"+language+"' is not currently supported.");
+		return NLPResources.getTokenizer(language);
 	}
 	
 	// ============================= getter: sentence segmenter =============================
@@ -120,28 +131,175 @@ public class NLPGetter
 	
 	// ============================= getter: component =============================
 	
+	/** Loads components concurrently from the classpath; see {@link #getComponents(List)}. */
 	static public AbstractComponent[] getComponents(String path, String language, List<String> modes) throws IOException
 	{
-		int i, size = modes.size();
-		AbstractComponent[] components = new AbstractComponent[size];
-		
-		for (i=0; i<size; i++)
-			components[i] = getComponent(path, language, modes.get(i));
+		ExecutorService executor = getLoadExecutor(modes.size());
 		
-		return components;
+		try
+		{
+			return getComponents(loadComponents(path, language, modes, executor));
+		}
+		finally
+		{
+			executor.shutdown();
+		}
 	}
 	
+	/** Loads components concurrently from the zip file; see {@link #getComponents(List)}. */
 	static public AbstractComponent[] getComponents(ZipFile file, String language, List<String> modes) throws IOException
 	{
-		int i, size = modes.size();
+		ExecutorService executor = getLoadExecutor(modes.size());
+		
+		try
+		{
+			return getComponents(loadComponents(file, language, modes, executor));
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Loads components concurrently from a model directory whose statistical models are memory-mapped; see {@link #getComponents(List)}.
+	 * @see com.clearnlp.run.MappedModelConvert
+	 */
+	static public AbstractComponent[] getComponents(File modelDir, String language, List<String> modes) throws IOException
+	{
+		ExecutorService executor = getLoadExecutor(modes.size());
+		
+		try
+		{
+			return getComponents(loadComponents(modelDir, language, modes, executor));
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Waits for the components in order and logs the load time of each component.
+	 * If any component fails, the components not yet loaded are cancelled.
+	 * @return the loaded components in the order of the specific futures.
+	 */
+	static public AbstractComponent[] getComponents(List<NLPComponentFuture> futures) throws IOException
+	{
+		int i, size = futures.size();
 		AbstractComponent[] components = new AbstractComponent[size];
+		NLPComponentFuture future;
 		
-		for (i=0; i<size; i++)
-			components[i] = getComponent(file, language, modes.get(i));
+		try
+		{
+			for (i=0; i<size; i++)
+			{
+				future = futures.get(i);
+				components[i] = future.get();
+				LOG.info(String.format("Loaded %s in %d ms.\n", future.getMode(), future.getLoadTime()));
+			}
+		}
+		catch (InterruptedException e)
+		{
+			cancel(futures);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while loading components.");
+		}
+		catch (ExecutionException e)
+		{
+			cancel(futures);
+			Throwable cause = e.getCause();
+			
+			if (cause instanceof IOException)		throw (IOException)cause;
+			if (cause instanceof RuntimeException)	throw (RuntimeException)cause;
+			if (cause instanceof Error)				throw (Error)cause;
+			throw new IOException(cause);
+		}
 		
 		return components;
 	}
 	
+	/**
+	 * Submits each component to the specific executor in the order of the modes and returns immediately.
+	 * Decoding can start with the first components (e.g., {@link NLPMode#MODE_POS}) as soon as their futures are done while the others are still loading.
+	 */
+	static public List<NLPComponentFuture> loadComponents(final String path, final String language, List<String> modes, Executor executor)
+	{
+		List<NLPComponentFuture> futures = new ArrayList<NLPComponentFuture>(modes.size());
+		
+		for (final String mode : modes)
+		{
+			futures.add(submit(executor, new NLPComponentFuture(mode, new Callable<AbstractComponent>()
+			{
+				@Override
+				public AbstractComponent call() throws IOException
+				{
+					return getComponent(path, language, mode);
+				}
+			})));
+		}
+		
+		return futures;
+	}
+	
+	/** @see #loadComponents(String, String, List, Executor) */
+	static public List<NLPComponentFuture> loadComponents(final ZipFile file, final String language, List<String> modes, Executor executor)
+	{
+		List<NLPComponentFuture> futures = new ArrayList<NLPComponentFuture>(modes.size());
+		
+		for (final String mode : modes)
+		{
+			futures.add(submit(executor, new NLPComponentFuture(mode, new Callable<AbstractComponent>()
+			{
+				@Override
+				public AbstractComponent call() throws IOException
+				{
+					return getComponent(file, language, mode);
+				}
+			})));
+		}
+		
+		return futures;
+	}
+	
+	/** @see #loadComponents(String, String, List, Executor) */
+	static public List<NLPComponentFuture> loadComponents(final File modelDir, final String language, List<String> modes, Executor executor)
+	{
+		List<NLPComponentFuture> futures = new ArrayList<NLPComponentFuture>(modes.size());
+		
+		for (final String mode : modes)
+		{
+			futures.add(submit(executor, new NLPComponentFuture(mode, new Callable<AbstractComponent>()
+			{
+				@Override
+				public AbstractComponent call() throws IOException
+				{
+					return getComponent(modelDir, language, mode);
+				}
+			})));
+		}
+		
+		return futures;
+	}
+	
+	static private NLPComponentFuture submit(Executor executor, NLPComponentFuture future)
+	{
+		executor.execute(future);
+		return future;
+	}
+	
+	static private void cancel(List<NLPComponentFuture> futures)
+	{
+		for (NLPComponentFuture future : futures)
+			future.cancel(true);
+	}
+	
+	/** @return an executor with one thread per component up to the number of available processors. */
+	static private ExecutorService getLoadExecutor(int size)
+	{
+		return Executors.newFixedThreadPool(Math.max(1, Math.min(size, Runtime.getRuntime().availableProcessors())));
+	}
+	
 	static public AbstractComponent getComponent(String modelPath, String language, String mode) throws IOException
 	{
 		return getComponent(getObjectInputStream(modelPath, mode), language, mode);
@@ -152,6 +310,11 @@ public class NLPGetter
 		return getComponent(getObjectInputStream(file, mode), language, mode);
 	}
 	
+	static public AbstractComponent getComponent(File modelDir, String language, String mode) throws IOException
+	{
+		return getComponent(getObjectInputStream(modelDir, mode), language, mode);
+	}
+	
 	static public AbstractComponent getComponent(ObjectInputStream in, String language, String mode) throws IOException
 	{
 		switch (mode)
@@ -185,6 +348,15 @@ public class NLPGetter
 		return new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
 	}
 	
+	static private ObjectInputStream getObjectInputStream(File modelDir, String mode) throws IOException
+	{
+		if (mode.equals(NLPMode.MODE_MORPH))
+			return null;
+		
+		InputStream stream = new FileInputStream(new File(modelDir, mode));
+		return new MappedModelInputStream(new BufferedInputStream(new GZIPInputStream(stream)), modelDir);
+	}
+	
 	static public AbstractPOSTagger getPOSTagger(ObjectInputStream in, String language)
 	{
 		if (language.equals(AbstractReader.LANG_EN))
@@ -201,12 +373,10 @@ public class NLPGetter
 		return new DefaultDEPParser(in);
 	}
 	
+	/** @return the morphological analyzer shared by all components (see {@link NLPResources#getMPAnalyzer(String)}). */
 	static public AbstractMPAnalyzer getMPAnalyzer(String language)
 	{
-		if (language.equals(AbstractReader.LANG_EN))
-			return new EnglishMPAnalyzer();
-		
-		return new DefaultMPAnalyzer();
+		return NLPResources.getMPAnalyzer(language);
 	}
 	
 	static public AbstractSRLabeler getSRLabeler(ObjectInputStream in, String language)
@@ -50,6 +50,8 @@ import com.clearnlp.dependency.DEPFeat;
 import com.clearnlp.dependency.DEPLib;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.morphology.MPForm;
+import com.clearnlp.morphology.MPFormCache;
 import com.clearnlp.morphology.MPLib;
 import com.clearnlp.pattern.PTNumber;
 import com.clearnlp.pos.POSNode;
@@ -82,17 +84,26 @@ public class NLPProcess
 	
 	// ============================= process: DEPTree =============================
 	
-	static public void simplifyForms(DEPTree tree)
+	/**
+	 * Sets the simplified and lower simplified word-forms of all nodes using {@link MPFormCache}.
+	 * @return the cached forms of the nodes, indexed by their IDs.
+	 * @see MPLib#simplifyBasic(String)
+	 */
+	static public MPForm[] simplifyForms(DEPTree tree)
 	{
 		int i, size = tree.size();
+		MPForm[] forms = new MPForm[size];
 		DEPNode node;
 		
 		for (i=0; i<size; i++)
 		{
 			node = tree.get(i);
-			node.simplifiedForm = MPLib.simplifyBasic(node.form);
-			node.lowerSimplifiedForm = node.simplifiedForm.toLowerCase();
+			forms[i] = MPFormCache.get(node.form);
+			node.simplifiedForm = forms[i].getSimplifiedForm();
+			node.lowerSimplifiedForm = forms[i].getLowerSimplifiedForm();
 		}
+		
+		return forms;
 	}
 	
 	// ============================= predict: SRL =============================
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.nlp;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.clearnlp.component.morph.AbstractMPAnalyzer;
+import com.clearnlp.component.morph.DefaultMPAnalyzer;
+import com.clearnlp.component.morph.EnglishMPAnalyzer;
+import com.clearnlp.propbank.frameset.MultiFrames;
+import com.clearnlp.reader.AbstractReader;
+import com.clearnlp.tokenization.AbstractTokenizer;
+import com.clearnlp.tokenization.EnglishTokenizer;
+import com.google.common.collect.Maps;
+
+/**
+ * Process-wide registry of immutable lexical resources (e.g., morphological dictionaries, tokenization dictionaries, framesets).
+ * Each resource is loaded once on its first request, even when several threads request it at the same time,
+ * and is shared by all components afterwards.
+ * Resources stay in the registry for the lifetime of the process; components and tokenizers never release them.
+ * {@link #remove(String, String)} and {@link #clear()} only drop resources from the registry so that the next request reloads them.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class NLPResources
+{
+	static public final String TYPE_MP_ANALYZER = "mp_analyzer";
+	static public final String TYPE_TOKENIZER   = "tokenizer";
+	static public final String TYPE_FRAMES      = "frames";
+	
+	static private final String KEY_DELIM = ":";
+	
+	/** Guarded by itself; loading is done outside of the lock by {@link NLPResource#get()}. */
+	static private final Map<String,NLPResource> m_resources = Maps.newHashMap();
+	
+//	====================================== GETTERS ======================================
+	
+	/** @return the morphological analyzer of the specific language shared by all callers. */
+	static public AbstractMPAnalyzer getMPAnalyzer(final String language)
+	{
+		return (AbstractMPAnalyzer)getResource(TYPE_MP_ANALYZER, language, new Callable<Object>()
+		{
+			@Override
+			public Object call()
+			{
+				if (language.equals(AbstractReader.LANG_EN))
+					return new EnglishMPAnalyzer();
+				
+				return new DefaultMPAnalyzer();
+			}
+		});
+	}
+	
+	/**
+	 * Tokenizers keep per-instance scanning state, so the registry shares the dictionaries of a tokenizer instead of the tokenizer itself.
+	 * @return a new tokenizer of the specific language whose dictionaries are shared by all callers.
+	 */
+	static public AbstractTokenizer getTokenizer(String language)
+	{
+		if (language.equals(AbstractReader.LANG_EN))
+		{
+			EnglishTokenizer tokenizer = (EnglishTokenizer)getResource(TYPE_TOKENIZER, language, new Callable<Object>()
+			{
+				@Override
+				public Object call()
+				{
+					return new EnglishTokenizer();
+				}
+			});
+			
+			return new EnglishTokenizer(tokenizer);
+		}
+		
+		throw new IllegalArgumentException("The requested language '"+language+"' is not currently supported.");
+	}
+	
+	/** @return the framesets in the specific directory shared by all callers. */
+	static public MultiFrames getFrames(final String framesDir)
+	{
+		return (MultiFrames)getResource(TYPE_FRAMES, framesDir, new Callable<Object>()
+		{
+			@Override
+			public Object call()
+			{
+				return new MultiFrames(framesDir);
+			}
+		});
+	}
+	
+//	====================================== REGISTRY ======================================
+	
+	/** @return {@code true} if the specific resource is in the registry. */
+	static public boolean contains(String type, String key)
+	{
+		synchronized (m_resources)
+		{
+			return m_resources.containsKey(getId(type, key));
+		}
+	}
+	
+	/**
+	 * Drops the specific resource from the registry; components holding the resource can keep using it.
+	 * @param key the language or path the resource was requested with.
+	 * @return {@code true} if the resource was in the registry.
+	 */
+	static public boolean remove(String type, String key)
+	{
+		synchronized (m_resources)
+		{
+			return m_resources.remove(getId(type, key)) != null;
+		}
+	}
+	
+	/** Drops all resources from the registry. */
+	static public void clear()
+	{
+		synchronized (m_resources)
+		{
+			m_resources.clear();
+		}
+	}
+	
+	/**
+	 * Returns the specific resource, loading it first if it is not in the registry.
+	 * @throws IllegalStateException if the resource cannot be loaded; the failed resource is dropped so that the next request retries.
+	 */
+	static protected Object getResource(String type, String key, Callable<Object> loader)
+	{
+		String id = getId(type, key);
+		NLPResource resource;
+		
+		synchronized (m_resources)
+		{
+			resource = m_resources.get(id);
+			
+			if (resource == null)
+			{
+				resource = new NLPResource(loader);
+				m_resources.put(id, resource);
+			}
+		}
+		
+		try
+		{
+			return resource.get();
+		}
+		catch (ExecutionException e)
+		{
+			synchronized (m_resources)
+			{
+				if (m_resources.get(id) == resource)
+					m_resources.remove(id);
+			}
+			
+			throw new IllegalStateException("Failed to load the resource '"+id+"'.", e.getCause());
+		}
+	}
+	
+	static private String getId(String type, String key)
+	{
+		return type + KEY_DELIM + key;
+	}
+	
+	static private class NLPResource
+	{
+		FutureTask<Object> f_loader;
+		
+		public NLPResource(Callable<Object> loader)
+		{
+			f_loader = new FutureTask<Object>(loader);
+		}
+		
+		/** Loads the resource by the first caller; other callers wait until it is loaded. */
+		public Object get() throws ExecutionException
+		{
+			f_loader.run();
+			boolean interrupted = false;
+			
+			try
+			{
+				while (true)
+				{
+					try
+					{
+						return f_loader.get();
+					}
+					catch (InterruptedException e) {interrupted = true;}
+				}
+			}
+			finally
+			{
+				if (interrupted) Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
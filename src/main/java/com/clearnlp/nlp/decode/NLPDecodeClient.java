@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.nlp.decode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Client of {@link NLPDecodeServer}; a client keeps one connection and sends requests one at a time.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class NLPDecodeClient implements Closeable
+{
+	private Socket           s_socket;
+	private DataInputStream  d_in;
+	private DataOutputStream d_out;
+	
+	/** Connects to the server on the specific port of the loopback interface. */
+	public NLPDecodeClient(int port) throws IOException
+	{
+		s_socket = new Socket(InetAddress.getByName(null), port);
+		d_in  = new DataInputStream (new BufferedInputStream (s_socket.getInputStream()));
+		d_out = new DataOutputStream(new BufferedOutputStream(s_socket.getOutputStream()));
+	}
+	
+	/** @return the decoded output of the specific UTF-8 input in the server's format. */
+	public byte[] decode(byte[] input) throws IOException
+	{
+		return request(NLPDecodeServer.COMMAND_DECODE, input);
+	}
+	
+	/** @return {@link NLPDecodeServer#STATUS_OK} if the server is healthy. */
+	public String health() throws IOException
+	{
+		return new String(request(NLPDecodeServer.COMMAND_HEALTH, new byte[0]), "UTF-8");
+	}
+	
+	/** @return {@link NLPDecodeServer#getStats()} of the server. */
+	public String stats() throws IOException
+	{
+		return new String(request(NLPDecodeServer.COMMAND_STATS, new byte[0]), "UTF-8");
+	}
+	
+	/** @throws IOException if the server replies with an error or is busy. */
+	private byte[] request(String command, byte[] payload) throws IOException
+	{
+		NLPDecodeServer.writeMessage(d_out, command, payload);
+		String status = d_in.readUTF();
+		payload = NLPDecodeServer.readPayload(d_in);
+		
+		if (!status.equals(NLPDecodeServer.STATUS_OK))
+			throw new IOException(status+": "+new String(payload, "UTF-8"));
+		
+		return payload;
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		s_socket.close();
+	}
+}
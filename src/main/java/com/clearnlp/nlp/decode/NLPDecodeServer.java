@@ -0,0 +1,386 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.nlp.decode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.w3c.dom.Element;
+
+import com.clearnlp.component.AbstractComponent;
+import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.morphology.MPFormCache;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Decoding server that loads components once and decodes requests from local clients.
+ * The server listens on the loopback interface only; each connection is served by a worker in a bounded pool,
+ * and all workers share the components loaded by {@link NLPDecoder#init(Element)}.
+ * Connections exceeding the pool and its queue are answered with {@link #STATUS_BUSY}.
+ * <p>Protocol: a client sends a command by {@link DataOutputStream#writeUTF(String)} followed by a payload
+ * ({@link DataOutputStream#writeInt(int)} length and bytes; the UTF-8 input for {@link #COMMAND_DECODE}, empty otherwise).
+ * The server replies with a status by {@link DataOutputStream#writeUTF(String)} and a payload
+ * (the output in the decoder's format, the statistics, or an error message).
+ * A connection can send any number of requests until it is closed;
+ * a connection that sends nothing for the idle timeout (see {@link #setIdleTimeout(int)}) is closed so that it does not hold a worker.
+ * @see NLPDecodeClient
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class NLPDecodeServer
+{
+	static public final String COMMAND_DECODE = "decode";
+	static public final String COMMAND_HEALTH = "health";
+	static public final String COMMAND_STATS  = "stats";
+	
+	static public final String STATUS_OK    = "ok";
+	static public final String STATUS_ERROR = "error";
+	static public final String STATUS_BUSY  = "busy";
+	
+	/** The maximum size of a request payload ({@code 256MB}). */
+	static public final int MAX_PAYLOAD = 1 << 28;
+	/** The default idle timeout of a connection in milliseconds ({@code 60 seconds}). */
+	static public final int DEFAULT_IDLE_TIMEOUT = 60000;
+	
+	private final Logger LOG = Logger.getLogger(this.getClass());
+	
+	private NLPDecoder         d_decoder;
+	private ThreadPoolExecutor x_workers;
+	private ServerSocket       s_server;
+	private long               l_startTime;
+	private int                n_idleTimeout = DEFAULT_IDLE_TIMEOUT;
+	
+	private AtomicInteger n_connections = new AtomicInteger();
+	private AtomicLong    n_requests    = new AtomicLong();
+	private AtomicLong    n_errors      = new AtomicLong();
+	private AtomicLong    n_rejected    = new AtomicLong();
+	private AtomicLong    n_timeouts    = new AtomicLong();
+	private AtomicLong    n_sentences   = new AtomicLong();
+	private AtomicLong    n_tokens      = new AtomicLong();
+	private AtomicLong    n_bytesIn     = new AtomicLong();
+	private AtomicLong    n_bytesOut    = new AtomicLong();
+	private AtomicLong    l_decodeTime  = new AtomicLong();
+	
+	/**
+	 * Loads components using the specific decoder and configuration; each component waits for its model on its first sentence.
+	 * @param threads the number of connections served at the same time.
+	 * @param queueSize the number of connections that can wait for a worker.
+	 */
+	public NLPDecodeServer(NLPDecoder decoder, Element eConfig, int threads, int queueSize) throws Exception
+	{
+		decoder.setThreads(1);
+		decoder.init(eConfig);
+		
+		AbstractComponent[] components = decoder.getComponents();
+		components = (components != null) ? Arrays.copyOf(components, components.length+1) : new AbstractComponent[1];
+		components[components.length-1] = new AbstractComponent()
+		{
+			@Override
+			public void process(DEPTree tree)
+			{
+				n_sentences.incrementAndGet();
+				n_tokens.addAndGet(tree.size()-1);
+			}
+		};
+		
+		decoder.setComponents(components);
+		d_decoder = decoder;
+		x_workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(Math.max(1, queueSize)));
+	}
+	
+	/**
+	 * Sets the number of milliseconds a connection can wait for its next request (or the rest of a request) before it is closed.
+	 * @param millis the idle timeout; {@code 0} keeps idle connections open indefinitely.
+	 */
+	public void setIdleTimeout(int millis)
+	{
+		if (millis < 0)	throw new IllegalArgumentException("The idle timeout must be non-negative: "+millis);
+		n_idleTimeout = millis;
+	}
+	
+	/** Binds this server to the specific port on the loopback interface ({@code 0} picks a free port). */
+	public void bind(int port) throws IOException
+	{
+		s_server = new ServerSocket();
+		s_server.setReuseAddress(true);
+		s_server.bind(new InetSocketAddress(InetAddress.getByName(null), port));
+		l_startTime = System.currentTimeMillis();
+	}
+	
+	/** @return the port this server is bound to. */
+	public int getPort()
+	{
+		return s_server.getLocalPort();
+	}
+	
+	/** Accepts connections until {@link #close()} is called. */
+	public void serve()
+	{
+		Socket socket;
+		
+		LOG.info("Listening on port "+getPort()+"\n");
+		
+		while (!s_server.isClosed())
+		{
+			try
+			{
+				socket = s_server.accept();
+			}
+			catch (IOException e)
+			{
+				if (!s_server.isClosed())	e.printStackTrace();
+				break;
+			}
+			
+			try
+			{
+				x_workers.execute(new ConnectionTask(socket));
+			}
+			catch (RejectedExecutionException e)
+			{
+				n_rejected.incrementAndGet();
+				reject(socket);
+			}
+		}
+	}
+	
+	/** Stops accepting connections and shuts down the workers after the current requests. */
+	public void close()
+	{
+		try
+		{
+			s_server.close();
+		}
+		catch (IOException e) {e.printStackTrace();}
+		
+		x_workers.shutdown();
+	}
+	
+	/** @return the health and throughput counters, one {@code key=value} per line. */
+	public String getStats()
+	{
+		StringBuilder build = new StringBuilder();
+		long uptime = System.currentTimeMillis() - l_startTime;
+		long decode = TimeUnit.NANOSECONDS.toMillis(l_decodeTime.get());
+		
+		appendStat(build, "uptime_ms"       , uptime);
+		appendStat(build, "workers"         , x_workers.getMaximumPoolSize());
+		appendStat(build, "active_workers"  , x_workers.getActiveCount());
+		appendStat(build, "queued"          , x_workers.getQueue().size());
+		appendStat(build, "connections"     , n_connections.get());
+		appendStat(build, "requests"        , n_requests.get());
+		appendStat(build, "errors"          , n_errors.get());
+		appendStat(build, "rejected"        , n_rejected.get());
+		appendStat(build, "timeouts"        , n_timeouts.get());
+		appendStat(build, "sentences"       , n_sentences.get());
+		appendStat(build, "tokens"          , n_tokens.get());
+		appendStat(build, "bytes_in"        , n_bytesIn.get());
+		appendStat(build, "bytes_out"       , n_bytesOut.get());
+		appendStat(build, "decode_ms"       , decode);
+		appendStat(build, "tokens_per_sec"  , (decode > 0) ? n_tokens.get() * 1000 / decode : 0);
+		
+		CacheStats forms = MPFormCache.getStats();
+		appendStat(build, "form_cache_size" , MPFormCache.size());
+		appendStat(build, "form_cache_hits" , forms.hitCount());
+		appendStat(build, "form_cache_miss" , forms.missCount());
+		appendStat(build, "form_cache_evict", forms.evictionCount());
+		appendStat(build, "form_cache_hit_pct", Math.round(forms.hitRate() * 100));
+		
+		return build.toString();
+	}
+	
+	private void appendStat(StringBuilder build, String key, long value)
+	{
+		build.append(key);
+		build.append("=");
+		build.append(value);
+		build.append("\n");
+	}
+	
+	private void reject(Socket socket)
+	{
+		try
+		{
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			writeMessage(out, STATUS_BUSY, "The server is busy.".getBytes("UTF-8"));
+			socket.close();
+		}
+		catch (IOException e) {}
+	}
+	
+//	====================================== Connection ======================================
+	
+	private class ConnectionTask implements Runnable
+	{
+		private Socket s_socket;
+		
+		public ConnectionTask(Socket socket)
+		{
+			s_socket = socket;
+		}
+		
+		@Override
+		public void run()
+		{
+			n_connections.incrementAndGet();
+			
+			try
+			{
+				s_socket.setSoTimeout(n_idleTimeout);
+				DataInputStream  in  = new DataInputStream (new BufferedInputStream (s_socket.getInputStream()));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s_socket.getOutputStream()));
+				String command;
+				byte[] payload;
+				
+				while (true)
+				{
+					try
+					{
+						command = in.readUTF();
+					}
+					catch (EOFException e) {break;}
+					
+					payload = readPayload(in);
+					n_requests.incrementAndGet();
+					n_bytesIn.addAndGet(payload.length);
+					
+					try
+					{
+						payload = process(command, payload);
+						n_bytesOut.addAndGet(payload.length);
+						writeMessage(out, STATUS_OK, payload);
+					}
+					catch (Exception e)
+					{
+						n_errors.incrementAndGet();
+						writeMessage(out, STATUS_ERROR, String.valueOf(e).getBytes("UTF-8"));
+					}
+				}
+			}
+			catch (SocketTimeoutException e) {n_timeouts.incrementAndGet();}
+			catch (SocketException e) {}
+			catch (IOException e) {e.printStackTrace();}
+			finally
+			{
+				n_connections.decrementAndGet();
+				
+				try
+				{
+					s_socket.close();
+				}
+				catch (IOException e) {}
+			}
+		}
+		
+		private byte[] process(String command, byte[] payload) throws Exception
+		{
+			switch (command)
+			{
+			case COMMAND_DECODE: return decode(payload);
+			case COMMAND_HEALTH: return STATUS_OK.getBytes("UTF-8");
+			case COMMAND_STATS : return getStats().getBytes("UTF-8");
+			}
+			
+			throw new IllegalArgumentException("Unknown command: "+command);
+		}
+		
+		private byte[] decode(byte[] input) throws IOException
+		{
+			ByteArrayOutputStream bout = new ByteArrayOutputStream(input.length * 2);
+			PrintStream fout = new PrintStream(bout, false, "UTF-8");
+			BufferedReader fin = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(input), "UTF-8"));
+			long time = System.nanoTime();
+			
+			d_decoder.decode(fin, fout);
+			fout.flush();
+			l_decodeTime.addAndGet(System.nanoTime() - time);
+			
+			return bout.toByteArray();
+		}
+	}
+	
+//	====================================== Protocol ======================================
+	
+	/** Writes a command or status followed by the specific payload. */
+	static void writeMessage(DataOutputStream out, String header, byte[] payload) throws IOException
+	{
+		out.writeUTF(header);
+		out.writeInt(payload.length);
+		out.write(payload);
+		out.flush();
+	}
+	
+	/** Reads a payload written by {@link #writeMessage(DataOutputStream, String, byte[])}. */
+	static byte[] readPayload(DataInputStream in) throws IOException
+	{
+		int length = in.readInt();
+		
+		if (length < 0 || length > MAX_PAYLOAD)
+			throw new IOException("Invalid payload length: "+length);
+		
+		byte[] payload = new byte[length];
+		in.readFully(payload);
+		return payload;
+	}
+}
@@ -44,24 +44,38 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.zip.ZipFile;
 
 import org.w3c.dom.Element;
 
 import com.clearnlp.component.AbstractComponent;
+import com.clearnlp.component.dep.AbstractDEPParser;
+import com.clearnlp.component.pos.AbstractPOSTagger;
 import com.clearnlp.constant.universal.UNConstant;
 import com.clearnlp.dependency.DEPTree;
 import com.clearnlp.nlp.AbstractNLP;
+import com.clearnlp.nlp.NLPComponentFuture;
 import com.clearnlp.nlp.NLPGetter;
 import com.clearnlp.reader.AbstractReader;
 import com.clearnlp.reader.JointReader;
 import com.clearnlp.reader.LineReader;
 import com.clearnlp.segmentation.AbstractSegmenter;
 import com.clearnlp.tokenization.AbstractTokenizer;
+import com.clearnlp.util.UTF8Sink;
 import com.clearnlp.util.UTInput;
 import com.clearnlp.util.UTOutput;
 import com.clearnlp.util.UTXml;
+import com.google.common.collect.AbstractIterator;
 
 /**
  * @since 1.3.0
@@ -69,42 +83,169 @@ import com.clearnlp.util.UTXml;
  */
 abstract public class NLPDecoder extends AbstractNLP
 {
+	/** The number of trees that can be in flight per thread when decoding in parallel. */
+	static public final int QUEUE_SIZE_PER_THREAD = 4;
+	/** The number of threads used for decoding. */
+	private int n_threads = 1;
+	/** The reader configuration loaded by {@link #init(Element)}. */
+	private Element e_reader;
+	private AbstractSegmenter c_segmenter;
+	private AbstractTokenizer c_tokenizer;
+	private AbstractComponent[] c_components;
+	/** The sink used by each decoding thread to encode trees. */
+	private final ThreadLocal<UTF8Sink> t_sink = new ThreadLocal<UTF8Sink>()
+	{
+		@Override
+		protected UTF8Sink initialValue()
+		{
+			return new UTF8Sink(SINK_CAPACITY);
+		}
+	};
+	
 	public void decode(Element eConfig, List<String[]> filenames) throws Exception
 	{
-		AbstractReader<?> reader = getReader(UTXml.getFirstElementByTagName(eConfig, TAG_READER));
+		init(eConfig);
+		PrintStream fout;
+		
+		LOG.info("Decoding:\n");
+		
+		for (String[] filename : filenames)
+		{
+			fout = UTOutput.createPrintBufferedFileStream(filename[1]);
+			LOG.info(filename[0]+"\n");
+			
+			decode(UTInput.createBufferedFileReader(filename[0]), fout);
+			fout.close();
+		}
+	}
+	
+	/**
+	 * Loads the reader configuration, segmenter or tokenizer, and components specified in the configuration
+	 * so that they can be shared by any number of calls to {@link #decode(BufferedReader, PrintStream)}.
+	 * Components are loaded concurrently and this method returns without waiting for them;
+	 * each component waits for its model only when it processes its first tree (see {@link FutureComponent}),
+	 * so decoding starts with the part-of-speech tagger while the later components are still loading.
+	 */
+	public void init(Element eConfig) throws Exception
+	{
+		e_reader = UTXml.getFirstElementByTagName(eConfig, TAG_READER);
 		String modelFile = getModelFilename(eConfig);
 		String language = getLanguage(eConfig);
-		String readerType = reader.getType();
+		String readerType = getReader(e_reader).getType();
 		boolean bTwit = isTwit(eConfig);
-		PrintStream fout;
 		
-		AbstractSegmenter segmenter = readerType.equals(AbstractReader.TYPE_RAW)  ? getSegmenter(eConfig, bTwit) : null;
-		AbstractTokenizer tokenizer = readerType.equals(AbstractReader.TYPE_LINE) ? getTokenizer(eConfig, bTwit) : null;
+		c_segmenter = readerType.equals(AbstractReader.TYPE_RAW)  ? getSegmenter(eConfig, bTwit) : null;
+		c_tokenizer = readerType.equals(AbstractReader.TYPE_LINE) ? getTokenizer(eConfig, bTwit) : null;
 		AbstractComponent[] components = null;
 		
 		if (modelFile != null && !modelFile.equals(UNConstant.EMPTY))
 		{
-			if (new File(modelFile).isFile())
-				components = NLPGetter.getComponents(new ZipFile(modelFile), language, getModes(readerType));
+			List<String> modes = getModes(readerType);
+			ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(modes.size(), Runtime.getRuntime().availableProcessors())));
+			List<NLPComponentFuture> futures;
+			
+			if (new File(modelFile).isDirectory())
+				futures = NLPGetter.loadComponents(new File(modelFile), language, modes, executor);
+			else if (new File(modelFile).isFile())
+				futures = NLPGetter.loadComponents(new ZipFile(modelFile), language, modes, executor);
 			else
-				components = NLPGetter.getComponents(modelFile, language, getModes(readerType));			
+				futures = NLPGetter.loadComponents(modelFile, language, modes, executor);
+			
+			executor.shutdown();	// the submitted components keep loading
+			components = new AbstractComponent[futures.size()];
+			boolean bParallel = isParallelBranching(eConfig);
+			boolean bRestrict = isAmbiguityClassRestriction(eConfig);
+			int i;
+			
+			for (i=0; i<components.length; i++)
+				components[i] = new FutureComponent(futures.get(i), bParallel, bRestrict);
 		}
 		else
 			new IllegalArgumentException("Model must be specified");
 		
-		LOG.info("Decoding:\n");
+		c_components = components;
+	}
+	
+	/**
+	 * A component whose model is still loading.
+	 * It waits for the model when it processes its first tree, then delegates to the loaded component.
+	 */
+	private class FutureComponent extends AbstractComponent
+	{
+		private NLPComponentFuture f_component;
+		private volatile AbstractComponent c_component;
+		private boolean b_parallel;
+		private boolean b_restrict;
 		
-		for (String[] filename : filenames)
+		public FutureComponent(NLPComponentFuture future, boolean parallelBranching, boolean ambiguityClassRestriction)
 		{
-			reader.open(UTInput.createBufferedFileReader(filename[0]));
-			fout = UTOutput.createPrintBufferedFileStream(filename[1]);
-			LOG.info(filename[0]+"\n");
+			f_component = future;
+			b_parallel  = parallelBranching;
+			b_restrict  = ambiguityClassRestriction;
+		}
+		
+		@Override
+		public void process(DEPTree tree)
+		{
+			AbstractComponent component = c_component;
+			if (component == null) component = getComponent();
+			component.process(tree);
+		}
+		
+		private synchronized AbstractComponent getComponent()
+		{
+			if (c_component != null) return c_component;
+			AbstractComponent component;
+			
+			try
+			{
+				component = f_component.get();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while loading "+f_component.getMode()+".", e);
+			}
+			catch (ExecutionException e)
+			{
+				throw new IllegalStateException("Failed to load "+f_component.getMode()+".", e.getCause());
+			}
+			
+			if (b_parallel && component instanceof AbstractDEPParser)
+				((AbstractDEPParser)component).setParallelBranching(true);
+			else if (b_restrict && component instanceof AbstractPOSTagger)
+				((AbstractPOSTagger)component).setAmbiguityClassRestriction(true);
 			
-			decode(reader, fout, segmenter, tokenizer, components);
-			reader.close(); fout.close();
+			LOG.info(String.format("Loaded %s in %d ms.\n", f_component.getMode(), f_component.getLoadTime()));
+			return c_component = component;
 		}
 	}
 	
+	/** @return the components loaded by {@link #init(Element)}; components still loading wait for their models on their first trees. */
+	public AbstractComponent[] getComponents()
+	{
+		return c_components;
+	}
+	
+	/** Replaces the components loaded by {@link #init(Element)}. */
+	public void setComponents(AbstractComponent[] components)
+	{
+		c_components = components;
+	}
+	
+	/**
+	 * Decodes the specific input using the configuration loaded by {@link #init(Element)}.
+	 * This method can be called by multiple threads at the same time; each call uses its own reader.
+	 */
+	public void decode(BufferedReader in, PrintStream fout) throws IOException
+	{
+		AbstractReader<?> reader = getReader(e_reader);
+		
+		reader.open(in);
+		decode(reader, fout, c_segmenter, c_tokenizer, c_components);
+		reader.close();
+	}
+	
 	abstract protected List<String> getModes(String readerType);
 	abstract public String getMode();
 	
@@ -122,48 +263,212 @@ abstract public class NLPDecoder extends AbstractNLP
 	
 	public void decode(BufferedReader reader, PrintStream fout, AbstractSegmenter segmenter, AbstractComponent[] components) throws IOException
 	{
+		final Iterator<List<String>> it = segmenter.getSentenceIterator(reader);
+		
+		decode(new AbstractIterator<DEPTree>()
+		{
+			@Override
+			protected DEPTree computeNext()
+			{
+				return it.hasNext() ? NLPGetter.toDEPTree(it.next()) : endOfData();
+			}
+		}, fout, components);
+	}
+	
+	public void decode(final LineReader reader, PrintStream fout, final AbstractTokenizer tokenizer, AbstractComponent[] components)
+	{
+		decode(new AbstractIterator<DEPTree>()
+		{
+			@Override
+			protected DEPTree computeNext()
+			{
+				String sentence;
+				
+				while ((sentence = reader.next()) != null)
+				{
+					if (!sentence.trim().equals(UNConstant.EMPTY))
+						return NLPGetter.toDEPTree(tokenizer.getTokens(sentence));
+				}
+				
+				return endOfData();
+			}
+		}, fout, components);
+	}
+	
+	public void decode(final JointReader reader, PrintStream fout, AbstractComponent[] components)
+	{
+		decode(new AbstractIterator<DEPTree>()
+		{
+			@Override
+			protected DEPTree computeNext()
+			{
+				DEPTree tree = reader.next();
+				return (tree != null) ? tree : endOfData();
+			}
+		}, fout, components);
+	}
+	
+	/**
+	 * Processes the trees with the components and prints them in the order they are read.
+	 * If the number of threads is greater than 1, this method calls {@link #decodeParallel(Iterator, PrintStream, AbstractComponent[])}.
+	 * @see #setThreads(int)
+	 */
+	public void decode(Iterator<DEPTree> trees, PrintStream fout, AbstractComponent[] components)
+	{
+		if (n_threads > 1)
+		{
+			decodeParallel(trees, fout, components);
+			return;
+		}
+		
+		UTF8Sink sink = new UTF8Sink(SINK_CAPACITY);
 		String mode = getMode();
 		DEPTree tree;
 		
-		for (List<String> tokens : segmenter.getSentences(reader))
+		while (trees.hasNext())
 		{
-			tree = NLPGetter.toDEPTree(tokens);
+			tree = trees.next();
 			
 			for (AbstractComponent component : components)
 				component.process(tree);
 			
-			fout.println(toString(tree, mode)+"\n");
+			print(fout, sink, tree, mode);
 		}
 	}
 	
-	public void decode(LineReader reader, PrintStream fout, AbstractTokenizer tokenizer, AbstractComponent[] components)
+//	===================================== PARALLEL DECODE ===================================== 
+	
+	/** @return the number of threads used for decoding. */
+	public int getThreads()
 	{
-		String sentence, mode = getMode();
-		DEPTree tree;
-
-		while ((sentence = reader.next()) != null)
+		return n_threads;
+	}
+	
+	/** @param threads the number of threads used for decoding (default: 1). */
+	public void setThreads(int threads)
+	{
+		n_threads = threads;
+	}
+	
+	/**
+	 * Decodes trees using a reader &rarr; workers &rarr; writer pipeline.
+	 * The calling thread reads trees, a fixed pool of {@link #getThreads()} workers processes them,
+	 * and a writer thread prints the results in the order they are read.
+	 * At most {@link #QUEUE_SIZE_PER_THREAD} trees per thread are in flight;
+	 * the reader blocks until the writer catches up so that memory stays bounded regardless of the input size.
+	 */
+	private void decodeParallel(Iterator<DEPTree> trees, PrintStream fout, AbstractComponent[] components)
+	{
+		BlockingQueue<Future<byte[]>> queue = new ArrayBlockingQueue<Future<byte[]>>(n_threads * QUEUE_SIZE_PER_THREAD);
+		ExecutorService executor = Executors.newFixedThreadPool(n_threads);
+		DecodeWriter writer = new DecodeWriter(queue, fout);
+		Thread thread = new Thread(writer, DecodeWriter.THREAD_NAME);
+		String mode = getMode();
+		boolean done = false;
+		
+		thread.setDaemon(true);
+		thread.start();
+		
+		try
 		{
-			if (sentence.trim().equals(UNConstant.EMPTY)) continue;
-			tree = NLPGetter.toDEPTree(tokenizer.getTokens(sentence));
+			while (trees.hasNext() && writer.getError() == null)
+				queue.put(executor.submit(new DecodeTask(trees.next(), components, mode)));
 			
-			for (AbstractComponent component : components)
-				component.process(tree);
+			queue.put(DecodeWriter.END);
+			thread.join();
+			done = true;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			// the reader (or the iterator) failed before END was queued; otherwise, the writer would wait forever
+			if (!done) thread.interrupt();
+			executor.shutdownNow();
+		}
+		
+		if (writer.getError() != null)
+			throw new IllegalStateException(writer.getError());
+	}
+	
+	/** Processes a tree with all components and returns its UTF-8 encoded representation. */
+	private class DecodeTask implements Callable<byte[]>
+	{
+		private AbstractComponent[] c_components;
+		private DEPTree d_tree;
+		private String  s_mode;
+		
+		public DecodeTask(DEPTree tree, AbstractComponent[] components, String mode)
+		{
+			d_tree       = tree;
+			c_components = components;
+			s_mode       = mode;
+		}
+		
+		@Override
+		public byte[] call() throws IOException
+		{
+			for (AbstractComponent component : c_components)
+				component.process(d_tree);
 			
-			fout.println(toString(tree, mode)+"\n");
+			UTF8Sink sink = t_sink.get();
+			encode(sink, d_tree, s_mode);
+			return sink.toByteArray();
 		}
 	}
 	
-	public void decode(JointReader reader, PrintStream fout, AbstractComponent[] components)
+	/** Prints decoded trees in the order their tasks are queued until {@link #END} is taken. */
+	static private class DecodeWriter implements Runnable
 	{
-		String mode = getMode();
-		DEPTree tree;
+		/** The task indicating the end of the input (never run). */
+		static final Future<byte[]> END = new FutureTask<byte[]>(new Runnable() {public void run() {}}, null);
+		static final String THREAD_NAME = "NLPDecoder-writer";
 		
-		while ((tree = reader.next()) != null)
+		private BlockingQueue<Future<byte[]>> q_tasks;
+		private PrintStream f_out;
+		private volatile Throwable t_error;
+		
+		public DecodeWriter(BlockingQueue<Future<byte[]>> queue, PrintStream fout)
 		{
-			for (AbstractComponent component : components)
-				component.process(tree);
+			q_tasks = queue;
+			f_out   = fout;
+		}
+		
+		public Throwable getError()
+		{
+			return t_error;
+		}
+		
+		@Override
+		public void run()
+		{
+			Future<byte[]> task;
+			byte[] bytes;
 			
-			fout.println(toString(tree, mode)+"\n");
+			try
+			{
+				while ((task = q_tasks.take()) != END)
+				{
+					try
+					{
+						if (t_error == null)
+						{
+							bytes = task.get();
+							f_out.write(bytes, 0, bytes.length);
+						}
+					}
+					catch (ExecutionException e)
+					{
+						t_error = e.getCause();
+					}
+				}
+			}
+			catch (InterruptedException e)
+			{
+				t_error = e;
+			}
 		}
 	}
 	
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.nlp.engine;
+
+import java.io.FileInputStream;
+
+import org.kohsuke.args4j.Option;
+import org.w3c.dom.Element;
+
+import com.clearnlp.nlp.decode.NLPDecodeServer;
+import com.clearnlp.util.UTArgs4j;
+import com.clearnlp.util.UTXml;
+
+/**
+ * Runs {@link NLPDecodeServer} until the process is terminated.
+ * @see NLPDaemonClient
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class NLPDaemon
+{
+	@Option(name="-c", usage="configuration file (required)", required=true, metaVar="<filename>")
+	private String s_configXml;
+	@Option(name="-z", usage="mode (pos|morph|dep|srl)", required=true, metaVar="<string>")
+	private String s_mode;
+	@Option(name="-port", usage="port on the loopback interface (required)", required=true, metaVar="<integer>")
+	private int n_port;
+	@Option(name="-threads", usage="number of worker threads (default: 1)", required=false, metaVar="<integer>")
+	private int n_threads = 1;
+	@Option(name="-queue", usage="number of connections waiting for workers (default: 16)", required=false, metaVar="<integer>")
+	private int n_queue = 16;
+	@Option(name="-timeout", usage="milliseconds an idle connection is kept open; 0 for no timeout (default: 60000)", required=false, metaVar="<integer>")
+	private int n_timeout = NLPDecodeServer.DEFAULT_IDLE_TIMEOUT;
+	
+	public NLPDaemon(String[] args)
+	{
+		UTArgs4j.initArgs(this, args);
+		
+		try
+		{
+			Element eConfig = UTXml.getDocumentElement(new FileInputStream(s_configXml));
+			final NLPDecodeServer server = new NLPDecodeServer(new NLPDecode().getDecoder(s_mode), eConfig, n_threads, n_queue);
+			server.setIdleTimeout(n_timeout);
+			
+			Runtime.getRuntime().addShutdownHook(new Thread()
+			{
+				@Override
+				public void run()
+				{
+					server.close();
+				}
+			});
+			
+			server.bind(n_port);
+			server.serve();
+		}
+		catch (Exception e) {e.printStackTrace();}
+	}
+	
+	static public void main(String[] args)
+	{
+		new NLPDaemon(args);
+	}
+}
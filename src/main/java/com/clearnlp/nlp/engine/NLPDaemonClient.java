@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.nlp.engine;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.kohsuke.args4j.Option;
+
+import com.clearnlp.nlp.decode.NLPDecodeClient;
+import com.clearnlp.nlp.decode.NLPDecodeServer;
+import com.clearnlp.util.UTArgs4j;
+
+/**
+ * Sends a request to {@link NLPDaemon}.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class NLPDaemonClient
+{
+	@Option(name="-port", usage="port of the daemon (required)", required=true, metaVar="<integer>")
+	private int n_port;
+	@Option(name="-cmd", usage="command (decode|health|stats; default: decode)", required=false, metaVar="<string>")
+	private String s_command = NLPDecodeServer.COMMAND_DECODE;
+	@Option(name="-i", usage="input file (required for decode)", required=false, metaVar="<filename>")
+	private String s_inputFile;
+	@Option(name="-o", usage="output file (default: standard output)", required=false, metaVar="<filename>")
+	private String s_outputFile;
+	
+	public NLPDaemonClient(String[] args)
+	{
+		UTArgs4j.initArgs(this, args);
+		
+		try
+		{
+			NLPDecodeClient client = new NLPDecodeClient(n_port);
+			
+			switch (s_command)
+			{
+			case NLPDecodeServer.COMMAND_DECODE:
+				if (s_inputFile == null) throw new IllegalArgumentException("The input file is not specified.");
+				write(client.decode(Files.readAllBytes(Paths.get(s_inputFile))));
+				break;
+			case NLPDecodeServer.COMMAND_HEALTH:
+				System.out.println(client.health());
+				break;
+			case NLPDecodeServer.COMMAND_STATS:
+				System.out.print(client.stats());
+				break;
+			default:
+				throw new IllegalArgumentException("The requested command '"+s_command+"' is not supported.");
+			}
+			
+			client.close();
+		}
+		catch (Exception e) {e.printStackTrace();}
+	}
+	
+	private void write(byte[] output) throws IOException
+	{
+		if (s_outputFile == null)
+		{
+			System.out.write(output);
+			System.out.flush();
+		}
+		else
+		{
+			OutputStream fout = new FileOutputStream(s_outputFile);
+			fout.write(output);
+			fout.close();
+		}
+	}
+	
+	static public void main(String[] args)
+	{
+		new NLPDaemonClient(args);
+	}
+}
@@ -75,6 +75,8 @@ public class NLPDecode
 	private String s_outputExt = "cnlp";
 	@Option(name="-z", usage="mode (pos|morph|dep|srl)", required=true, metaVar="<string>")
 	protected String s_mode;
+	@Option(name="-threads", usage="number of threads (default: 1)", required=false, metaVar="<integer>")
+	private int n_threads = 1;
 	
 	public NLPDecode() {}
 	
@@ -84,12 +86,17 @@ public class NLPDecode
 		
 		try
 		{
-			decode(s_configXml, s_inputPath, s_inputExt, s_outputExt, s_mode);
+			decode(s_configXml, s_inputPath, s_inputExt, s_outputExt, s_mode, n_threads);
 		}
 		catch (Exception e) {e.printStackTrace();}
 	}
 	
 	public void decode(String configXml, String inputPath, String inputExt, String outputExt, String mode)
+	{
+		decode(configXml, inputPath, inputExt, outputExt, mode, 1);
+	}
+	
+	public void decode(String configXml, String inputPath, String inputExt, String outputExt, String mode, int threads)
 	{
 		try
 		{
@@ -97,6 +104,7 @@ public class NLPDecode
 			List<String[]> filenames = getFilenames(inputPath, inputExt, outputExt);
 			NLPDecoder decoder = getDecoder(mode);
 			
+			decoder.setThreads(threads);
 			decoder.decode(eConfig, filenames);
 		}
 		catch (Exception e) {e.printStackTrace();}
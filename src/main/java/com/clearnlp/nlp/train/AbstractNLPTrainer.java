@@ -41,12 +41,16 @@
 package com.clearnlp.nlp.train;
 
 import java.io.BufferedOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -61,13 +65,18 @@ import com.clearnlp.classification.feature.JointFtrXml;
 import com.clearnlp.classification.model.AbstractModel;
 import com.clearnlp.classification.model.StringModel;
 import com.clearnlp.classification.train.AbstractTrainSpace;
+import com.clearnlp.classification.train.DiskStringTrainSpace;
 import com.clearnlp.classification.train.StringTrainSpace;
 import com.clearnlp.component.AbstractStatisticalComponent;
 import com.clearnlp.dependency.DEPTree;
 import com.clearnlp.nlp.AbstractNLP;
+import com.clearnlp.reader.AbstractReader;
+import com.clearnlp.reader.BinaryDEPReader;
 import com.clearnlp.reader.JointReader;
+import com.clearnlp.reader.MappedJointReader;
 import com.clearnlp.run.AdaGradTrain;
 import com.clearnlp.run.LiblinearTrain;
+import com.clearnlp.util.UTF8Sink;
 import com.clearnlp.util.UTInput;
 import com.clearnlp.util.UTOutput;
 import com.clearnlp.util.UTXml;
@@ -79,9 +88,15 @@ import com.clearnlp.util.pair.ObjectDoublePair;
  */
 abstract public class AbstractNLPTrainer extends AbstractNLP
 {
+	/** The directory to keep training instances in ({@code null} if instances are kept in memory). */
+	protected File d_temp = null;
+	/** Binary copies of training and development files ({@code null} if files are read as text). */
+	protected Map<String,File> m_binaries = null;
+	
 	public void train(Element eConfig, JointFtrXml[] xmls, String[] trainFiles, String modelDir) throws Exception
 	{
 		JointReader reader = getJointReader(UTXml.getFirstElementByTagName(eConfig, TAG_READER));
+		initBinaries(eConfig, trainFiles);
 		AbstractStatisticalComponent<?> component = getComponent(eConfig, reader, xmls, trainFiles, -1);
 		component.save(new ObjectOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(modelDir+"/"+getMode())))));
 	}
@@ -163,6 +178,7 @@ abstract public class AbstractNLPTrainer extends AbstractNLP
 	/** Develops a component without bootsrapping. */
 	protected void developComponent(Element eConfig, JointReader reader, JointFtrXml[] xmls, String[] trainFiles, String[] devFiles, AbstractStatisticalComponent<?> component, boolean generate, int devId) throws Exception
 	{
+		initBinaries(eConfig, trainFiles, devFiles);
 		component = getTrainedComponent(eConfig, reader, component, xmls, trainFiles, devId);
 		decode(reader, component, devFiles, "", generate);
 	}
@@ -170,6 +186,7 @@ abstract public class AbstractNLPTrainer extends AbstractNLP
 	/** Develops a component with bootsrapping. */
 	protected void developComponentBoot(Element eConfig, JointReader reader, JointFtrXml[] xmls, String[] trainFiles, String[] devFiles, AbstractStatisticalComponent<?> component, boolean generate, int devId) throws Exception
 	{
+		initBinaries(eConfig, trainFiles, devFiles);
 		Object[] lexica = getLexica(reader, component, xmls, trainFiles, devId);
 		ObjectDoublePair<StringModel[]> p;
 		double prevScore, currScore = 0;
@@ -199,21 +216,23 @@ abstract public class AbstractNLPTrainer extends AbstractNLP
 	
 	protected double decode(JointReader reader, AbstractStatisticalComponent<?> component, String[] devFiles, String ext, boolean generate) throws Exception
 	{
+		UTF8Sink sink = generate ? new UTF8Sink(SINK_CAPACITY) : null;
+		AbstractReader<DEPTree> fin;
 		PrintStream fout = null;
 		DEPTree tree;
 		
 		for (String devFile : devFiles)
 		{
 			if (generate) fout = UTOutput.createPrintBufferedFileStream(devFile+ext);
-			reader.open(UTInput.createBufferedFileReader(devFile));
+			fin = openTreeReader(reader, devFile);
 			
-			while ((tree = reader.next()) != null)
+			while ((tree = fin.next()) != null)
 			{
 				component.process(tree);
-				if (generate) fout.println(toString(tree, getMode())+"\n");
+				if (generate) print(fout, sink, tree, getMode());
 			}
 			
-			reader.close();
+			fin.close();
 			if (generate) fout.close();
 		}
 		
@@ -227,6 +246,7 @@ abstract public class AbstractNLPTrainer extends AbstractNLP
 	{
 		if (collector == null) return null;
 		int i, size = trainFiles.length;
+		AbstractReader<DEPTree> fin;
 		DEPTree tree;
 		
 		LOG.info("Collecting lexica:\n");
@@ -234,12 +254,12 @@ abstract public class AbstractNLPTrainer extends AbstractNLP
 		for (i=0; i<size; i++)
 		{
 			if (devId == i)	continue;
-			reader.open(UTInput.createBufferedFileReader(trainFiles[i]));
+			fin = openTreeReader(reader, trainFiles[i]);
 			
-			while ((tree = reader.next()) != null)
+			while ((tree = fin.next()) != null)
 				collector.process(tree);
 			
-			reader.close();
+			fin.close();
 			LOG.debug(".");
 		}	LOG.debug("\n");
 		
@@ -257,6 +277,156 @@ abstract public class AbstractNLPTrainer extends AbstractNLP
 		return xmls;
 	}
 	
+//	====================================== BINARY CORPUS ======================================
+	
+	/**
+	 * Writes binary copies of the specific files to the cache directory if it is specified so the files are parsed only once
+	 * across lexica collection, training, bootstrapping and decoding. Copies are reused while the files and reader columns do not change.
+	 */
+	protected void initBinaries(Element eConfig, String[]... fileLists)
+	{
+		Element eReader = UTXml.getFirstElementByTagName(eConfig, TAG_READER);
+		Element eTrain  = UTXml.getFirstElementByTagName(eConfig, getMode());
+		File dir = (eTrain != null) ? getCacheDirectory(eTrain) : null;
+		
+		if (dir == null)
+		{
+			m_binaries = null;
+			return;
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(getNumerOfThreads(eTrain));
+		String columns = getColumnKey(eReader);
+		m_binaries = new HashMap<String,File>();
+		File source, binary;
+		dir.mkdirs();
+		
+		LOG.info("Caching binary trees:\n");
+		
+		for (String[] filenames : fileLists)
+		{
+			for (String filename : filenames)
+			{
+				if (m_binaries.containsKey(filename))	continue;
+				source = new File(filename);
+				binary = new File(dir, source.getName()+"."+Integer.toHexString((source.getAbsolutePath()+source.length()+source.lastModified()+columns).hashCode())+BinaryDEPReader.EXT);
+				m_binaries.put(filename, binary);
+				
+				if (!binary.exists())
+					executor.execute(new BinaryTask(getJointReader(eReader), filename, binary));
+			}
+		}
+		
+		executor.shutdown();
+		
+		try
+		{
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException e) {e.printStackTrace();}
+		
+		LOG.debug("\n");
+	}
+	
+	/** Called by {@link #initBinaries(Element, String[][])}. */
+	private String getColumnKey(Element eReader)
+	{
+		NodeList list = eReader.getElementsByTagName(TAG_COLUMN);
+		StringBuilder build = new StringBuilder();
+		int i, size = list.getLength();
+		Element element;
+		
+		for (i=0; i<size; i++)
+		{
+			element = (Element)list.item(i);
+			build.append(UTXml.getTrimmedAttribute(element, TAG_FIELD));
+			build.append(element.getAttribute(TAG_INDEX));
+		}
+		
+		return build.toString();
+	}
+	
+	/** Training files are read several times (lexica, training, bootstrapping, decoding), so they are memory-mapped by {@link MappedJointReader}. */
+	@Override
+	protected JointReader createJointReader(int iId, int iForm, int iLemma, int iPos, int iFeats, int iHeadId, int iDeprel, int iXHeads, int iSHeads, int iNament, int iCoref)
+	{
+		return new MappedJointReader(iId, iForm, iLemma, iPos, iFeats, iHeadId, iDeprel, iXHeads, iSHeads, iNament, iCoref);
+	}
+	
+	/** Opens the specific text file with the specific reader; the file is memory-mapped if the reader is a {@link MappedJointReader}. */
+	protected void openTextReader(JointReader reader, String filename)
+	{
+		if (reader instanceof MappedJointReader)
+		{
+			try
+			{
+				((MappedJointReader)reader).open(new FileInputStream(filename).getChannel());
+				return;
+			}
+			catch (IOException e) {e.printStackTrace();}
+		}
+		
+		reader.open(UTInput.createBufferedFileReader(filename));
+	}
+	
+	/** @return the reader for the specific file, which is the binary reader if the file has a binary copy; otherwise, the specific joint reader. */
+	protected AbstractReader<DEPTree> openTreeReader(JointReader reader, String filename)
+	{
+		File binary = (m_binaries != null) ? m_binaries.get(filename) : null;
+		
+		if (binary != null && binary.exists())
+		{
+			try
+			{
+				BinaryDEPReader fin = new BinaryDEPReader();
+				fin.open(new FileInputStream(binary));
+				return fin;
+			}
+			catch (IOException e) {e.printStackTrace();}
+		}
+		
+		openTextReader(reader, filename);
+		return reader;
+	}
+	
+	/** Called by {@link #initBinaries(Element, String[][])}. */
+	private class BinaryTask implements Runnable
+	{
+		JointReader j_reader;
+		String      s_source;
+		File        f_binary;
+		
+		public BinaryTask(JointReader reader, String source, File binary)
+		{
+			j_reader = reader;
+			s_source = source;
+			f_binary = binary;
+		}
+		
+		public void run()
+		{
+			File tmp = new File(f_binary.getPath()+".tmp"+Thread.currentThread().getId());
+			
+			try
+			{
+				FileOutputStream fout = new FileOutputStream(tmp);
+				openTextReader(j_reader, s_source);
+				BinaryDEPReader.convert(j_reader, fout);
+				fout.close();
+				
+				if (!tmp.renameTo(f_binary))
+					tmp.delete();
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+				tmp.delete();
+			}
+			
+			LOG.debug(".");
+		}
+	}
+	
 //	====================================== TRAIN ======================================
 	
 	protected StringTrainSpace[] getStringTrainSpaces(Element eConfig, JointFtrXml[] xmls, String[] trainFiles, StringModel[] models, Object[] lexica, int boot, int devId)
@@ -265,6 +435,7 @@ abstract public class AbstractNLPTrainer extends AbstractNLP
 		int i, j, mSize = 1, size = trainFiles.length;
 		int numThreads = getNumerOfThreads(eTrain);
 		String language = getLanguage(eConfig);
+		d_temp = getTempDirectory(eTrain);
 		
 		List<StringTrainSpace[]> lSpaces = new ArrayList<StringTrainSpace[]>();
 		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
@@ -331,7 +502,7 @@ abstract public class AbstractNLPTrainer extends AbstractNLP
 		StringTrainSpace[] spaces = new StringTrainSpace[size];
 		
 		for (i=0; i<size; i++)
-			spaces[i] = new StringTrainSpace(false, xmls[i].getLabelCutoff(cIndex), xmls[i].getFeatureCutoff(cIndex));
+			spaces[i] = getStringTrainSpace(xmls[i].getLabelCutoff(cIndex), xmls[i].getFeatureCutoff(cIndex));
 		
 		return spaces;
 	}
@@ -343,21 +514,26 @@ abstract public class AbstractNLPTrainer extends AbstractNLP
 		int i;
 		
 		for (i=0; i<size; i++)
-			spaces[i] = new StringTrainSpace(false, xml.getLabelCutoff(0), xml.getFeatureCutoff(0));
+			spaces[i] = getStringTrainSpace(xml.getLabelCutoff(0), xml.getFeatureCutoff(0));
 		
 		return spaces;
 	}
 	
+	/** @return a string training space kept on disk if {@link #d_temp} is specified; otherwise, kept in memory. */
+	private StringTrainSpace getStringTrainSpace(int labelCutoff, int featureCutoff)
+	{
+		return (d_temp != null) ? new DiskStringTrainSpace(false, labelCutoff, featureCutoff, d_temp) : new StringTrainSpace(false, labelCutoff, featureCutoff);
+	}
+	
 	/** Called by {@link #getStringTrainSpaces(Element, JointFtrXml[], String[], StringModel[], Object[], String, int)}. */
 	private class TrainTask implements Runnable
 	{
 		AbstractStatisticalComponent<?> j_component;
-		JointReader j_reader;
+		AbstractReader<DEPTree> j_reader;
 		
 		public TrainTask(Element eConfig, String trainFile, AbstractStatisticalComponent<?> component)
 		{
-			j_reader = getJointReader(UTXml.getFirstElementByTagName(eConfig, TAG_READER));
-			j_reader.open(UTInput.createBufferedFileReader(trainFile));
+			j_reader = openTreeReader(getJointReader(UTXml.getFirstElementByTagName(eConfig, TAG_READER)), trainFile);
 			j_component = component;
 		}
 		
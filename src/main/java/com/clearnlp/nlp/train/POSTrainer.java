@@ -61,7 +61,6 @@ import com.clearnlp.nlp.NLPMode;
 import com.clearnlp.nlp.NLPProcess;
 import com.clearnlp.reader.AbstractReader;
 import com.clearnlp.reader.JointReader;
-import com.clearnlp.util.UTInput;
 import com.clearnlp.util.UTXml;
 import com.clearnlp.util.map.Prob1DMap;
 
@@ -134,7 +133,7 @@ public class POSTrainer extends AbstractNLPTrainer
 		{
 			if (devId == i)	continue;
 			
-			reader.open(UTInput.createBufferedFileReader(trainFiles[i]));
+			openTextReader(reader, trainFiles[i]);
 			set.clear();
 			
 			while ((tree = reader.next()) != null)
@@ -50,8 +50,8 @@ import com.clearnlp.component.srl.AbstractSRLabeler;
 import com.clearnlp.component.srl.DefaultSRLabeler;
 import com.clearnlp.component.srl.EnglishSRLabeler;
 import com.clearnlp.nlp.NLPMode;
+import com.clearnlp.nlp.NLPResources;
 import com.clearnlp.propbank.frameset.AbstractFrames;
-import com.clearnlp.propbank.frameset.MultiFrames;
 import com.clearnlp.reader.AbstractReader;
 import com.clearnlp.reader.JointReader;
 
@@ -110,6 +110,6 @@ public class SRLTrainer extends AbstractNLPTrainer
 
 	protected AbstractFrames getFrames(String frameDir)
 	{
-		return (frameDir != null) ? new MultiFrames(frameDir) : null;
+		return (frameDir != null) ? NLPResources.getFrames(frameDir) : null;
 	}
 }
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.reader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.dependency.factory.BinaryDEPTreeDatum;
+import com.clearnlp.dependency.factory.BinaryDEPTreeDatumFactory;
+
+/**
+ * Reads dependency trees from a binary corpus written by {@link #convert(AbstractReader, OutputStream)}.
+ * Each binary file has its own string table so files can be read in parallel by separate readers.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class BinaryDEPReader extends AbstractReader<DEPTree>
+{
+	/** The extension of binary corpus files ({@code ".bdt"}). */
+	static public final String EXT = ".bdt";
+	static private final int MAGIC   = 0x62647431;
+	static private final int RECORD_TREE = 1;
+	static private final int RECORD_END  = 0;
+	
+	private DataInputStream d_in;
+	private BinaryDEPTreeDatumFactory f_table;
+	private BinaryDEPTreeDatum d_datum;
+	
+	/** Reads from the specific binary corpus. */
+	public void open(InputStream in)
+	{
+		d_in    = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+		f_table = new BinaryDEPTreeDatumFactory();
+		d_datum = f_table.createDEPTreeDatum();
+		
+		try
+		{
+			if (d_in.readInt() != MAGIC)
+				throw new IllegalArgumentException("Not a binary dependency corpus.");
+		}
+		catch (IOException e) {e.printStackTrace();}
+	}
+	
+	@Override
+	public void close()
+	{
+		try
+		{
+			if (d_in != null) d_in.close();
+		}
+		catch (IOException e) {e.printStackTrace();}
+		
+		d_in = null;
+	}
+	
+	@Override
+	public DEPTree next()
+	{
+		BinaryDEPTreeDatum datum = nextDatum();
+		return (datum != null) ? datum.toDEPTree() : null;
+	}
+	
+	/**
+	 * Returns the next tree datum without building a tree.
+	 * The returned datum is reused by the next call.
+	 */
+	public BinaryDEPTreeDatum nextDatum()
+	{
+		if (d_in == null)	return null;
+		
+		try
+		{
+			if (d_in.readByte() == RECORD_TREE)
+			{
+				f_table.readStrings(d_in);
+				d_datum.read(d_in);
+				return d_datum;
+			}
+		}
+		catch (IOException e) {e.printStackTrace();}
+		
+		close();
+		return null;
+	}
+	
+	@Override
+	public String getType()
+	{
+		return TYPE_SRL;
+	}
+	
+	/**
+	 * Writes all trees from the specific reader to the specific stream as a binary corpus.
+	 * The reader is closed but the stream is not.
+	 * @return the number of trees written.
+	 */
+	static public int convert(AbstractReader<DEPTree> reader, OutputStream out) throws IOException
+	{
+		DataOutputStream fout = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		BinaryDEPTreeDatumFactory table = new BinaryDEPTreeDatumFactory();
+		BinaryDEPTreeDatum datum = table.createDEPTreeDatum();
+		DEPTree tree;
+		int count = 0;
+		
+		fout.writeInt(MAGIC);
+		
+		while ((tree = reader.next()) != null)
+		{
+			datum.set(tree);
+			fout.writeByte(RECORD_TREE);
+			table.writeStrings(fout);
+			datum.write(fout);
+			count++;
+		}
+		
+		fout.writeByte(RECORD_END);
+		fout.flush();
+		reader.close();
+		
+		return count;
+	}
+}
@@ -193,7 +193,7 @@ public class JointReader extends AbstractColumnReader<DEPTree>
 		return tree;
 	}
 	
-	private List<DEPArc> getXHeads(DEPTree tree, String heads)
+	protected List<DEPArc> getXHeads(DEPTree tree, String heads)
 	{
 		List<DEPArc> sHeads = Lists.newArrayList();
 		
@@ -215,7 +215,7 @@ public class JointReader extends AbstractColumnReader<DEPTree>
 		return sHeads;
 	}
 	
-	private List<SRLArc> getSHeads(DEPTree tree, String heads)
+	protected List<SRLArc> getSHeads(DEPTree tree, String heads)
 	{
 		List<SRLArc> sHeads = Lists.newArrayList();
 		
@@ -238,16 +238,31 @@ public class JointReader extends AbstractColumnReader<DEPTree>
 	}
 	
 	private List<Mention> getMentions(List<String[]> lines)
+	{
+		int i, size = lines.size();
+		String[] corefs = new String[size];
+		
+		for (i=0; i<size; i++)
+			corefs[i] = lines.get(i)[i_coref];
+		
+		return getMentions(corefs);
+	}
+	
+	/**
+	 * Returns the coreference mentions decoded from the coreference column of each line.
+	 * @param lines the coreference column of each line.
+	 */
+	protected List<Mention> getMentions(String[] lines)
 	{
 		Map<String,IntStack> map = new HashMap<String,IntStack>();
 		List<Mention> mentions = new ArrayList<Mention>();
-		int i, size = lines.size();
+		int i, size = lines.length;
 		String corefs, key;
 		IntStack stack;
 		
 		for (i=0; i<size; i++)
 		{
-			corefs = lines.get(i)[i_coref];
+			corefs = lines[i];
 			
 			if (corefs.equals("-"))
 				continue;
@@ -0,0 +1,500 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.clearnlp.dependency.DEPArc;
+import com.clearnlp.dependency.DEPFeat;
+import com.clearnlp.dependency.DEPLib;
+import com.clearnlp.dependency.DEPNode;
+import com.clearnlp.dependency.DEPTree;
+
+
+/**
+ * Joint reader that scans UTF-8 column data directly from a byte buffer.
+ * Column and line boundaries are found on bytes, only the configured columns are decoded,
+ * node and head IDs are parsed without creating strings, and nodes without features share
+ * {@link DEPFeat#EMPTY_FEATS}. Trees read by this reader are the same as the ones read by
+ * {@link JointReader} (and {@link DEPReader}) with the same column indices.
+ * Files are memory-mapped in windows of {@link #DEFAULT_WINDOW_SIZE} bytes so files larger than 2GB can be read as well.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class MappedJointReader extends JointReader
+{
+	/** The default number of bytes mapped at once ({@code 1GB}). */
+	static public final int DEFAULT_WINDOW_SIZE = 1 << 30;
+	static private final Charset UTF_8 = Charset.forName("UTF-8");
+	
+	private FileChannel f_channel;
+	private long        l_fileSize;
+	/** The file offset of the first byte in {@link #b_in}. */
+	private long        l_base;
+	private int         n_window;
+	
+	private ByteBuffer  b_in;
+	private ByteBuffer  b_view;
+	private int         i_offset;
+	
+	/** The beginning and ending offsets of each line in the current sentence. */
+	private int[]       a_lines;
+	private int         n_lines;
+	/** The beginning offset of each column in the current line. */
+	private int[]       a_columns;
+	private int         n_columns;
+	private int         i_lineEnd;
+	private byte[]      a_bytes;
+	
+	/** For part-of-speech tagging. */
+	public MappedJointReader(int iForm, int iPos)
+	{
+		super(iForm, iPos);
+		initBuffers();
+	}
+	
+	/** For dependency parsing. */
+	public MappedJointReader(int iId, int iForm, int iLemma, int iPos, int iFeats, int iHeadId, int iDeprel)
+	{
+		super(iId, iForm, iLemma, iPos, iFeats, iHeadId, iDeprel);
+		initBuffers();
+	}
+	
+	/** See {@link JointReader#JointReader(int, int, int, int, int, int, int, int, int, int, int)}. */
+	public MappedJointReader(int iId, int iForm, int iLemma, int iPos, int iFeats, int iHeadId, int iDeprel, int iXHeads, int iSHeads, int iNament, int iCoref)
+	{
+		super(iId, iForm, iLemma, iPos, iFeats, iHeadId, iDeprel, iXHeads, iSHeads, iNament, iCoref);
+		initBuffers();
+	}
+	
+	private void initBuffers()
+	{
+		n_window  = DEFAULT_WINDOW_SIZE;
+		a_lines   = new int[128];
+		a_columns = new int[16];
+		a_bytes   = new byte[256];
+	}
+	
+	/** Sets the number of bytes mapped at once; must be called before {@link #open(FileChannel)}. */
+	public void setWindowSize(int size)
+	{
+		n_window = size;
+	}
+	
+	/** Reads from the specific reader using {@link JointReader#next()}. */
+	@Override
+	public void open(BufferedReader reader)
+	{
+		super.open(reader);
+		f_channel = null;
+		b_in      = null;
+		b_view    = null;
+	}
+	
+	/**
+	 * Reads from the specific file channel, which is memory-mapped as read-only.
+	 * @param channel the file channel to read from (e.g., {@code new FileInputStream(filename).getChannel()}).
+	 */
+	public void open(FileChannel channel) throws IOException
+	{
+		f_in       = null;
+		f_channel  = channel;
+		l_fileSize = channel.size();
+		map(channel.position());
+	}
+	
+	/**
+	 * Reads from the remaining bytes of the specific buffer (e.g., a large direct buffer).
+	 * The position of the buffer is not changed.
+	 */
+	public void open(ByteBuffer buffer)
+	{
+		f_in      = null;
+		f_channel = null;
+		setBuffer(buffer.slice(), 0);
+	}
+	
+	@Override
+	public void close()
+	{
+		if (f_channel != null)
+		{
+			try
+			{
+				f_channel.close();
+			}
+			catch (IOException e) {e.printStackTrace();}
+		}
+		else if (f_in != null)
+			super.close();
+		
+		f_channel = null;
+		b_in      = null;
+		b_view    = null;
+	}
+	
+	@Override
+	public DEPTree next()
+	{
+		if (f_in != null)	return super.next();
+		if (b_in == null)	return null;
+		DEPTree tree = null;
+		
+		try
+		{
+			while (!readSentence())
+				remap();
+
+			if (n_lines == 0)
+			{	close();	return null;	}
+			
+			tree = getDEPTree();
+		}
+		catch (Exception e) {e.printStackTrace();}
+		
+		return tree;
+	}
+	
+//	====================================== Sentences ======================================
+	
+	/**
+	 * Finds the beginning and ending offsets of the lines in the next sentence.
+	 * @return {@code false} if the sentence is not entirely in the current window.
+	 */
+	private boolean readSentence()
+	{
+		int pos = i_offset, end, limit = b_in.limit();
+		n_lines = 0;
+		
+		// skip empty lines
+		while (true)
+		{
+			if (pos >= limit)
+			{
+				i_offset = pos;
+				return isLastWindow();
+			}
+			
+			if ((end = getLineEnd(pos)) < 0)
+			{
+				i_offset = pos;
+				return false;
+			}
+			
+			if (!isBlank(pos, end))	break;
+			pos = getNextLine(end);
+		}
+		
+		i_offset = pos;
+		
+		// add lines
+		while (true)
+		{
+			addLine(pos, end);
+			pos = getNextLine(end);
+			
+			if (pos >= limit)
+			{
+				if (!isLastWindow())	return false;
+				break;
+			}
+			
+			if ((end = getLineEnd(pos)) < 0)
+				return false;
+			
+			if (isBlank(pos, end))
+			{
+				pos = getNextLine(end);
+				break;
+			}
+		}
+		
+		i_offset = pos;
+		return true;
+	}
+	
+	/** @return the offset of the first line terminator from {@code pos}, or {@code -1} if the line continues in the next window. */
+	private int getLineEnd(int pos)
+	{
+		int limit = b_in.limit();
+		byte b;
+		
+		for (; pos<limit; pos++)
+		{
+			b = b_in.get(pos);
+			
+			if (b == '\n')
+				return pos;
+			
+			if (b == '\r')
+				return (pos+1 < limit || isLastWindow()) ? pos : -1;
+		}
+		
+		return isLastWindow() ? limit : -1;
+	}
+	
+	/** @return the beginning offset of the line after the line terminator at {@code end}. */
+	private int getNextLine(int end)
+	{
+		int limit = b_in.limit();
+		
+		if (end >= limit)
+			return limit;
+		
+		if (b_in.get(end) == '\r' && end+1 < limit && b_in.get(end+1) == '\n')
+			return end + 2;
+		
+		return end + 1;
+	}
+	
+	/** Called by {@link #readSentence()}; same as {@link AbstractColumnReader#isSkip(String)}. */
+	private boolean isBlank(int beginIndex, int endIndex)
+	{
+		for (; beginIndex<endIndex; beginIndex++)
+		{
+			if ((b_in.get(beginIndex) & 0xff) > ' ')
+				return false;
+		}
+		
+		return true;
+	}
+	
+	private void addLine(int beginIndex, int endIndex)
+	{
+		if (2*n_lines+1 >= a_lines.length)
+			a_lines = Arrays.copyOf(a_lines, 2*a_lines.length);
+		
+		a_lines[2*n_lines  ] = beginIndex;
+		a_lines[2*n_lines+1] = endIndex;
+		n_lines++;
+	}
+	
+//	====================================== Windows ======================================
+	
+	private boolean isLastWindow()
+	{
+		return f_channel == null || l_base + b_in.limit() >= l_fileSize;
+	}
+	
+	/** Maps the next window from the beginning of the current sentence. */
+	private void remap() throws IOException
+	{
+		// the current sentence does not fit in a window
+		if (i_offset == 0)
+			n_window = (n_window > Integer.MAX_VALUE / 2) ? Integer.MAX_VALUE : 2 * n_window;
+		
+		map(l_base + i_offset);
+	}
+	
+	private void map(long offset) throws IOException
+	{
+		long size = Math.min(n_window, l_fileSize - offset);
+		setBuffer(f_channel.map(FileChannel.MapMode.READ_ONLY, offset, size), offset);
+	}
+	
+	private void setBuffer(ByteBuffer buffer, long base)
+	{
+		b_in   = buffer;
+		b_view = buffer.duplicate();
+		l_base = base;
+		i_offset = 0;
+	}
+	
+//	====================================== Trees ======================================
+	
+	/** Returns a dependency tree from the lines found by {@link #readSentence()}. */
+	protected DEPTree getDEPTree()
+	{
+		String form, lemma, pos, nament;
+		int id, i, size = n_lines;
+		String[] corefs = (i_coref >= 0) ? new String[size] : null;
+		DEPTree tree = new DEPTree();
+		DEPFeat feats;
+		DEPNode node;
+		
+		// initialize place holders
+		for (i=0; i<size; i++)
+			tree.add(new DEPNode());
+		
+		if (i_xheads >= 0)
+			tree.get(0).setXHeads(new ArrayList<DEPArc>());
+		
+		if (i_sheads >= 0)
+			tree.get(0).setXHeads(new ArrayList<DEPArc>());
+		
+		for (i=0; i<size; i++)
+		{
+			splitColumns(a_lines[2*i], a_lines[2*i+1]);
+			form   = getString(i_form);
+			id     = (i_id     < 0) ? i+1  : getInt(i_id);
+			lemma  = (i_lemma  < 0) ? null : getString(i_lemma);
+			pos    = (i_pos    < 0) ? null : getString(i_pos);
+			feats  = (i_feats  < 0 || isBlankColumn(i_feats)) ? DEPFeat.EMPTY_FEATS : new DEPFeat(getString(i_feats));
+			nament = (i_nament < 0) ? null : getString(i_nament);
+			
+			node = tree.get(id);
+			node.init(id, form, lemma, pos, feats);
+			node.nament = nament;
+			
+			if (i_headId >= 0 && !isBlankColumn(i_headId))
+				node.setHead(tree.get(getInt(i_headId)), getString(i_deprel));
+			
+			if (i_xheads >= 0)
+				node.setXHeads(getXHeads(tree, getString(i_xheads)));
+			
+			if (i_sheads >= 0)
+				node.setSHeads(getSHeads(tree, getString(i_sheads)));
+			
+			if (i_gpos >= 0)
+				node.addFeat(DEPLib.FEAT_GPOS, getString(i_gpos));
+			
+			if (corefs != null)
+				corefs[i] = getString(i_coref);
+		}
+		
+		if (i_coref >= 0) tree.setMentions(getMentions(corefs));
+		return tree;
+	}
+	
+//	====================================== Columns ======================================
+	
+	/** Finds the beginning offset of each column in the specific line; trailing empty columns are dropped as in {@link String#split(String)}. */
+	private void splitColumns(int beginIndex, int endIndex)
+	{
+		n_columns = 0;
+		i_lineEnd = endIndex;
+		addColumn(beginIndex);
+		
+		for (; beginIndex<endIndex; beginIndex++)
+		{
+			if (b_in.get(beginIndex) == '\t')
+				addColumn(beginIndex+1);
+		}
+		
+		while (n_columns > 1 && getColumnBegin(n_columns-1) == getColumnEnd(n_columns-1))
+			n_columns--;
+	}
+	
+	private void addColumn(int beginIndex)
+	{
+		if (n_columns == a_columns.length)
+			a_columns = Arrays.copyOf(a_columns, 2*a_columns.length);
+		
+		a_columns[n_columns++] = beginIndex;
+	}
+	
+	private int getColumnBegin(int index)
+	{
+		if (index >= n_columns)
+			throw new ArrayIndexOutOfBoundsException(index);
+		
+		return a_columns[index];
+	}
+	
+	private int getColumnEnd(int index)
+	{
+		return (index+1 < n_columns) ? a_columns[index+1] - 1 : i_lineEnd;
+	}
+	
+	private boolean isBlankColumn(int index)
+	{
+		int beginIndex = getColumnBegin(index);
+		return getColumnEnd(index) - beginIndex == 1 && b_in.get(beginIndex) == '_';
+	}
+	
+	/** @return the specific column decoded in UTF-8. */
+	private String getString(int index)
+	{
+		int beginIndex = getColumnBegin(index);
+		int length = getColumnEnd(index) - beginIndex;
+		
+		if (b_in.hasArray())
+			return new String(b_in.array(), b_in.arrayOffset() + beginIndex, length, UTF_8);
+		
+		if (length > a_bytes.length)
+			a_bytes = new byte[Math.max(length, 2*a_bytes.length)];
+		
+		b_view.clear();
+		b_view.position(beginIndex);
+		b_view.get(a_bytes, 0, length);
+		
+		return new String(a_bytes, 0, length, UTF_8);
+	}
+	
+	/** @return the specific column parsed as a decimal integer; same as {@link Integer#parseInt(String)}. */
+	private int getInt(int index)
+	{
+		int i = getColumnBegin(index), endIndex = getColumnEnd(index), n = 0, d;
+		boolean negative = false;
+		
+		if (i < endIndex)
+		{
+			byte b = b_in.get(i);
+			
+			if (b == '-' || b == '+')
+			{
+				negative = (b == '-');
+				i++;
+			}
+		}
+		
+		if (i >= endIndex || endIndex - i > 9)
+			return Integer.parseInt(getString(index));
+		
+		for (; i<endIndex; i++)
+		{
+			d = b_in.get(i) - '0';
+			
+			if (d < 0 || d > 9)
+				throw new NumberFormatException("For input string: \""+getString(index)+"\"");
+			
+			n = n * 10 + d;
+		}
+		
+		return negative ? -n : n;
+	}
+}
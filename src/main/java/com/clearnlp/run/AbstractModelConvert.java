@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.run;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.kohsuke.args4j.Option;
+import org.w3c.dom.Element;
+
+import com.clearnlp.component.AbstractComponent;
+import com.clearnlp.component.AbstractStatisticalComponent;
+import com.clearnlp.component.evaluation.AbstractEval;
+import com.clearnlp.component.evaluation.DEPEval;
+import com.clearnlp.component.evaluation.POSEval;
+import com.clearnlp.component.evaluation.SRLEval;
+import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.nlp.NLPGetter;
+import com.clearnlp.nlp.NLPMode;
+import com.clearnlp.reader.AbstractReader;
+import com.clearnlp.util.UTInput;
+import com.clearnlp.util.UTXml;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Rewrites the statistical components of a zipped model file into another zipped model file.
+ * If development files are given, the accuracies of the original and rewritten components are reported for
+ * the {@code pos}, {@code dep} and {@code srl} modes.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+abstract public class AbstractModelConvert extends AbstractRun
+{
+	@Option(name="-i", usage="the zipped model file (input; required)", required=true, metaVar="<filename>")
+	protected String s_modelFile;
+	
+	@Option(name="-o", usage="the zipped model file (output; required)", required=true, metaVar="<filename>")
+	protected String s_outputFile;
+	
+	@Option(name="-l", usage="language (default: "+AbstractReader.LANG_EN+")", required=false, metaVar="<language>")
+	protected String s_language = AbstractReader.LANG_EN;
+	
+	@Option(name="-c", usage="configuration file specifying the reader of development files (optional)", required=false, metaVar="<filename>")
+	protected String s_configXml;
+	
+	@Option(name="-d", usage="development path for the accuracy report (optional; requires -c)", required=false, metaVar="<filepath>")
+	protected String s_devPath;
+	
+	@Option(name="-de", usage="development file extension (default: .*)", required=false, metaVar="<regex>")
+	protected String s_devExt = ".*";
+	
+	/** Converts and evaluates the model files specified by the options. */
+	protected void run() throws Exception
+	{
+		convert(s_modelFile, s_outputFile, s_language);
+		
+		if (s_configXml != null && s_devPath != null)
+		{
+			Element eConfig = UTXml.getDocumentElement(new FileInputStream(s_configXml));
+			List<String> devFiles = Lists.newArrayList();
+			
+			for (String[] filenames : getFilenames(s_devPath, s_devExt, ""))
+				devFiles.add(filenames[0]);
+			
+			evaluate(eConfig, s_modelFile, s_outputFile, s_language, devFiles);
+		}
+	}
+	
+	/**
+	 * Saves the specific component to the output stream in the format of a zip entry (gzipped object stream).
+	 * @param mode the mode of the component.
+	 */
+	abstract protected void save(String mode, AbstractStatisticalComponent<?> component, OutputStream out) throws Exception;
+	
+	public void convert(String modelFile, String outputFile, String language) throws Exception
+	{
+		ZipFile file = new ZipFile(modelFile);
+		ZipOutputStream zout = new ZipOutputStream(new FileOutputStream(outputFile));
+		AbstractComponent component;
+		ByteArrayOutputStream bout;
+		String mode;
+		
+		for (ZipEntry entry : Collections.list(file.entries()))
+		{
+			if (entry.isDirectory()) continue;
+			mode = entry.getName();
+			component = NLPGetter.getComponent(file, language, mode);
+			zout.putNextEntry(new ZipEntry(mode));
+			
+			if (component instanceof AbstractStatisticalComponent)
+			{
+				System.out.println("Converting: "+mode);
+				bout = new ByteArrayOutputStream();
+				save(mode, (AbstractStatisticalComponent<?>)component, bout);
+				zout.write(bout.toByteArray());
+				System.out.printf("%s: %d -> %d bytes\n", mode, entry.getSize(), bout.size());
+			}
+			else
+				ByteStreams.copy(file.getInputStream(entry), zout);
+			
+			zout.closeEntry();
+		}
+		
+		zout.close();
+		file.close();
+	}
+	
+	// ============================= EVALUATE =============================
+	
+	/** Prints the accuracies of the original and converted components on the specific development files. */
+	@SuppressWarnings("unchecked")
+	public void evaluate(Element eConfig, String modelFile, String outputFile, String language, List<String> devFiles) throws Exception
+	{
+		AbstractReader<DEPTree> reader = (AbstractReader<DEPTree>)getReader(eConfig).o1;
+		ZipFile gFile = new ZipFile(modelFile), oFile = new ZipFile(outputFile);
+		AbstractComponent gComponent, oComponent;
+		AbstractEval gEval, oEval;
+		String mode;
+		
+		for (ZipEntry entry : Collections.list(gFile.entries()))
+		{
+			if (entry.isDirectory()) continue;
+			mode = entry.getName();
+			if ((gEval = getEval(mode)) == null) continue;
+			
+			oEval = getEval(mode);
+			gComponent = NLPGetter.getComponent(gFile, language, mode);
+			oComponent = NLPGetter.getComponent(oFile, language, mode);
+			
+			for (String devFile : devFiles)
+			{
+				reader.open(UTInput.createBufferedFileReader(devFile));
+				evaluate(reader, mode, gComponent, oComponent, gEval, oEval);
+				reader.close();
+			}
+			
+			System.out.printf("%s: %s (before)\n", mode, gEval.toString());
+			System.out.printf("%s: %s (after)\n" , mode, oEval.toString());
+			System.out.printf("%s: %+5.2f\n", mode, oEval.getAccuracies()[0] - gEval.getAccuracies()[0]);
+		}
+		
+		gFile.close();
+		oFile.close();
+	}
+	
+	/** Called by {@link #evaluate(Element, String, String, String, List)}. */
+	private void evaluate(AbstractReader<DEPTree> reader, String mode, AbstractComponent gComponent, AbstractComponent oComponent, AbstractEval gEval, AbstractEval oEval)
+	{
+		DEPTree gTree, oTree;
+		Object[] gold;
+		
+		while ((gTree = reader.next()) != null)
+		{
+			gold  = getGoldLabels(gTree, mode);
+			oTree = gTree.clone();
+			
+			if (mode.equals(NLPMode.MODE_DEP))
+			{
+				gTree.clearHeads();
+				oTree.clearHeads();
+			}
+			
+			gComponent.process(gTree);
+			oComponent.process(oTree);
+			
+			gEval.countAccuracy(gTree, gold);
+			oEval.countAccuracy(oTree, gold);
+		}
+	}
+	
+	/** @return the evaluator of the specific mode if supported; otherwise, {@code null}. */
+	private AbstractEval getEval(String mode)
+	{
+		switch (mode)
+		{
+		case NLPMode.MODE_POS: return new POSEval();
+		case NLPMode.MODE_DEP: return new DEPEval();
+		case NLPMode.MODE_SRL: return new SRLEval();
+		}
+		
+		return null;
+	}
+	
+	private Object[] getGoldLabels(DEPTree tree, String mode)
+	{
+		switch (mode)
+		{
+		case NLPMode.MODE_POS: return tree.getPOSTags();
+		case NLPMode.MODE_DEP: return tree.getHeads();
+		default              : return tree.getSHeads();
+		}
+	}
+}
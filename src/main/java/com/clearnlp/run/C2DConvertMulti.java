@@ -216,6 +216,7 @@ public class C2DConvertMulti extends AbstractRun
 			}
 		}
 		
+		tree.resetDependentIndex();
 		return (tree.size() == 1) ? null : tree;
 	}
 	
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.run;
+
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.log4j.Logger;
+import org.kohsuke.args4j.Option;
+
+import com.clearnlp.classification.model.StringModel;
+import com.clearnlp.component.AbstractStatisticalComponent;
+
+/**
+ * Converts a zipped model file into a zipped model file whose statistical models keep only features
+ * with weights greater than a threshold for some label (see {@link StringModel#trimFeatures(Logger, float)}).
+ * Models must be compacted before they are quantized.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class CompactModelConvert extends AbstractModelConvert
+{
+	private final Logger LOG = Logger.getLogger(this.getClass());
+	
+	@Option(name="-t", usage="features whose absolute weights are less than or equal to this threshold for all labels are removed (default: 0)", required=false, metaVar="<float>")
+	private float f_threshold = 0;
+	
+	public CompactModelConvert() {}
+	
+	public CompactModelConvert(String[] args)
+	{
+		initArgs(args);
+		
+		try
+		{
+			run();
+		}
+		catch (Exception e) {e.printStackTrace();}
+	}
+	
+	public void convert(String modelFile, String outputFile, float threshold, String language) throws Exception
+	{
+		f_threshold = threshold;
+		convert(modelFile, outputFile, language);
+	}
+	
+	@Override
+	protected void save(String mode, AbstractStatisticalComponent<?> component, OutputStream out) throws Exception
+	{
+		for (StringModel model : component.getModels())
+			model.trimFeatures(LOG, f_threshold);
+		
+		ObjectOutputStream fout = new ObjectOutputStream(new GZIPOutputStream(out));
+		component.save(fout);
+		fout.close();
+	}
+	
+	static public void main(String[] args)
+	{
+		new CompactModelConvert(args);
+	}
+}
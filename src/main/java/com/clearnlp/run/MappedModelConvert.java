@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.run;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.kohsuke.args4j.Option;
+
+import com.clearnlp.classification.model.MappedModelOutputStream;
+import com.clearnlp.component.AbstractStatisticalComponent;
+import com.clearnlp.nlp.NLPGetter;
+import com.clearnlp.reader.AbstractReader;
+
+/**
+ * Converts a zipped model file into a model directory whose statistical models are memory-mapped at load time.
+ * The converted directory can be passed as the {@code model} in the configuration file.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class MappedModelConvert extends AbstractRun
+{
+	@Option(name="-i", usage="the zipped model file (input; required)", required=true, metaVar="<filename>")
+	private String s_modelFile;
+	
+	@Option(name="-o", usage="the model directory (output; required)", required=true, metaVar="<dirpath>")
+	private String s_modelDir;
+	
+	@Option(name="-l", usage="language (default: "+AbstractReader.LANG_EN+")", required=false, metaVar="<language>")
+	private String s_language = AbstractReader.LANG_EN;
+	
+	public MappedModelConvert() {}
+	
+	public MappedModelConvert(String[] args)
+	{
+		initArgs(args);
+		
+		try
+		{
+			convert(s_modelFile, s_modelDir, s_language);
+		}
+		catch (Exception e) {e.printStackTrace();}
+	}
+	
+	public void convert(String modelFile, String modelDir, String language) throws Exception
+	{
+		ZipFile file = new ZipFile(modelFile);
+		File dir = new File(modelDir);
+		AbstractStatisticalComponent<?> component;
+		String mode;
+		
+		dir.mkdirs();
+		
+		for (ZipEntry entry : Collections.list(file.entries()))
+		{
+			if (entry.isDirectory()) continue;
+			mode = entry.getName();
+			
+			System.out.println("Converting: "+mode);
+			component = (AbstractStatisticalComponent<?>)NLPGetter.getComponent(file, language, mode);
+			component.save(new MappedModelOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(new File(dir, mode)))), dir, mode));
+		}
+		
+		file.close();
+	}
+	
+	static public void main(String[] args)
+	{
+		new MappedModelConvert(args);
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.run;
+
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.kohsuke.args4j.Option;
+
+import com.clearnlp.classification.model.QuantizedModelOutputStream;
+import com.clearnlp.classification.model.QuantizedStringModel;
+import com.clearnlp.component.AbstractStatisticalComponent;
+
+/**
+ * Converts a zipped model file into a zipped model file whose statistical models are quantized (see {@link QuantizedStringModel}).
+ * The converted file can be passed as the {@code model} in the configuration file.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class QuantizedModelConvert extends AbstractModelConvert
+{
+	static public final String PRECISION_INT8    = "int8";
+	static public final String PRECISION_FLOAT16 = "float16";
+	
+	@Option(name="-p", usage="precision ("+PRECISION_INT8+"|"+PRECISION_FLOAT16+"; default: "+PRECISION_INT8+")", required=false, metaVar="<string>")
+	private String s_precision = PRECISION_INT8;
+	
+	private int i_precision;
+	
+	public QuantizedModelConvert() {}
+	
+	public QuantizedModelConvert(String[] args)
+	{
+		initArgs(args);
+		
+		try
+		{
+			i_precision = getPrecision(s_precision);
+			run();
+		}
+		catch (Exception e) {e.printStackTrace();}
+	}
+	
+	/** @return {@link QuantizedStringModel#PRECISION_INT8} or {@link QuantizedStringModel#PRECISION_FLOAT16}. */
+	static public int getPrecision(String precision)
+	{
+		switch (precision)
+		{
+		case PRECISION_INT8   : return QuantizedStringModel.PRECISION_INT8;
+		case PRECISION_FLOAT16: return QuantizedStringModel.PRECISION_FLOAT16;
+		}
+		
+		throw new IllegalArgumentException("The requested precision '"+precision+"' is not supported.");
+	}
+	
+	public void convert(String modelFile, String outputFile, int precision, String language) throws Exception
+	{
+		i_precision = precision;
+		convert(modelFile, outputFile, language);
+	}
+	
+	@Override
+	protected void save(String mode, AbstractStatisticalComponent<?> component, OutputStream out) throws Exception
+	{
+		QuantizedModelOutputStream fout = new QuantizedModelOutputStream(new GZIPOutputStream(out), i_precision);
+		component.save(fout);
+		fout.close();
+		
+		System.out.printf("%s: %d -> %d bytes of weights\n", mode, fout.getWeightBytes(), fout.getQuantizedWeightBytes());
+	}
+	
+	static public void main(String[] args)
+	{
+		new QuantizedModelConvert(args);
+	}
+}
@@ -43,6 +43,7 @@ package com.clearnlp.run;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.Iterator;
 import java.util.List;
 
 import org.kohsuke.args4j.Option;
@@ -113,8 +114,10 @@ public class Tokenizer extends AbstractRun
 		}
 		else
 		{
-			for (List<String> tokens : segmenter.getSentences(fin))
-				print(fout, tokens, outLine);
+			Iterator<List<String>> it = segmenter.getSentenceIterator(fin);
+			
+			while (it.hasNext())
+				print(fout, it.next(), outLine);
 		}
 		
 		fin.close();
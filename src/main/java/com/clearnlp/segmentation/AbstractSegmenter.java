@@ -41,6 +41,7 @@
 package com.clearnlp.segmentation;
 
 import java.io.BufferedReader;
+import java.util.Iterator;
 import java.util.List;
 
 import com.clearnlp.tokenization.AbstractTokenizer;
@@ -64,4 +65,13 @@ abstract public class AbstractSegmenter
 	 * @return a list of sentences, which are arrays of string tokens, from the specific reader.
 	 */
 	abstract public List<List<String>> getSentences(BufferedReader fin);
+	
+	/**
+	 * Returns an iterator of sentences, which are lists of string tokens, from the specific reader.
+	 * Sentences are segmented as the iterator advances so that the whole input is never kept in memory.
+	 * The sentences are the same as the ones returned by {@link #getSentences(BufferedReader)}.
+	 * @param fin the reader to retrieve sentences from.
+	 * @return an iterator of sentences, which are lists of string tokens, from the specific reader.
+	 */
+	abstract public Iterator<List<String>> getSentenceIterator(BufferedReader fin);
 }
@@ -42,10 +42,14 @@ package com.clearnlp.segmentation;
 
 import java.io.BufferedReader;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Pattern;
 
 import com.clearnlp.tokenization.AbstractTokenizer;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
 
 /**
  * @since 1.1.0
@@ -96,6 +100,46 @@ public class EnglishSegmenter extends AbstractSegmenter
 		
 		return sentences;
 	}
+	
+	@Override
+	public Iterator<List<String>> getSentenceIterator(BufferedReader fin)
+	{
+		final PeekingIterator<String> tokens = Iterators.peekingIterator(g_tokenizer.getTokenIterator(fin));
+		
+		return new AbstractIterator<List<String>>()
+		{
+			private int[]   brackets   = new int[R_BRACKETS.length];
+			private boolean isTerminal = false;
+			
+			@Override
+			protected List<String> computeNext()
+			{
+				List<String> sentence = new ArrayList<String>();
+				String curr;
+				
+				while (tokens.hasNext())
+				{
+					curr = tokens.next();
+					sentence.add(curr);
+					countBrackets(curr, brackets);
+					
+					if (isTerminal || P_TERMINAL_PUNCTUATION.matcher(curr).find())
+					{
+						if (tokens.hasNext() && isFollowedByBracket(tokens.peek(), brackets))
+						{
+							isTerminal = true;
+							continue;
+						}
+						
+						isTerminal = false;
+						return sentence;
+					}
+				}
+				
+				return sentence.isEmpty() ? endOfData() : sentence;
+			}
+		};
+	}
 		
 	/** Called by {@link EnglishSegmenter#getSentencesRaw(BufferedReader)}. */
 	private void countBrackets(String str, int[] brackets)
@@ -43,9 +43,12 @@ package com.clearnlp.tokenization;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import com.clearnlp.util.pair.StringBooleanPair;
+import com.google.common.collect.AbstractIterator;
 
 /**
  * @since 1.1.0
@@ -76,6 +79,45 @@ abstract public class AbstractTokenizer
 		return tokens;
 	}
 	
+	/**
+	 * Returns an iterator of tokens in the specific reader.
+	 * Unlike {@link #getTokens(BufferedReader)}, lines are read and tokenized only when the iterator reaches them
+	 * so that only the tokens of the current line are kept in memory.
+	 * @param fin the reader to retrieve tokens from.
+	 * @return an iterator of tokens in the specific reader.
+	 */
+	public Iterator<String> getTokenIterator(final BufferedReader fin)
+	{
+		return new AbstractIterator<String>()
+		{
+			private Iterator<String> i_line = Collections.emptyIterator();
+			
+			@Override
+			protected String computeNext()
+			{
+				String line;
+				
+				try
+				{
+					while (!i_line.hasNext())
+					{
+						if ((line = fin.readLine()) == null)
+							return endOfData();
+						
+						i_line = getTokens(line.trim()).iterator();
+					}
+				}
+				catch (IOException e)
+				{
+					e.printStackTrace();
+					return endOfData();
+				}
+				
+				return i_line.next();
+			}
+		};
+	}
+	
 	/**
 	 * Returns a list of tokens from the specific string.
 	 * @param str the string to retrieve tokens from.
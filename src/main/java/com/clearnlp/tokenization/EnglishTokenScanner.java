@@ -0,0 +1,869 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.tokenization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import com.clearnlp.pattern.PTLink;
+import com.clearnlp.util.pair.IntIntPair;
+import com.clearnlp.util.pair.StringBooleanPair;
+
+/**
+ * Single-pass scanner producing the same tokens as {@link EnglishTokenizer#getTokenListReference(String)}.
+ * Each whitespace-delimited chunk is kept as character spans of the input; characters that the reference
+ * pipeline replaces with placeholders (e.g., {@code _DPPD_0_}) are marked in place instead, so no placeholder
+ * strings are created or recovered.  Dictionary-driven patterns (URLs, hyphens, file extensions, units) still
+ * run as regular expressions, but only on spans that pass cheap character checks.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+class EnglishTokenScanner
+{
+	static private final byte M_NONE       = 0;
+	static private final byte M_D0D        = 1;
+	static private final byte M_HYPHEN     = 7;
+	static private final byte M_AMPERSAND  = 8;
+	static private final byte M_APOSTROPHY = 9;
+	static private final byte M_PERIOD     = 10;
+	
+	static private final String PERIOD_LIKE      = ".?!";
+	static private final String MARKERS          = "-*=~,`'";
+	static private final String D0D_INFIXES      = ",:-/";
+	static private final String PUNCTUATION_PRE  = "()[]{}<>,:;\"";
+	static private final String PUNCTUATION_POST = ".?!`'-/@#$%&|";
+	static private final String[] APOSTROPHY_SUFFIXES = {"s","d","m","z","ll","re","ve","nt"};
+	
+	static private final int C_ALPHA = 0x01;
+	static private final int C_PUNCT = 0x02;
+	static private final int C_ALNUM = 0x04;
+	static private final int C_DIGIT = 0x08;
+	static private final int C_UPPER = 0x10;
+	static private final int C_WORD  = 0x20;
+	static private final int C_INIT  = 0x40;
+	
+	/** Character classes used by the reference patterns, evaluated by jregex so both modes agree. */
+	static private final jregex.Pattern[] P_CHAR_TYPES = {new jregex.Pattern("\\p{Alpha}"), new jregex.Pattern("\\p{Punct}"), new jregex.Pattern("\\p{Alnum}"), new jregex.Pattern("\\d"), new jregex.Pattern("\\p{Upper}"), new jregex.Pattern("\\w")};
+	/** Lazily filled; concurrent initializations of the same entry write the same value. */
+	static private final byte[] CHAR_TYPES = new byte[Character.MAX_VALUE+1];
+	
+	private final EnglishTokenizer t_tokenizer;
+	private final String[]         s_placeholders;
+	private final int              n_abbreviation;
+	private final int              n_compound;
+	
+	public EnglishTokenScanner(EnglishTokenizer tokenizer)
+	{
+		int i, size = tokenizer.A_D0D.length;
+		t_tokenizer = tokenizer;
+		
+		s_placeholders = new String[M_PERIOD+1];
+		for (i=0; i<size; i++) s_placeholders[M_D0D+i] = tokenizer.S_D0D+i+"_";
+		s_placeholders[M_HYPHEN]     = tokenizer.S_HYPHEN;
+		s_placeholders[M_AMPERSAND]  = tokenizer.S_AMPERSAND;
+		s_placeholders[M_APOSTROPHY] = tokenizer.S_APOSTROPHY;
+		s_placeholders[M_PERIOD]     = tokenizer.S_PERIOD;
+		
+		n_abbreviation = getMaxLength(tokenizer.T_ABBREVIATIONS);
+		n_compound     = getMaxLength(tokenizer.L_COMPOUNDS);
+	}
+	
+	private int getMaxLength(Set<String> keys)
+	{
+		int max = 0;
+		if (keys == null) return max;
+		
+		for (String key : keys)
+			max = Math.max(max, key.length());
+		
+		return max;
+	}
+	
+	/** @return the maximum length of compound keys, which is the end offset of their last pieces. */
+	private int getMaxLength(List<IntIntPair[]> compounds)
+	{
+		int max = 0;
+		if (compounds == null) return max;
+		
+		for (IntIntPair[] p : compounds)
+			max = Math.max(max, p[p.length-1].i2);
+		
+		return max;
+	}
+	
+	public List<StringBooleanPair> getTokenList(String str)
+	{
+		Scan scan = new Scan(t_tokenizer.normalizeNonUTF8(str).toCharArray());
+		List<StringBooleanPair> tokens = new ArrayList<StringBooleanPair>();
+		char[] cs = scan.cs;
+		int bIdx, eIdx = 0, len = cs.length;
+		
+		while (eIdx < len)
+		{
+			while (eIdx < len &&  isWhiteSpace(cs[eIdx])) eIdx++;
+			bIdx = eIdx;
+			while (eIdx < len && !isWhiteSpace(cs[eIdx])) eIdx++;
+			if (bIdx < eIdx) scan.tokenize(bIdx, eIdx, tokens);
+		}
+		
+		t_tokenizer.handleSingleToken(tokens);
+		return tokens;
+	}
+	
+	/** @return {@code true} if the specific character matches {@code \s} in {@link java.util.regex.Pattern}. */
+	static private boolean isWhiteSpace(char c)
+	{
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+	
+	static private boolean isType(char c, int type)
+	{
+		int t = CHAR_TYPES[c];
+		
+		if (t == 0)
+		{
+			String s = String.valueOf(c);
+			int i, size = P_CHAR_TYPES.length;
+			t = C_INIT;
+			
+			for (i=0; i<size; i++)
+				if (P_CHAR_TYPES[i].matcher(s).matches()) t |= 1 << i;
+			
+			CHAR_TYPES[c] = (byte)t;
+		}
+		
+		return (t & type) != 0;
+	}
+	
+	/** @return {@code true} if the specific character is an ASCII letter or digit ({@code \p{Alnum}} in {@link java.util.regex.Pattern}). */
+	static private boolean isASCIIAlnum(char c)
+	{
+		return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z') || ('0' <= c && c <= '9');
+	}
+	
+	/** Character spans of a whitespace-delimited chunk; {@code b_protects[i]} corresponds to {@link StringBooleanPair#b}. */
+	static private class Spans
+	{
+		int[]     i_begins   = new int[8];
+		int[]     i_ends     = new int[8];
+		boolean[] b_protects = new boolean[8];
+		int       n_size;
+		
+		void add(int bIdx, int eIdx, boolean protect)
+		{
+			if (bIdx >= eIdx) return;
+			
+			if (n_size == i_begins.length)
+			{
+				int size = n_size * 2;
+				i_begins   = Arrays.copyOf(i_begins  , size);
+				i_ends     = Arrays.copyOf(i_ends    , size);
+				b_protects = Arrays.copyOf(b_protects, size);
+			}
+			
+			i_begins  [n_size] = bIdx;
+			i_ends    [n_size] = eIdx;
+			b_protects[n_size] = protect;
+			n_size++;
+		}
+		
+		void remove(int index)
+		{
+			int len = n_size - index - 1;
+			System.arraycopy(i_begins  , index+1, i_begins  , index, len);
+			System.arraycopy(i_ends    , index+1, i_ends    , index, len);
+			System.arraycopy(b_protects, index+1, b_protects, index, len);
+			n_size--;
+		}
+		
+		/**
+		 * Emulates {@link String#trim()} applied to the replaced string in {@link EnglishTokenizer#tokenizePatterns(List, Replacer)}
+		 * for the spans added since {@code from}; protected spans always begin and end with non-trimmable characters.
+		 */
+		void trim(char[] cs, int from)
+		{
+			int i;
+			
+			while (n_size > from && !b_protects[from])
+			{
+				while (i_begins[from] < i_ends[from] && cs[i_begins[from]] <= ' ') i_begins[from]++;
+				if (i_begins[from] < i_ends[from]) break;
+				remove(from);
+			}
+			
+			while (n_size > from && !b_protects[i = n_size-1])
+			{
+				while (i_begins[i] < i_ends[i] && cs[i_ends[i]-1] <= ' ') i_ends[i]--;
+				if (i_begins[i] < i_ends[i]) break;
+				n_size--;
+			}
+		}
+	}
+	
+	/** Scanning state of one input string. */
+	private class Scan
+	{
+		final char[] cs;
+		/** Placeholder marks of glued characters (e.g., {@link EnglishTokenScanner#M_HYPHEN}). */
+		final byte[] marks;
+		Spans s_curr = new Spans();
+		Spans s_next = new Spans();
+		
+		Scan(char[] cs)
+		{
+			this.cs = cs;
+			marks   = new byte[cs.length];
+		}
+		
+		void tokenize(int bIdx, int eIdx, List<StringBooleanPair> tokens)
+		{
+			EnglishTokenizer t = t_tokenizer;
+			int i;
+			
+			s_curr.n_size = 0;
+			s_curr.add(bIdx, eIdx, t.T_EMOTICONS.contains(new String(cs, bIdx, eIdx-bIdx)));
+			
+			splitURLs();
+			splitAbbreviations();
+			splitRuns(PERIOD_LIKE, false);
+			splitRuns(MARKERS, true);
+			splitUSDollars();
+			glueD0Ds();
+			glueHyphens();
+			splitCharacters(PUNCTUATION_PRE);
+			protect();
+			splitCompounds();
+			splitApostrophies();
+			if (t.b_userId) glueInfixes('.', C_ALNUM, M_PERIOD);
+			glueInfixes('&', C_UPPER, M_AMPERSAND);
+			glueWAWs();
+			for (i=0; i<t.P_UNIT.length; i++) splitUnits(t.P_UNIT[i]);
+			splitCharacters(PUNCTUATION_POST);
+			
+			Spans s = s_curr;
+			
+			for (i=0; i<s.n_size; i++)
+				tokens.add(new StringBooleanPair(new String(cs, s.i_begins[i], s.i_ends[i]-s.i_begins[i]), s.b_protects[i]));
+		}
+		
+		/** Swaps the current spans with the next spans. */
+		private void swap()
+		{
+			Spans tmp = s_curr;
+			s_curr = s_next;
+			s_next = tmp;
+			s_next.n_size = 0;
+		}
+		
+		private boolean isType(int index, int type)
+		{
+			return marks[index] == M_NONE && EnglishTokenScanner.isType(cs[index], type);
+		}
+		
+		private boolean isRaw(int index, char c)
+		{
+			return cs[index] == c && marks[index] == M_NONE;
+		}
+		
+		private boolean hasMarks(int bIdx, int eIdx)
+		{
+			for (int i=bIdx; i<eIdx; i++)
+				if (marks[i] != M_NONE) return true;
+			
+			return false;
+		}
+		
+		/** @return the string that the reference pipeline sees for the specific span (with placeholders). */
+		private String getView(int bIdx, int eIdx)
+		{
+			if (!hasMarks(bIdx, eIdx)) return new String(cs, bIdx, eIdx-bIdx);
+			StringBuilder build = new StringBuilder();
+			
+			for (int i=bIdx; i<eIdx; i++)
+			{
+				if (marks[i] == M_NONE)	build.append(cs[i]);
+				else					build.append(s_placeholders[marks[i]]);
+			}
+			
+			return build.toString();
+		}
+		
+		/** @return the index in {@link #cs} of the specific offset in {@link #getView(int, int)}, which must not fall inside a placeholder. */
+		private int toIndex(int bIdx, int offset)
+		{
+			int i, v;
+			
+			for (i=bIdx,v=0; v<offset; i++)
+				v += (marks[i] == M_NONE) ? 1 : s_placeholders[marks[i]].length();
+			
+			return i;
+		}
+		
+		/** {@link EnglishTokenizer#R_URL}. */
+		private void splitURLs()
+		{
+			Spans s = s_curr, n = s_next;
+			int i, bIdx, eIdx, last, from;
+			jregex.Matcher m;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				if (s.b_protects[i])
+				{
+					n.add(bIdx, eIdx, true);
+					continue;
+				}
+				
+				from = n.n_size;
+				
+				if (mayContainURL(bIdx, eIdx))
+				{
+					m = PTLink.URL_SPAN.matcher(new String(cs, bIdx, eIdx-bIdx));
+					
+					for (last=0; m.find(); last=m.end())
+					{
+						n.add(bIdx+last, bIdx+m.start(), false);
+						n.add(bIdx+m.start(), bIdx+m.end(), true);
+					}
+					
+					n.add(bIdx+last, eIdx, false);
+				}
+				else
+					n.add(bIdx, eIdx, false);
+				
+				n.trim(cs, from);
+			}
+			
+			swap();
+		}
+		
+		/** Every alternative of {@link PTLink#URL_SPAN} requires either ':', '@', '.', or "www". */
+		private boolean mayContainURL(int bIdx, int eIdx)
+		{
+			char c;
+			
+			for (int i=bIdx; i<eIdx; i++)
+			{
+				c = cs[i];
+				
+				if (c == ':' || c == '@' || c == '.' || (c == 'w' && i+2 < eIdx && cs[i+1] == 'w' && cs[i+2] == 'w'))
+					return true;
+			}
+			
+			return false;
+		}
+		
+		/** {@link EnglishTokenizer#R_ABBREVIATION}. */
+		private void splitAbbreviations()
+		{
+			Spans s = s_curr, n = s_next;
+			int i, j, bIdx, eIdx, from;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				if (s.b_protects[i])
+				{
+					n.add(bIdx, eIdx, true);
+					continue;
+				}
+				
+				for (j=bIdx; j+1<eIdx && cs[j+1] == '.' && EnglishTokenScanner.isType(cs[j], C_ALPHA); j+=2);
+				from = n.n_size;
+				
+				if (j > bIdx && isPunct(j, eIdx))
+				{
+					n.add(bIdx, j, true);
+					n.add(j, eIdx, false);
+				}
+				else
+					n.add(bIdx, eIdx, false);
+				
+				n.trim(cs, from);
+			}
+			
+			swap();
+		}
+		
+		private boolean isPunct(int bIdx, int eIdx)
+		{
+			for (int i=bIdx; i<eIdx; i++)
+				if (!EnglishTokenScanner.isType(cs[i], C_PUNCT)) return false;
+			
+			return true;
+		}
+		
+		/**
+		 * {@link EnglishTokenizer#R_PERIOD_LIKE} and {@link EnglishTokenizer#R_MARKER}.
+		 * @param same if {@code true}, each run consists of the same character.
+		 */
+		private void splitRuns(String chars, boolean same)
+		{
+			Spans s = s_curr, n = s_next;
+			int i, j, k, bIdx, eIdx, last, from;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				if (s.b_protects[i])
+				{
+					n.add(bIdx, eIdx, true);
+					continue;
+				}
+				
+				from = n.n_size;
+				
+				for (j=bIdx,last=bIdx; j<eIdx; j=k)
+				{
+					k = j + 1;
+					if (chars.indexOf(cs[j]) < 0) continue;
+					while (k < eIdx && (same ? cs[k] == cs[j] : chars.indexOf(cs[k]) >= 0)) k++;
+					
+					if (k - j > 1)
+					{
+						n.add(last, j, false);
+						n.add(j, k, true);
+						last = k;
+					}
+				}
+				
+				n.add(last, eIdx, false);
+				n.trim(cs, from);
+			}
+			
+			swap();
+		}
+		
+		/** {@link EnglishTokenizer#R_USDOLLAR}. */
+		private void splitUSDollars()
+		{
+			Spans s = s_curr, n = s_next;
+			int i, j, bIdx, eIdx, from;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				if (s.b_protects[i])
+				{
+					n.add(bIdx, eIdx, true);
+					continue;
+				}
+				
+				from = n.n_size;
+				
+				// '^' also matches where the previous match ends, so consecutive "US$"s are all split
+				for (j=bIdx; eIdx - j >= 3 && cs[j] == 'U' && cs[j+1] == 'S' && cs[j+2] == '$'; j+=3)
+					n.add(j, j+3, true);
+				
+				n.add(j, eIdx, false);
+				n.trim(cs, from);
+			}
+			
+			swap();
+		}
+		
+		/**
+		 * {@link EnglishTokenizer#R_D0D}.
+		 * Each pass emulates the regular expression scan: a match consumes its left and right characters,
+		 * so the next match cannot start before {@code from}, and '^' matches at {@code from} as well as at the beginning.
+		 */
+		private void glueD0Ds()
+		{
+			Spans s = s_curr;
+			int i, j, k, bIdx, eIdx, from;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				if (s.b_protects[i]) continue;
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				// (^|\p{Alnum})(\.)(\d)
+				for (j=bIdx,from=bIdx; j+1<eIdx; j++)
+				{
+					if (isRaw(j, '.') && isType(j+1, C_DIGIT) && (j == from || (j-1 >= from && isType(j-1, C_ALNUM))))
+					{
+						marks[j] = M_D0D;
+						from = j + 2;
+					}
+				}
+				
+				// (\d)(,|:|-|\/)(\d)
+				for (j=bIdx+1,from=bIdx; j+1<eIdx; j++)
+				{
+					if (marks[j] == M_NONE && (k = D0D_INFIXES.indexOf(cs[j])) >= 0 && j-1 >= from && isType(j-1, C_DIGIT) && isType(j+1, C_DIGIT))
+					{
+						marks[j] = (byte)(M_D0D + k + 1);
+						from = j + 2;
+					}
+				}
+				
+				// (^)(\')(\d)
+				for (j=bIdx; j+1<eIdx && isRaw(j, '\'') && isType(j+1, C_DIGIT); j+=2)
+					marks[j] = M_D0D + 5;
+				
+				// (\d)(\')(s)
+				for (j=bIdx+1,from=bIdx; j+1<eIdx; j++)
+				{
+					if (isRaw(j, '\'') && isRaw(j+1, 's') && j-1 >= from && isType(j-1, C_DIGIT))
+					{
+						marks[j] = M_D0D + 5;
+						from = j + 2;
+					}
+				}
+			}
+		}
+		
+		/** {@link EnglishTokenizer#replaceHyphens(List)}. */
+		private void glueHyphens()
+		{
+			Spans s = s_curr;
+			int i, j, bIdx, eIdx;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				if (s.b_protects[i]) continue;
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				for (j=bIdx; j<eIdx; j++)
+					if (isRaw(j, '-')) break;
+				
+				if (j < eIdx && t_tokenizer.P_HYPHEN_LIST.matcher(getView(bIdx, eIdx).toLowerCase()).find())
+				{
+					for (; j<eIdx; j++)
+						if (isRaw(j, '-')) marks[j] = M_HYPHEN;
+				}
+			}
+		}
+		
+		/** {@link EnglishTokenizer#R_PUNCTUATION_PRE} and {@link EnglishTokenizer#R_PUNCTUATION_POST}. */
+		private void splitCharacters(String chars)
+		{
+			Spans s = s_curr, n = s_next;
+			int i, j, bIdx, eIdx, last, from;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				if (s.b_protects[i])
+				{
+					n.add(bIdx, eIdx, true);
+					continue;
+				}
+				
+				from = n.n_size;
+				
+				for (j=bIdx,last=bIdx; j<eIdx; j++)
+				{
+					if (marks[j] == M_NONE && chars.indexOf(cs[j]) >= 0)
+					{
+						n.add(last, j, false);
+						n.add(j, j+1, true);
+						last = j + 1;
+					}
+				}
+				
+				n.add(last, eIdx, false);
+				n.trim(cs, from);
+			}
+			
+			swap();
+		}
+		
+		/** {@link EnglishTokenizer#protectAbbreviations(List)}, {@link EnglishTokenizer#protectFilenames(List)}, and {@link EnglishTokenizer#protectTwits(List)}. */
+		private void protect()
+		{
+			Spans s = s_curr;
+			int i, bIdx, eIdx;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				if (s.b_protects[i]) continue;
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				if (isAbbreviation(bIdx, eIdx) || isFilename(bIdx, eIdx) || (t_tokenizer.b_twit && isTwit(bIdx, eIdx)))
+					s.b_protects[i] = true;
+			}
+		}
+		
+		private boolean isAbbreviation(int bIdx, int eIdx)
+		{
+			int len = eIdx - bIdx;
+			boolean pattern = len > 1 && cs[bIdx+1] == '.' && !hasMarks(bIdx, eIdx);
+			if (len > n_abbreviation && !pattern) return false;
+			
+			String lower = getView(bIdx, eIdx).toLowerCase();
+			return t_tokenizer.T_ABBREVIATIONS.contains(lower) || (pattern && t_tokenizer.P_ABBREVIATION.matcher(lower).find());
+		}
+		
+		/** Extensions in {@link PTLink#FILE_EXTS} consist of 2 to 7 ASCII letters or digits following the last period. */
+		private boolean isFilename(int bIdx, int eIdx)
+		{
+			int i;
+			
+			for (i=eIdx-1; i>bIdx; i--)
+			{
+				if (isRaw(i, '.')) break;
+				if (marks[i] != M_NONE || !isASCIIAlnum(cs[i])) return false;
+			}
+			
+			if (i == bIdx || eIdx-i-1 < 2 || eIdx-i-1 > 7) return false;
+			return PTLink.FILE_EXTS.matcher(getView(bIdx, eIdx).toLowerCase()).find();
+		}
+		
+		private boolean isTwit(int bIdx, int eIdx)
+		{
+			char c = cs[bIdx];
+			if (c != '@' && c != '#') return false;
+			
+			for (int i=bIdx+1; i<eIdx; i++)
+				if (marks[i] != M_NONE || isASCIIAlnum(cs[i])) return true;
+			
+			return false;
+		}
+		
+		/** {@link EnglishTokenizer#tokenizeCompounds(List)}. */
+		private void splitCompounds()
+		{
+			Spans s = s_curr, n = s_next;
+			int i, idx, bIdx, eIdx;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				if (s.b_protects[i] || eIdx-bIdx > n_compound || hasMarks(bIdx, eIdx) || (idx = t_tokenizer.M_COMPOUNDS.get(new String(cs, bIdx, eIdx-bIdx).toLowerCase()) - 1) < 0)
+					n.add(bIdx, eIdx, s.b_protects[i]);
+				else
+				{
+					for (IntIntPair p : t_tokenizer.L_COMPOUNDS.get(idx))
+						n.add(bIdx+p.i1, bIdx+p.i2, true);
+				}
+			}
+			
+			swap();
+		}
+		
+		/** {@link EnglishTokenizer#R_APOSTROPHY}: {@code (?i)((\')(s|d|m|z|ll|re|ve|nt)|n(\')t)$}. */
+		private void splitApostrophies()
+		{
+			Spans s = s_curr, n = s_next;
+			int i, j, bIdx, eIdx, from;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				if (s.b_protects[i])
+				{
+					n.add(bIdx, eIdx, true);
+					continue;
+				}
+				
+				for (j=Math.max(bIdx, eIdx-3); j<eIdx; j++)
+					if (isApostrophy(j, eIdx)) break;
+				
+				from = n.n_size;
+				n.add(bIdx, j, false);
+				n.add(j, eIdx, true);
+				n.trim(cs, from);
+			}
+			
+			swap();
+		}
+		
+		private boolean isApostrophy(int bIdx, int eIdx)
+		{
+			if (isRaw(bIdx, '\''))
+			{
+				for (String suffix : APOSTROPHY_SUFFIXES)
+					if (equalsIgnoreCase(bIdx+1, eIdx, suffix)) return true;
+				
+				return false;
+			}
+			
+			return eIdx-bIdx == 3 && equalsIgnoreCase(bIdx, bIdx+1, "n") && isRaw(bIdx+1, '\'') && equalsIgnoreCase(bIdx+2, eIdx, "t");
+		}
+		
+		/** @param s lowercase ASCII letters. */
+		private boolean equalsIgnoreCase(int bIdx, int eIdx, String s)
+		{
+			if (eIdx - bIdx != s.length()) return false;
+			char c, d;
+			
+			for (int i=bIdx; i<eIdx; i++)
+			{
+				c = cs[i];
+				d = s.charAt(i-bIdx);
+				
+				if (marks[i] != M_NONE || (c != d && c != d - ('a' - 'A')))
+					return false;
+			}
+			
+			return true;
+		}
+		
+		/** {@link EnglishTokenizer#R_PERIOD} and {@link EnglishTokenizer#R_AMPERSAND}: {@code (type)(infix)(type)}. */
+		private void glueInfixes(char infix, int type, byte mark)
+		{
+			Spans s = s_curr;
+			int i, j, bIdx, eIdx, from;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				if (s.b_protects[i]) continue;
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				for (j=bIdx+1,from=bIdx; j+1<eIdx; j++)
+				{
+					if (isRaw(j, infix) && j-1 >= from && isType(j-1, type) && isType(j+1, type))
+					{
+						marks[j] = mark;
+						from = j + 2;
+					}
+				}
+			}
+		}
+		
+		/**
+		 * {@link EnglishTokenizer#R_WAW}: {@code (\w)(\')(\w)}.
+		 * Placeholders begin and end with '_', so glued characters match {@code \w};
+		 * a glued right character only consumes the first character of its placeholder.
+		 */
+		private void glueWAWs()
+		{
+			Spans s = s_curr;
+			int i, j, bIdx, eIdx, from;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				if (s.b_protects[i]) continue;
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				for (j=bIdx+1,from=bIdx; j+1<eIdx; j++)
+				{
+					if (isRaw(j, '\'') && j-1 >= from && isWord(j-1) && isWord(j+1))
+					{
+						marks[j] = M_APOSTROPHY;
+						from = (marks[j+1] == M_NONE) ? j + 2 : j + 1;
+					}
+				}
+			}
+		}
+		
+		private boolean isWord(int index)
+		{
+			return marks[index] != M_NONE || EnglishTokenScanner.isType(cs[index], C_WORD);
+		}
+		
+		/**
+		 * {@link EnglishTokenizer#R_UNIT}: every pattern requires a digit, and splits right before its second group.
+		 * The replacer lets '^' match where the previous match ends, so the rest of the token is matched again after each match.
+		 */
+		private void splitUnits(jregex.Pattern unit)
+		{
+			Spans s = s_curr, n = s_next;
+			int i, bIdx, eIdx, from, off, last, mid;
+			jregex.Matcher m;
+			String view;
+			
+			for (i=0; i<s.n_size; i++)
+			{
+				bIdx = s.i_begins[i];
+				eIdx = s.i_ends[i];
+				
+				if (s.b_protects[i])
+				{
+					n.add(bIdx, eIdx, true);
+					continue;
+				}
+				
+				from = n.n_size;
+				
+				last = bIdx;
+				
+				if (hasDigit(bIdx, eIdx))
+				{
+					view = getView(bIdx, eIdx);
+					
+					for (off=0; off<view.length() && (m = unit.matcher(view.substring(off))).find(); off+=m.end())
+					{
+						mid = toIndex(bIdx, off + m.start(2));
+						n.add(last, mid, false);
+						last = mid;
+					}
+				}
+				
+				n.add(last, eIdx, false);
+				n.trim(cs, from);
+			}
+			
+			swap();
+		}
+		
+		private boolean hasDigit(int bIdx, int eIdx)
+		{
+			for (int i=bIdx; i<eIdx; i++)
+				if (isType(i, C_DIGIT)) return true;
+			
+			return false;
+		}
+	}
+}
@@ -109,6 +109,7 @@ public class EnglishTokenizer extends AbstractTokenizer
 	protected Replacer   R_PUNCTUATION_POST;
 	protected Replacer[] R_D0D;
 	protected Replacer[] R_UNIT;
+	protected jregex.Pattern[] P_UNIT;
 	
 	protected List<Pair<String,Pattern>>	L_NON_UTF8;
 	protected Set<String>					T_EMOTICONS;
@@ -123,25 +124,72 @@ public class EnglishTokenizer extends AbstractTokenizer
 	protected Pattern						P_RECOVER_HYPHEN;
 	protected Pattern						P_RECOVER_APOSTROPHY;
 	protected Pattern						P_RECOVER_AMPERSAND;
+	/** {@code true} if the corresponding pattern in {@link #L_NON_UTF8} matches only non-ASCII characters. */
+	protected boolean[]						B_NON_ASCII;
+	
+	protected EnglishTokenScanner s_scanner;
+	protected boolean             b_reference = false;
 	
 	public EnglishTokenizer()
 	{
 		init();
 		initDictionaries();
+		s_scanner = new EnglishTokenScanner(this);
 	}
 	
 	public EnglishTokenizer(ZipFile file)
 	{
 		init();
 		initDictionaries(file);
+		s_scanner = new EnglishTokenScanner(this);
 	}
 	
 	public EnglishTokenizer(InputStream stream)
 	{
 		init();
 		initDictionaries(new ZipInputStream(stream));
+		s_scanner = new EnglishTokenScanner(this);
 	}
-	
+
+	/**
+	 * Constructs a tokenizer that shares the patterns and dictionaries of the specific tokenizer without reloading them.
+	 * The new tokenizer has its own scanner and settings (e.g., {@link #setReferenceMode(boolean)}), so it can be used by another thread.
+	 */
+	public EnglishTokenizer(EnglishTokenizer tokenizer)
+	{
+		R_URL                = tokenizer.R_URL;
+		R_ABBREVIATION       = tokenizer.R_ABBREVIATION;
+		R_PERIOD_LIKE        = tokenizer.R_PERIOD_LIKE;
+		R_PERIOD             = tokenizer.R_PERIOD;
+		R_MARKER             = tokenizer.R_MARKER;
+		R_APOSTROPHY         = tokenizer.R_APOSTROPHY;
+		R_USDOLLAR           = tokenizer.R_USDOLLAR;
+		R_AMPERSAND          = tokenizer.R_AMPERSAND;
+		R_WAW                = tokenizer.R_WAW;
+		R_PUNCTUATION_PRE    = tokenizer.R_PUNCTUATION_PRE;
+		R_PUNCTUATION_POST   = tokenizer.R_PUNCTUATION_POST;
+		R_D0D                = tokenizer.R_D0D;
+		R_UNIT               = tokenizer.R_UNIT;
+		P_UNIT               = tokenizer.P_UNIT;
+
+		L_NON_UTF8           = tokenizer.L_NON_UTF8;
+		T_EMOTICONS          = tokenizer.T_EMOTICONS;
+		T_ABBREVIATIONS      = tokenizer.T_ABBREVIATIONS;
+		P_HYPHEN_LIST        = tokenizer.P_HYPHEN_LIST;
+		M_D0D                = tokenizer.M_D0D;
+		M_COMPOUNDS          = tokenizer.M_COMPOUNDS;
+		L_COMPOUNDS          = tokenizer.L_COMPOUNDS;
+		P_RECOVER_D0D        = tokenizer.P_RECOVER_D0D;
+		P_RECOVER_DOT        = tokenizer.P_RECOVER_DOT;
+		P_RECOVER_PERIOD     = tokenizer.P_RECOVER_PERIOD;
+		P_RECOVER_HYPHEN     = tokenizer.P_RECOVER_HYPHEN;
+		P_RECOVER_APOSTROPHY = tokenizer.P_RECOVER_APOSTROPHY;
+		P_RECOVER_AMPERSAND  = tokenizer.P_RECOVER_AMPERSAND;
+		B_NON_ASCII          = tokenizer.B_NON_ASCII;
+
+		s_scanner = new EnglishTokenScanner(this);
+	}
+
 	private void init()
 	{
 		initReplacers();
@@ -149,7 +197,27 @@ public class EnglishTokenizer extends AbstractTokenizer
 		initPatterns();
 	}
 	
+	/**
+	 * If {@code true}, {@link #getTokenList(String)} runs the regular expression pipeline in {@link #getTokenListReference(String)}
+	 * instead of the single-pass scanner; both give the same tokens.
+	 */
+	public void setReferenceMode(boolean reference)
+	{
+		b_reference = reference;
+	}
+	
+	public boolean isReferenceMode()
+	{
+		return b_reference;
+	}
+	
 	public List<StringBooleanPair> getTokenList(String str)
+	{
+		return b_reference ? getTokenListReference(str) : s_scanner.getTokenList(str);
+	}
+	
+	/** Tokenizes the specific string by applying each pattern to every token, using placeholder strings to protect characters. */
+	protected List<StringBooleanPair> getTokenListReference(String str)
 	{
 		str = normalizeNonUTF8(str);
 		List<StringBooleanPair> lTokens = tokenizeWhiteSpaces(str);
@@ -186,7 +254,7 @@ public class EnglishTokenizer extends AbstractTokenizer
 		return lTokens;
 	}
 	
-	private void handleSingleToken(List<StringBooleanPair> lTokens)
+	protected void handleSingleToken(List<StringBooleanPair> lTokens)
 	{
 		if (lTokens.size() == 1)
 		{
@@ -396,12 +464,18 @@ public class EnglishTokenizer extends AbstractTokenizer
 		String currencies  = fin.readLine().trim();
 		String units       = fin.readLine().trim();
 		
-		R_UNIT = new Replacer[4];
+		int i, size = 4;
+		
+		P_UNIT = new jregex.Pattern[size];
+		R_UNIT = new Replacer[size];
 		
-		R_UNIT[0] = new jregex.Pattern("^(?i)(\\p{Punct}*"+signs+")(\\d)").replacer(new SubstitutionTwo());
-		R_UNIT[1] = new jregex.Pattern("^(?i)(\\p{Punct}*"+currencies+")(\\d)").replacer(new SubstitutionTwo());
-		R_UNIT[2] = new jregex.Pattern("(?i)(\\d)("+currencies+"\\p{Punct}*)$").replacer(new SubstitutionTwo());
-		R_UNIT[3] = new jregex.Pattern("(?i)(\\d)("+units+"\\p{Punct}*)$").replacer(new SubstitutionTwo());
+		P_UNIT[0] = new jregex.Pattern("^(?i)(\\p{Punct}*"+signs+")(\\d)");
+		P_UNIT[1] = new jregex.Pattern("^(?i)(\\p{Punct}*"+currencies+")(\\d)");
+		P_UNIT[2] = new jregex.Pattern("(?i)(\\d)("+currencies+"\\p{Punct}*)$");
+		P_UNIT[3] = new jregex.Pattern("(?i)(\\d)("+units+"\\p{Punct}*)$");
+		
+		for (i=0; i<size; i++)
+			R_UNIT[i] = P_UNIT[i].replacer(new SubstitutionTwo());
 	}
 	
 	private void initDictionaryNonUTF8(InputStream in) throws Exception
@@ -418,16 +492,48 @@ public class EnglishTokenizer extends AbstractTokenizer
 			t = tab.split(line);
 			L_NON_UTF8.add(new Pair<String,Pattern>(t[1], Pattern.compile(t[0])));
 		}
+		
+		int i, size = L_NON_UTF8.size();
+		B_NON_ASCII = new boolean[size];
+		
+		for (i=0; i<size; i++)
+			B_NON_ASCII[i] = !containsASCII(L_NON_UTF8.get(i).o2.pattern());
 	}
 	
+	/** Patterns matching only non-ASCII characters are skipped for ASCII strings. */
 	protected String normalizeNonUTF8(String str)
 	{
-		for (Pair<String,Pattern> p : L_NON_UTF8)
+		boolean ascii = !containsNonASCII(str);
+		int i, size = L_NON_UTF8.size();
+		Pair<String,Pattern> p;
+		
+		for (i=0; i<size; i++)
+		{
+			if (ascii && B_NON_ASCII[i]) continue;
+			p = L_NON_UTF8.get(i);
 			str = p.o2.matcher(str).replaceAll(p.o1);
+			if (ascii && containsNonASCII(p.o1)) ascii = !containsNonASCII(str);
+		}
 		
 		return str;
 	}
 	
+	private boolean containsASCII(String str)
+	{
+		for (int i=str.length()-1; i>=0; i--)
+			if (str.charAt(i) < 0x80) return true;
+		
+		return false;
+	}
+	
+	private boolean containsNonASCII(String str)
+	{
+		for (int i=str.length()-1; i>=0; i--)
+			if (str.charAt(i) >= 0x80) return true;
+		
+		return false;
+	}
+	
 	/** Called by {@link EnglishTokenizer#getTokenList(String)}. */
 	protected List<StringBooleanPair> tokenizeWhiteSpaces(String str)
 	{
@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Appendable that encodes characters in UTF-8 directly into a byte buffer.
+ * Unpaired surrogates are encoded as {@code '?'} as in {@link String#getBytes(String)}.
+ * @since 2.0.3
+ * @author Jinho D. Choi ({@code jdchoi77@gmail.com})
+ */
+public class UTF8Sink implements Appendable
+{
+	private ByteBuffer b_out;
+	private boolean    b_growable;
+	/** The position of the first encoded byte in {@link #b_out}. */
+	private int        n_start;
+	/** The pending high surrogate ({@code 0} if none). */
+	private char       c_high;
+	
+	/** Constructs a sink backed by a heap buffer that grows as needed. */
+	public UTF8Sink(int initialCapacity)
+	{
+		b_out      = ByteBuffer.allocate(initialCapacity);
+		b_growable = true;
+	}
+	
+	/**
+	 * Constructs a sink writing into the specific buffer from its position.
+	 * Appending more bytes than its remaining space throws {@link BufferOverflowException}.
+	 */
+	public UTF8Sink(ByteBuffer buffer)
+	{
+		b_out      = buffer;
+		b_growable = false;
+		n_start    = buffer.position();
+	}
+	
+	/** @return the buffer whose position is the end of the encoded bytes. */
+	public ByteBuffer getBuffer()
+	{
+		return b_out;
+	}
+	
+	/** @return the number of encoded bytes. */
+	public int length()
+	{
+		return b_out.position() - n_start;
+	}
+	
+	/** Removes all encoded bytes. */
+	public void clear()
+	{
+		b_out.position(n_start);
+		c_high = 0;
+	}
+	
+	@Override
+	public UTF8Sink append(CharSequence s)
+	{
+		if (s == null)	s = "null";
+		return append(s, 0, s.length());
+	}
+	
+	@Override
+	public UTF8Sink append(CharSequence s, int beginIndex, int endIndex)
+	{
+		if (s == null)	s = "null";
+		ensureCapacity(endIndex - beginIndex);
+		char c;
+		
+		// the reservation above assumes one byte per character; multi-byte characters may use it up
+		for (; beginIndex<endIndex; beginIndex++)
+		{
+			c = s.charAt(beginIndex);
+			
+			if (c < 0x80 && c_high == 0 && b_out.hasRemaining())
+				b_out.put((byte)c);
+			else
+				put(c);
+		}
+		
+		return this;
+	}
+	
+	@Override
+	public UTF8Sink append(char c)
+	{
+		if (c < 0x80 && c_high == 0)
+		{
+			ensureCapacity(1);
+			b_out.put((byte)c);
+		}
+		else
+			put(c);
+		
+		return this;
+	}
+	
+	/** Appends the decimal representation of the specific integer. */
+	public UTF8Sink append(int n)
+	{
+		if (n == Integer.MIN_VALUE)
+			return append(Integer.toString(n));
+		
+		if (n < 0)
+		{
+			append('-');
+			n = -n;
+		}
+		
+		int i, length = 1;
+		for (i=n; i>=10; i/=10) length++;
+		
+		ensureCapacity(length);
+		int end = b_out.position() + length;
+		
+		for (i=end-1; i>=end-length; i--,n/=10)
+			b_out.put(i, (byte)('0' + n % 10));
+		
+		b_out.position(end);
+		return this;
+	}
+	
+	private void put(char c)
+	{
+		ensureCapacity(4);
+		
+		if (c_high != 0)
+		{
+			if (Character.isLowSurrogate(c))
+			{
+				int cp = Character.toCodePoint(c_high, c);
+				c_high = 0;
+				
+				b_out.put((byte)(0xf0 |  (cp >> 18)));
+				b_out.put((byte)(0x80 | ((cp >> 12) & 0x3f)));
+				b_out.put((byte)(0x80 | ((cp >>  6) & 0x3f)));
+				b_out.put((byte)(0x80 |  (cp        & 0x3f)));
+				return;
+			}
+			
+			c_high = 0;
+			b_out.put((byte)'?');
+		}
+		
+		if (c < 0x80)
+			b_out.put((byte)c);
+		else if (c < 0x800)
+		{
+			b_out.put((byte)(0xc0 |  (c >> 6)));
+			b_out.put((byte)(0x80 |  (c & 0x3f)));
+		}
+		else if (Character.isHighSurrogate(c))
+			c_high = c;
+		else if (Character.isLowSurrogate(c))
+			b_out.put((byte)'?');
+		else
+		{
+			b_out.put((byte)(0xe0 |  (c >> 12)));
+			b_out.put((byte)(0x80 | ((c >>  6) & 0x3f)));
+			b_out.put((byte)(0x80 |  (c        & 0x3f)));
+		}
+	}
+	
+	/** Makes room for the specific number of bytes plus a pending surrogate. */
+	private void ensureCapacity(int size)
+	{
+		if (c_high != 0)	size++;
+		if (b_out.remaining() >= size)	return;
+		
+		if (!b_growable)
+			throw new BufferOverflowException();
+		
+		ByteBuffer buffer = ByteBuffer.allocate(Math.max(2 * b_out.capacity(), b_out.position() + size));
+		b_out.flip();
+		buffer.put(b_out);
+		b_out = buffer;
+	}
+	
+	/** Writes the encoded bytes to the specific stream; a pending high surrogate is written as {@code '?'}. */
+	public void writeTo(OutputStream out) throws IOException
+	{
+		flushSurrogate();
+		
+		if (b_out.hasArray())
+			out.write(b_out.array(), b_out.arrayOffset() + n_start, length());
+		else
+		{
+			ByteBuffer buffer = getEncodedBytes();
+			byte[] bytes = new byte[Math.min(buffer.remaining(), 8192)];
+			int size;
+			
+			while ((size = Math.min(buffer.remaining(), bytes.length)) > 0)
+			{
+				buffer.get(bytes, 0, size);
+				out.write(bytes, 0, size);
+			}
+		}
+	}
+	
+	/** Writes the encoded bytes to the specific channel; a pending high surrogate is written as {@code '?'}. */
+	public void writeTo(WritableByteChannel out) throws IOException
+	{
+		flushSurrogate();
+		ByteBuffer buffer = getEncodedBytes();
+		
+		while (buffer.hasRemaining())
+			out.write(buffer);
+	}
+	
+	/** @return a copy of the encoded bytes. */
+	public byte[] toByteArray()
+	{
+		flushSurrogate();
+		byte[] bytes = new byte[length()];
+		getEncodedBytes().get(bytes);
+		return bytes;
+	}
+	
+	/** @return a view of the encoded bytes that shares {@link #b_out}'s content. */
+	private ByteBuffer getEncodedBytes()
+	{
+		ByteBuffer buffer = b_out.duplicate();
+		buffer.limit(buffer.position()).position(n_start);
+		return buffer;
+	}
+	
+	private void flushSurrogate()
+	{
+		if (c_high != 0)
+		{
+			c_high = 0;
+			ensureCapacity(1);
+			b_out.put((byte)'?');
+		}
+	}
+}
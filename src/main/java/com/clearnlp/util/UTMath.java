@@ -42,6 +42,17 @@ package com.clearnlp.util;
 
 public class UTMath
 {
+	/** The single-precision values of all half-precision bit patterns. */
+	static private final float[] HALF_FLOATS = new float[1 << 16];
+	
+	static
+	{
+		int i;
+		
+		for (i=0; i<HALF_FLOATS.length; i++)
+			HALF_FLOATS[i] = toFloatAux(i);
+	}
+	
 	static public double cosineSimilarity(double[] vector1, double[] vector2)
 	{
 		double d1, d2, prod = 0, d1s = 0, d2s = 0;
@@ -140,4 +151,63 @@ public class UTMath
 		else if (l < 0)	return -1;
 		else			return  0;
 	}
+	
+	/** @return the single-precision value of the specific IEEE 754 half-precision bits. */
+	static public float toFloat(short half)
+	{
+		return HALF_FLOATS[half & 0xffff];
+	}
+	
+	/** Called by the static initializer. */
+	static private float toFloatAux(int half)
+	{
+		int mant = half & 0x03ff, exp = half & 0x7c00;
+		
+		if (exp == 0x7c00)
+			exp = 0x3fc00;
+		else if (exp != 0)
+			exp += 0x1c000;
+		else if (mant != 0)
+		{
+			exp = 0x1c400;
+			
+			do
+			{
+				mant <<= 1;
+				exp -= 0x400;
+			}
+			while ((mant & 0x400) == 0);
+			
+			mant &= 0x3ff;
+		}
+		
+		return Float.intBitsToFloat((half & 0x8000) << 16 | (exp | mant) << 13);
+	}
+	
+	/**
+	 * Returns the IEEE 754 half-precision bits of the specific value, rounded to the nearest.
+	 * Values beyond the half-precision range become the largest finite half-precision value of the same sign.
+	 */
+	static public short toHalf(float f)
+	{
+		int bits = Float.floatToIntBits(f);
+		int sign = (bits >>> 16) & 0x8000;
+		int abs  = bits & 0x7fffffff;
+		int val  = abs + 0x1000;
+		
+		if (abs >= 0x7f800000)	// infinity or NaN
+			return (short)(sign | ((abs == 0x7f800000) ? 0x7c00 : 0x7e00));
+		
+		if (val >= 0x47800000)
+			return (short)(sign | 0x7bff);
+		
+		if (val >= 0x38800000)
+			return (short)(sign | ((val - 0x38000000) >>> 13));
+		
+		if (val < 0x33000000)
+			return (short)sign;
+		
+		val = abs >>> 23;
+		return (short)(sign | ((((bits & 0x7fffff) | 0x800000) + (0x800000 >>> (val - 102))) >>> (126 - val)));
+	}
 }
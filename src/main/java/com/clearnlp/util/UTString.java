@@ -40,6 +40,7 @@
  */
 package com.clearnlp.util;
 
+import java.io.IOException;
 import java.util.regex.Pattern;
 
 
@@ -59,6 +60,17 @@ public class UTString
 		return is;
 	}
 	
+	/** Appends the decimal representation of the specific integer without creating a string if possible. */
+	static public void appendInt(Appendable out, int n) throws IOException
+	{
+		if (out instanceof UTF8Sink)
+			((UTF8Sink)out).append(n);
+		else if (out instanceof StringBuilder)
+			((StringBuilder)out).append(n);
+		else
+			out.append(Integer.toString(n));
+	}
+	
 	static public String stripPunctuation(String str)
 	{
 		str = PUNCT_FRONT.matcher(str).replaceAll("");
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.algorithm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.clearnlp.classification.instance.IntInstance;
+import com.clearnlp.classification.instance.StringInstance;
+import com.clearnlp.classification.model.StringModelAD;
+import com.clearnlp.classification.vector.StringFeatureVector;
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class AbstractAdaGradTest
+{
+	@Test
+	public void testSerial()
+	{
+		StringModelAD m1 = getModel(), m2 = getModel();
+		
+		new AdaGradOnlineHingeLoss(0.1, 0.1, true).train(m1);
+		new AdaGradOnlineHingeLoss(0.1, 0.1, true).train(m2);
+		
+		assertArrayEquals(getScores(m1), getScores(m2), 0);
+	}
+	
+	@Test
+	public void testParallel()
+	{
+		AbstractAdaGrad[] algorithms = {new AdaGradOnlineHingeLoss(0.1, 0.1, true), new AdaGradOnlineLogisticRegression(0.1, 0.1, false)};
+		StringModelAD model;
+		
+		for (AbstractAdaGrad algorithm : algorithms)
+		{
+			model = getModel();
+			algorithm.setThreads(4);
+			algorithm.train(model);
+			assertTrue(getAccuracy(model) > 0.9);
+		}
+	}
+	
+	private StringModelAD getModel()
+	{
+		StringModelAD model = new StringModelAD();
+		Random rand = new Random(7);
+		StringFeatureVector vector;
+		int i, label;
+		
+		for (i=0; i<2000; i++)
+		{
+			label  = rand.nextInt(3);
+			vector = new StringFeatureVector();
+			vector.addFeature("l", Integer.toString(label));
+			vector.addFeature("n", Integer.toString(rand.nextInt(20)));
+			model.addInstance(new StringInstance(Integer.toString(label), vector));
+		}
+		
+		model.build(0, 0, 0, true);
+		return model;
+	}
+	
+	private double getAccuracy(StringModelAD model)
+	{
+		int i, correct = 0, size = model.getInstanceSize();
+		IntInstance instance;
+		
+		for (i=0; i<size; i++)
+		{
+			instance = model.getInstance(i);
+			
+			if (model.predictBest(instance.getFeatureVector()).label.equals(model.getLabel(instance.getLabel())))
+				correct++;
+		}
+		
+		return (double)correct / size;
+	}
+	
+	private double[] getScores(StringModelAD model)
+	{
+		return model.getScores(model.getInstance(0).getFeatureVector());
+	}
+}
@@ -41,9 +41,11 @@
 package com.clearnlp.classification.feature;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.ObjectInputStream;
@@ -74,4 +76,63 @@ public class AbstractFtrXmlTest
 		
 		assertEquals(s, xml.toString());
 	}
+	
+	@Test
+	public void testCompileFtrToken() throws Exception
+	{
+		JointFtrXml xml = new JointFtrXml(new BufferedInputStream(new FileInputStream("src/main/resources/feature/feature_en_srl.xml")));
+		FtrToken token;
+		
+		token = xml.getFtrToken("p_h:scd2");
+		assertEquals(JointFtrXml.RC_H     , token.relationCode);
+		assertEquals(JointFtrXml.FC_SUBCAT, token.fieldCode);
+		assertEquals(JointFtrXml.FC_DEPREL, token.subFieldCode);
+		assertEquals(2, token.argument);
+		
+		token = xml.getFtrToken("a:ptn0");
+		assertEquals(JointFtrXml.RC_NONE    , token.relationCode);
+		assertEquals(JointFtrXml.FC_PATH    , token.fieldCode);
+		assertEquals(JointFtrXml.FC_DISTANCE, token.subFieldCode);
+		assertEquals(0, token.argument);
+		
+		token = xml.getFtrToken("i_lmd2:sf");
+		assertEquals(JointFtrXml.RC_LMD2, token.relationCode);
+		assertEquals(JointFtrXml.FC_SIMPLIFIED_FORM, token.fieldCode);
+		
+		token = xml.getFtrToken("i:sf3");
+		assertEquals(JointFtrXml.FC_SUFFIX, token.fieldCode);
+		assertEquals(3, token.argument);
+		
+		token = xml.getFtrToken("i:ft=pb");
+		assertEquals(JointFtrXml.FC_FEAT, token.fieldCode);
+		assertEquals("pb", token.featKey);
+		
+		File objFile = File.createTempFile("ftr", ".obj");
+		objFile.deleteOnExit();
+		ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(objFile))); 
+		out.writeObject(xml);
+		out.close();
+		
+		ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(objFile)));
+		JointFtrXml copy = (JointFtrXml)in.readObject();
+		in.close();
+		
+		FtrTemplate[] t1 = xml.getFtrTemplates(), t2 = copy.getFtrTemplates();
+		int i, j;
+		
+		for (i=0; i<t1.length; i++)
+		{
+			assertEquals(t1[i].isSetFeature(), t2[i].isSetFeature());
+			assertEquals(t1[i].isBooleanFeature(), t2[i].isBooleanFeature());
+			
+			for (j=0; j<t1[i].tokens.length; j++)
+			{
+				assertTrue(t2[i].tokens[j].fieldCode != JointFtrXml.FC_NONE);
+				assertEquals(t1[i].tokens[j].relationCode, t2[i].tokens[j].relationCode);
+				assertEquals(t1[i].tokens[j].fieldCode   , t2[i].tokens[j].fieldCode);
+				assertEquals(t1[i].tokens[j].subFieldCode, t2[i].tokens[j].subFieldCode);
+				assertEquals(t1[i].tokens[j].argument    , t2[i].tokens[j].argument);
+			}
+		}
+	}
 }
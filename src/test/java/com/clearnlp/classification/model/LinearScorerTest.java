@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.clearnlp.classification.vector.SparseFeatureVector;
+
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class LinearScorerTest
+{
+	@Test
+	public void testLinearScorer()
+	{
+		Random rand = new Random(0);
+		int featureSize = 50, labelSize, i;
+		
+		for (labelSize=1; labelSize<=11; labelSize++)
+		{
+			float[] weights = new float[featureSize * labelSize];
+			
+			for (i=0; i<weights.length; i++)
+				weights[i] = rand.nextFloat() - 0.5f;
+			
+			SparseFeatureVector x = new SparseFeatureVector();
+			SparseFeatureVector w = new SparseFeatureVector(true);
+			
+			for (i=0; i<20; i++)
+			{
+				x.addFeature(rand.nextInt(featureSize+10));
+				w.addFeature(rand.nextInt(featureSize+10), rand.nextDouble());
+			}
+			
+			check(weights, labelSize, featureSize, x);
+			check(weights, labelSize, featureSize, w);
+		}
+	}
+	
+	private void check(float[] weights, int labelSize, int featureSize, SparseFeatureVector x)
+	{
+		double[] gold = new double[labelSize];
+		double[] auto = new double[labelSize];
+		int i, index, label;
+		
+		for (label=0; label<labelSize; label++)
+			gold[label] = weights[label];
+		
+		for (i=0; i<x.size(); i++)
+		{
+			index = x.getIndex(i);
+			
+			if (0 < index && index < featureSize)
+			{
+				for (label=0; label<labelSize; label++)
+					gold[label] += weights[index*labelSize+label] * x.getWeight(i);
+			}
+		}
+		
+		LinearScorer.getScores(weights, labelSize, labelSize, featureSize, x, auto);
+		for (label=0; label<labelSize; label++)	assertEquals(gold[label], auto[label], 0);
+		
+		LinearScorer.getScores(FloatBuffer.wrap(weights), labelSize, labelSize, featureSize, x, auto);
+		for (label=0; label<labelSize; label++)	assertEquals(gold[label], auto[label], 0);
+	}
+}
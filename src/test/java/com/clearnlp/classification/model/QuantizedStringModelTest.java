@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.clearnlp.classification.prediction.StringPrediction;
+import com.clearnlp.classification.vector.StringFeatureVector;
+import com.clearnlp.util.UTMath;
+
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class QuantizedStringModelTest
+{
+	@Test
+	public void testHalf()
+	{
+		float[] fs = {0, -0f, 1, -1, 0.5f, 1.5f, 65504, -65504, 6.1035156E-5f, 5.9604645E-8f, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY};
+		
+		for (float f : fs)
+			assertEquals(Float.floatToIntBits(f), Float.floatToIntBits(UTMath.toFloat(UTMath.toHalf(f))));
+		
+		assertEquals(true , Float.isNaN(UTMath.toFloat(UTMath.toHalf(Float.NaN))));
+		assertEquals(65504f, UTMath.toFloat(UTMath.toHalf(1e10f)), 0);
+		assertEquals(0f    , UTMath.toFloat(UTMath.toHalf(1e-10f)), 0);
+		
+		Random rand = new Random(0);
+		float f;
+		
+		for (int i=0; i<10000; i++)
+		{
+			f = (float)rand.nextGaussian() * 10;
+			assertEquals(f, UTMath.toFloat(UTMath.toHalf(f)), Math.abs(f) / 1024);
+		}
+	}
+	
+	@Test
+	public void testQuantizedStringModel() throws Exception
+	{
+		StringModel model = getModel(5, 20, new Random(0));
+		
+		testQuantizedStringModelAux(model, QuantizedStringModel.PRECISION_INT8   , 1e-2);
+		testQuantizedStringModelAux(model, QuantizedStringModel.PRECISION_FLOAT16, 1e-3);
+		
+		model = getModel(2, 200, new Random(1));
+		
+		testQuantizedStringModelAux(model, QuantizedStringModel.PRECISION_INT8   , 1e-2);
+		testQuantizedStringModelAux(model, QuantizedStringModel.PRECISION_FLOAT16, 1e-3);
+	}
+	
+	private void testQuantizedStringModelAux(StringModel gold, int precision, double delta) throws Exception
+	{
+		QuantizedStringModel model = QuantizedStringModel.quantize(gold, precision);
+		float[] gWeights = gold.getWeights(), qWeights = model.getWeights();
+		int i;
+		
+		assertEquals(gWeights.length, qWeights.length);
+		
+		for (i=0; i<gWeights.length; i++)
+		{
+			assertEquals(gWeights[i], qWeights[i], delta);
+			if (gWeights[i] == 0) assertEquals(0, qWeights[i], 0);
+		}
+		
+		if (precision == QuantizedStringModel.PRECISION_INT8)
+			assertEquals(true, model.getWeightBytes() * 3 < gWeights.length * 4L);
+		else
+			assertEquals(gWeights.length * 2L, model.getWeightBytes());
+		
+		testScores(gold, model, delta);
+		
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bout);
+		out.writeObject(model);
+		out.close();
+		
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()));
+		StringModel loaded = (StringModel)in.readObject();
+		in.close();
+		
+		assertEquals(QuantizedStringModel.class, loaded.getClass());
+		testScores(model, loaded, 0);
+		
+		bout = new ByteArrayOutputStream();
+		out = new QuantizedModelOutputStream(bout, precision);
+		out.writeObject(new StringModel[]{gold});
+		out.close();
+		
+		in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()));
+		loaded = ((StringModel[])in.readObject())[0];
+		in.close();
+		
+		assertEquals(QuantizedStringModel.class, loaded.getClass());
+		testScores(model, loaded, 0);
+	}
+	
+	private StringModel getModel(int labelSize, int featureSize, Random rand)
+	{
+		StringModel model = new StringModel();
+		int i, j;
+		
+		for (i=0; i<labelSize; i++)
+			model.addLabel("L"+i);
+		
+		model.initLabelArray();
+		
+		for (j=1; j<featureSize; j++)
+			model.addFeature(Integer.toString(j % 3), "F"+j);
+		
+		model.initWeightVector();
+		float[] weights = new float[featureSize];
+		
+		for (i=0; i<(model.isBinaryLabel() ? 1 : labelSize); i++)
+		{
+			for (j=0; j<featureSize; j++)
+				weights[j] = (rand.nextInt(4) == 0) ? 0 : (float)rand.nextGaussian();
+			
+			if (model.isBinaryLabel())
+				model.copyWeights(weights);
+			else
+				model.copyWeights(weights, i);
+		}
+		
+		return model;
+	}
+	
+	private void testScores(StringModel gold, StringModel model, double delta)
+	{
+		StringFeatureVector vector = new StringFeatureVector(true);
+		int i, featureSize = gold.getFeatureSize();
+		
+		for (i=1; i<featureSize; i+=7)
+			vector.addFeature(Integer.toString(i % 3), "F"+i, 0.5 * (i % 4));
+		
+		vector.addFeature("0", "F0", 1);
+		
+		List<StringPrediction> gList = gold .getPredictions(vector);
+		List<StringPrediction> mList = model.getPredictions(vector);
+		
+		for (i=0; i<gList.size(); i++)
+		{
+			assertEquals(gList.get(i).label, mList.get(i).label);
+			assertEquals(gList.get(i).score, mList.get(i).score, delta * vector.size());
+		}
+	}
+}
@@ -49,12 +49,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.List;
+import java.util.Random;
 
+import org.apache.log4j.Logger;
 import org.junit.Test;
 
 import com.clearnlp.classification.prediction.StringPrediction;
 import com.clearnlp.classification.vector.SparseFeatureVector;
 import com.clearnlp.classification.vector.StringFeatureVector;
+import com.clearnlp.util.pair.Pair;
 
 
 /** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
@@ -203,4 +206,149 @@ public class StringModelTest
 		assertEquals("A", p.label);
 		assertEquals("1.102034", String.format("%.6f", p.score));
 	}
+	
+	@Test
+	public void testStringModelFeatureHashes()
+	{
+		StringModel model = new StringModel();
+		String[][]  features = {{"F00","F01"},{"F10"},{"F20","F21","F22"}};
+		
+		for (int i=0; i<features.length; i++)
+			for (String ftr : features[i])
+				model.addFeature(Integer.toString(i), ftr);
+		
+		assertEquals(true, model.hasFeatureHashes());
+		
+		for (int i=0; i<features.length; i++)
+		{
+			String type = Integer.toString(i);
+			
+			for (String ftr : features[i])
+				assertEquals(model.getFeatureIndex(type, ftr), model.getFeatureIndex(StringModel.getFeatureHash(type, ftr)));
+		}
+		
+		assertEquals(0, model.getFeatureIndex(StringModel.getFeatureHash("0", "F10")));
+		assertEquals(0, model.getFeatureIndex(StringModel.getFeatureHash("3", "F00")));
+		
+		model.addFeature("3", "F00");
+		assertEquals(true, model.hasFeatureHashes());
+		assertEquals(model.getFeatureIndex("3", "F00"), model.getFeatureIndex(StringModel.getFeatureHash("3", "F00")));
+	}
+	
+	@Test
+	public void testTrimFeatures()
+	{
+		StringModel model = new StringModel();
+		
+		model.addLabel("A");
+		model.addLabel("B");
+		model.addLabel("C");
+		model.initLabelArray();
+		
+		model.addFeature("0", "F00");	// 1
+		model.addFeature("0", "F01");	// 2
+		model.addFeature("1", "F10");	// 3
+		model.addFeature("2", "F20");	// 4
+		model.addFeature("2", "F21");	// 5
+		model.initWeightVector();
+		
+		model.copyWeights(new float[]{1, 0, 0.5f, 0, 0   , 0.05f}, 0);
+		model.copyWeights(new float[]{2, 0, 0   , 0, 0.2f, 0    }, 1);
+		model.copyWeights(new float[]{3, 0, 0   , 0, 0   , 0    }, 2);
+		
+		StringFeatureVector vector = new StringFeatureVector();
+		vector.addFeature("0", "F00");
+		vector.addFeature("0", "F01");
+		vector.addFeature("1", "F10");
+		vector.addFeature("2", "F20");
+		vector.addFeature("2", "F21");
+		
+		List<StringPrediction> gList = model.getPredictions(vector);
+		model.trimFeatures(Logger.getLogger(getClass()), 0);
+		
+		assertEquals(4, model.getFeatureSize());
+		assertEquals(0, model.getFeatureIndex("0", "F00"));
+		assertEquals(1, model.getFeatureIndex("0", "F01"));
+		assertEquals(0, model.getFeatureIndex("1", "F10"));
+		assertEquals(2, model.getFeatureIndex("2", "F20"));
+		assertEquals(3, model.getFeatureIndex("2", "F21"));
+		assertEquals(4 * 3, model.getWeights().length);
+		assertEquals(true, model.hasFeatureHashes());
+		assertEquals(2, model.getFeatureIndex(StringModel.getFeatureHash("2", "F20")));
+		
+		List<StringPrediction> tList = model.getPredictions(vector);
+		
+		for (int i=0; i<gList.size(); i++)
+			assertEquals(gList.get(i).score, tList.get(i).score, 1e-6);
+		
+		model.trimFeatures(Logger.getLogger(getClass()), 0.1f);
+		
+		assertEquals(3, model.getFeatureSize());
+		assertEquals(0, model.getFeatureIndex("2", "F21"));
+	}
+	
+	@Test
+	public void testLabelSubsets()
+	{
+		Random rand = new Random(0);
+		
+		for (int labelSize : new int[]{2, 7})
+		{
+			StringModel model = new StringModel();
+			int i, j, featureSize = 30;
+			
+			for (i=0; i<labelSize; i++)
+				model.addLabel("L"+i);
+			
+			model.initLabelArray();
+			
+			for (j=1; j<featureSize; j++)
+				model.addFeature("0", "F"+j);
+			
+			model.initWeightVector();
+			float[] weights = new float[featureSize];
+			
+			for (i=0; i<(model.isBinaryLabel() ? 1 : labelSize); i++)
+			{
+				for (j=0; j<featureSize; j++)
+					weights[j] = (float)rand.nextGaussian();
+				
+				if (model.isBinaryLabel())	model.copyWeights(weights);
+				else						model.copyWeights(weights, i);
+			}
+			
+			SparseFeatureVector x = new SparseFeatureVector(true);
+			for (j=1; j<featureSize; j+=3) x.addFeature(j, 0.5 * j);
+			
+			int[] labels = (labelSize == 2) ? new int[]{1} : new int[]{5, 0, 3};
+			
+			for (StringModel m : new StringModel[]{model, QuantizedStringModel.quantize(model, QuantizedStringModel.PRECISION_INT8), QuantizedStringModel.quantize(model, QuantizedStringModel.PRECISION_FLOAT16)})
+			{
+				double[] gold = m.getScores(x);
+				double[] scores = new double[labels.length];
+				m.getScores(x, labels, scores);
+				
+				for (i=0; i<labels.length; i++)
+					assertEquals(gold[labels[i]], scores[i], 0);
+				
+				Pair<StringPrediction,StringPrediction> p = m.predictTwo(x, labels), q = m.predictTwo(x);
+				double fst = Double.NEGATIVE_INFINITY, snd = Double.NEGATIVE_INFINITY;
+				
+				for (int label : labels)
+					fst = Math.max(fst, gold[label]);
+				
+				for (i=0; i<gold.length; i++)
+					if (!m.getLabel(i).equals(p.o1.label)) snd = Math.max(snd, gold[i]);
+				
+				assertEquals(fst, p.o1.score, 0);
+				assertEquals(snd, p.o2.score, 0);
+				
+				if (q.o1.score == fst)
+				{
+					assertEquals(q.o1.label, p.o1.label);
+					assertEquals(q.o2.label, p.o2.label);
+				}
+			}
+		}
+	}
 }
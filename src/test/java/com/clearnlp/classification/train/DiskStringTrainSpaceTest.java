@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.train;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+import com.clearnlp.classification.model.StringModel;
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class DiskStringTrainSpaceTest
+{
+	@Test
+	public void testBuild()
+	{
+		DiskStringTrainSpace space = new DiskStringTrainSpace(false, 0, 0, null);
+		
+		space.addInstance("L1 A:a1 B:b1");
+		space.addInstance("L2 A:a2 C:c2");
+		space.addInstance("L2 A:a2 B:b1 C:c2");
+		space.build();
+		
+		StringModel model = (StringModel)space.getModel();
+		assertEquals(3, space.getInstanceSize());
+		assertEquals(2, space.getLabelSize());
+		assertEquals(5, model.getFeatureSize());
+		
+		assertEquals("L1", model.getLabel(space.getY(0)));
+		assertEquals("L2", model.getLabel(space.getY(2)));
+		assertArrayEquals(new int[]{model.getFeatureIndex("A", "a2"), model.getFeatureIndex("B", "b1"), model.getFeatureIndex("C", "c2")}, space.getX(2));
+		space.clear();
+	}
+	
+	@Test
+	public void testAppendSpace()
+	{
+		DiskStringTrainSpace space = new DiskStringTrainSpace(true, 1, 1, null);
+		DiskStringTrainSpace other = new DiskStringTrainSpace(true, 1, 1, null);
+		
+		space.addInstance("L1 A:a1:0.5 B:b1:1.5");
+		other.addInstance("L2 A:a2:2 C:c2:3");
+		other.addInstance("L2 A:a2:4 B:b1:5 C:c2:6");
+		
+		space.appendSpace(other);
+		other.clear();
+		space.build();
+		
+		StringModel model = (StringModel)space.getModel();
+		assertEquals(2, space.getInstanceSize());
+		assertEquals(1, space.getLabelSize());
+		assertEquals(4, model.getFeatureSize());
+		
+		assertEquals("L2", model.getLabel(space.getY(0)));
+		assertArrayEquals(new int[]{model.getFeatureIndex("A", "a2"), model.getFeatureIndex("C", "c2")}, space.getX(0));
+		assertArrayEquals(new double[]{4, 5, 6}, space.getV(1), 0);
+		
+		StringTrainSpace memory = new StringTrainSpace(true, 1, 1);
+		memory.addInstance("L1 A:a1:0.5 B:b1:1.5");
+		memory.addInstance("L2 A:a2:2 C:c2:3");
+		memory.addInstance("L2 A:a2:4 B:b1:5 C:c2:6");
+		memory.build();
+		assertEquals(toString(memory), toString(space));
+		space.clear();
+	}
+	
+	private String toString(AbstractTrainSpace space)
+	{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		PrintStream fout = new PrintStream(bout);
+		
+		space.printInstances(fout);
+		fout.close();
+		
+		return bout.toString();
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.classification.train;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.clearnlp.classification.algorithm.old.AbstractAlgorithm;
+import com.clearnlp.classification.algorithm.old.AbstractOneVsAll;
+import com.clearnlp.classification.algorithm.old.LiblinearL2LR;
+import com.clearnlp.classification.algorithm.old.LiblinearL2SVC;
+import com.clearnlp.classification.instance.StringInstance;
+import com.clearnlp.classification.model.StringModel;
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class OneVsAllTrainerTest
+{
+	@Test
+	public void testTrainMulti()
+	{
+		testTrainMulti(new LiblinearL2SVC(AbstractAlgorithm.SOLVER_LIBLINEAR_LR2_L2_SVC, 0.1, 0.1, 0));
+		testTrainMulti(new LiblinearL2LR(0.1, 0.1, 1));
+	}
+	
+	private void testTrainMulti(AbstractOneVsAll algorithm)
+	{
+		StringTrainSpace space = new StringTrainSpace(false, 0, 0);
+		String[] lines = new String[60];
+		StringInstance instance;
+		int i, label;
+		
+		for (i=0; i<lines.length; i++)
+		{
+			label = (i % 6 == 0) ? 2 : i % 2;
+			space.addInstance(lines[i] = "L"+label+" l:"+label+" n:"+(i % 5));
+		}
+		
+		space.build();
+		new OneVsAllTrainer(space, algorithm, 2);
+		StringModel model = (StringModel)space.getModel();
+		
+		for (label=0; label<space.getLabelSize(); label++)
+			assertArrayEquals(algorithm.getWeight(space, label), model.getWeights(label), 0f);
+		
+		for (String line : lines)
+		{
+			instance = StringTrainSpace.toInstance(line, false);
+			assertEquals(instance.getLabel(), model.predictBest(instance.getFeatureVector()).label);
+		}
+	}
+}
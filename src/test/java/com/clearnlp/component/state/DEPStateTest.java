@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.component.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.clearnlp.classification.instance.StringInstance;
+import com.clearnlp.component.label.IDEPLabel;
+import com.clearnlp.dependency.DEPFeat;
+import com.clearnlp.dependency.DEPLabel;
+import com.clearnlp.dependency.DEPNode;
+import com.clearnlp.dependency.DEPTree;
+import com.google.common.collect.Maps;
+
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class DEPStateTest implements IDEPLabel
+{
+	@Test
+	public void testForkStates()
+	{
+		DEPTree tree = new DEPTree();
+		tree.add(new DEPNode(1, "I"   , "I"   , "PRP", new DEPFeat()));
+		tree.add(new DEPNode(2, "saw" , "see" , "VBD", new DEPFeat()));
+		tree.add(new DEPNode(3, "her" , "her" , "PRP", new DEPFeat()));
+		
+		DEPState state = new DEPState(tree);
+		state.setLambda(1);
+		state.setBeta(2);
+		state.addState(new DEPLabel(LB_LEFT+"_"+LB_PASS+"_nsubj", 0.3));
+		state.addState(new DEPLabel(LB_RIGHT+"_"+LB_SHIFT+"_dobj", 0.2));
+		state.increaseTransitionCount();
+		state.addScore(0.1);
+		state.addBranch(new ArrayList<StringInstance>());
+		
+		List<DEPState> forks = state.forkStates();
+		assertEquals(2, forks.size());
+		assertEquals(false, state.hasMoreState());
+		
+		DEPState fork;
+		DEPLabel label;
+		int i;
+		
+		for (i=0; i<forks.size(); i++)
+		{
+			fork  = forks.get(i);
+			label = fork.setToNextState();
+			
+			assertNotSame(tree, fork.getTree());
+			assertNull(fork.setToNextState());
+			
+			fork.getTree().get(i+1).setHead(fork.getTree().get(2), label.deprel);
+			fork.getTree().get(i+1).pos = "X"+i;
+			fork.add2ndPOSScore(i+1, 1);
+			fork.increaseTransitionCount();
+			fork.addScore(label.score);
+			fork.addBranch(new ArrayList<StringInstance>());
+		}
+		
+		assertEquals(false, tree.get(1).hasHead());
+		state.mergeStates(forks);
+		assertEquals(3, state.getBranches().size());
+		
+		state.resetToBestBranch();
+		assertEquals(tree.get(2), tree.get(1).getHead());
+		assertEquals("nsubj", tree.get(1).getLabel());
+		assertEquals("X0" , tree.get(1).pos);
+		assertEquals("VBD", tree.get(2).pos);
+		assertEquals(true, state.resetPOSTags());
+	}
+	
+	@Test
+	public void testBranchHistory()
+	{
+		Random rand = new Random(0);
+		int i, j, size = 30;
+		DEPTree tree = new DEPTree();
+		
+		for (i=1; i<size; i++)
+			tree.add(new DEPNode(i, "w"+i));
+		
+		DEPState state = new DEPState(tree);
+		state.setBeamSize(4);
+		
+		Map<String,String> heads  = Maps.newHashMap();
+		Map<String,String> reduce = Maps.newHashMap();
+		DEPLabel label;
+		
+		for (i=0; i<200; i++)
+		{
+			changeRandomly(rand, state);
+			
+			if (i % 10 == 0)
+			{
+				label = new DEPLabel(LB_NO+"_"+LB_SHIFT+"_"+i, rand.nextDouble());
+				heads .put(label.deprel, Arrays.toString(tree.getHeads()));
+				reduce.put(label.deprel, getReduceSet(state));
+				state.addState(label);
+			}
+		}
+		
+		state.trimStates();
+		double prev = Double.MAX_VALUE;
+		j = 0;
+		
+		while ((label = state.setToNextState()) != null)
+		{
+			assertEquals(heads .get(label.deprel), Arrays.toString(tree.getHeads()));
+			assertEquals(reduce.get(label.deprel), getReduceSet(state));
+			assertEquals(true, label.score <= prev);
+			prev = label.score;
+			j++;
+			
+			for (i=0; i<20; i++)
+				changeRandomly(rand, state);
+		}
+		
+		assertEquals(3, j);
+	}
+	
+	@Test
+	public void testGreedyHistory()
+	{
+		Random rand = new Random(0);
+		int i, size = 10;
+		DEPTree tree = new DEPTree();
+		
+		for (i=1; i<size; i++)
+			tree.add(new DEPNode(i, "w"+i));
+		
+		DEPState state = new DEPState(tree);
+		state.setBeamSize(1);
+		
+		for (i=0; i<50; i++)
+			changeRandomly(rand, state);
+		
+		assertEquals(0, state.l_history.size());
+		assertEquals(0, state.i_history);
+		
+		state.reInit();
+		for (i=0; i<50; i++)
+			changeRandomly(rand, state);
+		
+		assertEquals(0, state.l_history.size());
+	}
+	
+	private void changeRandomly(Random rand, DEPState state)
+	{
+		DEPTree tree = state.getTree();
+		int size = tree.size();
+		DEPNode node = tree.get(1 + rand.nextInt(size-1));
+		int k = rand.nextInt(size);
+		
+		switch (rand.nextInt(4))
+		{
+		case 0 : if (k != node.id) node.setHead(tree.get(k), "d"+k); break;
+		case 1 : node.clearHead(); break;
+		case 2 : state.setLambda(node.id); state.reduce(); break;
+		default: state.pushBack(node.id);
+		}
+	}
+	
+	private String getReduceSet(DEPState state)
+	{
+		int[] ids = state.s_reduce.toArray();
+		Arrays.sort(ids);
+		return Arrays.toString(ids);
+	}
+}
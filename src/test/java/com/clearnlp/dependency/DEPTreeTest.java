@@ -41,6 +41,9 @@
 package com.clearnlp.dependency;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -49,6 +52,9 @@ import com.clearnlp.dependency.DEPLib;
 import com.clearnlp.dependency.DEPLibEn;
 import com.clearnlp.dependency.DEPNode;
 import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.dependency.srl.SRLArc;
+import com.clearnlp.util.UTF8Sink;
+import com.clearnlp.util.pair.StringIntPair;
 
 
 public class DEPTreeTest
@@ -95,4 +101,183 @@ public class DEPTreeTest
 		
 	//	System.out.println(copy.toStringSRL()+"\n");
 	}
+	
+	@Test
+	public void testAppend() throws Exception
+	{
+		DEPTree tree = new DEPTree();
+		
+		DEPNode sbj = new DEPNode(1, "Él", "él", "PRP", new DEPFeat());
+		DEPNode vbd = new DEPNode(2, "bought", "buy", "VBD", new DEPFeat("pb=buy.01|a=b"));
+		DEPNode nns = new DEPNode(3, "cars\uD83D\uDE97", "car", "NNS", new DEPFeat("x=1"));
+		
+		sbj.setHead(vbd, "NSBJ");
+		vbd.setHead(tree.get(0), "ROOT");
+		
+		tree.add(sbj);
+		tree.add(vbd);
+		tree.add(nns);
+		tree.initXHeads();
+		tree.initSHeads();
+		
+		sbj.addSHead(new SRLArc(vbd, "A0", "PRD"));
+		nns.addSHead(vbd, "A1");
+		nns.addSHead(sbj, "A0");
+		nns.addXHead(vbd, "dobj");
+		nns.nament = "U-PRODUCT";
+		
+		StringBuilder build;
+		UTF8Sink sink = new UTF8Sink(4);
+		
+		build = new StringBuilder();	tree.append(build);			assertEquals(tree.toString()     , build.toString());
+		build = new StringBuilder();	tree.appendRaw(build);		assertEquals(tree.toStringRaw()  , build.toString());
+		build = new StringBuilder();	tree.appendPOS(build);		assertEquals(tree.toStringPOS()  , build.toString());
+		build = new StringBuilder();	tree.appendMorph(build);	assertEquals(tree.toStringMorph(), build.toString());
+		build = new StringBuilder();	tree.appendDEP(build);		assertEquals(tree.toStringDEP()  , build.toString());
+		build = new StringBuilder();	tree.appendDAG(build);		assertEquals(tree.toStringDAG()  , build.toString());
+		build = new StringBuilder();	tree.appendCoNLL(build);	assertEquals(tree.toStringCoNLL(), build.toString());
+		build = new StringBuilder();	tree.appendSRL(build);		assertEquals(tree.toStringSRL()  , build.toString());
+		
+		tree.append(sink);
+		assertEquals(tree.toString(), new String(sink.toByteArray(), "UTF-8"));
+	}
+	
+	@Test
+	public void testDependentIndex()
+	{
+		Random rand = new Random(0);
+		int i, j, k, size = 40;
+		StringIntPair[] heads;
+		DEPTree tree;
+		DEPNode node;
+		
+		for (i=0; i<50; i++)
+		{
+			tree = new DEPTree();
+			
+			for (j=1; j<size; j++)
+				tree.add(new DEPNode(j, "w"+j));
+			
+			for (j=0; j<200; j++)
+			{
+				node = tree.get(1 + rand.nextInt(size-1));
+				k = rand.nextInt(size);
+				
+				if (k == node.id || rand.nextInt(10) == 0)	node.clearHead();
+				else										node.setHead(tree.get(k), "dep");
+			}
+			
+			assertDependentIndex(tree);
+			heads = tree.getHeads();
+			
+			for (j=0; j<100; j++)
+			{
+				node = tree.get(1 + rand.nextInt(size-1));
+				k = rand.nextInt(size);
+				
+				if (k == node.id)	node.clearHead();
+				else				node.setHead(tree.get(k));
+			}
+			
+			assertDependentIndex(tree);
+			tree.resetHeads(heads);
+			assertDependentIndex(tree);
+			
+			for (j=0; j<20; j++)
+			{
+				int a = 1 + rand.nextInt(size-1), b = 1 + rand.nextInt(size-1);
+				DEPNode nodeA = tree.get(a), nodeB = tree.get(b);
+				
+				tree.set(a, nodeB);
+				tree.set(b, nodeA);
+				nodeA.setID(b);
+				nodeB.setID(a);
+			}
+			
+			assertDependentIndex(tree);
+			
+			node = new DEPNode(0, "new");
+			k = 1 + rand.nextInt(size-1);
+			tree.insertNode(k, node);
+			node.setHead(tree.get(rand.nextInt(k)), "dep");
+			tree.get(size).setHead(node, "dep");
+			assertDependentIndex(tree);
+			tree.get(size).clearHead();
+			tree.removeNode(k);
+			assertDependentIndex(tree);
+			tree.clearHeads();
+			assertDependentIndex(tree);
+		}
+	}
+	
+	/** Compares the dependent index against scanning the whole tree. */
+	private void assertDependentIndex(DEPTree tree)
+	{
+		int id, order, size = tree.size();
+		
+		for (id=0; id<size; id++)
+		{
+			assertEquals(countDependents(tree, id, 1, id), tree.getLeftValency(id));
+			assertEquals(countDependents(tree, id, id+1, size), tree.getRightValency(id));
+			
+			for (order=0; order<3; order++)
+			{
+				assertSame(getDependent(tree, id, order, true) , tree.getLeftMostDependent (id, order));
+				assertSame(getDependent(tree, id, order, false), tree.getRightMostDependent(id, order));
+			}
+			
+			if (id > 0)
+			{
+				assertSame(getSibling(tree, id, true) , tree.getLeftNearestSibling (id));
+				assertSame(getSibling(tree, id, false), tree.getRightNearestSibling(id));
+			}
+		}
+	}
+	
+	private int countDependents(DEPTree tree, int id, int bIdx, int eIdx)
+	{
+		DEPNode head = tree.get(id);
+		int i, c = 0;
+		
+		for (i=bIdx; i<eIdx; i++)
+			if (tree.get(i).getHead() == head) c++;
+		
+		return c;
+	}
+	
+	private DEPNode getDependent(DEPTree tree, int id, int order, boolean left)
+	{
+		DEPNode node, head = tree.get(id);
+		int i, size = tree.size();
+		
+		for (i=left?1:size-1; left ? i<id : i>id; i+=left?1:-1)
+		{
+			node = tree.get(i);
+			
+			if (node.getHead() == head)
+			{
+				if (order == 0)	return node;
+				order--;
+			}
+		}
+		
+		return null;
+	}
+	
+	private DEPNode getSibling(DEPTree tree, int id, boolean left)
+	{
+		DEPNode node, head = tree.get(id).getHead();
+		if (head == null)	return null;
+		int i, eIdx = left ? ((head.id < id) ? head.id : 0) : ((id < head.id) ? head.id : tree.size());
+		
+		for (i=left?id-1:id+1; left ? i>eIdx : i<eIdx; i+=left?-1:1)
+		{
+			node = tree.get(i);
+			
+			if (node.getHead() == head)
+				return node;
+		}
+		
+		return null;
+	}
 }
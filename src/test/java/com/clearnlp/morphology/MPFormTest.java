@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.morphology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.clearnlp.util.UTString;
+
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class MPFormTest
+{
+	@Test
+	public void testAffixes()
+	{
+		String[] forms = {"a", "ab", "Running", "internationalization", "http://www.clearnlp.com"};
+		MPForm form;
+		String lsf;
+		int n;
+		
+		for (String s : forms)
+		{
+			form = new MPForm(s);
+			lsf  = MPLib.getSimplifiedLowercaseWordForm(s);
+			assertEquals(lsf, form.getLowerSimplifiedForm());
+			
+			for (n=0; n<=MPForm.AFFIX_LENGTH+2; n++)
+			{
+				assertEquals(Arrays.toString(UTString.getPrefixes(lsf, n)), Arrays.toString(form.getPrefixes(n)));
+				assertEquals(Arrays.toString(UTString.getSuffixes(lsf, n)), Arrays.toString(form.getSuffixes(n)));
+				
+				if (n <= lsf.length())
+				{
+					assertEquals(lsf.substring(0, n), form.getPrefix(n));
+					assertEquals(lsf.substring(lsf.length()-n), form.getSuffix(n));
+				}
+				else
+				{
+					assertNull(form.getPrefix(n));
+					assertNull(form.getSuffix(n));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void testShapes()
+	{
+		MPForm form = new MPForm("McDonald-3");
+		
+		assertTrue(form.isShape(MPForm.SHAPE_BEGIN_UPPER));
+		assertTrue(form.isShape(MPForm.SHAPE_INNER_UPPER));
+		assertTrue(form.isShape(MPForm.SHAPE_DIGIT));
+		assertTrue(form.isShape(MPForm.SHAPE_HYPHEN));
+		assertTrue(!form.isShape(MPForm.SHAPE_ALL_UPPER));
+		assertTrue(!form.isShape(MPForm.SHAPE_INNER_UPPERS));
+		assertTrue(!form.isShape(MPForm.SHAPE_PERIOD));
+		assertTrue(!form.isShape(MPForm.SHAPE_PUNCTUATION));
+		
+		assertTrue(new MPForm("NASA").isShape(MPForm.SHAPE_ALL_UPPER));
+		assertTrue(new MPForm("iPhoneX").isShape(MPForm.SHAPE_INNER_UPPERS));
+		assertTrue(new MPForm("U.S.").isShape(MPForm.SHAPE_PERIOD));
+		assertTrue(new MPForm("...").isShape(MPForm.SHAPE_PUNCTUATION));
+	}
+	
+	@Test
+	public void testLemmas()
+	{
+		MPForm form = new MPForm("ran");
+		
+		assertNull(form.getLemma("VBD"));
+		form.addLemma("VBD", "run");
+		form.addLemma("NN" , "ran");
+		form.addLemma("VBD", "ran");
+		
+		assertEquals("run", form.getLemma("VBD"));
+		assertEquals("ran", form.getLemma("NN"));
+	}
+	
+	@Test
+	public void testCache()
+	{
+		MPFormCache.setMaximumSize(10);
+		MPForm form = MPFormCache.get("Dogs");
+		
+		assertSame(form, MPFormCache.get("Dogs"));
+		assertEquals(1, MPFormCache.getStats().hitCount());
+		assertEquals(1, MPFormCache.getStats().missCount());
+		
+		MPFormCache.setMaximumSize(MPFormCache.DEFAULT_MAXIMUM_SIZE);
+	}
+}
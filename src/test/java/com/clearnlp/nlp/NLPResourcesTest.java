@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.nlp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class NLPResourcesTest
+{
+	static private final String TYPE = "test";
+	
+	@Test
+	public void testGetResource() throws Exception
+	{
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+		final Object[] resources = new Object[8];
+		final Callable<Object> loader = new Callable<Object>()
+		{
+			@Override
+			public Object call() throws Exception
+			{
+				loads.incrementAndGet();
+				Thread.sleep(50);
+				return new Object();
+			}
+		};
+		
+		Thread[] threads = new Thread[resources.length];
+		int i;
+		
+		for (i=0; i<threads.length; i++)
+		{
+			final int idx = i;
+			
+			threads[i] = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						start.await();
+						resources[idx] = NLPResources.getResource(TYPE, "a", loader);
+					}
+					catch (InterruptedException e) {e.printStackTrace();}
+				}
+			};
+			
+			threads[i].start();
+		}
+		
+		start.countDown();
+		for (Thread thread : threads) thread.join();
+		
+		assertEquals(1, loads.get());
+		for (Object resource : resources) assertSame(resources[0], resource);
+		assertTrue(NLPResources.contains(TYPE, "a"));
+		assertSame(resources[0], NLPResources.getResource(TYPE, "a", loader));
+		assertEquals(1, loads.get());
+		
+		assertTrue(NLPResources.remove(TYPE, "a"));
+		assertTrue(!NLPResources.contains(TYPE, "a"));
+		
+		Object resource = NLPResources.getResource(TYPE, "a", loader);
+		assertEquals(2, loads.get());
+		assertTrue(resource != resources[0]);
+		assertTrue(NLPResources.remove(TYPE, "a"));
+	}
+	
+	@Test
+	public void testFailure()
+	{
+		final AtomicInteger loads = new AtomicInteger();
+		Callable<Object> loader = new Callable<Object>()
+		{
+			@Override
+			public Object call()
+			{
+				if (loads.incrementAndGet() == 1)
+					throw new IllegalArgumentException();
+				
+				return "b";
+			}
+		};
+		
+		try
+		{
+			NLPResources.getResource(TYPE, "b", loader);
+			assertTrue(false);
+		}
+		catch (IllegalStateException e)
+		{
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+		
+		assertTrue(!NLPResources.contains(TYPE, "b"));
+		assertEquals("b", NLPResources.getResource(TYPE, "b", loader));
+		assertTrue(NLPResources.remove(TYPE, "b"));
+	}
+}
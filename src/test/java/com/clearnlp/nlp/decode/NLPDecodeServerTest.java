@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.nlp.decode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+import com.clearnlp.component.AbstractComponent;
+import com.clearnlp.util.UTXml;
+
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class NLPDecodeServerTest
+{
+	static private final String CONFIG = "<configuration><reader type=\"tok\"><column index=\"1\" field=\"form\"/></reader></configuration>";
+	static private final String INPUT  = "John\nbought\na\ncar\n\nMary\nsold\nit\n\n";
+	
+	@Test
+	public void testDecode() throws Exception
+	{
+		final NLPDecodeServer server = new NLPDecodeServer(new POSDecoder(), getConfig(), 2, 2);
+		server.bind(0);
+		
+		Thread thread = new Thread()
+		{
+			@Override
+			public void run()
+			{
+				server.serve();
+			}
+		};
+		
+		thread.start();
+		
+		NLPDecodeClient client = new NLPDecodeClient(server.getPort());
+		String gold = decode(INPUT);
+		
+		assertEquals(NLPDecodeServer.STATUS_OK, client.health());
+		assertEquals(gold, new String(client.decode(INPUT.getBytes("UTF-8")), "UTF-8"));
+		assertEquals(gold, new String(client.decode(INPUT.getBytes("UTF-8")), "UTF-8"));
+		
+		String stats = client.stats();
+		assertTrue(stats.contains("requests=4\n"));
+		assertTrue(stats.contains("sentences=4\n"));
+		assertTrue(stats.contains("tokens=14\n"));
+		
+		client.close();
+		server.close();
+		thread.join();
+	}
+	
+	@Test(timeout=30000)
+	public void testIdleTimeout() throws Exception
+	{
+		final NLPDecodeServer server = new NLPDecodeServer(new POSDecoder(), getConfig(), 1, 1);
+		server.setIdleTimeout(200);
+		server.bind(0);
+		
+		Thread thread = new Thread()
+		{
+			@Override
+			public void run()
+			{
+				server.serve();
+			}
+		};
+		
+		thread.start();
+		
+		NLPDecodeClient idle = new NLPDecodeClient(server.getPort());
+		assertEquals(NLPDecodeServer.STATUS_OK, idle.health());
+		
+		// the only worker is released once the idle connection times out
+		NLPDecodeClient client = new NLPDecodeClient(server.getPort());
+		assertEquals(NLPDecodeServer.STATUS_OK, client.health());
+		assertTrue(client.stats().contains("timeouts=1\n"));
+		
+		try
+		{
+			idle.health();
+			assertTrue(false);
+		}
+		catch (IOException e) {}
+		
+		idle.close();
+		client.close();
+		server.close();
+		thread.join();
+	}
+	
+	private Element getConfig() throws Exception
+	{
+		return UTXml.getDocumentElement(new ByteArrayInputStream(CONFIG.getBytes("UTF-8")));
+	}
+	
+	private String decode(String input) throws Exception
+	{
+		NLPDecoder decoder = new POSDecoder();
+		decoder.init(getConfig());
+		decoder.setComponents(new AbstractComponent[0]);
+		
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		PrintStream fout = new PrintStream(bout, false, "UTF-8");
+		
+		decoder.decode(new BufferedReader(new InputStreamReader(new ByteArrayInputStream(input.getBytes("UTF-8")), "UTF-8")), fout);
+		fout.close();
+		
+		return bout.toString("UTF-8");
+	}
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.nlp.decode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.clearnlp.component.AbstractComponent;
+import com.clearnlp.component.morph.DefaultMPAnalyzer;
+import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.nlp.NLPGetter;
+import com.clearnlp.nlp.NLPResources;
+import com.clearnlp.util.UTXml;
+import com.google.common.collect.Lists;
+
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class NLPDecoderTest
+{
+	@Test
+	public void testDecodeParallel()
+	{
+		AbstractComponent[] components = {new AbstractComponent()
+		{
+			Random rand = new Random(0);
+			
+			@Override
+			public void process(DEPTree tree)
+			{
+				int i, size = tree.size();
+				
+				try
+				{
+					Thread.sleep(rand.nextInt(3));
+				}
+				catch (InterruptedException e) {e.printStackTrace();}
+				
+				for (i=1; i<size; i++)
+					tree.get(i).pos = tree.get(i).form.toUpperCase();
+			}
+		}};
+		
+		NLPDecoder decoder = new POSDecoder();
+		String gold = decode(decoder, components);
+		
+		decoder.setThreads(4);
+		assertEquals(gold, decode(decoder, components));
+	}
+	
+	@Test
+	public void testDecodeParallelReaderError() throws Exception
+	{
+		AbstractComponent[] components = {new AbstractComponent()
+		{
+			@Override
+			public void process(DEPTree tree) {}
+		}};
+		
+		final Iterator<DEPTree> trees = getTrees().iterator();
+		Iterator<DEPTree> failing = new Iterator<DEPTree>()
+		{
+			int count = 0;
+			
+			@Override
+			public boolean hasNext()
+			{
+				if (++count > 10) throw new IllegalStateException("reader");
+				return trees.hasNext();
+			}
+			
+			@Override
+			public DEPTree next()
+			{
+				return trees.next();
+			}
+			
+			@Override
+			public void remove() {}
+		};
+		
+		NLPDecoder decoder = new POSDecoder();
+		decoder.setThreads(4);
+		
+		try
+		{
+			decoder.decode(failing, new PrintStream(new ByteArrayOutputStream()), components);
+			assertTrue(false);
+		}
+		catch (IllegalStateException e)
+		{
+			assertEquals("reader", e.getMessage());
+		}
+		
+		for (Thread thread : Thread.getAllStackTraces().keySet())
+		{
+			if (thread.getName().equals("NLPDecoder-writer"))
+			{
+				thread.join(1000);
+				assertTrue(!thread.isAlive());
+			}
+		}
+	}
+	
+	@Test
+	public void testInitFutureComponents() throws Exception
+	{
+		String xml = "<configuration><language>xx</language><model>none</model>"
+		           + "<reader type=\"pos\"><column index=\"1\" field=\"form\"/><column index=\"2\" field=\"pos\"/></reader>"
+		           + "</configuration>";
+		
+		NLPDecoder decoder = new MorphDecoder();
+		
+		try
+		{
+			decoder.init(UTXml.getDocumentElement(new ByteArrayInputStream(xml.getBytes())));
+			AbstractComponent[] components = decoder.getComponents();
+			
+			assertEquals(1, components.length);
+			assertTrue(!(components[0] instanceof DefaultMPAnalyzer));
+			
+			DEPTree tree = NLPGetter.toDEPTree(Lists.newArrayList("Sentences", "Are"));
+			components[0].process(tree);
+			assertEquals("sentences", tree.get(1).lemma);
+			assertEquals("are", tree.get(2).lemma);
+		}
+		finally
+		{
+			NLPResources.remove(NLPResources.TYPE_MP_ANALYZER, "xx");
+		}
+	}
+	
+	private List<DEPTree> getTrees()
+	{
+		List<DEPTree> trees = Lists.newArrayList();
+		int i;
+		
+		for (i=0; i<100; i++)
+			trees.add(NLPGetter.toDEPTree(Lists.newArrayList("sentence", Integer.toString(i))));
+		
+		return trees;
+	}
+	
+	private String decode(NLPDecoder decoder, AbstractComponent[] components)
+	{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		PrintStream fout = new PrintStream(bout);
+		
+		decoder.decode(getTrees().iterator(), fout, components);
+		fout.close();
+		
+		return bout.toString();
+	}
+}
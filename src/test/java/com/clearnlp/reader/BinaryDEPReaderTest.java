@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.clearnlp.coreference.Mention;
+import com.clearnlp.dependency.DEPTree;
+import com.clearnlp.dependency.factory.BinaryDEPTreeDatum;
+import com.clearnlp.dependency.factory.BinaryDEPTreeDatumFactory;
+import com.clearnlp.dependency.factory.DefaultDEPNodeDatumFactory;
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class BinaryDEPReaderTest
+{
+	static private final String CONLL =
+		"1\tJohn\tjohn\tNNP\t_\t2\tnsubj\t2:A0\t2:A0\tB-PERSON\t(1)\tNNP\n" +
+		"2\tloves\tlove\tVBZ\tpb=love.01\t0\troot\t_\t_\tO\t-\tVBZ\n" +
+		"3\tMarías\tmaría\tNNP\t_\t2\tdobj\t2:A1;4:A0\t2:A1=PRD\tB-PERSON\t(2\tNN\n" +
+		"4\t’s\t’s\tPOS\tp=1|q=2\t3\tpossessive\t_\t_\tI-PERSON\t2)\tPOS\n" +
+		"\n" +
+		"1\tIt\tit\tPRP\t_\t_\t_\t_\t_\tO\t(1)\tPRP\n" +
+		"2\trains\train\tVBZ\t_\t0\troot\t_\t_\tO\t-\tVBZ\n";
+	
+	@Test
+	public void testBinaryDEPReader() throws Exception
+	{
+		JointReader srl = new JointReader(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		srl.initGoldPOSTag(11);
+		
+		assertEquals(read(srl, null, 0), read(srl, convert(srl), 0));
+		
+		JointReader dep = new JointReader(0, 1, 2, 3, 4, 5, 6);
+		assertEquals(read(dep, null, 1), read(dep, convert(dep), 1));
+		
+		JointReader pos = new JointReader(1, 3);
+		assertEquals(read(pos, null, 2), read(pos, convert(pos), 2));
+	}
+	
+	@Test
+	public void testDEPNodeData() throws Exception
+	{
+		JointReader reader = new JointReader(0, 1, 2, 3, 4, 5, 6, -1, 8, 9, -1);
+		BinaryDEPTreeDatumFactory factory = new BinaryDEPTreeDatumFactory();
+		reader.open(new BufferedReader(new StringReader(CONLL)));
+		DEPTree tree = reader.next();
+		
+		BinaryDEPTreeDatum datum = (BinaryDEPTreeDatum)tree.getDEPTreeDatum(factory, new DefaultDEPNodeDatumFactory());
+		assertEquals(4, datum.size());
+		assertEquals(tree.toStringSRL(), DEPTree.buildFrom(datum).toStringSRL());
+		assertEquals(tree.toStringSRL(), datum.toDEPTree().toStringSRL());
+	}
+	
+	private byte[] convert(JointReader reader) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		reader.open(new BufferedReader(new StringReader(CONLL)));
+		assertEquals(2, BinaryDEPReader.convert(reader, out));
+		return out.toByteArray();
+	}
+	
+	/** @param type 0: all fields, 1: dependency fields, 2: part-of-speech fields. */
+	private List<String> read(JointReader joint, byte[] binary, int type)
+	{
+		AbstractReader<DEPTree> reader;
+		List<String> trees = new ArrayList<String>();
+		StringBuilder build;
+		DEPTree tree;
+		
+		if (binary == null)
+		{
+			joint.open(new BufferedReader(new StringReader(CONLL)));
+			reader = joint;
+		}
+		else
+		{
+			BinaryDEPReader fin = new BinaryDEPReader();
+			fin.open(new ByteArrayInputStream(binary));
+			reader = fin;
+		}
+		
+		while ((tree = reader.next()) != null)
+		{
+			build = new StringBuilder();
+			build.append(tree.get(0).getXHeads());
+			build.append(tree.get(1).getSHeads());
+			
+			switch (type)
+			{
+			case 0 : build.append(tree.toString());    break;
+			case 1 : build.append(tree.toStringDEP()); break;
+			default: build.append(tree.toStringPOS());
+			}
+			
+			if (tree.getMentions() != null)
+			{
+				for (Mention mention : tree.getMentions())
+					build.append(" "+mention.id+":"+mention.beginIndex+"-"+mention.endIndex);
+			}
+			
+			trees.add(build.toString());
+		}
+		
+		if (binary != null)
+			assertNull(reader.next());
+		
+		return trees;
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.clearnlp.coreference.Mention;
+import com.clearnlp.dependency.DEPLib;
+import com.clearnlp.dependency.DEPTree;
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class MappedJointReaderTest
+{
+	static private final String CONLL =
+		"\n \t\n" +
+		"1\tJohn\tjohn\tNNP\t_\t2\tnsubj\t2:A0\t2:A0\tB-PERSON\t(1)\tNNP\n" +
+		"2\tloves\tlove\tVBZ\tpb=love.01\t0\troot\t_\t_\tO\t-\tVBZ\n" +
+		"3\tMarías\tmaría\tNNP\t_\t2\tdobj\t2:A1;4:A0\t2:A1\tB-PERSON\t(2\tNN\n" +
+		"4\t’s\t’s\tPOS\tp=1|q=2\t3\tpossessive\t_\t_\tI-PERSON\t2)\tPOS\r\n" +
+		"\r\n\n" +
+		"1\tIt\tit\tPRP\t_\t_\t_\t_\t_\tO\t(1)\tPRP\n" +
+		"2\trains\train\tVBZ\t_\t0\troot\t_\t_\tO\t-\tVBZ\n" +
+		"\n" +
+		"1\tlast\tlast\tJJ\t_\t0\troot\t_\t_\tO\t-\tJJ";
+	
+	@Test
+	public void testMappedJointReader() throws Exception
+	{
+		List<String> gold = read(createReader(), CONLL);
+		byte[] bytes = CONLL.getBytes("UTF-8");
+		MappedJointReader reader;
+		
+		assertEquals(3, gold.size());
+		
+		reader = createReader();
+		reader.open(ByteBuffer.wrap(bytes));
+		assertEquals(gold, read(reader));
+		
+		reader = createReader();
+		reader.open((ByteBuffer)ByteBuffer.allocateDirect(bytes.length).put(bytes).flip());
+		assertEquals(gold, read(reader));
+		
+		File file = File.createTempFile("mapped", ".cnlp");
+		file.deleteOnExit();
+		FileOutputStream fout = new FileOutputStream(file);
+		fout.write(bytes);
+		fout.close();
+		
+		// windows smaller than a line
+		for (int window : new int[]{3, 16, 64, bytes.length})
+		{
+			RandomAccessFile fin = new RandomAccessFile(file, "r");
+			reader = createReader();
+			reader.setWindowSize(window);
+			reader.open(fin.getChannel());
+			assertEquals(gold, read(reader));
+			fin.close();
+		}
+		
+		reader = createReader();
+		reader.open(new BufferedReader(new StringReader(CONLL)));
+		assertEquals(gold, read(reader));
+	}
+	
+	@Test
+	public void testSharedFeats() throws Exception
+	{
+		MappedJointReader reader = new MappedJointReader(0, 1, 2, 3, 4, 5, 6);
+		reader.open(ByteBuffer.wrap("1\ta\ta\tDT\t_\t2\tdet\n2\tb\tb\tNN\t_\t0\troot\n".getBytes("UTF-8")));
+		DEPTree tree = reader.next();
+		
+		tree.get(1).addFeat("k", "v");
+		assertEquals("k=v", tree.get(1).getFeats().toString());
+		assertEquals("_", tree.get(2).getFeats().toString());
+		assertNull(reader.next());
+	}
+	
+	private MappedJointReader createReader()
+	{
+		MappedJointReader reader = new MappedJointReader(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		reader.initGoldPOSTag(11);
+		return reader;
+	}
+	
+	private List<String> read(JointReader reader, String text)
+	{
+		reader.open(new BufferedReader(new StringReader(text)));
+		return read(reader);
+	}
+	
+	private List<String> read(JointReader reader)
+	{
+		List<String> trees = new ArrayList<String>();
+		StringBuilder build;
+		DEPTree tree;
+		
+		while ((tree = reader.next()) != null)
+		{
+			build = new StringBuilder();
+			build.append(tree.toString());
+			build.append(tree.get(1).getFeat(DEPLib.FEAT_GPOS));
+			
+			for (Mention mention : tree.getMentions())
+			{
+				build.append(" ");
+				build.append(mention.id+":"+mention.beginIndex+"-"+mention.endIndex);
+			}
+			
+			trees.add(build.toString());
+		}
+		
+		return trees;
+	}
+}
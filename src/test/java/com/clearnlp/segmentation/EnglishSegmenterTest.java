@@ -40,17 +40,23 @@
  */
 package com.clearnlp.segmentation;
 
+import static org.junit.Assert.assertEquals;
+
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.StringReader;
+import java.util.Iterator;
 import java.util.List;
 import java.util.zip.ZipFile;
 
 import org.junit.Test;
 
 import com.clearnlp.dictionary.DTLib;
+import com.clearnlp.tokenization.AbstractTokenizer;
 import com.clearnlp.tokenization.EnglishTokenizer;
 import com.clearnlp.util.UTArray;
+import com.clearnlp.util.pair.StringBooleanPair;
+import com.google.common.collect.Lists;
 
 /**
  * @since 1.1.0
@@ -69,4 +75,33 @@ public class EnglishSegmenterTest
 		for (List<String> sentence : tok.getSentences(reader))
 			System.out.println(UTArray.join(sentence, " "));
 	}
+	
+	@Test
+	public void testEnglishSegmenterIterator() throws Exception
+	{
+		AbstractTokenizer tokenizer = new AbstractTokenizer()
+		{
+			@Override
+			public List<StringBooleanPair> getTokenList(String str)
+			{
+				List<StringBooleanPair> tokens = Lists.newArrayList();
+				
+				for (String token : str.split(" "))
+					if (!token.isEmpty()) tokens.add(new StringBooleanPair(token, false));
+				
+				return tokens;
+			}
+		};
+		
+		String src = "He said , \" I like it . \" Then\nhe left ! ( Really ?\n) Yes .\n\nNo end";
+		EnglishSegmenter seg = new EnglishSegmenter(tokenizer);
+		List<List<String>> gold = seg.getSentences(new BufferedReader(new StringReader(src)));
+		Iterator<List<String>> it = seg.getSentenceIterator(new BufferedReader(new StringReader(src)));
+		
+		for (List<String> sentence : gold)
+			assertEquals(sentence, it.next());
+		
+		assertEquals(false, it.hasNext());
+		assertEquals(5, gold.size());
+	}
 }
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2009/09-2012/08, Regents of the University of Colorado
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/**
+ * Copyright 2012/09-2013/04, 2013/11-Present, University of Massachusetts Amherst
+ * Copyright 2013/05-2013/10, IPSoft Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package com.clearnlp.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import org.junit.Test;
+
+/** @author Jinho D. Choi ({@code jdchoi77@gmail.com}) */
+public class UTF8SinkTest
+{
+	@Test
+	public void testAppend() throws Exception
+	{
+		String s = "a\tß€🚗\uD83Dx\uDE97 -2147483648 -12 0 345";
+		UTF8Sink sink = new UTF8Sink(1);
+		
+		sink.append("a\tß€");
+		sink.append('\uD83D');
+		sink.append('\uDE97');
+		sink.append("\uD83Dx\uDE97", 0, 3);
+		sink.append(' ').append(Integer.MIN_VALUE).append(' ').append(-12).append(' ').append(0).append(' ').append(345);
+		
+		assertArrayEquals(s.getBytes("UTF-8"), sink.toByteArray());
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		sink.writeTo(out);
+		assertArrayEquals(s.getBytes("UTF-8"), out.toByteArray());
+		
+		sink.clear();
+		sink.append("\uD83D");
+		assertEquals("?", new String(sink.toByteArray(), "UTF-8"));
+		
+		ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+		sink = new UTF8Sink(buffer);
+		sink.append("abc");
+		assertEquals(3, buffer.position());
+		
+		try
+		{
+			sink.append("de");
+			throw new AssertionError();
+		}
+		catch (BufferOverflowException e) {}
+	}
+	
+	@Test
+	public void testGrowMultiByte() throws Exception
+	{
+		assertArrayEquals("éaaaaaaaaaaa".getBytes("UTF-8"), new UTF8Sink(12).append("éaaaaaaaaaaa").toByteArray());
+		
+		String[] tokens = {"élan", "a", "€uro", "🚗x", "bc"};
+		StringBuilder build = new StringBuilder();
+		int i, pad;
+		
+		for (pad=0; pad<40; pad++)
+		{
+			UTF8Sink sink = new UTF8Sink(16);
+			build.setLength(0);
+			
+			for (i=0; i<pad; i++)
+			{
+				sink.append('p');
+				build.append('p');
+			}
+			
+			for (i=0; i<200; i++)
+			{
+				sink.append(tokens[i % tokens.length]).append('\t');
+				build.append(tokens[i % tokens.length]).append('\t');
+			}
+			
+			assertArrayEquals(build.toString().getBytes("UTF-8"), sink.toByteArray());
+		}
+	}
+	
+	@Test
+	public void testOffsetBuffer() throws Exception
+	{
+		byte[] expected = "ß€x".getBytes("UTF-8");
+		
+		for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(16), ByteBuffer.allocateDirect(16), ByteBuffer.wrap(new byte[20], 2, 16).slice()})
+		{
+			buffer.put("head".getBytes("UTF-8"));
+			UTF8Sink sink = new UTF8Sink(buffer);
+			sink.append("ß€x");
+			
+			assertEquals(expected.length, sink.length());
+			assertArrayEquals(expected, sink.toByteArray());
+			
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			sink.writeTo(out);
+			assertArrayEquals(expected, out.toByteArray());
+			
+			out.reset();
+			sink.writeTo(Channels.newChannel(out));
+			assertArrayEquals(expected, out.toByteArray());
+			
+			sink.clear();
+			assertEquals(4, buffer.position());
+			sink.append('y');
+			assertArrayEquals(new byte[]{'y'}, sink.toByteArray());
+		}
+	}
+}